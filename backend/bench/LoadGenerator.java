@@ -0,0 +1,791 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Open-model HTTP load generator for the task API with per-endpoint latency histograms.
+ *
+ * Either starts the backend jar itself on in-memory H2 with the loadtest profile
+ * (--start), or targets a running instance (--url). Logs in N synthetic users
+ * (loadtest-000000 ...) through /api/auth/login, then issues requests at a fixed
+ * arrival rate with a configurable mix of list, filter, stats, create, update and
+ * delete calls, each on its own virtual thread (platform threads before Java 21).
+ *
+ * Logins go through the server's login rate limit (ratelimit.login.*, 5 burst then
+ * one per 5 s per client address). --start turns rate limiting off; with --url the
+ * generator paces its logins to the limiter's Retry-After and keeps the tokens in
+ * --token-file, so later runs against the same server skip the logins.
+ *
+ * Open model: request i is due at its scheduled arrival time whether or not earlier
+ * requests have completed, and its response time is measured from that intended
+ * start. A stalled server therefore shows up as the queueing delay real clients
+ * would see, instead of being hidden by clients that stop sending while they wait
+ * (coordinated omission). Service time (from the moment the request was sent) is
+ * reported alongside for comparison.
+ *
+ * Latencies are recorded in log-linear histograms with 3 significant digits
+ * (the HdrHistogram layout); --hgrm DIR also writes each endpoint's percentile
+ * distribution in HdrHistogram's .hgrm text format for plotting.
+ *
+ * Self-contained (JDK only), run as a single-file program:
+ *   java bench/LoadGenerator.java --start [options]
+ *   java bench/LoadGenerator.java --url http://localhost:8080 [options]
+ * See run-load-test.sh and --help.
+ */
+public class LoadGenerator {
+
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+    // LoadTestDataGenerator's completion lines, logged after the context has started
+    private static final Pattern GENERATED =
+            Pattern.compile("Generated \\d+ users and \\d+ tasks|Load test data already present");
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+    private static final String[] STATUSES = {"TODO", "IN_PROGRESS", "DONE"};
+    private static final String[] PRIORITIES = {"LOW", "MEDIUM", "HIGH"};
+    private static final List<String> ENDPOINTS = List.of("list", "filter", "stats", "create", "update", "delete");
+    // Ids remembered per user for update/delete; loaded at login with ?fields=id and fed by creates
+    private static final int IDS_PER_USER = 200;
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        if (options.has("help")) {
+            usage(System.out);
+            return;
+        }
+        Process app = null;
+        String baseUrl = options.get("url", null);
+        if (options.has("start")) {
+            int port = options.getInt("port", 18095);
+            app = startApp(options, port);
+            baseUrl = "http://localhost:" + port;
+        }
+        if (baseUrl == null) {
+            usage(System.err);
+            System.exit(2);
+        }
+        try {
+            new LoadGenerator(options, baseUrl).run();
+        } finally {
+            if (app != null) {
+                app.destroy();
+                app.waitFor(30, TimeUnit.SECONDS);
+            }
+        }
+    }
+
+    private static void usage(PrintStream out) {
+        out.println("""
+                Usage: java bench/LoadGenerator.java (--start | --url URL) [options]
+
+                Target:
+                  --start                 start target/task-tracker-backend-*.jar on H2 (loadtest profile)
+                  --url URL               target a running backend instead
+                  --port N                port for --start (default 18095)
+                  --app-jar PATH          jar for --start (default: newest target/task-tracker-backend-*.jar)
+                  --app-arg ARG           extra application argument for --start, repeatable
+                                          (e.g. --app-arg=--loadtest.users=2000)
+
+                Users:
+                  --users N               synthetic users to log in (default 50)
+                  --user-format FMT       username pattern (default loadtest-%06d)
+                  --password PW           password of the synthetic users (default loadtest123)
+                  --token-file PATH       reuse and save login tokens (default with --url:
+                                          target/load-test-tokens.properties)
+                  --login-timeout S       give up logging in after S seconds (default 600)
+
+                  A running server (--url) rate-limits logins per client address (by default 5 at
+                  once, then one every 5 s), so the first run logs in slowly; start it with
+                  --ratelimit.enabled=false or a larger ratelimit.login.* to avoid that. Tokens
+                  saved in the token file are reused until the server rejects them.
+
+                Load:
+                  --rate N                total arrivals per second (default 200)
+                  --duration S            measured seconds (default 30)
+                  --warmup S              unrecorded seconds at the same rate first (default 10)
+                  --mix SPEC              endpoint weights (default list=40,filter=20,stats=20,create=10,update=5,delete=5)
+                  --arrival poisson|uniform  inter-arrival distribution (default poisson)
+                  --max-in-flight N       requests in flight before arrivals are dropped (default 10000)
+                  --timeout S             request timeout (default 30)
+                  --seed N                random seed (default 42)
+
+                Output:
+                  --hgrm DIR              write <endpoint>.hgrm percentile distributions to DIR
+                """);
+    }
+
+    private final Options options;
+    private final String baseUrl;
+    private final HttpClient http;
+    private final Duration timeout;
+    private final Map<String, EndpointStats> stats = new LinkedHashMap<>();
+    private final List<Session> sessions = new ArrayList<>();
+    // Shared by all login threads: no login is sent before this (System.nanoTime) after a 429
+    private final AtomicLong loginNotBefore = new AtomicLong(System.nanoTime());
+
+    private LoadGenerator(Options options, String baseUrl) {
+        this.options = options;
+        this.baseUrl = baseUrl;
+        this.timeout = Duration.ofSeconds(options.getInt("timeout", 30));
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        for (String endpoint : ENDPOINTS) {
+            stats.put(endpoint, new EndpointStats(endpoint));
+        }
+    }
+
+    private void run() throws Exception {
+        double rate = options.getDouble("rate", 200);
+        int duration = options.getInt("duration", 30);
+        int warmup = options.getInt("warmup", 10);
+        boolean poisson = !"uniform".equals(options.get("arrival", "poisson"));
+        int maxInFlight = options.getInt("max-in-flight", 10_000);
+        String[] mix = mix(options.get("mix", "list=40,filter=20,stats=20,create=10,update=5,delete=5"));
+        SplittableRandom random = new SplittableRandom(options.getInt("seed", 42));
+
+        ExecutorService executor = newExecutor();
+        try {
+            login(executor);
+            System.out.printf(Locale.ROOT, "%n== %s: %.0f req/s (%s arrivals), %ds + %ds warm-up, %d users, %s threads ==%n",
+                    baseUrl, rate, poisson ? "Poisson" : "uniform", duration, warmup, sessions.size(),
+                    VIRTUAL ? "virtual" : "platform");
+
+            Semaphore inFlight = new Semaphore(maxInFlight);
+            AtomicLong dropped = new AtomicLong();
+            long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+            long measureFrom = start + TimeUnit.SECONDS.toNanos(warmup);
+            long end = measureFrom + TimeUnit.SECONDS.toNanos(duration);
+            double meanGapNanos = 1e9 / rate;
+            double next = start;
+            while (next < end) {
+                long due = (long) next;
+                long wait = due - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                boolean recorded = due >= measureFrom;
+                String endpoint = mix[random.nextInt(mix.length)];
+                Session session = sessions.get(random.nextInt(sessions.size()));
+                long seed = random.nextLong();
+                if (!inFlight.tryAcquire()) {
+                    if (recorded) {
+                        dropped.incrementAndGet();
+                    }
+                } else {
+                    executor.execute(() -> {
+                        try {
+                            call(endpoint, session, due, recorded, new SplittableRandom(seed));
+                        } finally {
+                            inFlight.release();
+                        }
+                    });
+                }
+                next += poisson ? -Math.log(1 - random.nextDouble()) * meanGapNanos : meanGapNanos;
+            }
+            // Let in-flight requests finish; they were due inside the measured window
+            if (!inFlight.tryAcquire(maxInFlight, timeout.toSeconds() + 5, TimeUnit.SECONDS)) {
+                System.out.printf(Locale.ROOT, "%nWARNING: %d requests still in flight after %ds; they are missing "
+                        + "from the report below%n", maxInFlight - inFlight.availablePermits(), timeout.toSeconds() + 5);
+            }
+            report(duration, dropped.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // ---- requests --------------------------------------------------------------------------
+
+    private void call(String endpoint, Session session, long intendedStart, boolean recorded, SplittableRandom random) {
+        EndpointStats endpointStats = stats.get(endpoint);
+        HttpRequest request = request(endpoint, session, random);
+        if (request == null) {
+            if (recorded) {
+                endpointStats.skipped.incrementAndGet();
+            }
+            return;
+        }
+        long sent = System.nanoTime();
+        boolean ok;
+        try {
+            HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+            ok = response.statusCode() < 400;
+            if (ok && "create".equals(endpoint)) {
+                Matcher matcher = ID.matcher(response.body());
+                if (matcher.find()) {
+                    session.remember(Long.parseLong(matcher.group(1)));
+                }
+            }
+        } catch (IOException e) {
+            ok = false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        long done = System.nanoTime();
+        if (recorded) {
+            endpointStats.record(done - intendedStart, done - sent, ok);
+        }
+    }
+
+    private HttpRequest request(String endpoint, Session session, SplittableRandom random) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder()
+                .timeout(timeout)
+                .header("Authorization", "Bearer " + session.token);
+        switch (endpoint) {
+            case "list":
+                return builder.uri(URI.create(baseUrl + "/api/tasks")).GET().build();
+            case "filter":
+                String filter = random.nextBoolean()
+                        ? "status=" + STATUSES[random.nextInt(STATUSES.length)]
+                        : "priority=" + PRIORITIES[random.nextInt(PRIORITIES.length)];
+                return builder.uri(URI.create(baseUrl + "/api/tasks?" + filter)).GET().build();
+            case "stats":
+                return builder.uri(URI.create(baseUrl + "/api/tasks/stats")).GET().build();
+            case "create":
+                return builder.uri(URI.create(baseUrl + "/api/tasks"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(taskJson(random)))
+                        .build();
+            case "update": {
+                Long id = session.ids.peekLast();
+                return id == null ? null : builder.uri(URI.create(baseUrl + "/api/tasks/" + id))
+                        .header("Content-Type", "application/json")
+                        .PUT(HttpRequest.BodyPublishers.ofString(taskJson(random)))
+                        .build();
+            }
+            case "delete": {
+                Long id = session.ids.pollFirst();
+                return id == null ? null : builder.uri(URI.create(baseUrl + "/api/tasks/" + id)).DELETE().build();
+            }
+            default:
+                throw new IllegalArgumentException(endpoint);
+        }
+    }
+
+    private static String taskJson(SplittableRandom random) {
+        return "{\"title\":\"load test " + random.nextInt(1_000_000) + "\","
+                + "\"description\":\"created by LoadGenerator\","
+                + "\"status\":\"" + STATUSES[random.nextInt(STATUSES.length)] + "\","
+                + "\"priority\":\"" + PRIORITIES[random.nextInt(PRIORITIES.length)] + "\"}";
+    }
+
+    // ---- setup -----------------------------------------------------------------------------
+
+    private void login(ExecutorService executor) throws Exception {
+        int users = options.getInt("users", 50);
+        String format = options.get("user-format", "loadtest-%06d");
+        String password = options.get("password", "loadtest123");
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(options.getInt("login-timeout", 600));
+        String tokenFile = options.get("token-file", options.has("start") ? null : "target/load-test-tokens.properties");
+        Properties tokens = loadTokens(tokenFile);
+        Map<String, String> issued = new ConcurrentHashMap<>();
+        List<Future<Session>> pending = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            String username = String.format(format, i);
+            String cached = tokens.getProperty(baseUrl + " " + username);
+            pending.add(executor.submit(() -> {
+                if (cached != null) {
+                    Session session = new Session(cached);
+                    if (session.loadIds(http, baseUrl, timeout)) {
+                        issued.put(username, cached);
+                        return session;
+                    }
+                }
+                String token = login(username, password, deadline);
+                issued.put(username, token);
+                Session session = new Session(token);
+                session.loadIds(http, baseUrl, timeout);
+                return session;
+            }));
+        }
+        try {
+            for (Future<Session> session : pending) {
+                sessions.add(session.get());
+            }
+        } finally {
+            // Keep what was obtained even if some logins failed, so a rerun continues from there
+            issued.forEach((username, token) -> tokens.setProperty(baseUrl + " " + username, token));
+            saveTokens(tokenFile, tokens);
+        }
+    }
+
+    private static Properties loadTokens(String file) throws IOException {
+        Properties tokens = new Properties();
+        if (file != null && Files.exists(Path.of(file))) {
+            try (var in = Files.newBufferedReader(Path.of(file))) {
+                tokens.load(in);
+            }
+        }
+        return tokens;
+    }
+
+    private static void saveTokens(String file, Properties tokens) throws IOException {
+        if (file == null || tokens.isEmpty()) {
+            return;
+        }
+        Path path = Path.of(file);
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        try (var out = Files.newBufferedWriter(path)) {
+            tokens.store(out, "LoadGenerator login tokens, keyed by base URL and username");
+        }
+    }
+
+    // The login rate limit (429 + Retry-After) and the bounded BCrypt pool (429/503) both ask us to
+    // back off. After a 429 every login thread waits out the Retry-After, so the generator sends
+    // logins at the rate the limiter lets through instead of burning retries against it.
+    private String login(String username, String password, long deadline) throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"username\":\"" + username + "\",\"password\":\"" + password + "\"}"))
+                .build();
+        String failure = null;
+        for (int attempt = 0; System.nanoTime() < deadline; attempt++) {
+            long wait = loginNotBefore.get() - System.nanoTime();
+            if (wait > 0) {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            } else if (attempt > 0) {
+                Thread.sleep(Math.min(5_000, 100L << Math.min(attempt, 6)));
+            }
+            try {
+                HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+                int status = response.statusCode();
+                Matcher matcher = TOKEN.matcher(response.body());
+                if (status == 200 && matcher.find()) {
+                    return matcher.group(1);
+                }
+                failure = "HTTP " + status;
+                if (status == 429) {
+                    long retryAfter = response.headers().firstValueAsLong("Retry-After").orElse(1);
+                    long notBefore = System.nanoTime() + TimeUnit.SECONDS.toNanos(retryAfter);
+                    loginNotBefore.accumulateAndGet(notBefore, Math::max);
+                } else if (status != 503) {
+                    break;
+                }
+            } catch (IOException e) {
+                failure = e.toString();
+            }
+        }
+        throw new IllegalStateException("Login failed for " + username + ": " + failure
+                + (failure != null && failure.equals("HTTP 429")
+                ? " (login rate limit; see --help on logging in to a running server)" : ""));
+    }
+
+    private static Process startApp(Options options, int port) throws Exception {
+        String jar = options.get("app-jar", null);
+        if (jar == null) {
+            File[] jars = new File("target").listFiles(
+                    (dir, name) -> name.startsWith("task-tracker-backend-") && name.endsWith(".jar"));
+            if (jars == null || jars.length == 0) {
+                throw new IllegalStateException("No target/task-tracker-backend-*.jar; run mvn package first");
+            }
+            Arrays.sort(jars, (a, b) -> Long.compare(b.lastModified(), a.lastModified()));
+            jar = jars[0].getPath();
+        }
+        String java = ProcessHandle.current().info().command().orElse("java");
+        List<String> command = new ArrayList<>(List.of(java, "-Xmx1g", "-jar", jar,
+                "--server.port=" + port,
+                "--spring.profiles.active=loadtest",
+                // Enough data to be realistic while keeping generation under a minute on H2
+                "--loadtest.users=" + Math.max(200, options.getInt("users", 50)),
+                "--loadtest.power-user-tasks=20000",
+                "--ratelimit.enabled=false"));
+        command.addAll(options.all("app-arg"));
+        Path log = Path.of("target", "loadgen-app.log");
+        Files.createDirectories(log.getParent());
+        System.out.println("Starting " + jar + " on port " + port + " (log: " + log + ")");
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        Runtime.getRuntime().addShutdownHook(new Thread(process::destroy));
+
+        // The port opens, and "Started" is logged, before LoadTestDataGenerator (a CommandLineRunner) has run
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Backend exited during startup; see " + log);
+            }
+            if (GENERATED.matcher(Files.readString(log)).find()) {
+                return process;
+            }
+            Thread.sleep(500);
+        }
+        process.destroy();
+        throw new IllegalStateException("Backend did not start within 10 minutes; see " + log);
+    }
+
+    private static final boolean VIRTUAL;
+    private static final Method NEW_VIRTUAL_EXECUTOR;
+
+    static {
+        Method method = null;
+        try {
+            method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            // Java 17-20: fall back to platform threads
+        }
+        NEW_VIRTUAL_EXECUTOR = method;
+        VIRTUAL = method != null;
+    }
+
+    // One virtual thread per request on Java 21+; the same shape on an unbounded platform pool otherwise
+    private static ExecutorService newExecutor() throws Exception {
+        if (NEW_VIRTUAL_EXECUTOR != null) {
+            return (ExecutorService) NEW_VIRTUAL_EXECUTOR.invoke(null);
+        }
+        return Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static String[] mix(String spec) {
+        List<String> slots = new ArrayList<>();
+        for (String part : spec.split(",")) {
+            String[] pair = part.trim().split("=");
+            if (pair.length != 2 || !ENDPOINTS.contains(pair[0])) {
+                throw new IllegalArgumentException("Bad --mix entry '" + part + "'; endpoints: " + ENDPOINTS);
+            }
+            for (int i = Integer.parseInt(pair[1]); i > 0; i--) {
+                slots.add(pair[0]);
+            }
+        }
+        if (slots.isEmpty()) {
+            throw new IllegalArgumentException("--mix has no positive weights");
+        }
+        return slots.toArray(new String[0]);
+    }
+
+    // ---- reporting -------------------------------------------------------------------------
+
+    private void report(int seconds, long dropped) throws IOException {
+        String header = "%-8s %8s %9s %7s %7s %9s %9s %9s %9s %9s%n";
+        String row = "%-8s %8d %9.1f %7d %7d %9.2f %9.2f %9.2f %9.2f %9.2f%n";
+        for (boolean corrected : new boolean[]{true, false}) {
+            System.out.println();
+            System.out.println(corrected
+                    ? "Response time, ms (from intended start: includes queueing, corrected for coordinated omission)"
+                    : "Service time, ms (from send: what a closed-loop client would have reported)");
+            System.out.printf(Locale.ROOT, header,
+                    "endpoint", "count", "req/s", "errors", "skipped", "p50", "p90", "p99", "p99.9", "max");
+            Histogram total = new Histogram();
+            long totalErrors = 0;
+            long totalSkipped = 0;
+            for (EndpointStats endpoint : stats.values()) {
+                Histogram histogram = corrected ? endpoint.response : endpoint.service;
+                total.add(histogram);
+                totalErrors += endpoint.errors.get();
+                totalSkipped += endpoint.skipped.get();
+                printRow(row, endpoint.name, histogram, seconds, endpoint.errors.get(), endpoint.skipped.get());
+            }
+            printRow(row, "all", total, seconds, totalErrors, totalSkipped);
+        }
+        if (dropped > 0) {
+            System.out.printf(Locale.ROOT, "%nDropped %d arrivals: --max-in-flight reached%n", dropped);
+        }
+        String hgrm = options.get("hgrm", null);
+        if (hgrm != null) {
+            Path dir = Path.of(hgrm);
+            Files.createDirectories(dir);
+            for (EndpointStats endpoint : stats.values()) {
+                try (PrintStream out = new PrintStream(Files.newOutputStream(dir.resolve(endpoint.name + ".hgrm")))) {
+                    endpoint.response.writePercentileDistribution(out);
+                }
+            }
+            System.out.println("Percentile distributions written to " + dir + "/*.hgrm");
+        }
+    }
+
+    private static void printRow(String format, String name, Histogram histogram, int seconds,
+                                 long errors, long skipped) {
+        long count = histogram.totalCount();
+        System.out.printf(Locale.ROOT, format, name, count, (double) count / seconds, errors, skipped,
+                histogram.percentile(50) / 1000.0, histogram.percentile(90) / 1000.0,
+                histogram.percentile(99) / 1000.0, histogram.percentile(99.9) / 1000.0,
+                histogram.max() / 1000.0);
+    }
+
+    // ---- state -----------------------------------------------------------------------------
+
+    private static final class Session {
+        final String token;
+        final ConcurrentLinkedDeque<Long> ids = new ConcurrentLinkedDeque<>();
+
+        Session(String token) {
+            this.token = token;
+        }
+
+        void remember(long id) {
+            ids.addLast(id);
+            while (ids.size() > IDS_PER_USER) {
+                ids.pollFirst();
+            }
+        }
+
+        // Existing task ids, so updates and deletes have targets from the first second
+        // @return false if the server rejected the token (expired, or issued by another server)
+        boolean loadIds(HttpClient http, String baseUrl, Duration timeout) throws Exception {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/tasks?fields=id"))
+                    .timeout(timeout)
+                    .header("Authorization", "Bearer " + token)
+                    .build();
+            HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() == 401 || response.statusCode() == 403) {
+                return false;
+            }
+            Matcher matcher = ID.matcher(response.body());
+            while (matcher.find()) {
+                remember(Long.parseLong(matcher.group(1)));
+            }
+            return true;
+        }
+    }
+
+    private static final class EndpointStats {
+        final String name;
+        final Histogram response = new Histogram();
+        final Histogram service = new Histogram();
+        final AtomicLong errors = new AtomicLong();
+        final AtomicLong skipped = new AtomicLong();
+
+        EndpointStats(String name) {
+            this.name = name;
+        }
+
+        void record(long responseNanos, long serviceNanos, boolean ok) {
+            response.record(responseNanos / 1000);
+            service.record(serviceNanos / 1000);
+            if (!ok) {
+                errors.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Concurrent log-linear histogram of microsecond values, 3 significant digits:
+     * values below 2048 are counted exactly, above that each power-of-two range is
+     * split into 1024 equal buckets (HdrHistogram's layout with 2048 sub-buckets).
+     * Percentiles report the highest value equivalent to the bucket, as HdrHistogram does.
+     */
+    static final class Histogram {
+        private static final int SUB_BUCKETS = 2048;
+        private static final int HALF = SUB_BUCKETS / 2;
+        private static final int HALF_MAGNITUDE = Integer.numberOfTrailingZeros(HALF);
+        // Up to 2^40 us (~12 days): far beyond any request timeout
+        private static final int MAX_SHIFT = 40 - HALF_MAGNITUDE;
+        private static final long MAX_VALUE = (1L << 40) - 1;
+
+        private final AtomicLongArray counts = new AtomicLongArray(SUB_BUCKETS + MAX_SHIFT * HALF);
+        private final AtomicLong total = new AtomicLong();
+        private final AtomicLong maxValue = new AtomicLong();
+
+        void record(long value) {
+            long clamped = Math.max(0, Math.min(value, MAX_VALUE));
+            counts.incrementAndGet(index(clamped));
+            total.incrementAndGet();
+            maxValue.accumulateAndGet(clamped, Math::max);
+        }
+
+        void add(Histogram other) {
+            for (int i = 0; i < counts.length(); i++) {
+                long count = other.counts.get(i);
+                if (count != 0) {
+                    counts.addAndGet(i, count);
+                }
+            }
+            total.addAndGet(other.total.get());
+            maxValue.accumulateAndGet(other.maxValue.get(), Math::max);
+        }
+
+        long totalCount() {
+            return total.get();
+        }
+
+        long max() {
+            return maxValue.get();
+        }
+
+        long percentile(double percentile) {
+            long count = total.get();
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length(); i++) {
+                seen += counts.get(i);
+                if (seen >= rank) {
+                    return Math.min(highestEquivalent(i), maxValue.get());
+                }
+            }
+            return maxValue.get();
+        }
+
+        // HdrHistogram .hgrm text format (values in milliseconds), readable by its plotting tools
+        void writePercentileDistribution(PrintStream out) {
+            long count = total.get();
+            out.printf(Locale.ROOT, "%12s %14s %10s %14s%n%n", "Value", "Percentile", "TotalCount", "1/(1-Percentile)");
+            if (count > 0) {
+                double level = 0;
+                while (true) {
+                    long rank = Math.max(1, (long) Math.ceil(level / 100.0 * count));
+                    long seen = 0;
+                    int i = 0;
+                    while (seen + counts.get(i) < rank) {
+                        seen += counts.get(i++);
+                    }
+                    double fraction = level / 100.0;
+                    double value = Math.min(highestEquivalent(i), maxValue.get()) / 1000.0;
+                    if (rank >= count) {
+                        out.printf(Locale.ROOT, "%12.3f %2.12f %10d%n", value, 1.0, count);
+                        break;
+                    }
+                    out.printf(Locale.ROOT, "%12.3f %2.12f %10d %14.2f%n",
+                            value, fraction, seen + counts.get(i), 1 / (1 - fraction));
+                    // 5 ticks per halving of the remaining distance to 100%, as HdrHistogram does
+                    double halvings = Math.floor(Math.log(100.0 / (100.0 - level)) / Math.log(2)) + 1;
+                    level = Math.min(100.0, level + 100.0 / 10 / Math.pow(2, halvings - 1));
+                }
+            }
+            double mean = mean();
+            out.printf(Locale.ROOT, "#[Mean    = %12.3f, StdDeviation   = %12.3f]%n", mean / 1000.0, stdDev(mean) / 1000.0);
+            out.printf(Locale.ROOT, "#[Max     = %12.3f, Total count    = %12d]%n", maxValue.get() / 1000.0, count);
+            out.printf(Locale.ROOT, "#[Buckets = %12d, SubBuckets     = %12d]%n", MAX_SHIFT + 1, SUB_BUCKETS);
+        }
+
+        private double mean() {
+            long count = total.get();
+            if (count == 0) {
+                return 0;
+            }
+            double sum = 0;
+            for (int i = 0; i < counts.length(); i++) {
+                sum += counts.get(i) * (double) median(i);
+            }
+            return sum / count;
+        }
+
+        private double stdDev(double mean) {
+            long count = total.get();
+            if (count == 0) {
+                return 0;
+            }
+            double squares = 0;
+            for (int i = 0; i < counts.length(); i++) {
+                double delta = median(i) - mean;
+                squares += counts.get(i) * delta * delta;
+            }
+            return Math.sqrt(squares / count);
+        }
+
+        static int index(long value) {
+            if (value < SUB_BUCKETS) {
+                return (int) value;
+            }
+            int shift = 63 - Long.numberOfLeadingZeros(value) - HALF_MAGNITUDE;
+            return SUB_BUCKETS + (shift - 1) * HALF + (int) ((value >> shift) - HALF);
+        }
+
+        static long lowestEquivalent(int index) {
+            if (index < SUB_BUCKETS) {
+                return index;
+            }
+            int offset = index - SUB_BUCKETS;
+            int shift = offset / HALF + 1;
+            return (long) (offset % HALF + HALF) << shift;
+        }
+
+        static long highestEquivalent(int index) {
+            if (index < SUB_BUCKETS) {
+                return index;
+            }
+            int shift = (index - SUB_BUCKETS) / HALF + 1;
+            return lowestEquivalent(index) + (1L << shift) - 1;
+        }
+
+        private static long median(int index) {
+            return (lowestEquivalent(index) + highestEquivalent(index)) / 2;
+        }
+    }
+
+    private static final class Options {
+        private final Map<String, List<String>> values = new LinkedHashMap<>();
+
+        static Options parse(String[] args) {
+            Options options = new Options();
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                if (!arg.startsWith("--")) {
+                    throw new IllegalArgumentException("Unexpected argument '" + arg + "'; see --help");
+                }
+                String name = arg.substring(2);
+                String value;
+                int equals = name.indexOf('=');
+                if (equals >= 0) {
+                    value = name.substring(equals + 1);
+                    name = name.substring(0, equals);
+                } else if (i + 1 < args.length && !args[i + 1].startsWith("--")) {
+                    value = args[++i];
+                } else {
+                    value = "true";
+                }
+                options.values.computeIfAbsent(name, k -> new ArrayList<>()).add(value);
+            }
+            return options;
+        }
+
+        boolean has(String name) {
+            return values.containsKey(name);
+        }
+
+        String get(String name, String defaultValue) {
+            List<String> list = values.get(name);
+            return list == null ? defaultValue : list.get(list.size() - 1);
+        }
+
+        List<String> all(String name) {
+            return values.getOrDefault(name, List.of());
+        }
+
+        int getInt(String name, int defaultValue) {
+            return Integer.parseInt(get(name, String.valueOf(defaultValue)));
+        }
+
+        double getDouble(String name, double defaultValue) {
+            return Double.parseDouble(get(name, String.valueOf(defaultValue)));
+        }
+    }
+}
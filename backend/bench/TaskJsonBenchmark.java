@@ -0,0 +1,117 @@
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.tasktracker.config.TaskJsonModule;
+import com.tasktracker.dto.TaskDTO;
+import com.tasktracker.dto.TaskStatsDTO;
+import com.tasktracker.model.Task;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Compares Jackson's default bean serializer with TaskJsonModule for task
+ * list and stats responses: throughput and bytes allocated per response.
+ *
+ * Both mappers are configured like the application's (JavaTimeModule,
+ * WRITE_DATES_AS_TIMESTAMPS off) and write to a discarding stream, so only
+ * serialization is measured. Output of both is checked to be identical first.
+ * Allocation is read from the measuring thread's allocated-bytes counter.
+ *
+ * Needs the backend classes and dependencies on the class path; see
+ * run-json-benchmark.sh:
+ *   java -cp <classpath> bench/TaskJsonBenchmark.java [tasks-per-response] [seconds]
+ */
+public class TaskJsonBenchmark {
+
+    private static final OutputStream DISCARD = OutputStream.nullOutputStream();
+
+    public static void main(String[] args) throws Exception {
+        int tasks = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        ObjectMapper defaultMapper = mapper(false);
+        ObjectMapper streamingMapper = mapper(true);
+        List<TaskDTO> list = sampleTasks(tasks);
+        TaskStatsDTO stats = new TaskStatsDTO(tasks, tasks / 2, tasks - tasks / 2, 51.372519, tasks / 4, tasks / 4);
+
+        byte[] expected = defaultMapper.writeValueAsBytes(list);
+        byte[] actual = streamingMapper.writeValueAsBytes(list);
+        if (!Arrays.equals(expected, actual)
+                || !Arrays.equals(defaultMapper.writeValueAsBytes(stats), streamingMapper.writeValueAsBytes(stats))) {
+            throw new IllegalStateException("TaskJsonModule output differs from the default serializer");
+        }
+
+        System.out.printf(Locale.ROOT, "%n== Task JSON serialization: %d tasks per list response (%d bytes), %ds per run ==%n",
+                tasks, expected.length, seconds);
+        System.out.printf(Locale.ROOT, "%-22s %12s %10s %16s%n", "serializer", "responses/s", "MB/s", "alloc B/response");
+        for (int round = 0; round < 2; round++) {
+            boolean measure = round == 1;  // first round is JIT warm-up
+            run("list  default", defaultMapper, list, expected.length, seconds, measure);
+            run("list  TaskJsonModule", streamingMapper, list, expected.length, seconds, measure);
+            int statsBytes = defaultMapper.writeValueAsBytes(stats).length;
+            run("stats default", defaultMapper, stats, statsBytes, seconds, measure);
+            run("stats TaskJsonModule", streamingMapper, stats, statsBytes, seconds, measure);
+        }
+    }
+
+    private static void run(String label, ObjectMapper mapper, Object value, int size, int seconds, boolean print)
+            throws Exception {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        long count = 0;
+        long startAlloc = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        while (System.nanoTime() < deadline) {
+            for (int i = 0; i < 16; i++) {
+                mapper.writeValue(DISCARD, value);
+            }
+            count += 16;
+        }
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - startAlloc;
+        if (print) {
+            System.out.printf(Locale.ROOT, "%-22s %12.0f %10.1f %16d%n", label, count / elapsed,
+                    count * (double) size / elapsed / (1024 * 1024), allocated / count);
+        }
+    }
+
+    private static ObjectMapper mapper(boolean streaming) {
+        ObjectMapper mapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                // writeValue(OutputStream) would otherwise close the shared stream
+                .disable(com.fasterxml.jackson.core.JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        if (streaming) {
+            mapper.registerModule(new TaskJsonModule());
+        }
+        return mapper;
+    }
+
+    private static List<TaskDTO> sampleTasks(int count) {
+        Random random = new Random(42);
+        Task.TaskStatus[] statuses = Task.TaskStatus.values();
+        Task.TaskPriority[] priorities = Task.TaskPriority.values();
+        long now = Instant.parse("2026-10-01T12:00:00Z").getEpochSecond();
+        List<TaskDTO> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Task.TaskStatus status = statuses[random.nextInt(statuses.length)];
+            // Microsecond precision, as loaded from the database
+            Instant created = Instant.ofEpochSecond(now - random.nextInt(365 * 86_400), random.nextInt(1_000_000) * 1_000L);
+            Instant completed = status == Task.TaskStatus.DONE
+                    ? created.plusSeconds(random.nextInt(7 * 86_400)) : null;
+            tasks.add(new TaskDTO((long) i + 1, "Review \"quarterly\" report #" + i,
+                    random.nextInt(10) < 7 ? "Check the numbers and report back to the team" : null,
+                    status, priorities[random.nextInt(priorities.length)], created, completed));
+        }
+        return tasks;
+    }
+}
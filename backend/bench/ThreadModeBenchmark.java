@@ -0,0 +1,149 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Closed-loop HTTP benchmark for the task API, used to compare platform-thread
+ * and virtual-thread request handling (see run-thread-mode-benchmark.sh).
+ *
+ * Runs one phase per scenario - list, stats, create and a mixed scenario where
+ * writes keep evicting the read caches - with N concurrent clients for a fixed
+ * duration, then prints throughput, error count and p50/p90/p99/p99.9/max latency.
+ *
+ * Self-contained (JDK only), run as a single-file program:
+ *   java bench/ThreadModeBenchmark.java [baseUrl] [clients] [seconds] [label]
+ */
+public class ThreadModeBenchmark {
+
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+    private static final String TASK_JSON =
+            "{\"title\":\"bench\",\"description\":\"benchmark task\",\"status\":\"TODO\",\"priority\":\"MEDIUM\"}";
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        String label = args.length > 3 ? args[3] : "run";
+
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        String token = login(http, baseUrl);
+
+        System.out.printf(Locale.ROOT, "%n== %s: %d clients, %ds per scenario ==%n", label, clients, seconds);
+        System.out.printf(Locale.ROOT, "%-8s %10s %8s %9s %9s %9s %9s %9s%n",
+                "scenario", "req/s", "errors", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+
+        // Short warm-up so JIT and connection pools are settled before measuring
+        run(http, baseUrl, token, "mixed", clients, 5, false);
+        for (String scenario : List.of("list", "stats", "create", "mixed")) {
+            run(http, baseUrl, token, scenario, clients, seconds, true);
+        }
+    }
+
+    private static String login(HttpClient http, String baseUrl) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"demo\",\"password\":\"demo123\"}"))
+                .build();
+        String body = http.send(request, HttpResponse.BodyHandlers.ofString()).body();
+        Matcher matcher = TOKEN.matcher(body);
+        if (!matcher.find()) {
+            throw new IllegalStateException("Login failed: " + body);
+        }
+        return matcher.group(1);
+    }
+
+    private static void run(HttpClient http, String baseUrl, String token, String scenario,
+                            int clients, int seconds, boolean report) throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        AtomicLong errors = new AtomicLong();
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        List<Future<long[]>> results = new ArrayList<>();
+        for (int c = 0; c < clients; c++) {
+            final int client = c;
+            results.add(pool.submit(() -> {
+                long[] samples = new long[1024];
+                int count = 0;
+                long i = client;
+                while (System.nanoTime() < deadline) {
+                    HttpRequest request = buildRequest(baseUrl, token, scenario, i++);
+                    long start = System.nanoTime();
+                    try {
+                        int status = http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        if (status >= 400) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                    if (count == samples.length) {
+                        samples = Arrays.copyOf(samples, count * 2);
+                    }
+                    samples[count++] = System.nanoTime() - start;
+                }
+                return Arrays.copyOf(samples, count);
+            }));
+        }
+        long[] all = new long[0];
+        for (Future<long[]> result : results) {
+            long[] samples = result.get();
+            int offset = all.length;
+            all = Arrays.copyOf(all, offset + samples.length);
+            System.arraycopy(samples, 0, all, offset, samples.length);
+        }
+        pool.shutdown();
+        if (!report) {
+            return;
+        }
+        Arrays.sort(all);
+        System.out.printf(Locale.ROOT, "%-8s %10.1f %8d %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                scenario, (double) all.length / seconds, errors.get(),
+                percentile(all, 50), percentile(all, 90), percentile(all, 99), percentile(all, 99.9),
+                all.length == 0 ? 0 : all[all.length - 1] / 1e6);
+    }
+
+    private static HttpRequest buildRequest(String baseUrl, String token, String scenario, long i) {
+        String kind = scenario;
+        if ("mixed".equals(scenario)) {
+            // 60% list, 30% stats, 10% create
+            long slot = i % 10;
+            kind = slot < 6 ? "list" : slot < 9 ? "stats" : "create";
+        }
+        HttpRequest.Builder builder = HttpRequest.newBuilder()
+                .timeout(Duration.ofSeconds(60))
+                .header("Authorization", "Bearer " + token);
+        switch (kind) {
+            case "stats":
+                return builder.uri(URI.create(baseUrl + "/api/tasks/stats")).GET().build();
+            case "create":
+                return builder.uri(URI.create(baseUrl + "/api/tasks"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(TASK_JSON))
+                        .build();
+            default:
+                return builder.uri(URI.create(baseUrl + "/api/tasks")).GET().build();
+        }
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1e6;
+    }
+}
@@ -0,0 +1,22 @@
+#!/bin/bash
+
+# Compares Jackson's default serializer with TaskJsonModule for task list and stats
+# responses (throughput and allocation per response). See TaskJsonBenchmark.java.
+#
+# Usage: bench/run-json-benchmark.sh [tasks-per-response] [seconds]
+
+set -e
+
+TASKS=${1:-500}
+SECONDS_PER_RUN=${2:-10}
+
+cd "$(dirname "$0")/.."
+
+echo "Compiling backend..."
+mvn -q -B compile dependency:build-classpath -Dmdep.outputFile=target/bench.classpath
+CP="target/classes:$(cat target/bench.classpath)"
+
+java -Xmx512m -cp "$CP" bench/TaskJsonBenchmark.java "$TASKS" "$SECONDS_PER_RUN" | tee target/json-benchmark.txt
+
+echo ""
+echo "Results written to target/json-benchmark.txt"
@@ -0,0 +1,29 @@
+#!/bin/bash
+
+# Open-model load test of the task API with per-endpoint latency histograms.
+#
+# Without --url, builds the backend and lets LoadGenerator start it on in-memory H2
+# with the loadtest profile (synthetic users loadtest-000000 ...). With --url, drives
+# an already running backend whose users match --user-format / --password.
+# Requests run on virtual threads when the runtime is Java 21+ (JAVA21_HOME), on
+# platform threads otherwise. Output is also written to target/load-test.txt.
+#
+# Usage: bench/run-load-test.sh [LoadGenerator options]
+#   bench/run-load-test.sh --rate 500 --duration 60 --hgrm target/hgrm
+#   bench/run-load-test.sh --url http://localhost:8080 --users 20 --mix list=70,stats=30
+# All options: java bench/LoadGenerator.java --help
+
+set -e
+
+cd "$(dirname "$0")/.."
+
+JAVA_BIN=${JAVA21_HOME:+$JAVA21_HOME/bin/}java
+
+if [[ " $* " != *" --url"* ]]; then
+    echo "Building backend..."
+    mvn -q -B package -DskipTests
+    set -- --start "$@"
+fi
+
+mkdir -p target
+"$JAVA_BIN" bench/LoadGenerator.java "$@" | tee target/load-test.txt
@@ -0,0 +1,71 @@
+#!/bin/bash
+
+# Compares platform-thread and virtual-thread request handling under a slow database.
+#
+# Builds the backend with the java21 profile, then starts it twice on in-memory H2
+# with production-like limits (20 Tomcat threads, 2 Hikari connections) and a
+# simulated per-statement database latency, and runs ThreadModeBenchmark against each.
+#
+# Usage: bench/run-thread-mode-benchmark.sh [clients] [seconds] [db-latency-ms]
+# Requires a JDK 21 on PATH or in JAVA21_HOME.
+
+set -e
+
+CLIENTS=${1:-200}
+SECONDS_PER_SCENARIO=${2:-20}
+DB_LATENCY_MS=${3:-20}
+PORT=${BENCH_PORT:-18090}
+
+cd "$(dirname "$0")/.."
+
+JAVA_BIN=${JAVA21_HOME:+$JAVA21_HOME/bin/}java
+if ! "$JAVA_BIN" -version 2>&1 | grep -qE 'version "(2[1-9]|[3-9][0-9])'; then
+    echo "Error: a Java 21+ runtime is required (set JAVA21_HOME)"
+    exit 1
+fi
+
+echo "Building backend (java21 profile)..."
+JAVA_HOME=${JAVA21_HOME:-$JAVA_HOME} mvn -q -B -Pjava21 package -DskipTests
+JAR=$(ls target/task-tracker-backend-*.jar | head -1)
+
+run_mode() {
+    local mode=$1
+    local virtual=$2
+    echo ""
+    echo "Starting backend with $mode threads..."
+    "$JAVA_BIN" -Xmx384m -jar "$JAR" \
+        --server.port=$PORT \
+        --spring.threads.virtual.enabled=$virtual \
+        --server.tomcat.threads.max=20 \
+        --spring.datasource.hikari.maximum-pool-size=2 \
+        --spring.datasource.hikari.connection-timeout=30000 \
+        --db.concurrency-limit.permits=2 \
+        --db.simulated-latency-ms=$DB_LATENCY_MS \
+        --ratelimit.enabled=false \
+        --spring.jpa.show-sql=false \
+        --logging.level.com.tasktracker=WARN \
+        --logging.level.org.springframework.security=WARN > "target/bench-$mode.log" 2>&1 &
+    local pid=$!
+
+    for i in $(seq 1 120); do
+        if curl -s -o /dev/null "http://localhost:$PORT/api/auth/test"; then
+            break
+        fi
+        sleep 1
+    done
+    # Demo data is created by a runner after the port opens
+    sleep 3
+
+    "$JAVA_BIN" bench/ThreadModeBenchmark.java "http://localhost:$PORT" "$CLIENTS" "$SECONDS_PER_SCENARIO" \
+        "$mode threads, db latency ${DB_LATENCY_MS}ms" | tee -a target/thread-mode-benchmark.txt
+
+    kill $pid
+    wait $pid 2>/dev/null || true
+}
+
+rm -f target/thread-mode-benchmark.txt
+run_mode platform false
+run_mode virtual true
+
+echo ""
+echo "Results written to target/thread-mode-benchmark.txt"
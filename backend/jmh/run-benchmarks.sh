@@ -0,0 +1,58 @@
+#!/bin/bash
+
+# JMH microbenchmarks for the backend's hot paths (see src/main/java/com/tasktracker/bench):
+# TaskService.convertToDTO and the column index select, JwtUtil signing and verification,
+# the stats aggregation and SpEL cache-key evaluation. Allocation is profiled (-prof gc)
+# and results are written to target/jmh-result.json.
+#
+# Usage: jmh/run-benchmarks.sh [--save-baseline] [--compare] [--threshold PCT] [JMH options...]
+#
+#   --save-baseline   copy this run's results to the baseline file afterwards
+#   --compare         compare this run with the baseline file; exit 1 on regressions
+#   --threshold PCT   regression threshold in percent for --compare (default 10)
+#
+# The baseline file is jmh/baseline.json, or $BASELINE. Baselines are machine-specific:
+# save and compare on the same host. JMH options are passed through, e.g.
+#   jmh/run-benchmarks.sh --compare Jwt -f 2
+#   jmh/run-benchmarks.sh -l
+
+set -e
+
+cd "$(dirname "$0")"
+
+SAVE=false
+COMPARE=false
+THRESHOLD=10
+BASELINE=${BASELINE:-baseline.json}
+JMH_ARGS=()
+while [ $# -gt 0 ]; do
+    case "$1" in
+        --save-baseline) SAVE=true ;;
+        --compare) COMPARE=true ;;
+        --threshold) THRESHOLD="$2"; shift ;;
+        *) JMH_ARGS+=("$1") ;;
+    esac
+    shift
+done
+
+echo "Building benchmarks..."
+# The module takes its dependencies from the backend pom in the local repository
+mvn -q -B -f ../pom.xml install -DskipTests
+mvn -q -B package
+
+RESULT=target/jmh-result.json
+java -jar target/benchmarks.jar -prof gc -rf json -rff "$RESULT" "${JMH_ARGS[@]}"
+
+if [ "$COMPARE" = true ]; then
+    if [ ! -f "$BASELINE" ]; then
+        echo "No baseline at $BASELINE; run with --save-baseline first" >&2
+        exit 2
+    fi
+    echo ""
+    java -cp target/benchmarks.jar com.tasktracker.bench.BaselineComparator "$BASELINE" "$RESULT" "$THRESHOLD"
+fi
+
+if [ "$SAVE" = true ]; then
+    cp "$RESULT" "$BASELINE"
+    echo "Baseline saved to $BASELINE"
+fi
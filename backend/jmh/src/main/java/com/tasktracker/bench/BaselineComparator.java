@@ -0,0 +1,138 @@
+package com.tasktracker.bench;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares a JMH JSON result (-rf json) with a saved baseline and flags regressions.
+ *
+ * Per benchmark and parameter combination, checks:
+ * - the primary score: lower is better for time modes (avgt, sample, ss),
+ *   higher for throughput (thrpt)
+ * - gc.alloc.rate.norm (bytes per operation, from -prof gc) when both runs have it
+ *
+ * A change counts as a regression when it is worse than the threshold (percent)
+ * and larger than the two runs' combined score error, so noisy benchmarks do not
+ * fail the comparison. Exits with status 1 if any regression was found.
+ *
+ * Usage: BaselineComparator baseline.json current.json [threshold-percent, default 10]
+ */
+public final class BaselineComparator {
+
+    private static final String ALLOC = "gc.alloc.rate.norm";
+    // Allocation deltas below one object header are noise from escape analysis and TLAB sampling
+    private static final double MIN_ALLOC_DELTA_BYTES = 16;
+
+    private BaselineComparator() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BaselineComparator <baseline.json> <current.json> [threshold-percent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+        Map<String, JsonNode> baseline = load(new File(args[0]));
+        Map<String, JsonNode> current = load(new File(args[1]));
+
+        int width = current.keySet().stream().mapToInt(String::length).max().orElse(20) + " [alloc]".length();
+        String row = "%-" + width + "s %16s %16s %9s  %s%n";
+        List<String> regressions = new ArrayList<>();
+        System.out.printf(Locale.ROOT, row, "Benchmark", "Baseline", "Current", "Change", "");
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode base = baseline.get(entry.getKey());
+            if (base == null) {
+                System.out.printf(Locale.ROOT, row, entry.getKey(), "-", "-", "-", "new");
+                continue;
+            }
+            JsonNode now = entry.getValue();
+            boolean higherIsBetter = "thrpt".equals(now.path("mode").asText());
+            String verdict = compare(row, entry.getKey(), now.path("primaryMetric"), base.path("primaryMetric"),
+                    higherIsBetter, threshold, 0);
+            if (verdict != null) {
+                regressions.add(verdict);
+            }
+            JsonNode nowAlloc = now.path("secondaryMetrics").path(ALLOC);
+            JsonNode baseAlloc = base.path("secondaryMetrics").path(ALLOC);
+            if (!nowAlloc.isMissingNode() && !baseAlloc.isMissingNode()) {
+                verdict = compare(row, entry.getKey() + " [alloc]", nowAlloc, baseAlloc, false, threshold,
+                        MIN_ALLOC_DELTA_BYTES);
+                if (verdict != null) {
+                    regressions.add(verdict);
+                }
+            }
+        }
+        long notRun = baseline.keySet().stream().filter(key -> !current.containsKey(key)).count();
+
+        System.out.println();
+        if (notRun > 0) {
+            System.out.printf(Locale.ROOT, "%d baseline result(s) not in this run%n", notRun);
+        }
+        if (regressions.isEmpty()) {
+            System.out.printf(Locale.ROOT, "No regressions beyond %.1f%%%n", threshold);
+            return;
+        }
+        System.out.printf(Locale.ROOT, "%d regression(s) beyond %.1f%%:%n", regressions.size(), threshold);
+        regressions.forEach(r -> System.out.println("  " + r));
+        System.exit(1);
+    }
+
+    // Prints one row; returns a description if it is a regression
+    private static String compare(String row, String name, JsonNode now, JsonNode base, boolean higherIsBetter,
+                                  double threshold, double minDelta) {
+        double nowScore = now.path("score").asDouble();
+        double baseScore = base.path("score").asDouble();
+        String unit = now.path("scoreUnit").asText();
+        double change = baseScore == 0 ? (nowScore == 0 ? 0 : Double.POSITIVE_INFINITY)
+                : (nowScore - baseScore) / baseScore * 100;
+        double worse = higherIsBetter ? -change : change;
+        double noise = error(now) + error(base);
+        boolean regression = worse > threshold
+                && Math.abs(nowScore - baseScore) > Math.max(noise, minDelta);
+        String label = regression ? "REGRESSION"
+                : worse > threshold ? "within error"
+                : -worse > threshold ? "improved" : "";
+        System.out.printf(Locale.ROOT, row, name, format(baseScore, unit), format(nowScore, unit),
+                String.format(Locale.ROOT, "%+.1f%%", change), label);
+        return regression
+                ? String.format(Locale.ROOT, "%s: %s -> %s (%+.1f%%)", name,
+                        format(baseScore, unit), format(nowScore, unit), change)
+                : null;
+    }
+
+    private static double error(JsonNode metric) {
+        double error = metric.path("scoreError").asDouble(0);
+        return Double.isNaN(error) ? 0 : error;
+    }
+
+    private static String format(double score, String unit) {
+        return String.format(Locale.ROOT, "%.3f %s", score, unit);
+    }
+
+    // "Benchmark.method {param=value, ...}" -> result, for every entry of a JMH JSON result file
+    private static Map<String, JsonNode> load(File file) throws IOException {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file)) {
+            String name = result.path("benchmark").asText().replace("com.tasktracker.bench.", "");
+            Map<String, String> params = new TreeMap<>();
+            Iterator<Map.Entry<String, JsonNode>> fields = result.path("params").fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> param = fields.next();
+                params.put(param.getKey(), param.getValue().asText());
+            }
+            String key = params.isEmpty() ? name : name + " " + params;
+            results.put(key + " (" + result.path("mode").asText() + ")", result);
+        }
+        return results;
+    }
+}
@@ -0,0 +1,153 @@
+package com.tasktracker.bench;
+
+import com.tasktracker.dto.TaskFieldSet;
+import com.tasktracker.model.Task;
+import com.tasktracker.service.TaskService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.cache.annotation.AnnotationCacheOperationSource;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.interceptor.CacheInterceptor;
+import org.springframework.context.expression.MethodBasedEvaluationContext;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SpEL evaluation of TaskService's @Cacheable keys.
+ *
+ * - allTasksKey / byStatusKey / byIdKey: what CacheAspectSupport does on every
+ *   cached call, a fresh method-based evaluation context per invocation against
+ *   an expression parsed once. The key strings are read from the annotations,
+ *   so the benchmark always measures the keys in production.
+ * - allTasksCachedCall: a cache hit on getAllTasks through Spring's CacheInterceptor
+ *   (key evaluation, operation lookup and cache read), the whole per-request cost
+ *   of a cached list.
+ *
+ * compilerMode OFF is the default (spring.expression.compiler.mode unset);
+ * IMMEDIATE shows what compiling the expressions would save.
+ */
+@State(Scope.Thread)  // SecurityContextHolder is thread-local: set it up on the benchmark thread
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class CacheKeyBenchmark {
+
+    @Param({"OFF", "IMMEDIATE"})
+    public String compilerMode;
+
+    @Param({"all", "id,title,status"})
+    public String fields;
+
+    private final ParameterNameDiscoverer parameterNames = new DefaultParameterNameDiscoverer();
+    private final TaskService target = new TaskService();
+
+    private CachedKey allTasks;
+    private CachedKey byStatus;
+    private CachedKey byId;
+    private TaskService cachedService;
+    private TaskFieldSet fieldSet;
+
+    @Setup(Level.Trial)
+    public void setUp() throws NoSuchMethodException {
+        // Read once by SpelParserConfiguration; each parameter combination runs in its own fork
+        System.setProperty("spring.expression.compiler.mode", compilerMode);
+        SecurityContextHolder.getContext().setAuthentication(UsernamePasswordAuthenticationToken.authenticated(
+                "bench-user", null, AuthorityUtils.createAuthorityList("ROLE_USER")));
+        SpelExpressionParser parser = new SpelExpressionParser(new SpelParserConfiguration(
+                SpelCompilerMode.valueOf(compilerMode), getClass().getClassLoader()));
+        fieldSet = "all".equals(fields) ? TaskFieldSet.ALL : TaskFieldSet.parse(fields);
+
+        allTasks = new CachedKey(parser, TaskService.class.getMethod("getAllTasks", TaskFieldSet.class),
+                new Object[]{fieldSet});
+        byStatus = new CachedKey(parser,
+                TaskService.class.getMethod("getTasksByStatus", Task.TaskStatus.class, TaskFieldSet.class),
+                new Object[]{Task.TaskStatus.IN_PROGRESS, fieldSet});
+        byId = new CachedKey(parser, TaskService.class.getMethod("getTaskById", Long.class, TaskFieldSet.class),
+                new Object[]{12_345L, fieldSet});
+
+        CacheInterceptor interceptor = new CacheInterceptor();
+        interceptor.setCacheOperationSources(new AnnotationCacheOperationSource());
+        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager("tasksByUser", "taskById", "taskStats");
+        interceptor.setCacheManager(cacheManager);
+        interceptor.afterSingletonsInstantiated();
+        ProxyFactory proxyFactory = new ProxyFactory(target);
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice(interceptor);
+        cachedService = (TaskService) proxyFactory.getProxy();
+        // Warm the entry; the unproxied target would need a database to load it
+        cacheManager.getCache("tasksByUser").put(allTasks.evaluate(), List.of());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public Object allTasksKey() {
+        return allTasks.evaluate();
+    }
+
+    @Benchmark
+    public Object byStatusKey() {
+        return byStatus.evaluate();
+    }
+
+    @Benchmark
+    public Object byIdKey() {
+        return byId.evaluate();
+    }
+
+    @Benchmark
+    public Object allTasksCachedCall() {
+        return cachedService.getAllTasks(fieldSet);
+    }
+
+    private final class CachedKey {
+        private final Expression expression;
+        private final Method method;
+        private final Object[] args;
+
+        CachedKey(SpelExpressionParser parser, Method method, Object[] args) {
+            Cacheable cacheable = AnnotatedElementUtils.findMergedAnnotation(method, Cacheable.class);
+            if (cacheable == null || cacheable.key().isEmpty()) {
+                throw new IllegalStateException(method.getName() + " has no @Cacheable key");
+            }
+            this.expression = parser.parseExpression(cacheable.key());
+            this.method = method;
+            this.args = args;
+        }
+
+        // The keys only use arguments and T(...) types, never #root, so the target stands in as root object
+        Object evaluate() {
+            return expression.getValue(new MethodBasedEvaluationContext(target, method, args, parameterNames));
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.tasktracker.bench;
+
+import com.tasktracker.model.Task;
+import com.tasktracker.model.User;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic task data shaped like LoadTestDataGenerator's: verb/noun titles,
+ * 70% with a description, creation skewed towards recent days, older tasks more
+ * likely DONE with an exponential completion delay, priorities 20/50/30.
+ */
+final class Fixtures {
+
+    private static final String[] VERBS = {
+            "Review", "Fix", "Write", "Update", "Plan", "Refactor", "Test", "Deploy", "Document", "Investigate"
+    };
+    private static final String[] NOUNS = {
+            "login flow", "release notes", "dashboard", "API client", "invoice export", "onboarding email",
+            "search index", "backup job", "quarterly report", "CI pipeline", "style guide", "payment webhook"
+    };
+
+    private static final int HISTORY_DAYS = 180;
+    // Fixed clock, so every fork and every run benchmarks identical data
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 15, 12, 0);
+
+    private Fixtures() {
+    }
+
+    static User user() {
+        User user = new User();
+        user.setId(42L);
+        user.setUsername("bench-user");
+        user.setEmail("bench-user@example.com");
+        user.setPassword("{noop}unused");
+        user.setRole("USER");
+        user.setCreatedAt(NOW.minusDays(HISTORY_DAYS));
+        return user;
+    }
+
+    static List<Task> tasks(User user, int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        long historyMinutes = HISTORY_DAYS * 24L * 60L;
+        List<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String verb = VERBS[random.nextInt(VERBS.length)];
+            String noun = NOUNS[random.nextInt(NOUNS.length)];
+            Task task = new Task();
+            task.setId(1_000L + i);
+            task.setUser(user);
+            task.setTitle(verb + " " + noun + " #" + (i + 1));
+            if (random.nextInt(10) < 7) {
+                task.setDescription(verb + " the " + noun + " and report back to the team");
+            }
+            double u = random.nextDouble();
+            // Sub-second part as stored by CURRENT_TIMESTAMP, so Instant formatting sees real fractions
+            LocalDateTime created = NOW.minusMinutes((long) (u * u * historyMinutes))
+                    .withNano(random.nextInt(1_000_000) * 1_000);
+            task.setCreatedAt(created);
+            task.setStatus(status(random, created));
+            task.setPriority(priority(random));
+            if (task.getStatus() == Task.TaskStatus.DONE) {
+                long delay = (long) (-Math.log(1 - random.nextDouble()) * 3 * 24 * 60);
+                LocalDateTime completed = created.plusMinutes(delay);
+                task.setCompletedAt(completed.isAfter(NOW) ? NOW : completed);
+            }
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    private static Task.TaskStatus status(SplittableRandom random, LocalDateTime created) {
+        double ageDays = Duration.between(created, NOW).toHours() / 24.0;
+        double doneShare = Math.min(0.85, 0.25 + ageDays / 60.0);
+        double roll = random.nextDouble();
+        if (roll < doneShare) {
+            return Task.TaskStatus.DONE;
+        }
+        return roll < doneShare + (1 - doneShare) * 0.4 ? Task.TaskStatus.IN_PROGRESS : Task.TaskStatus.TODO;
+    }
+
+    private static Task.TaskPriority priority(SplittableRandom random) {
+        int roll = random.nextInt(100);
+        if (roll < 20) {
+            return Task.TaskPriority.HIGH;
+        }
+        return roll < 70 ? Task.TaskPriority.MEDIUM : Task.TaskPriority.LOW;
+    }
+}
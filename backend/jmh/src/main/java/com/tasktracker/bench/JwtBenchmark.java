@@ -0,0 +1,75 @@
+package com.tasktracker.bench;
+
+import com.tasktracker.security.JwtUtil;
+import com.tasktracker.security.VerifiedToken;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtUtil on the authentication path of every request.
+ *
+ * - generateToken: signing at login
+ * - verifyUncached: signature check and claim parsing (jwt.verified-cache.max-size=0,
+ *   and the first request with any token)
+ * - verifyCached: repeat request with the same token (SHA-256 digest + cache lookup)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class JwtBenchmark {
+
+    private static final MethodHandle INIT = Reflect.instanceMethod(JwtUtil.class, "init", void.class);
+
+    // 64 characters, like a generated production JWT_SECRET
+    private static final String SECRET = "b2c9e4f1a7d3c8e5f0a1b6c2d7e3f8a4b9c5d0e6f1a2b7c3d8e4f9a5b0c6d1e7";
+
+    private JwtUtil uncached;
+    private JwtUtil cached;
+    private String token;
+
+    @Setup
+    public void setUp() throws Throwable {
+        uncached = jwtUtil(0);
+        cached = jwtUtil(1000);
+        token = cached.generateToken("bench-user", 42L, "USER");
+        cached.verify(token);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return uncached.generateToken("bench-user", 42L, "USER");
+    }
+
+    @Benchmark
+    public VerifiedToken verifyUncached() {
+        return uncached.verify(token);
+    }
+
+    @Benchmark
+    public VerifiedToken verifyCached() {
+        return cached.verify(token);
+    }
+
+    private static JwtUtil jwtUtil(long cacheSize) throws Throwable {
+        JwtUtil jwtUtil = new JwtUtil();
+        Reflect.setField(jwtUtil, "secret", SECRET);
+        Reflect.setField(jwtUtil, "expiration", 86_400_000L);
+        Reflect.setField(jwtUtil, "verifiedCacheMaxSize", cacheSize);
+        INIT.invokeExact(jwtUtil);
+        return jwtUtil;
+    }
+}
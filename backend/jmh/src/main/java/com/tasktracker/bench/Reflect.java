@@ -0,0 +1,55 @@
+package com.tasktracker.bench;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+
+/**
+ * Access to the private and package-private members being benchmarked,
+ * so production code keeps its visibility. Method handles held in static
+ * final fields are constants to the JIT and cost no more than a direct call.
+ */
+final class Reflect {
+
+    private Reflect() {
+    }
+
+    static MethodHandle instanceMethod(Class<?> owner, String name, Class<?> returnType, Class<?>... parameters) {
+        try {
+            return lookup(owner).findVirtual(owner, name, MethodType.methodType(returnType, parameters));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("No method " + owner.getSimpleName() + "." + name, e);
+        }
+    }
+
+    static MethodHandle staticMethod(Class<?> owner, String name, Class<?> returnType, Class<?>... parameters) {
+        try {
+            return lookup(owner).findStatic(owner, name, MethodType.methodType(returnType, parameters));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("No static method " + owner.getSimpleName() + "." + name, e);
+        }
+    }
+
+    static void setField(Object target, String name, Object value) {
+        try {
+            Field field = target.getClass().getDeclaredField(name);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("No field " + target.getClass().getSimpleName() + "." + name, e);
+        }
+    }
+
+    static Class<?> type(String className) {
+        try {
+            return Class.forName(className);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static MethodHandles.Lookup lookup(Class<?> owner) throws IllegalAccessException {
+        return MethodHandles.privateLookupIn(owner, MethodHandles.lookup());
+    }
+}
@@ -0,0 +1,89 @@
+package com.tasktracker.bench;
+
+import com.tasktracker.dto.TaskDTO;
+import com.tasktracker.dto.TaskFieldSet;
+import com.tasktracker.model.Task;
+import com.tasktracker.model.User;
+import com.tasktracker.service.TaskService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity-to-DTO conversion for a task list response.
+ *
+ * - convertToDTO: TaskService.convertToDTO per entity (the repository path)
+ * - columnSelect / columnSelectNarrow: the same list built from TaskColumnIndex's
+ *   columns (UserTaskColumns.select) with all fields and with ?fields=id,title,status
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class TaskConversionBenchmark {
+
+    private static final MethodHandle CONVERT = Reflect.instanceMethod(
+            TaskService.class, "convertToDTO", TaskDTO.class, Task.class);
+
+    private static final Class<?> COLUMNS = Reflect.type("com.tasktracker.service.UserTaskColumns");
+    private static final MethodHandle COLUMNS_OF = Reflect.staticMethod(COLUMNS, "of", COLUMNS, List.class)
+            .asType(MethodType.methodType(Object.class, List.class));
+    private static final MethodHandle SELECT = Reflect.instanceMethod(
+                    COLUMNS, "select", List.class, byte.class, byte.class, TaskFieldSet.class)
+            .asType(MethodType.methodType(List.class, Object.class, byte.class, byte.class, TaskFieldSet.class));
+
+    // UserTaskColumns.ANY
+    private static final byte ANY = -1;
+
+    @Param({"50", "500"})
+    public int tasks;
+
+    private final TaskService service = new TaskService();
+    private final TaskFieldSet narrow = TaskFieldSet.parse("id,title,status");
+    private List<Task> entities;
+    private Object columns;
+
+    @Setup
+    public void setUp() throws Throwable {
+        User user = Fixtures.user();
+        entities = Fixtures.tasks(user, tasks, 41L);
+        columns = (Object) COLUMNS_OF.invokeExact(entities);
+    }
+
+    @Benchmark
+    public List<TaskDTO> convertToDTO() throws Throwable {
+        List<TaskDTO> result = new ArrayList<>(entities.size());
+        for (Task task : entities) {
+            result.add((TaskDTO) CONVERT.invokeExact(service, task));
+        }
+        return result;
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public List<TaskDTO> columnSelect() throws Throwable {
+        return (List<TaskDTO>) SELECT.invokeExact(columns, ANY, ANY, TaskFieldSet.ALL);
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public List<TaskDTO> columnSelectNarrow() throws Throwable {
+        return (List<TaskDTO>) SELECT.invokeExact(columns, ANY, ANY, narrow);
+    }
+}
@@ -0,0 +1,101 @@
+package com.tasktracker.bench;
+
+import com.tasktracker.dto.TaskStatsDTO;
+import com.tasktracker.model.Task;
+import com.tasktracker.model.User;
+import com.tasktracker.repository.TaskRepository;
+import com.tasktracker.service.TaskService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The aggregation behind GET /api/tasks/stats, without the database.
+ *
+ * - repositoryPath: TaskService.computeTaskStats against a TaskRepository stub
+ *   that returns precomputed counts and the completed-task list, i.e. the
+ *   stream/Duration arithmetic done per request when the column index is off
+ * - columnPath: UserTaskColumns.stats(), the single pass over the index columns
+ * - columnLoad: building a user's columns from entities (an index miss)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class TaskStatsBenchmark {
+
+    private static final MethodHandle COMPUTE = Reflect.instanceMethod(
+            TaskService.class, "computeTaskStats", TaskStatsDTO.class, User.class);
+
+    private static final Class<?> COLUMNS = Reflect.type("com.tasktracker.service.UserTaskColumns");
+    private static final MethodHandle COLUMNS_OF = Reflect.staticMethod(COLUMNS, "of", COLUMNS, List.class)
+            .asType(MethodType.methodType(Object.class, List.class));
+    private static final MethodHandle STATS = Reflect.instanceMethod(COLUMNS, "stats", TaskStatsDTO.class)
+            .asType(MethodType.methodType(TaskStatsDTO.class, Object.class));
+
+    @Param({"50", "500", "5000"})
+    public int tasks;
+
+    private final TaskService service = new TaskService();
+    private User user;
+    private List<Task> entities;
+    private Object columns;
+
+    @Setup
+    public void setUp() throws Throwable {
+        user = Fixtures.user();
+        entities = Fixtures.tasks(user, tasks, 43L);
+        columns = (Object) COLUMNS_OF.invokeExact(entities);
+        Reflect.setField(service, "taskRepository", repositoryStub(entities));
+    }
+
+    @Benchmark
+    public TaskStatsDTO repositoryPath() throws Throwable {
+        return (TaskStatsDTO) COMPUTE.invokeExact(service, user);
+    }
+
+    @Benchmark
+    public TaskStatsDTO columnPath() throws Throwable {
+        return (TaskStatsDTO) STATS.invokeExact(columns);
+    }
+
+    @Benchmark
+    public Object columnLoad() throws Throwable {
+        return (Object) COLUMNS_OF.invokeExact(entities);
+    }
+
+    // Answers the four queries computeTaskStats issues; counts are computed once, as the database would
+    private static TaskRepository repositoryStub(List<Task> tasks) {
+        long total = tasks.size();
+        long[] byStatus = new long[Task.TaskStatus.values().length];
+        for (Task task : tasks) {
+            byStatus[task.getStatus().ordinal()]++;
+        }
+        List<Task> completed = tasks.stream()
+                .filter(task -> task.getStatus() == Task.TaskStatus.DONE && task.getCompletedAt() != null)
+                .toList();
+        return (TaskRepository) Proxy.newProxyInstance(TaskRepository.class.getClassLoader(),
+                new Class<?>[]{TaskRepository.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "countByUser" -> total;
+                    case "countByUserAndStatus" -> byStatus[((Task.TaskStatus) args[1]).ordinal()];
+                    case "findCompletedTasksByUser" -> completed;
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
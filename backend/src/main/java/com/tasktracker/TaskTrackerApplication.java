@@ -3,9 +3,11 @@ package com.tasktracker;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.core.Ordered;
 
 @SpringBootApplication
-@EnableCaching
+// Cache advice outside the transaction advice: cache hits start no transaction
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
 public class TaskTrackerApplication {
     
     public static void main(String[] args) {
@@ -1,41 +1,101 @@
 package com.tasktracker.config;
 
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.caffeine.CaffeineCache;
 import org.springframework.cache.support.SimpleCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tasktracker.tracing.TracingCache;
 
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Configuration
 public class CacheConfig {
 
+    @Autowired
+    private Environment env;
+
+    // Background refreshes for refresh-ahead caches; small and bounded, excess refreshes are skipped
+    private final ThreadPoolExecutor refreshExecutor = new ThreadPoolExecutor(1, 2, 30, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(64), daemonThreads("cache-refresh-"), new ThreadPoolExecutor.AbortPolicy());
+
     @Bean
     public CacheManager cacheManager() {
         SimpleCacheManager manager = new SimpleCacheManager();
         // Smaller sizes and no recordStats to reduce CPU/memory on tiny hosts
-        CaffeineCache tasksByUser = new CaffeineCache("tasksByUser",
+        // tasksByUser/taskStats default to refresh-ahead (cache.<name>.mode=refresh-ahead|expire):
+        // stale values are served while a background refresh runs, so reads don't wait on the DB at TTL boundaries
+        Cache tasksByUser = buildCache("tasksByUser", 20, 60, 45, "refresh-ahead", 180, 600);
+        Cache taskById = buildCache("taskById", 50, 150, 60, "expire", 0, 0);
+        Cache taskStats = buildCache("taskStats", 10, 30, 20, "refresh-ahead", 120, 600);
+        // Used by security.auth.mode=cached; TTL bounds how long a missed invalidation can linger
+        CaffeineCache userDetails = new CaffeineCache("userDetails",
                 Caffeine.newBuilder()
                         .initialCapacity(20)
-                        .maximumSize(60)
-                        .expireAfterWrite(45, TimeUnit.SECONDS)
-                        .build());
-        CaffeineCache taskById = new CaffeineCache("taskById",
-                Caffeine.newBuilder()
-                        .initialCapacity(50)
-                        .maximumSize(150)
-                        .expireAfterWrite(60, TimeUnit.SECONDS)
+                        .maximumSize(200)
+                        .expireAfterWrite(5, TimeUnit.MINUTES)
                         .build());
-        CaffeineCache taskStats = new CaffeineCache("taskStats",
+        List<Cache> caches = Arrays.asList(tasksByUser, taskById, taskStats, userDetails);
+        // Lookups are recorded as trace spans and JFR events (TracingCache delegates everything else);
+        // the decorator stays in place without tracing so JFR recordings see cache hits and misses
+        if (env.getProperty("tracing.enabled", Boolean.class, false)
+                || env.getProperty("jfr.cache-events.enabled", Boolean.class, true)) {
+            caches = caches.stream().<Cache>map(TracingCache::new).toList();
+        }
+        manager.setCaches(caches);
+        return manager;
+    }
+
+    /**
+     * Builds a cache in "expire" mode (plain expireAfterWrite) or "refresh-ahead" mode
+     * (see RefreshAheadCache), overridable per cache with cache.{name}.* properties.
+     *
+     * @param ttlSeconds expire TTL, or the soft TTL in refresh-ahead mode
+     * @param hardTtlSeconds refresh-ahead only: age after which the entry is no longer served
+     * @param graceSeconds refresh-ahead only: extra age a value may be served if loading fails
+     */
+    private Cache buildCache(String name, int initialCapacity, long maximumSize, long ttlSeconds,
+                             String defaultMode, long hardTtlSeconds, long graceSeconds) {
+        String prefix = "cache." + name + ".";
+        String mode = env.getProperty(prefix + "mode", defaultMode);
+        long ttl = env.getProperty(prefix + "ttl-seconds", Long.class, ttlSeconds);
+        long maxSize = env.getProperty(prefix + "maximum-size", Long.class, maximumSize);
+        if ("refresh-ahead".equals(mode)) {
+            return new RefreshAheadCache(name, initialCapacity, maxSize, ttl,
+                    env.getProperty(prefix + "hard-ttl-seconds", Long.class, hardTtlSeconds),
+                    env.getProperty(prefix + "grace-seconds", Long.class, graceSeconds),
+                    refreshExecutor);
+        }
+        return new CaffeineCache(name,
                 Caffeine.newBuilder()
-                        .initialCapacity(10)
-                        .maximumSize(30)
-                        .expireAfterWrite(20, TimeUnit.SECONDS)
+                        .initialCapacity(initialCapacity)
+                        .maximumSize(maxSize)
+                        .expireAfterWrite(ttl, TimeUnit.SECONDS)
                         .build());
-        manager.setCaches(Arrays.asList(tasksByUser, taskById, taskStats));
-        return manager;
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, prefix + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refreshExecutor.shutdownNow();
     }
 }
@@ -0,0 +1,47 @@
+package com.tasktracker.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Binary request/response formats, selected by Accept / Content-Type:
+ * - application/cbor and application/x-jackson-smile through Jackson, using
+ *   the application's ObjectMapper settings and modules (incl. TaskJsonModule)
+ * - application/x-protobuf through TaskProtobufHttpMessageConverter
+ *
+ * The converters are appended after the defaults, so JSON stays the format
+ * for requests without an Accept header or with Accept: *&#47;*.
+ */
+@Configuration
+public class ContentNegotiationConfig implements WebMvcConfigurer {
+
+    @Value("${api.binary-formats.enabled:true}")
+    private boolean enabled;
+
+    // Prototype-scoped in Spring Boot: every getObject() is a fresh builder with the same customizations
+    @Autowired
+    private ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilders;
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        if (!enabled) {
+            return;
+        }
+        converters.add(new MappingJackson2CborHttpMessageConverter(
+                objectMapperBuilders.getObject().factory(new CBORFactory()).build()));
+        converters.add(new MappingJackson2SmileHttpMessageConverter(
+                objectMapperBuilders.getObject().factory(new SmileFactory()).build()));
+        converters.add(new TaskProtobufHttpMessageConverter());
+    }
+}
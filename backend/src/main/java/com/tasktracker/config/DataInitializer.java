@@ -4,16 +4,39 @@ import com.tasktracker.model.Task;
 import com.tasktracker.model.User;
 import com.tasktracker.repository.TaskRepository;
 import com.tasktracker.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
 
+/**
+ * Creates the demo user with sample tasks, and the bootstrap administrator
+ * when admin.bootstrap.username and admin.bootstrap.password are set.
+ *
+ * Registration only creates users with role USER, so the bootstrap account is
+ * the way to reach /api/admin. It is created once; an existing user of that
+ * name is left alone rather than promoted, so a self-registered account cannot
+ * become an administrator by taking the name first.
+ */
 @Component
 public class DataInitializer implements CommandLineRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(DataInitializer.class);
     
+    @Value("${admin.bootstrap.username:}")
+    private String adminUsername;
+
+    @Value("${admin.bootstrap.password:}")
+    private String adminPassword;
+
+    @Value("${admin.bootstrap.email:}")
+    private String adminEmail;
+
     @Autowired
     private UserRepository userRepository;
     
@@ -25,6 +48,8 @@ public class DataInitializer implements CommandLineRunner {
     
     @Override
     public void run(String... args) throws Exception {
+        createBootstrapAdmin();
+
         // Create dummy user if not exists
         if (!userRepository.existsByUsername("demo")) {
             User user = new User();
@@ -60,6 +85,26 @@ public class DataInitializer implements CommandLineRunner {
         }
     }
     
+    private void createBootstrapAdmin() {
+        if (adminUsername.isBlank() || adminPassword.isBlank()) {
+            return;
+        }
+        userRepository.findByUsername(adminUsername).ifPresentOrElse(existing -> {
+            if (!"ADMIN".equals(existing.getRole())) {
+                log.warn("admin.bootstrap.username {} belongs to an existing user with role {}; not promoted",
+                        adminUsername, existing.getRole());
+            }
+        }, () -> {
+            User admin = new User();
+            admin.setUsername(adminUsername);
+            admin.setPassword(passwordEncoder.encode(adminPassword));
+            admin.setEmail(adminEmail.isBlank() ? adminUsername + "@tasktracker.local" : adminEmail);
+            admin.setRole("ADMIN");
+            userRepository.save(admin);
+            log.info("Bootstrap administrator {} created", adminUsername);
+        });
+    }
+
     private void createSampleTask(User user, String title, String description, 
                                   Task.TaskStatus status, Task.TaskPriority priority) {
         Task task = new Task();
@@ -0,0 +1,79 @@
+package com.tasktracker.config;
+
+import com.tasktracker.replica.ReadReplicas;
+import com.tasktracker.replica.ReplicaRoutingDataSource;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Wraps the application DataSource according to configuration.
+ *
+ * - db.replicas.enabled: read-only transactions go to read replicas
+ *   (see ReplicaRoutingDataSource). Innermost, so the other wrappers apply to
+ *   replica connections too.
+ * - db.concurrency-limit.enabled: cap concurrent connection holders
+ *   (see ConnectionLimitingDataSource). On by default when virtual threads are,
+ *   because then Tomcat no longer bounds request concurrency.
+ * - db.simulated-latency-ms: benchmark-only per-statement delay
+ *   (see LatencyInjectingDataSource).
+ * - db.query-stats.enabled: count and time statements per request
+ *   (see QueryCountingDataSource, QueryCountFilter). Outermost, so it sees
+ *   every statement whichever other wrappers are active.
+ *
+ * In front of all of them a LazyConnectionDataSourceProxy: a transaction takes
+ * its connection at the first statement, not when it begins, so cache hits and
+ * admission waits inside @Transactional methods hold no connection, and replica
+ * routing sees the transaction's read-only flag.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    // Static so the post-processor is registered before the DataSource bean is created
+    @Bean
+    public static BeanPostProcessor dataSourceWrappingPostProcessor(Environment env,
+                                                                    ObjectProvider<ReadReplicas> readReplicas) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+                if (!(bean instanceof DataSource dataSource) || !"dataSource".equals(beanName)) {
+                    return bean;
+                }
+                if (env.getProperty("db.replicas.enabled", Boolean.class, false)) {
+                    if (env.getProperty("db.sharding.enabled", Boolean.class, false)) {
+                        throw new IllegalStateException("db.replicas.enabled and db.sharding.enabled cannot be combined");
+                    }
+                    List<String> routed = Arrays.stream(env.getProperty("db.replicas.transactions",
+                                    "com.tasktracker.service.TaskService.").split(","))
+                            .map(String::trim)
+                            .filter(prefix -> !prefix.isEmpty())
+                            .toList();
+                    dataSource = new ReplicaRoutingDataSource(dataSource, readReplicas.getObject(), routed);
+                }
+                long latencyMs = env.getProperty("db.simulated-latency-ms", Long.class, 0L);
+                if (latencyMs > 0) {
+                    dataSource = new LatencyInjectingDataSource(dataSource, latencyMs);
+                }
+                boolean virtualThreads = env.getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+                if (env.getProperty("db.concurrency-limit.enabled", Boolean.class, virtualThreads)) {
+                    int permits = env.getProperty("db.concurrency-limit.permits", Integer.class,
+                            env.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10));
+                    long acquireTimeoutMs = env.getProperty("db.concurrency-limit.acquire-timeout-ms", Long.class, 2000L);
+                    dataSource = new ConnectionLimitingDataSource(dataSource, permits, acquireTimeoutMs);
+                }
+                if (env.getProperty("db.query-stats.enabled", Boolean.class, false)) {
+                    dataSource = new QueryCountingDataSource(dataSource);
+                }
+                return new LazyConnectionDataSourceProxy(dataSource);
+            }
+        };
+    }
+}
@@ -0,0 +1,43 @@
+package com.tasktracker.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Reports time-to-first-request to StartupInfo.
+ *
+ * Wraps the whole chain so the measurement includes any beans that lazy
+ * initialization deferred to the first request. Once the value is recorded
+ * the filter skips itself.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class FirstRequestFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private StartupInfo startupInfo;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return startupInfo.isFirstRequestRecorded();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            startupInfo.recordFirstRequest();
+        }
+    }
+}
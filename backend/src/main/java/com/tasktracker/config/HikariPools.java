@@ -0,0 +1,45 @@
+package com.tasktracker.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+
+/**
+ * Hikari pools for databases besides the primary (shards, read replicas).
+ *
+ * Settings are bound from spring.datasource.hikari.* first and then from each
+ * override prefix (e.g. db.replicas.hikari), so a pool can be sized differently;
+ * credentials and driver come from spring.datasource.*. Pools report
+ * hikaricp.* metrics tagged with their pool name.
+ */
+public final class HikariPools {
+
+    private HikariPools() {
+    }
+
+    public static HikariDataSource create(Environment env, String poolName, String url, MeterRegistry meterRegistry,
+                                          String... overridePrefixes) {
+        HikariConfig config = new HikariConfig();
+        Binder binder = Binder.get(env);
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(config));
+        for (String prefix : overridePrefixes) {
+            binder.bind(prefix, Bindable.ofInstance(config));
+        }
+        config.setPoolName(poolName);
+        config.setJdbcUrl(url);
+        config.setUsername(env.getProperty("spring.datasource.username"));
+        config.setPassword(env.getProperty("spring.datasource.password"));
+        String driver = env.getProperty("spring.datasource.driver-class-name");
+        if (driver != null) {
+            config.setDriverClassName(driver);
+        }
+        if (meterRegistry != null) {
+            config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        }
+        return new HikariDataSource(config);
+    }
+}
@@ -0,0 +1,56 @@
+package com.tasktracker.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Benchmark-only DataSource that adds a fixed delay to every statement prepared
+ * on its connections, while the connection is held.
+ *
+ * Lets the thread-mode benchmark reproduce "slow database" conditions against
+ * in-memory H2. Enabled only when db.simulated-latency-ms is greater than zero.
+ */
+public class LatencyInjectingDataSource extends DelegatingDataSource {
+
+    private final long latencyMs;
+
+    public LatencyInjectingDataSource(DataSource target, long latencyMs) {
+        super(target);
+        this.latencyMs = latencyMs;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return delaying(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return delaying(super.getConnection(username, password));
+    }
+
+    private Connection delaying(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                    if ("equals".equals(method.getName())) {
+                        return proxy == args[0];
+                    }
+                    if ("hashCode".equals(method.getName())) {
+                        return System.identityHashCode(proxy);
+                    }
+                    if (method.getName().startsWith("prepare") || "createStatement".equals(method.getName())) {
+                        Thread.sleep(latencyMs);
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+}
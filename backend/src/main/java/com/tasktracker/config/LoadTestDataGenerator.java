@@ -0,0 +1,406 @@
+package com.tasktracker.config;
+
+import com.tasktracker.model.Task;
+import com.tasktracker.model.User;
+import com.tasktracker.repository.TaskRepository;
+import com.tasktracker.repository.UserRepository;
+import com.tasktracker.service.TaskColumnIndex;
+import com.tasktracker.sharding.ShardContext;
+import com.tasktracker.sharding.ShardRouter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Synthetic dataset for load and capacity testing ("loadtest" profile).
+ *
+ * Generates loadtest.users users with a skewed task count per user:
+ * - the first loadtest.power-users users get loadtest.power-user-tasks tasks each
+ * - everyone else draws from a log-normal distribution around
+ *   loadtest.tasks-per-user-median, capped at loadtest.max-tasks-per-user
+ *
+ * Tasks get a realistic status/priority mix, createdAt skewed towards recent
+ * days over loadtest.history-days, and completedAt a few days after createdAt
+ * for DONE tasks. Generation is deterministic for a given loadtest.seed.
+ *
+ * Rows are written with plain JDBC batch inserts (bypassing JPA) from
+ * loadtest.threads workers, each inserting loadtest.batch-size rows per
+ * round trip. On PostgreSQL add reWriteBatchedInserts=true to the JDBC URL
+ * so each batch becomes a multi-row INSERT.
+ *
+ * With db.sharding.enabled each user and their tasks are written to the
+ * user's shard (ShardRouter), as if they had been created through the API.
+ * With store.type=embedded there is no JDBC; the same rows are written with
+ * the repositories' saveAll, one write-ahead log block per batch.
+ *
+ * The inserts bypass TaskService, so the column index is cleared afterwards.
+ * All generated users share the password loadtest.password (hashed once).
+ * Skipped when the first generated user already exists.
+ */
+@Component
+@Profile("loadtest")
+public class LoadTestDataGenerator implements CommandLineRunner {
+    private static final Logger log = LoggerFactory.getLogger(LoadTestDataGenerator.class);
+
+    public static final String USERNAME_PREFIX = "loadtest-";
+
+    private static final String INSERT_USER =
+            "INSERT INTO users (username, password, email, role, created_at) VALUES (?, ?, ?, ?, ?)";
+    private static final String INSERT_TASK =
+            "INSERT INTO tasks (title, description, status, priority, created_at, completed_at, user_id) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String[] VERBS = {
+            "Review", "Fix", "Write", "Update", "Plan", "Refactor", "Test", "Deploy", "Document", "Investigate"
+    };
+    private static final String[] NOUNS = {
+            "login flow", "release notes", "dashboard", "API client", "invoice export", "onboarding email",
+            "search index", "backup job", "quarterly report", "CI pipeline", "style guide", "payment webhook"
+    };
+
+    // Absent with store.type=embedded
+    @Autowired(required = false)
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Value("${store.type:jpa}")
+    private String storeType;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    // Present with db.sharding.enabled only
+    @Autowired(required = false)
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private TaskColumnIndex taskIndex;
+
+    @Value("${loadtest.users:1000}")
+    private int users;
+
+    @Value("${loadtest.power-users:2}")
+    private int powerUsers;
+
+    @Value("${loadtest.power-user-tasks:100000}")
+    private int powerUserTasks;
+
+    @Value("${loadtest.tasks-per-user-median:50}")
+    private int tasksPerUserMedian;
+
+    @Value("${loadtest.tasks-per-user-sigma:1.0}")
+    private double tasksPerUserSigma;
+
+    @Value("${loadtest.max-tasks-per-user:5000}")
+    private int maxTasksPerUser;
+
+    @Value("${loadtest.history-days:365}")
+    private int historyDays;
+
+    @Value("${loadtest.threads:4}")
+    private int threads;
+
+    @Value("${loadtest.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${loadtest.seed:42}")
+    private long seed;
+
+    @Value("${loadtest.password:loadtest123}")
+    private String password;
+
+    @Override
+    public void run(String... args) throws Exception {
+        if (alreadyGenerated()) {
+            log.info("Load test data already present ({} exists), skipping generation", username(0));
+            return;
+        }
+
+        long started = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> userIds = insertUsers(now);
+        log.info("Inserted {} load test users", userIds.size());
+
+        AtomicLong inserted = new AtomicLong();
+        AtomicLong threadIds = new AtomicLong();
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, threads), r -> {
+            Thread t = new Thread(r, "loadtest-gen-" + threadIds.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            int workers = Math.max(1, threads);
+            for (int w = 0; w < workers; w++) {
+                final int worker = w;
+                // Power users are spread over workers by striding, so no single worker gets them all
+                futures.add(pool.submit(() -> {
+                    for (int i = worker; i < userIds.size(); i += workers) {
+                        try (ShardContext.Scope scope = ShardContext.use(shardOf(i))) {
+                            insertTasks(i, userIds.get(i), now, inserted);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        // Rows went in around TaskService, so segments loaded meanwhile are incomplete
+        taskIndex.invalidateAll();
+
+        if (!embedded()) {
+            analyze();
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        log.info("Generated {} users and {} tasks in {} s ({} rows/s)",
+                userIds.size(), inserted.get(), String.format("%.1f", seconds),
+                Math.round(inserted.get() / Math.max(seconds, 0.001)));
+    }
+
+    private boolean alreadyGenerated() {
+        if (embedded()) {
+            return userRepository.existsByUsername(username(0));
+        }
+        try (ShardContext.Scope scope = ShardContext.use(shardOf(0))) {
+            Integer existing = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM users WHERE username = ?", Integer.class, username(0));
+            return existing != null && existing > 0;
+        }
+    }
+
+    private boolean embedded() {
+        return "embedded".equals(storeType);
+    }
+
+    private List<Long> insertUsers(LocalDateTime now) {
+        String hash = passwordEncoder.encode(password);
+        SplittableRandom random = new SplittableRandom(seed);
+        Timestamp[] createdAt = new Timestamp[users];
+        for (int i = 0; i < users; i++) {
+            createdAt[i] = Timestamp.valueOf(now.minusMinutes(random.nextLong(historyDays * 24L * 60L + 1)));
+        }
+        if (embedded()) {
+            return saveUsers(hash, createdAt);
+        }
+        List<List<Integer>> byShard = new ArrayList<>();
+        for (int shard = 0; shard < shardCount(); shard++) {
+            byShard.add(new ArrayList<>());
+        }
+        for (int i = 0; i < users; i++) {
+            byShard.get(shardOf(i)).add(i);
+        }
+
+        Map<String, Long> idsByName = new HashMap<>();
+        for (int shard = 0; shard < byShard.size(); shard++) {
+            List<Integer> indexes = byShard.get(shard);
+            try (ShardContext.Scope scope = ShardContext.use(shard)) {
+                for (int from = 0; from < indexes.size(); from += batchSize) {
+                    final List<Integer> batch = indexes.subList(from, Math.min(from + batchSize, indexes.size()));
+                    jdbcTemplate.batchUpdate(INSERT_USER, new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            int index = batch.get(i);
+                            ps.setString(1, username(index));
+                            ps.setString(2, hash);
+                            ps.setString(3, username(index) + "@example.com");
+                            ps.setString(4, "USER");
+                            ps.setTimestamp(5, createdAt[index]);
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return batch.size();
+                        }
+                    });
+                }
+                jdbcTemplate.query("SELECT id, username FROM users WHERE username LIKE ?",
+                        rs -> { idsByName.put(rs.getString(2), rs.getLong(1)); },
+                        USERNAME_PREFIX + "%");
+            }
+        }
+        List<Long> ids = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            ids.add(idsByName.get(username(i)));
+        }
+        return ids;
+    }
+
+    private void insertTasks(int userIndex, long userId, LocalDateTime now, AtomicLong inserted) {
+        SplittableRandom random = new SplittableRandom(seed * 31 + userIndex);
+        int count = taskCount(userIndex, random);
+        long historyMinutes = historyDays * 24L * 60L;
+
+        for (int from = 0; from < count; from += batchSize) {
+            final int size = Math.min(batchSize, count - from);
+            final int offset = from;
+            if (embedded()) {
+                List<Task> batch = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    batch.add(generateTask(random, offset + i, userId, now, historyMinutes));
+                }
+                taskRepository.saveAll(batch);
+            } else {
+                jdbcTemplate.batchUpdate(INSERT_TASK, new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Task task = generateTask(random, offset + i, userId, now, historyMinutes);
+                        ps.setString(1, task.getTitle());
+                        if (task.getDescription() != null) {
+                            ps.setString(2, task.getDescription());
+                        } else {
+                            ps.setNull(2, Types.VARCHAR);
+                        }
+                        ps.setShort(3, task.getStatus().getCode());
+                        ps.setShort(4, task.getPriority().getCode());
+                        ps.setTimestamp(5, Timestamp.valueOf(task.getCreatedAt()));
+                        if (task.getCompletedAt() != null) {
+                            ps.setTimestamp(6, Timestamp.valueOf(task.getCompletedAt()));
+                        } else {
+                            ps.setNull(6, Types.TIMESTAMP);
+                        }
+                        ps.setLong(7, userId);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return size;
+                    }
+                });
+            }
+            long total = inserted.addAndGet(size);
+            if (total / 100_000 != (total - size) / 100_000) {
+                log.info("Inserted {} tasks", total);
+            }
+        }
+    }
+
+    private List<Long> saveUsers(String hash, Timestamp[] createdAt) {
+        List<Long> ids = new ArrayList<>(users);
+        for (int from = 0; from < users; from += batchSize) {
+            List<User> batch = new ArrayList<>();
+            for (int index = from; index < Math.min(from + batchSize, users); index++) {
+                batch.add(new User(null, username(index), hash, username(index) + "@example.com", "USER",
+                        createdAt[index].toLocalDateTime()));
+            }
+            for (User user : userRepository.saveAll(batch)) {
+                ids.add(user.getId());
+            }
+        }
+        return ids;
+    }
+
+    // The number of random draws, and their order, decides the dataset: keep it stable for a given seed
+    private static Task generateTask(SplittableRandom random, int index, long userId, LocalDateTime now,
+                                     long historyMinutes) {
+        Task task = new Task();
+        String verb = VERBS[random.nextInt(VERBS.length)];
+        String noun = NOUNS[random.nextInt(NOUNS.length)];
+        task.setTitle(verb + " " + noun + " #" + (index + 1));
+        if (random.nextInt(10) < 7) {
+            task.setDescription(verb + " the " + noun + " and report back to the team");
+        }
+
+        // Squaring a uniform sample skews creation towards recent days
+        double u = random.nextDouble();
+        LocalDateTime created = now.minusMinutes((long) (u * u * historyMinutes));
+        Task.TaskStatus status = status(random, created, now);
+        task.setStatus(status);
+        task.setPriority(priority(random));
+        task.setCreatedAt(created);
+        if (status == Task.TaskStatus.DONE) {
+            // Exponential completion delay, mean ~3 days, never in the future
+            long delay = (long) (-Math.log(1 - random.nextDouble()) * 3 * 24 * 60);
+            LocalDateTime completed = created.plusMinutes(delay);
+            task.setCompletedAt(completed.isAfter(now) ? now : completed);
+        }
+        User owner = new User();
+        owner.setId(userId);
+        task.setUser(owner);
+        return task;
+    }
+
+    private int taskCount(int userIndex, SplittableRandom random) {
+        if (userIndex < powerUsers) {
+            return powerUserTasks;
+        }
+        // Log-normal via Box-Muller: most users have a handful of tasks, a long tail has many
+        double gaussian = Math.sqrt(-2 * Math.log(1 - random.nextDouble()))
+                * Math.cos(2 * Math.PI * random.nextDouble());
+        long count = Math.round(tasksPerUserMedian * Math.exp(tasksPerUserSigma * gaussian));
+        return (int) Math.max(0, Math.min(maxTasksPerUser, count));
+    }
+
+    private static Task.TaskStatus status(SplittableRandom random, LocalDateTime created, LocalDateTime now) {
+        // Older tasks are more likely to be finished
+        double ageDays = Duration.between(created, now).toHours() / 24.0;
+        double doneShare = Math.min(0.85, 0.25 + ageDays / 60.0);
+        double roll = random.nextDouble();
+        if (roll < doneShare) {
+            return Task.TaskStatus.DONE;
+        }
+        return roll < doneShare + (1 - doneShare) * 0.4 ? Task.TaskStatus.IN_PROGRESS : Task.TaskStatus.TODO;
+    }
+
+    private static Task.TaskPriority priority(SplittableRandom random) {
+        int roll = random.nextInt(100);
+        if (roll < 20) {
+            return Task.TaskPriority.HIGH;
+        }
+        return roll < 70 ? Task.TaskPriority.MEDIUM : Task.TaskPriority.LOW;
+    }
+
+    private void analyze() {
+        for (int shard = 0; shard < shardCount(); shard++) {
+            try (ShardContext.Scope scope = ShardContext.use(shard)) {
+                jdbcTemplate.execute("ANALYZE");
+            } catch (Exception e) {
+                log.debug("ANALYZE not supported: {}", e.getMessage());
+            }
+        }
+    }
+
+    // Shard of a generated user; without sharding there is one, and its scope has no effect
+    private int shardOf(int index) {
+        return shardRouter != null ? shardRouter.shardFor(username(index)) : 0;
+    }
+
+    private int shardCount() {
+        return shardRouter != null ? shardRouter.getShardCount() : 1;
+    }
+
+    static String username(int index) {
+        return String.format("%s%06d", USERNAME_PREFIX, index);
+    }
+}
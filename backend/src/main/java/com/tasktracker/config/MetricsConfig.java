@@ -0,0 +1,63 @@
+package com.tasktracker.config;
+
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Metrics on top of what Spring Boot's actuator already records:
+ * - http.server.requests per endpoint (uri, method, status, outcome)
+ * - spring.data.repository.invocations per repository query (repository, method, state)
+ * - hikaricp.connections.* pool gauges, cache.*, jvm.*
+ *
+ * Added here: timers for @Timed beans (TaskService as task.service), see
+ * TimedMethodInterceptor. JWT verification and logins are timed where they happen
+ * (JwtRequestFilter, AuthService). Everything is exported at /actuator/prometheus.
+ *
+ * metrics.method-timers.enabled=false removes the @Timed advisor.
+ */
+@Configuration
+public class MetricsConfig {
+
+    // Static, and the registry looked up lazily: advisors are instantiated by the auto-proxy creator
+    // before regular beans, and must not drag the MeterRegistry into early initialization
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    @ConditionalOnProperty(name = "metrics.method-timers.enabled", havingValue = "true", matchIfMissing = true)
+    public static Advisor timedMethodAdvisor(ObjectProvider<MeterRegistry> meterRegistry) {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(timedMethods(),
+                new TimedMethodInterceptor(meterRegistry));
+        // Outermost, so cache hits (@Cacheable) are timed too, like the caller experiences them
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+
+    /**
+     * Public methods of @Timed classes, and @Timed methods; also used for tracing spans.
+     */
+    public static Pointcut timedMethods() {
+        return new StaticMethodMatcherPointcut() {
+            @Override
+            public boolean matches(Method method, Class<?> targetClass) {
+                return Modifier.isPublic(method.getModifiers())
+                        && method.getDeclaringClass() != Object.class
+                        && (AnnotatedElementUtils.hasAnnotation(targetClass, Timed.class)
+                                || AnnotatedElementUtils.hasAnnotation(method, Timed.class));
+            }
+        };
+    }
+}
@@ -0,0 +1,96 @@
+package com.tasktracker.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts the SQL statements and database time of every HTTP request
+ * (db.query-stats.enabled, with QueryCountingDataSource).
+ *
+ * Runs before the security filters, so user lookups in JwtRequestFilter count
+ * towards the request. Per request:
+ * - WARN when it runs more than db.query-stats.warn-statements statements or
+ *   spends more than db.query-stats.warn-time-ms executing them
+ * - WARN "possible N+1" for each statement executed at least
+ *   db.query-stats.repeat-threshold times with identical SQL (a per-row lookup)
+ * - with db.query-stats.response-headers=true, X-Query-Count and X-Query-Time-Ms
+ *   response headers (asserted per endpoint by QueryCountTest); the body is
+ *   buffered so the headers can follow it, so leave this off in production
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@ConditionalOnProperty(name = "db.query-stats.enabled", havingValue = "true")
+public class QueryCountFilter extends OncePerRequestFilter {
+    private static final Logger log = LoggerFactory.getLogger(QueryCountFilter.class);
+
+    public static final String COUNT_HEADER = "X-Query-Count";
+    public static final String TIME_HEADER = "X-Query-Time-Ms";
+
+    @Value("${db.query-stats.warn-statements:10}")
+    private int warnStatements;
+
+    @Value("${db.query-stats.warn-time-ms:200}")
+    private long warnTimeMs;
+
+    @Value("${db.query-stats.repeat-threshold:3}")
+    private int repeatThreshold;
+
+    @Value("${db.query-stats.response-headers:false}")
+    private boolean responseHeaders;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ContentCachingResponseWrapper buffered = responseHeaders ? new ContentCachingResponseWrapper(response) : null;
+        try (QueryStats stats = QueryStats.open()) {
+            try {
+                chain.doFilter(request, buffered != null ? buffered : response);
+            } finally {
+                report(request, stats);
+                if (buffered != null) {
+                    buffered.setHeader(COUNT_HEADER, Integer.toString(stats.getCount()));
+                    buffered.setHeader(TIME_HEADER, formatMillis(stats.getNanos()));
+                    buffered.copyBodyToResponse();
+                }
+            }
+        }
+    }
+
+    private void report(HttpServletRequest request, QueryStats stats) {
+        if (stats.getCount() == 0) {
+            return;
+        }
+        String endpoint = request.getMethod() + " " + request.getRequestURI();
+        long millis = TimeUnit.NANOSECONDS.toMillis(stats.getNanos());
+        if (stats.getCount() > warnStatements || millis > warnTimeMs) {
+            log.warn("{} ran {} SQL statements in {} ms (limits: {} statements, {} ms)",
+                    endpoint, stats.getCount(), formatMillis(stats.getNanos()), warnStatements, warnTimeMs);
+        } else if (log.isDebugEnabled()) {
+            log.debug("{} ran {} SQL statements in {} ms", endpoint, stats.getCount(), formatMillis(stats.getNanos()));
+        }
+        for (Map.Entry<String, Integer> repeated : stats.repeated(repeatThreshold).entrySet()) {
+            log.warn("Possible N+1 in {}: same statement executed {} times: {}",
+                    endpoint, repeated.getValue(), repeated.getKey());
+        }
+    }
+
+    private static String formatMillis(long nanos) {
+        return String.format(Locale.ROOT, "%.2f", nanos / 1_000_000.0);
+    }
+}
@@ -0,0 +1,100 @@
+package com.tasktracker.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * DataSource that counts and times every executed SQL statement into the
+ * current thread's QueryStats scope (see QueryCountFilter).
+ *
+ * Connections and the statements they create are wrapped in JDK proxies; only
+ * the execute* calls are measured (time until the driver returns, not result
+ * set iteration). With no open scope the statement runs unrecorded.
+ * Enabled by db.query-stats.enabled.
+ */
+public class QueryCountingDataSource extends DelegatingDataSource {
+
+    // SQL of a plain Statement batch is not known at executeBatch time
+    private static final String UNKNOWN_BATCH = "<statement batch>";
+
+    public QueryCountingDataSource(DataSource target) {
+        super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return counting(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return counting(super.getConnection(username, password));
+    }
+
+    private static Connection counting(Connection connection) {
+        return proxy(Connection.class, (proxy, method, args) -> {
+            Object result = invoke(connection, method, args);
+            String name = method.getName();
+            if (result instanceof CallableStatement statement && "prepareCall".equals(name)) {
+                return counting(CallableStatement.class, statement, (String) args[0]);
+            }
+            if (result instanceof PreparedStatement statement && "prepareStatement".equals(name)) {
+                return counting(PreparedStatement.class, statement, (String) args[0]);
+            }
+            if (result instanceof Statement statement && "createStatement".equals(name)) {
+                return counting(Statement.class, statement, null);
+            }
+            return result;
+        });
+    }
+
+    // preparedSql is null for plain Statements, whose SQL is the execute* argument
+    private static <S extends Statement> S counting(Class<S> type, S statement, String preparedSql) {
+        return proxy(type, (proxy, method, args) -> {
+            QueryStats stats = QueryStats.current();
+            if (stats == null || !method.getName().startsWith("execute")) {
+                return invoke(statement, method, args);
+            }
+            String sql = preparedSql != null ? preparedSql
+                    : args != null && args.length > 0 && args[0] instanceof String text ? text
+                    : UNKNOWN_BATCH;
+            long start = System.nanoTime();
+            try {
+                return invoke(statement, method, args);
+            } finally {
+                stats.record(sql, System.nanoTime() - start);
+            }
+        });
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    if ("equals".equals(method.getName())) {
+                        return proxy == args[0];
+                    }
+                    if ("hashCode".equals(method.getName())) {
+                        return System.identityHashCode(proxy);
+                    }
+                    return handler.invoke(proxy, method, args);
+                }));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.tasktracker.config;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * SQL statements executed on the current thread while a scope is open.
+ *
+ * QueryCountFilter opens one scope per HTTP request; QueryCountingDataSource
+ * records every executed statement into the innermost open scope. Statements
+ * run on other threads (the BCrypt pool during login, background cache
+ * refreshes) are not attributed to the request.
+ *
+ * Usage:
+ * <pre>
+ * try (QueryStats stats = QueryStats.open()) {
+ *     ...
+ *     stats.getCount();
+ * }
+ * </pre>
+ */
+public final class QueryStats implements AutoCloseable {
+
+    private static final ThreadLocal<QueryStats> CURRENT = new ThreadLocal<>();
+
+    private final QueryStats outer;
+    private int count;
+    private long nanos;
+    // SQL text -> executions; identical text with different parameters is what N+1 looks like
+    private final Map<String, Integer> executions = new HashMap<>();
+
+    private QueryStats(QueryStats outer) {
+        this.outer = outer;
+    }
+
+    /**
+     * Opens a scope on the current thread; close it in the same thread (try-with-resources).
+     */
+    public static QueryStats open() {
+        QueryStats stats = new QueryStats(CURRENT.get());
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    /**
+     * @return innermost open scope of the current thread, or null
+     */
+    static QueryStats current() {
+        return CURRENT.get();
+    }
+
+    void record(String sql, long elapsedNanos) {
+        count++;
+        nanos += elapsedNanos;
+        executions.merge(sql, 1, Integer::sum);
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    /**
+     * @param threshold minimum number of executions
+     * @return statements executed at least threshold times, most frequent first
+     */
+    public Map<String, Integer> repeated(int threshold) {
+        Map<String, Integer> repeated = new LinkedHashMap<>();
+        executions.entrySet().stream()
+                .filter(entry -> entry.getValue() >= threshold)
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .forEach(entry -> repeated.put(entry.getKey(), entry.getValue()));
+        return repeated;
+    }
+
+    @Override
+    public void close() {
+        if (outer == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(outer);
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.tasktracker.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.security.concurrent.DelegatingSecurityContextCallable;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spring Cache with stale-while-revalidate semantics, backed by Caffeine.
+ *
+ * For @Cacheable(sync = true) lookups (get with a value loader):
+ * - younger than the soft TTL: served from cache
+ * - between soft and hard TTL: the stale value is served immediately and one
+ *   background refresh per key is started on the refresh executor
+ * - older than the hard TTL (or missing): loaded synchronously; if that load
+ *   fails, a value younger than hard TTL + grace is served instead of the error
+ *
+ * Loads for the same key are de-duplicated. The loader runs with the caller's
+ * SecurityContext, since TaskService resolves the current user from it.
+ * Invalidation is per key: evict detaches the key's in-flight load, so later
+ * lookups start a new load instead of joining one that may have read data
+ * from before the write, and the detached load's result is not stored. A load
+ * stores its value only while it is still the key's in-flight load (checked
+ * and stored atomically with evict), so other keys' evictions don't affect it.
+ */
+public class RefreshAheadCache extends AbstractValueAdaptingCache {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshAheadCache.class);
+
+    private final String name;
+    private final long softTtlNanos;
+    private final long hardTtlNanos;
+    private final long graceNanos;
+    private final Executor refreshExecutor;
+    private final Cache<Object, Entry> store;
+
+    // Key -> load in progress (background refresh or synchronous load); removed by evict/clear
+    private final ConcurrentMap<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    private record Entry(Object storeValue, long writtenAtNanos) {
+    }
+
+    public RefreshAheadCache(String name, int initialCapacity, long maximumSize,
+                             long softTtlSeconds, long hardTtlSeconds, long graceSeconds,
+                             Executor refreshExecutor) {
+        super(true);
+        this.name = name;
+        this.softTtlNanos = TimeUnit.SECONDS.toNanos(softTtlSeconds);
+        this.hardTtlNanos = TimeUnit.SECONDS.toNanos(hardTtlSeconds);
+        this.graceNanos = TimeUnit.SECONDS.toNanos(graceSeconds);
+        this.refreshExecutor = refreshExecutor;
+        // Entries are kept through the grace window so they can stand in for a failed load
+        this.store = Caffeine.newBuilder()
+                .initialCapacity(initialCapacity)
+                .maximumSize(maximumSize)
+                .expireAfterWrite(hardTtlSeconds + graceSeconds, TimeUnit.SECONDS)
+                .build();
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return store;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        Entry entry = store.getIfPresent(key);
+        if (entry == null || System.nanoTime() - entry.writtenAtNanos() >= hardTtlNanos) {
+            return null;
+        }
+        return entry.storeValue();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Entry entry = store.getIfPresent(key);
+        long age = entry != null ? System.nanoTime() - entry.writtenAtNanos() : Long.MAX_VALUE;
+        if (age < softTtlNanos) {
+            return (T) fromStoreValue(entry.storeValue());
+        }
+        Callable<T> loader = DelegatingSecurityContextCallable.create(valueLoader, SecurityContextHolder.getContext());
+        if (age < hardTtlNanos) {
+            refreshInBackground(key, loader);
+            return (T) fromStoreValue(entry.storeValue());
+        }
+        try {
+            return (T) loadDeduplicated(key, loader);
+        } catch (RuntimeException e) {
+            if (age < hardTtlNanos + graceNanos) {
+                log.warn("Cache '{}': load for key '{}' failed, serving stale value ({}s old)",
+                        name, key, TimeUnit.NANOSECONDS.toSeconds(age), e);
+                return (T) fromStoreValue(entry.storeValue());
+            }
+            throw e;
+        }
+    }
+
+    private Object loadDeduplicated(Object key, Callable<?> loader) {
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            try {
+                return existing.get();
+            } catch (CancellationException e) {
+                // The refresh we were waiting on was never scheduled - load ourselves
+                try {
+                    return loader.call();
+                } catch (Exception loadFailure) {
+                    throw new ValueRetrievalException(key, loader, loadFailure);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ValueRetrievalException(key, loader, e);
+            } catch (ExecutionException e) {
+                throw new ValueRetrievalException(key, loader, e.getCause());
+            }
+        }
+        runLoad(key, loader, mine);
+        try {
+            return mine.join();
+        } catch (RuntimeException e) {
+            throw new ValueRetrievalException(key, loader, e.getCause() != null ? e.getCause() : e);
+        }
+    }
+
+    private void refreshInBackground(Object key, Callable<?> loader) {
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        if (inFlight.putIfAbsent(key, mine) != null) {
+            return;  // Already being refreshed
+        }
+        try {
+            refreshExecutor.execute(() -> runLoad(key, loader, mine));
+        } catch (RejectedExecutionException e) {
+            // Refresh pool saturated - keep serving stale, a later request retries
+            inFlight.remove(key, mine);
+            mine.cancel(false);
+        }
+    }
+
+    private void runLoad(Object key, Callable<?> loader, CompletableFuture<Object> future) {
+        try {
+            Object value = loader.call();
+            Entry entry = new Entry(toStoreValue(value), System.nanoTime());
+            // Store only if not evicted meanwhile; under the key's lock in inFlight, like evict
+            inFlight.computeIfPresent(key, (k, current) -> {
+                if (current != future) {
+                    return current;
+                }
+                store.put(key, entry);
+                return null;
+            });
+            future.complete(value);
+        } catch (Exception e) {
+            log.debug("Cache '{}': load for key '{}' failed", name, key, e);
+            future.completeExceptionally(e);
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        store.put(key, new Entry(toStoreValue(value), System.nanoTime()));
+    }
+
+    @Override
+    public void evict(Object key) {
+        // Detaches a running load (its waiters still get its value) and invalidates atomically with its store
+        inFlight.compute(key, (k, current) -> {
+            store.invalidate(key);
+            return null;
+        });
+    }
+
+    @Override
+    public void clear() {
+        for (Object key : inFlight.keySet()) {
+            inFlight.remove(key);
+        }
+        store.invalidateAll();
+    }
+}
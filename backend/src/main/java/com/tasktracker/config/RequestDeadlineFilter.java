@@ -0,0 +1,53 @@
+package com.tasktracker.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stamps every request with an absolute deadline (System.nanoTime based).
+ *
+ * Runs first so the deadline also covers time spent in security filters.
+ * Clients may ask for a shorter budget with the X-Request-Timeout-Ms header;
+ * it is capped at db.admission.max-deadline-ms. Downstream work (database
+ * admission control) gives up once the deadline has passed instead of making
+ * the caller wait for a result nobody is waiting for any more.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestDeadlineFilter extends OncePerRequestFilter {
+
+    public static final String DEADLINE_ATTRIBUTE = RequestDeadlineFilter.class.getName() + ".deadlineNanos";
+    public static final String TIMEOUT_HEADER = "X-Request-Timeout-Ms";
+
+    @Value("${db.admission.default-deadline-ms:3000}")
+    private long defaultDeadlineMs;
+
+    @Value("${db.admission.max-deadline-ms:10000}")
+    private long maxDeadlineMs;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long budgetMs = defaultDeadlineMs;
+        String header = request.getHeader(TIMEOUT_HEADER);
+        if (header != null) {
+            try {
+                budgetMs = Math.min(Math.max(0, Long.parseLong(header.trim())), maxDeadlineMs);
+            } catch (NumberFormatException ignored) {
+                // Malformed header - keep the default budget
+            }
+        }
+        request.setAttribute(DEADLINE_ATTRIBUTE, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budgetMs));
+        chain.doFilter(request, response);
+    }
+}
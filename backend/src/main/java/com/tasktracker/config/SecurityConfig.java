@@ -2,7 +2,11 @@ package com.tasktracker.config;
 
 import com.tasktracker.security.CustomUserDetailsService;
 import com.tasktracker.security.JwtRequestFilter;
+import com.tasktracker.security.MeteredBCryptPasswordEncoder;
+import com.tasktracker.security.RateLimitFilter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -13,7 +17,6 @@ import org.springframework.security.config.annotation.authentication.configurati
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -26,9 +29,11 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
  * Key Security Features:
  * - Stateless session management (no server-side sessions)
  * - JWT token validation on each request
+ * - Per-user token-bucket rate limiting right after JWT validation
  * - BCrypt password hashing
  * - CORS configuration for cross-origin requests
- * - Public endpoints for login and API documentation
+ * - Public endpoints for login, API documentation and the health check; the other
+ *   actuator endpoints (metrics, prometheus, traces) need an authenticated caller
  */
 @Configuration  // Marks this as a Spring configuration class
 @EnableWebSecurity  // Enables Spring Security
@@ -41,11 +46,23 @@ public class SecurityConfig {
     // Filter that validates JWT tokens on each request
     @Autowired
     private JwtRequestFilter jwtRequestFilter;
+
+    // Per-user rate limiter, needs the principal resolved by jwtRequestFilter
+    @Autowired
+    private RateLimitFilter rateLimitFilter;
     
     // CORS configuration for cross-origin requests
     @Autowired
     private CorsConfig corsConfig;
 
+    // Metrics registry for BCrypt hash timings
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // BCrypt cost factor; stored hashes with a different cost are rehashed on login
+    @Value("${auth.bcrypt.strength:10}")
+    private int bcryptStrength;
+
     /**
      * Defines the password encoder bean.
      *
@@ -54,11 +71,14 @@ public class SecurityConfig {
      * - Includes salt automatically
      * - Has adaptive cost factor (can be made slower as computers get faster)
      *
-     * @return BCryptPasswordEncoder instance
+     * Hash time is recorded as the auth.bcrypt.hash timer, and hashes whose cost
+     * differs from auth.bcrypt.strength are flagged for rehash on next login.
+     *
+     * @return BCrypt PasswordEncoder instance
      */
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new MeteredBCryptPasswordEncoder(bcryptStrength, meterRegistry);
     }
     
     /**
@@ -66,6 +86,8 @@ public class SecurityConfig {
      *
      * DaoAuthenticationProvider uses our custom UserDetailsService to load users
      * and compares provided password with stored hash using BCrypt.
+     * After a successful check, hashes with an outdated cost are re-encoded and
+     * saved through the UserDetailsPasswordService.
      *
      * @return Configured authentication provider
      */
@@ -74,6 +96,7 @@ public class SecurityConfig {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);  // How to load users
         authProvider.setPasswordEncoder(passwordEncoder());  // How to verify passwords
+        authProvider.setUserDetailsPasswordService(userDetailsService);  // Rehash when BCrypt cost changes
         return authProvider;
     }
     
@@ -98,7 +121,7 @@ public class SecurityConfig {
      * - Which endpoints require authentication
      * - Session management strategy
      * - CORS and CSRF settings
-     * - Custom filters (JWT validation)
+     * - Custom filters (JWT validation, rate limiting)
      *
      * @param http HttpSecurity to configure
      * @return Configured SecurityFilterChain
@@ -114,8 +137,10 @@ public class SecurityConfig {
             // Configure endpoint authorization
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()  // Allow CORS preflight requests
-                .requestMatchers("/api/auth/**", "/h2-console/**", "/actuator/**").permitAll()  // Public endpoints
+                .requestMatchers("/api/auth/**", "/h2-console/**").permitAll()  // Public endpoints
+                .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()  // Platform health checks
                 .requestMatchers("/swagger-ui/**", "/v3/api-docs/**", "/swagger-ui.html").permitAll()  // API documentation
+                .requestMatchers("/api/admin/**").hasRole("ADMIN")  // Diagnostics (JFR recordings), users with role ADMIN only
                 .anyRequest().authenticated()  // All other endpoints require authentication
             )
             // Stateless session - no session stored on server, JWT contains all auth info
@@ -126,7 +151,9 @@ public class SecurityConfig {
             .authenticationProvider(authenticationProvider())
             // Add JWT filter before Spring Security's default UsernamePasswordAuthenticationFilter
             // This ensures JWT validation happens before any authentication logic
-            .addFilterBefore(jwtRequestFilter, UsernamePasswordAuthenticationFilter.class);
+            .addFilterBefore(jwtRequestFilter, UsernamePasswordAuthenticationFilter.class)
+            // Rate limit once the caller is known, before any controller or database work
+            .addFilterAfter(rateLimitFilter, JwtRequestFilter.class);
         
         // Allow H2 console to be embedded in iframe (needed for H2 web console)
         http.headers(headers -> headers.frameOptions(frame -> frame.sameOrigin()));
@@ -1,5 +1,7 @@
 package com.tasktracker.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,7 +11,9 @@ import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Component;
 import org.springframework.cache.CacheManager;
 
-import java.util.Arrays;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 @Component
@@ -22,11 +26,39 @@ public class StartupInfo implements ApplicationListener<ApplicationReadyEvent> {
     @Autowired(required = false)
     private CacheManager cacheManager;
 
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    /** Milliseconds from JVM start to the first completed request, -1 until then. */
+    private final AtomicLong firstRequestMillis = new AtomicLong(-1);
+
     @Override
     public void onApplicationEvent(ApplicationReadyEvent event) {
+        long jvmStart = ManagementFactory.getRuntimeMXBean().getStartTime();
+        log.info("Ready {} ms after JVM start (lazy-init={}, aot={}, cds={})",
+                System.currentTimeMillis() - jvmStart,
+                env.getProperty("spring.main.lazy-initialization", Boolean.class, false),
+                Boolean.getBoolean("spring.aot.enabled"),
+                ManagementFactory.getRuntimeMXBean().getInputArguments().stream()
+                        .anyMatch(arg -> arg.startsWith("-XX:SharedArchiveFile")));
+        if (meterRegistry != null) {
+            TimeGauge.builder("application.first.request.time", firstRequestMillis, TimeUnit.MILLISECONDS,
+                            v -> v.get() < 0 ? Double.NaN : v.get())
+                    .description("Time from JVM start until the first request completed")
+                    .register(meterRegistry);
+        }
+
         String cors = env.getProperty("cors.allowed.origins", "(not set)");
         log.info("Configured CORS allowed origins: {}", cors);
 
+        boolean virtualRequested = env.getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+        boolean virtualSupported = Runtime.version().feature() >= 21;
+        log.info("Request threads: {} (Java {})",
+                virtualRequested && virtualSupported ? "virtual" : "platform", Runtime.version().feature());
+        if (virtualRequested && !virtualSupported) {
+            log.warn("spring.threads.virtual.enabled=true needs Java 21+, falling back to platform threads");
+        }
+
         if (cacheManager != null) {
             String caches = cacheManager.getCacheNames().stream().collect(Collectors.joining(", "));
             log.info("Available caches: {}", caches);
@@ -34,5 +66,23 @@ public class StartupInfo implements ApplicationListener<ApplicationReadyEvent> {
             log.info("No CacheManager available at startup");
         }
     }
-}
 
+    /**
+     * Records time-to-first-request once; called by FirstRequestFilter when
+     * the first request after startup has been served.
+     *
+     * @return true if this call recorded the value, false if it was already set
+     */
+    public boolean recordFirstRequest() {
+        long elapsed = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+        if (!firstRequestMillis.compareAndSet(-1, elapsed)) {
+            return false;
+        }
+        log.info("Time to first request: {} ms after JVM start", elapsed);
+        return true;
+    }
+
+    public boolean isFirstRequestRecorded() {
+        return firstRequestMillis.get() >= 0;
+    }
+}
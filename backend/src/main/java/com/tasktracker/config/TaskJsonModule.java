@@ -0,0 +1,222 @@
+package com.tasktracker.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.tasktracker.dto.TaskDTO;
+import com.tasktracker.dto.TaskFieldSet;
+import com.tasktracker.dto.TaskStatsDTO;
+import com.tasktracker.model.Task;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Instant;
+
+/**
+ * Hand-written Jackson serializers for TaskDTO and TaskStatsDTO.
+ *
+ * Task lists are the largest responses; the reflective bean serializer
+ * looks up properties per field and formats every Instant through
+ * DateTimeFormatter. These serializers write straight to the response's
+ * JsonGenerator with:
+ * - field names pre-encoded once (SerializedString)
+ * - enum names pre-encoded per constant
+ * - ISO-8601 instants formatted into a reused per-thread char buffer
+ *
+ * Output is byte-for-byte what the default serializer produces with
+ * WRITE_DATES_AS_TIMESTAMPS disabled (same field order, nulls included,
+ * DateTimeFormatter.ISO_INSTANT fraction rules). A DTO carrying a sparse
+ * TaskFieldSet (?fields=) is written with only those properties.
+ *
+ * Spring Boot registers every Module bean with its ObjectMapper;
+ * json.task-serializers.enabled=false falls back to the default serializer.
+ * bench/TaskJsonBenchmark compares both.
+ */
+@Component
+@ConditionalOnProperty(name = "json.task-serializers.enabled", havingValue = "true", matchIfMissing = true)
+public class TaskJsonModule extends SimpleModule {
+
+    public TaskJsonModule() {
+        super("TaskJsonModule");
+        addSerializer(TaskDTO.class, new TaskDTOSerializer());
+        addSerializer(TaskStatsDTO.class, new TaskStatsDTOSerializer());
+    }
+
+    static final class TaskDTOSerializer extends StdSerializer<TaskDTO> {
+
+        private static final SerializableString ID = new SerializedString("id");
+        private static final SerializableString TITLE = new SerializedString("title");
+        private static final SerializableString DESCRIPTION = new SerializedString("description");
+        private static final SerializableString STATUS = new SerializedString("status");
+        private static final SerializableString PRIORITY = new SerializedString("priority");
+        private static final SerializableString CREATED_AT = new SerializedString("createdAt");
+        private static final SerializableString COMPLETED_AT = new SerializedString("completedAt");
+
+        private static final SerializableString[] STATUS_NAMES = names(Task.TaskStatus.values());
+        private static final SerializableString[] PRIORITY_NAMES = names(Task.TaskPriority.values());
+
+        TaskDTOSerializer() {
+            super(TaskDTO.class);
+        }
+
+        @Override
+        public void serialize(TaskDTO task, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            TaskFieldSet fields = task.getFields() == null ? TaskFieldSet.ALL : task.getFields();
+            gen.writeStartObject(task);
+            if (fields.includes(TaskFieldSet.Field.ID)) {
+                gen.writeFieldName(ID);
+                if (task.getId() == null) {
+                    gen.writeNull();
+                } else {
+                    gen.writeNumber(task.getId());
+                }
+            }
+            if (fields.includes(TaskFieldSet.Field.TITLE)) {
+                gen.writeFieldName(TITLE);
+                gen.writeString(task.getTitle());
+            }
+            if (fields.includes(TaskFieldSet.Field.DESCRIPTION)) {
+                gen.writeFieldName(DESCRIPTION);
+                gen.writeString(task.getDescription());
+            }
+            if (fields.includes(TaskFieldSet.Field.STATUS)) {
+                gen.writeFieldName(STATUS);
+                writeName(gen, task.getStatus() == null ? null : STATUS_NAMES[task.getStatus().ordinal()]);
+            }
+            if (fields.includes(TaskFieldSet.Field.PRIORITY)) {
+                gen.writeFieldName(PRIORITY);
+                writeName(gen, task.getPriority() == null ? null : PRIORITY_NAMES[task.getPriority().ordinal()]);
+            }
+            if (fields.includes(TaskFieldSet.Field.CREATED_AT)) {
+                gen.writeFieldName(CREATED_AT);
+                writeInstant(gen, task.getCreatedAt());
+            }
+            if (fields.includes(TaskFieldSet.Field.COMPLETED_AT)) {
+                gen.writeFieldName(COMPLETED_AT);
+                writeInstant(gen, task.getCompletedAt());
+            }
+            gen.writeEndObject();
+        }
+
+        private static void writeName(JsonGenerator gen, SerializableString name) throws IOException {
+            if (name == null) {
+                gen.writeNull();
+            } else {
+                gen.writeString(name);
+            }
+        }
+
+        private static SerializableString[] names(Enum<?>[] values) {
+            SerializableString[] names = new SerializableString[values.length];
+            for (Enum<?> value : values) {
+                names[value.ordinal()] = new SerializedString(value.name());
+            }
+            return names;
+        }
+    }
+
+    static final class TaskStatsDTOSerializer extends StdSerializer<TaskStatsDTO> {
+
+        private static final SerializableString TOTAL = new SerializedString("totalTasks");
+        private static final SerializableString COMPLETED = new SerializedString("completedTasks");
+        private static final SerializableString PENDING = new SerializedString("pendingTasks");
+        private static final SerializableString AVERAGE = new SerializedString("averageCompletionTimeHours");
+        private static final SerializableString TODO = new SerializedString("todoTasks");
+        private static final SerializableString IN_PROGRESS = new SerializedString("inProgressTasks");
+
+        TaskStatsDTOSerializer() {
+            super(TaskStatsDTO.class);
+        }
+
+        @Override
+        public void serialize(TaskStatsDTO stats, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(stats);
+            gen.writeFieldName(TOTAL);
+            gen.writeNumber(stats.getTotalTasks());
+            gen.writeFieldName(COMPLETED);
+            gen.writeNumber(stats.getCompletedTasks());
+            gen.writeFieldName(PENDING);
+            gen.writeNumber(stats.getPendingTasks());
+            gen.writeFieldName(AVERAGE);
+            gen.writeNumber(stats.getAverageCompletionTimeHours());
+            gen.writeFieldName(TODO);
+            gen.writeNumber(stats.getTodoTasks());
+            gen.writeFieldName(IN_PROGRESS);
+            gen.writeNumber(stats.getInProgressTasks());
+            gen.writeEndObject();
+        }
+    }
+
+    // "+yyyyyy-MM-ddTHH:mm:ss.nnnnnnnnnZ" never needs more than 32 chars
+    private static final ThreadLocal<char[]> INSTANT_BUFFER = ThreadLocal.withInitial(() -> new char[32]);
+
+    /**
+     * Writes an Instant as DateTimeFormatter.ISO_INSTANT would: UTC, seconds
+     * always present, fraction in groups of 3 digits only as long as needed.
+     * Years outside 0000-9999 (never produced by this application) fall back
+     * to Instant.toString().
+     */
+    static void writeInstant(JsonGenerator gen, Instant instant) throws IOException {
+        if (instant == null) {
+            gen.writeNull();
+            return;
+        }
+        long seconds = instant.getEpochSecond();
+        long days = Math.floorDiv(seconds, 86_400L);
+        int secondOfDay = (int) Math.floorMod(seconds, 86_400L);
+
+        // Days since epoch to proleptic Gregorian year/month/day (civil-from-days)
+        long z = days + 719_468L;
+        long era = Math.floorDiv(z, 146_097L);
+        long dayOfEra = z - era * 146_097L;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long mp = (5 * dayOfYear + 2) / 153;
+        int day = (int) (dayOfYear - (153 * mp + 2) / 5 + 1);
+        int month = (int) (mp < 10 ? mp + 3 : mp - 9);
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        if (year < 0 || year > 9999) {
+            gen.writeString(instant.toString());
+            return;
+        }
+
+        char[] buf = INSTANT_BUFFER.get();
+        int pos = 0;
+        pos = digits(buf, pos, (int) year, 4);
+        buf[pos++] = '-';
+        pos = digits(buf, pos, month, 2);
+        buf[pos++] = '-';
+        pos = digits(buf, pos, day, 2);
+        buf[pos++] = 'T';
+        pos = digits(buf, pos, secondOfDay / 3600, 2);
+        buf[pos++] = ':';
+        pos = digits(buf, pos, secondOfDay / 60 % 60, 2);
+        buf[pos++] = ':';
+        pos = digits(buf, pos, secondOfDay % 60, 2);
+        int nano = instant.getNano();
+        if (nano != 0) {
+            buf[pos++] = '.';
+            if (nano % 1_000_000 == 0) {
+                pos = digits(buf, pos, nano / 1_000_000, 3);
+            } else if (nano % 1_000 == 0) {
+                pos = digits(buf, pos, nano / 1_000, 6);
+            } else {
+                pos = digits(buf, pos, nano, 9);
+            }
+        }
+        buf[pos++] = 'Z';
+        gen.writeString(buf, 0, pos);
+    }
+
+    private static int digits(char[] buf, int pos, int value, int width) {
+        for (int i = pos + width - 1; i >= pos; i--) {
+            buf[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return pos + width;
+    }
+}
@@ -0,0 +1,310 @@
+package com.tasktracker.config;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.WireFormat;
+import com.tasktracker.dto.LoginRequest;
+import com.tasktracker.dto.LoginResponse;
+import com.tasktracker.dto.TaskDTO;
+import com.tasktracker.dto.TaskRequest;
+import com.tasktracker.dto.TaskStatsDTO;
+import com.tasktracker.model.Task;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads and writes the task and auth API in Protocol Buffers wire format
+ * (application/x-protobuf), following src/main/proto/tasktracker.proto.
+ *
+ * Encodes the existing DTOs directly with CodedOutputStream instead of
+ * converting them to generated message classes first, so the server needs no
+ * generated code and no intermediate object per task. Field numbers are those
+ * of the .proto file; clients generate their classes from it, and so do the
+ * tests (TaskProtobufHttpMessageConverterTest), which compare the encodings.
+ *
+ * Written: TaskDTO (Task), List of TaskDTO (TaskList), TaskStatsDTO (TaskStats),
+ * LoginResponse and Map of String to String such as {"error": ...}
+ * (MessageResponse). Read: TaskRequest and LoginRequest. Other bodies, e.g.
+ * the admin endpoints' JournalBatch or List of ShardUsage, are left to the
+ * other converters (406 when only protobuf is acceptable). Bodies returned as
+ * ResponseEntity<?> carry no generic type, so List elements and Map entries
+ * are checked again when written.
+ */
+public class TaskProtobufHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    public static final MediaType PROTOBUF = new MediaType("application", "x-protobuf");
+
+    private static final Task.TaskStatus[] STATUSES = Task.TaskStatus.values();
+    private static final Task.TaskPriority[] PRIORITIES = Task.TaskPriority.values();
+
+    public TaskProtobufHttpMessageConverter() {
+        super(PROTOBUF);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return TaskRequest.class == clazz || LoginRequest.class == clazz || TaskDTO.class == clazz
+                || TaskStatsDTO.class == clazz || LoginResponse.class == clazz
+                || List.class.isAssignableFrom(clazz) || Map.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        Class<?> clazz = ResolvableType.forType(type).resolve(Object.class);
+        return (clazz == TaskRequest.class || clazz == LoginRequest.class) && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        if (!canWrite(mediaType)) {
+            return false;
+        }
+        if (clazz == TaskDTO.class || clazz == TaskStatsDTO.class || clazz == LoginResponse.class) {
+            return true;
+        }
+        // List<TaskDTO> and Map<String, String>; without generics (ResponseEntity<?>) checked when written
+        ResolvableType declared = type == null ? ResolvableType.NONE : ResolvableType.forType(type);
+        if (List.class.isAssignableFrom(clazz)) {
+            return isUnresolvedOr(declared.as(List.class).resolveGeneric(0), TaskDTO.class);
+        }
+        if (Map.class.isAssignableFrom(clazz)) {
+            ResolvableType map = declared.as(Map.class);
+            return isUnresolvedOr(map.resolveGeneric(0), String.class)
+                    && isUnresolvedOr(map.resolveGeneric(1), String.class);
+        }
+        return false;
+    }
+
+    private static boolean isUnresolvedOr(Class<?> resolved, Class<?> expected) {
+        return resolved == null || resolved == expected;
+    }
+
+    @Override
+    protected void writeInternal(Object body, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        // Checked before getBody(), which commits the response
+        if (body instanceof List<?> list && !list.stream().allMatch(TaskDTO.class::isInstance)) {
+            throw new HttpMessageNotWritableException("Cannot encode a list of non-TaskDTO elements as tasktracker.v1.TaskList");
+        }
+        if (body instanceof Map<?, ?> map && !map.entrySet().stream()
+                .allMatch(entry -> entry.getKey() instanceof String && entry.getValue() instanceof String)) {
+            throw new HttpMessageNotWritableException("Cannot encode a map with non-String entries as tasktracker.v1.MessageResponse");
+        }
+        CodedOutputStream out = CodedOutputStream.newInstance(outputMessage.getBody(), 8192);
+        if (body instanceof TaskDTO task) {
+            writeTaskFields(out, task);
+        } else if (body instanceof List<?> tasks) {
+            for (Object element : tasks) {
+                TaskDTO task = (TaskDTO) element;
+                out.writeTag(1, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+                out.writeUInt32NoTag(taskSize(task));
+                writeTaskFields(out, task);
+            }
+        } else if (body instanceof TaskStatsDTO stats) {
+            writeStats(out, stats);
+        } else if (body instanceof LoginResponse login) {
+            writeString(out, 1, login.getToken());
+            writeString(out, 2, login.getUsername());
+            writeString(out, 3, login.getEmail());
+            writeString(out, 4, login.getMessage());
+        } else if (body instanceof Map<?, ?> map) {
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                String key = (String) entry.getKey();
+                String value = (String) entry.getValue();
+                out.writeTag(1, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+                out.writeUInt32NoTag(CodedOutputStream.computeStringSize(1, key)
+                        + CodedOutputStream.computeStringSize(2, value));
+                out.writeString(1, key);
+                out.writeString(2, value);
+            }
+        } else {
+            throw new HttpMessageNotWritableException("Cannot encode " + body.getClass().getName() + " as protobuf");
+        }
+        out.flush();
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage)
+            throws IOException, HttpMessageNotReadableException {
+        return read(clazz, null, inputMessage);
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage)
+            throws IOException, HttpMessageNotReadableException {
+        Class<?> clazz = ResolvableType.forType(type).resolve(Object.class);
+        CodedInputStream in = CodedInputStream.newInstance(inputMessage.getBody());
+        try {
+            if (clazz == TaskRequest.class) {
+                return readTaskRequest(in);
+            }
+            if (clazz == LoginRequest.class) {
+                return readLoginRequest(in);
+            }
+        } catch (InvalidProtocolBufferException e) {
+            throw new HttpMessageNotReadableException("Invalid protobuf message: " + e.getMessage(), e, inputMessage);
+        }
+        throw new HttpMessageNotReadableException("Cannot decode " + clazz.getName() + " from protobuf", inputMessage);
+    }
+
+    // tasktracker.v1.Task
+    private static void writeTaskFields(CodedOutputStream out, TaskDTO task) throws IOException {
+        if (task.getId() != null && task.getId() != 0) {
+            out.writeInt64(1, task.getId());
+        }
+        writeString(out, 2, task.getTitle());
+        if (task.getDescription() != null) {
+            out.writeString(3, task.getDescription());  // optional: present even when empty
+        }
+        if (task.getStatus() != null) {
+            out.writeEnum(4, task.getStatus().getCode());
+        }
+        if (task.getPriority() != null) {
+            out.writeEnum(5, task.getPriority().getCode());
+        }
+        writeTimestamp(out, 6, task.getCreatedAt());
+        writeTimestamp(out, 7, task.getCompletedAt());
+    }
+
+    private static int taskSize(TaskDTO task) {
+        int size = 0;
+        if (task.getId() != null && task.getId() != 0) {
+            size += CodedOutputStream.computeInt64Size(1, task.getId());
+        }
+        if (task.getTitle() != null && !task.getTitle().isEmpty()) {
+            size += CodedOutputStream.computeStringSize(2, task.getTitle());
+        }
+        if (task.getDescription() != null) {
+            size += CodedOutputStream.computeStringSize(3, task.getDescription());
+        }
+        if (task.getStatus() != null) {
+            size += CodedOutputStream.computeEnumSize(4, task.getStatus().getCode());
+        }
+        if (task.getPriority() != null) {
+            size += CodedOutputStream.computeEnumSize(5, task.getPriority().getCode());
+        }
+        size += timestampFieldSize(6, task.getCreatedAt());
+        size += timestampFieldSize(7, task.getCompletedAt());
+        return size;
+    }
+
+    // tasktracker.v1.TaskStats
+    private static void writeStats(CodedOutputStream out, TaskStatsDTO stats) throws IOException {
+        writeInt64(out, 1, stats.getTotalTasks());
+        writeInt64(out, 2, stats.getCompletedTasks());
+        writeInt64(out, 3, stats.getPendingTasks());
+        if (stats.getAverageCompletionTimeHours() != 0) {
+            out.writeDouble(4, stats.getAverageCompletionTimeHours());
+        }
+        writeInt64(out, 5, stats.getTodoTasks());
+        writeInt64(out, 6, stats.getInProgressTasks());
+    }
+
+    // google.protobuf.Timestamp as a nested message
+    private static void writeTimestamp(CodedOutputStream out, int field, Instant instant) throws IOException {
+        if (instant == null) {
+            return;
+        }
+        out.writeTag(field, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+        out.writeUInt32NoTag(timestampSize(instant));
+        if (instant.getEpochSecond() != 0) {
+            out.writeInt64(1, instant.getEpochSecond());
+        }
+        if (instant.getNano() != 0) {
+            out.writeInt32(2, instant.getNano());
+        }
+    }
+
+    private static int timestampFieldSize(int field, Instant instant) {
+        if (instant == null) {
+            return 0;
+        }
+        int size = timestampSize(instant);
+        return CodedOutputStream.computeTagSize(field) + CodedOutputStream.computeUInt32SizeNoTag(size) + size;
+    }
+
+    private static int timestampSize(Instant instant) {
+        int size = 0;
+        if (instant.getEpochSecond() != 0) {
+            size += CodedOutputStream.computeInt64Size(1, instant.getEpochSecond());
+        }
+        if (instant.getNano() != 0) {
+            size += CodedOutputStream.computeInt32Size(2, instant.getNano());
+        }
+        return size;
+    }
+
+    private static void writeString(CodedOutputStream out, int field, String value) throws IOException {
+        if (value != null && !value.isEmpty()) {
+            out.writeString(field, value);
+        }
+    }
+
+    private static void writeInt64(CodedOutputStream out, int field, long value) throws IOException {
+        if (value != 0) {
+            out.writeInt64(field, value);
+        }
+    }
+
+    // tasktracker.v1.TaskRequest
+    private static TaskRequest readTaskRequest(CodedInputStream in) throws IOException {
+        TaskRequest request = new TaskRequest();
+        request.setTitle("");
+        int tag;
+        while ((tag = in.readTag()) != 0) {
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case 1 -> request.setTitle(in.readString());
+                case 2 -> request.setDescription(in.readString());
+                case 3 -> request.setStatus(status(in.readEnum()));
+                case 4 -> request.setPriority(priority(in.readEnum()));
+                default -> in.skipField(tag);
+            }
+        }
+        return request;
+    }
+
+    // tasktracker.v1.LoginRequest
+    private static LoginRequest readLoginRequest(CodedInputStream in) throws IOException {
+        LoginRequest request = new LoginRequest("", "");
+        int tag;
+        while ((tag = in.readTag()) != 0) {
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case 1 -> request.setUsername(in.readString());
+                case 2 -> request.setPassword(in.readString());
+                default -> in.skipField(tag);
+            }
+        }
+        return request;
+    }
+
+    // Unknown or UNSPECIFIED (0) values decode to null and fail @NotNull validation
+    private static Task.TaskStatus status(int code) {
+        for (Task.TaskStatus status : STATUSES) {
+            if (status.getCode() == code) {
+                return status;
+            }
+        }
+        return null;
+    }
+
+    private static Task.TaskPriority priority(int code) {
+        for (Task.TaskPriority priority : PRIORITIES) {
+            if (priority.getCode() == code) {
+                return priority;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,141 @@
+package com.tasktracker.controller;
+
+import com.tasktracker.jfr.FlightRecordingService;
+import com.tasktracker.journal.ChangeJournal;
+import com.tasktracker.journal.JournalBatch;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * REST Controller for administrative operations.
+ *
+ * All endpoints under /api/admin require a JWT for a user with role ADMIN
+ * (see SecurityConfig); other users get 403 Forbidden. Registration only
+ * creates role USER, so the first administrator is the bootstrap account from
+ * admin.bootstrap.username and admin.bootstrap.password (see DataInitializer).
+ */
+@RestController
+@RequestMapping("/api/admin")
+@Tag(name = "Administration", description = "Diagnostics for administrators")
+@SecurityRequirement(name = "Bearer Authentication")
+public class AdminController {
+
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static final int MAX_JOURNAL_RECORDS = 1000;
+    private static final long MAX_JOURNAL_WAIT_MS = 30000;
+
+    @Autowired
+    private FlightRecordingService flightRecordingService;
+
+    @Autowired
+    private ChangeJournal changeJournal;
+
+    /**
+     * Runs a JDK Flight Recorder recording for the given number of seconds and
+     * returns it as a .jfr file.
+     *
+     * The request is held open for the whole recording. Recordings use JFR's
+     * low-overhead "default" settings plus the application's own events (cache
+     * lookups, JWT verification, task queries, stats computation).
+     *
+     * @param seconds Recording length (default 20, at most jfr.recording.max-seconds, never over 50)
+     * @return The recording as application/octet-stream
+     */
+    @Operation(
+            summary = "Record a JFR profile",
+            description = "Starts a time-boxed Flight Recorder recording and returns the .jfr file (ADMIN only)"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Recording file",
+                    content = @Content(mediaType = MediaType.APPLICATION_OCTET_STREAM_VALUE)),
+            @ApiResponse(responseCode = "400", description = "seconds out of range", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Not an administrator", content = @Content),
+            @ApiResponse(responseCode = "409", description = "Another recording is in progress", content = @Content)
+    })
+    @PostMapping("/jfr")
+    public ResponseEntity<?> recordFlight(@RequestParam(defaultValue = "20") int seconds) {
+        try {
+            byte[] recording = flightRecordingService.record(seconds);
+            String filename = "task-tracker-" + LocalDateTime.now().format(FILE_TIMESTAMP) + ".jfr";
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                    .body(recording);
+        } catch (IllegalArgumentException e) {
+            return error(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (IllegalStateException e) {
+            return error(HttpStatus.CONFLICT, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return error(HttpStatus.SERVICE_UNAVAILABLE, "Recording interrupted");
+        } catch (Exception e) {
+            return error(HttpStatus.INTERNAL_SERVER_ERROR, "Recording failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reads task changes from the change journal, starting at an offset.
+     *
+     * Consumers tail the journal by passing each response's nextOffset as the
+     * next offset; with waitMs the request is held open until new changes are
+     * on disk (long polling). Only changes already forced to disk are returned.
+     *
+     * @param offset Offset to read from (0 or startOffset for the oldest retained change)
+     * @param limit Maximum number of changes (at most 1000)
+     * @param waitMs How long to wait when there are no new changes (at most 30000)
+     * @return records, nextOffset, startOffset and endOffset
+     */
+    @Operation(
+            summary = "Read the task change journal",
+            description = "Returns task creates, updates and deletes from an offset, optionally long-polling (ADMIN only)"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Journal records"),
+            @ApiResponse(responseCode = "400", description = "Offset not retained or not a record boundary",
+                    content = @Content),
+            @ApiResponse(responseCode = "403", description = "Not an administrator", content = @Content),
+            @ApiResponse(responseCode = "503", description = "Journal disabled", content = @Content)
+    })
+    @GetMapping("/journal")
+    public ResponseEntity<?> readJournal(@RequestParam(defaultValue = "0") long offset,
+                                         @RequestParam(defaultValue = "100") int limit,
+                                         @RequestParam(defaultValue = "0") long waitMs) {
+        if (!changeJournal.isEnabled()) {
+            return error(HttpStatus.SERVICE_UNAVAILABLE, "Change journal is disabled");
+        }
+        if (limit < 1 || limit > MAX_JOURNAL_RECORDS || waitMs < 0 || waitMs > MAX_JOURNAL_WAIT_MS) {
+            return error(HttpStatus.BAD_REQUEST,
+                    "limit must be 1-" + MAX_JOURNAL_RECORDS + " and waitMs 0-" + MAX_JOURNAL_WAIT_MS);
+        }
+        try {
+            JournalBatch batch = changeJournal.poll(offset, limit, waitMs);
+            return ResponseEntity.ok(batch);
+        } catch (IllegalArgumentException e) {
+            return error(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return error(HttpStatus.SERVICE_UNAVAILABLE, "Interrupted while waiting for changes");
+        }
+    }
+
+    private static ResponseEntity<Map<String, String>> error(HttpStatus status, String message) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", message);
+        return ResponseEntity.status(status).body(error);
+    }
+}
@@ -2,6 +2,7 @@ package com.tasktracker.controller;
 
 import com.tasktracker.dto.LoginRequest;
 import com.tasktracker.dto.LoginResponse;
+import com.tasktracker.security.LoginRejectedException;
 import com.tasktracker.service.AuthService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -10,6 +11,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -49,6 +51,10 @@ public class AuthController {
             @ApiResponse(responseCode = "200", description = "Login successful",
                     content = @Content(schema = @Schema(implementation = LoginResponse.class))),
             @ApiResponse(responseCode = "400", description = "Invalid credentials",
+                    content = @Content),
+            @ApiResponse(responseCode = "429", description = "Too many logins in progress, retry later",
+                    content = @Content),
+            @ApiResponse(responseCode = "503", description = "Login service busy, retry later",
                     content = @Content)
     })
     @PostMapping("/login")  // Maps to POST /api/auth/login - public endpoint
@@ -57,6 +63,13 @@ public class AuthController {
             // Authenticate user and generate JWT token
             LoginResponse response = authService.login(request);
             return ResponseEntity.ok(response);
+        } catch (LoginRejectedException e) {
+            // Password verification pool is saturated - tell the client when to retry
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.status(e.getStatus())
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(error);
         } catch (Exception e) {
             // Return 400 with error message if authentication fails
             Map<String, String> error = new HashMap<>();
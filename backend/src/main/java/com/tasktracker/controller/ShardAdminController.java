@@ -0,0 +1,83 @@
+package com.tasktracker.controller;
+
+import com.tasktracker.sharding.ShardRebalancer;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * REST Controller for shard administration (db.sharding.enabled only).
+ *
+ * Like all of /api/admin, requires a JWT for a user with role ADMIN.
+ */
+@RestController
+@RequestMapping("/api/admin/shards")
+@ConditionalOnProperty(name = "db.sharding.enabled", havingValue = "true")
+@Tag(name = "Administration", description = "Diagnostics for administrators")
+@SecurityRequirement(name = "Bearer Authentication")
+public class ShardAdminController {
+
+    @Autowired
+    private ShardRebalancer shardRebalancer;
+
+    /**
+     * Lists users and tasks stored on each shard.
+     *
+     * @return One entry per shard
+     */
+    @Operation(summary = "Shard usage", description = "Users and tasks per shard (ADMIN only)")
+    @GetMapping
+    public List<ShardRebalancer.ShardUsage> usage() {
+        return shardRebalancer.usage();
+    }
+
+    /**
+     * Moves a user and all of their tasks to another shard.
+     *
+     * The user's requests get 503 with Retry-After while the move runs.
+     *
+     * @param username User to move
+     * @param shard Target shard index
+     * @return Source and target shard and the number of tasks moved
+     */
+    @Operation(summary = "Move a user to another shard",
+            description = "Copies the user and their tasks to the target shard, then removes them from the old one (ADMIN only)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "User moved"),
+            @ApiResponse(responseCode = "400", description = "No such shard"),
+            @ApiResponse(responseCode = "404", description = "No such user"),
+            @ApiResponse(responseCode = "409", description = "User is already being moved, or other instances are running")
+    })
+    @PostMapping("/move")
+    public ResponseEntity<?> move(@RequestParam String username, @RequestParam int shard) {
+        try {
+            return ResponseEntity.ok(shardRebalancer.move(username, shard));
+        } catch (IllegalArgumentException e) {
+            return error(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (NoSuchElementException e) {
+            return error(HttpStatus.NOT_FOUND, e.getMessage());
+        } catch (IllegalStateException e) {
+            return error(HttpStatus.CONFLICT, e.getMessage());
+        } catch (Exception e) {
+            return error(HttpStatus.INTERNAL_SERVER_ERROR, "Move failed: " + e.getMessage());
+        }
+    }
+
+    private static ResponseEntity<Map<String, String>> error(HttpStatus status, String message) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", message);
+        return ResponseEntity.status(status).body(error);
+    }
+}
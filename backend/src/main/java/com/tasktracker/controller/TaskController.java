@@ -1,9 +1,11 @@
 package com.tasktracker.controller;
 
 import com.tasktracker.dto.TaskDTO;
+import com.tasktracker.dto.TaskFieldSet;
 import com.tasktracker.dto.TaskRequest;
 import com.tasktracker.dto.TaskStatsDTO;
 import com.tasktracker.model.Task;
+import com.tasktracker.service.DatabaseOverloadedException;
 import com.tasktracker.service.TaskService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -15,6 +17,7 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -29,6 +32,7 @@ import java.util.Map;
  * Handles HTTP requests for task CRUD operations, filtering, and statistics.
  * Uses JWT authentication for all endpoints via SecurityRequirement annotation.
  * Returns DTOs instead of entities to avoid exposing internal database structure.
+ * Returns 503 with Retry-After when database admission control sheds the request.
  */
 @RestController  // Marks this as a REST controller - combines @Controller and @ResponseBody
 @RequestMapping("/api/tasks")  // Base URL path for all endpoints in this controller
@@ -37,6 +41,9 @@ import java.util.Map;
 @SecurityRequirement(name = "Bearer Authentication")  // Indicates JWT required for all endpoints
 public class TaskController {
     
+    private static final String FIELDS_DESCRIPTION = "Comma-separated task properties to return "
+            + "(id, title, description, status, priority, createdAt, completedAt); all when omitted";
+
     // Service layer dependency - handles business logic and database operations
     @Autowired
     private TaskService taskService;
@@ -47,10 +54,12 @@ public class TaskController {
      * Supports filtering by either status OR priority (not both simultaneously).
      * If no filters provided, returns all tasks for the current user.
      * User context is extracted from JWT token in the service layer.
+     * An optional fields list returns only those task properties.
      *
      * @param status Optional filter by task status (TODO, IN_PROGRESS, DONE)
      * @param priority Optional filter by task priority (LOW, MEDIUM, HIGH)
-     * @return List of TaskDTOs matching the filter criteria
+     * @param fields Optional comma-separated task properties to return, e.g. id,title,status
+     * @return List of TaskDTOs matching the filter criteria, or 400 for an unknown field
      */
     @Operation(
             summary = "Get all tasks",
@@ -58,29 +67,38 @@ public class TaskController {
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved tasks"),
+            @ApiResponse(responseCode = "400", description = "Unknown field in fields"),
             @ApiResponse(responseCode = "401", description = "Unauthorized - JWT token required")
     })
     @GetMapping  // Maps to GET /api/tasks
-    public ResponseEntity<List<TaskDTO>> getAllTasks(
+    public ResponseEntity<?> getAllTasks(
             @Parameter(description = "Filter by task status (TODO, IN_PROGRESS, DONE)")
             @RequestParam(required = false) String status,
             @Parameter(description = "Filter by task priority (LOW, MEDIUM, HIGH)")
-            @RequestParam(required = false) String priority) {
+            @RequestParam(required = false) String priority,
+            @Parameter(description = FIELDS_DESCRIPTION)
+            @RequestParam(required = false) String fields) {
+        TaskFieldSet fieldSet;
+        try {
+            fieldSet = TaskFieldSet.parse(fields);
+        } catch (IllegalArgumentException e) {
+            return invalidFields(e);
+        }
         
         // Filter by status if provided
         if (status != null) {
             Task.TaskStatus taskStatus = Task.TaskStatus.valueOf(status.toUpperCase());
-            return ResponseEntity.ok(taskService.getTasksByStatus(taskStatus));
+            return ResponseEntity.ok(taskService.getTasksByStatus(taskStatus, fieldSet));
         }
         
         // Filter by priority if provided
         if (priority != null) {
             Task.TaskPriority taskPriority = Task.TaskPriority.valueOf(priority.toUpperCase());
-            return ResponseEntity.ok(taskService.getTasksByPriority(taskPriority));
+            return ResponseEntity.ok(taskService.getTasksByPriority(taskPriority, fieldSet));
         }
         
         // No filters - return all tasks for current user
-        return ResponseEntity.ok(taskService.getAllTasks());
+        return ResponseEntity.ok(taskService.getAllTasks(fieldSet));
     }
     
     /**
@@ -90,19 +108,31 @@ public class TaskController {
      * Returns 404 if task not found or doesn't belong to current user.
      *
      * @param id The unique identifier of the task
+     * @param fields Optional comma-separated task properties to return
      * @return TaskDTO if found and authorized, error message otherwise
      */
     @Operation(summary = "Get task by ID", description = "Retrieve a specific task by its ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Task found",
                     content = @Content(schema = @Schema(implementation = TaskDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Unknown field in fields"),
             @ApiResponse(responseCode = "404", description = "Task not found")
     })
     @GetMapping("/{id}")  // Maps to GET /api/tasks/{id} - {id} is a path variable
     public ResponseEntity<?> getTaskById(
-            @Parameter(description = "Task ID") @PathVariable Long id) {
+            @Parameter(description = "Task ID") @PathVariable Long id,
+            @Parameter(description = FIELDS_DESCRIPTION)
+            @RequestParam(required = false) String fields) {
+        TaskFieldSet fieldSet;
+        try {
+            fieldSet = TaskFieldSet.parse(fields);
+        } catch (IllegalArgumentException e) {
+            return invalidFields(e);
+        }
         try {
-            return ResponseEntity.ok(taskService.getTaskById(id));
+            return ResponseEntity.ok(taskService.getTaskById(id, fieldSet));
+        } catch (DatabaseOverloadedException e) {
+            return databaseOverloaded(e);
         } catch (Exception e) {
             // Return error response if task not found or unauthorized
             Map<String, String> error = new HashMap<>();
@@ -133,6 +163,8 @@ public class TaskController {
             TaskDTO task = taskService.createTask(request);
             // Return 201 Created status with the new task
             return ResponseEntity.status(HttpStatus.CREATED).body(task);
+        } catch (DatabaseOverloadedException e) {
+            return databaseOverloaded(e);
         } catch (Exception e) {
             // Return 400 Bad Request with error message
             Map<String, String> error = new HashMap<>();
@@ -165,6 +197,8 @@ public class TaskController {
         try {
             TaskDTO task = taskService.updateTask(id, request);
             return ResponseEntity.ok(task);
+        } catch (DatabaseOverloadedException e) {
+            return databaseOverloaded(e);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
@@ -195,6 +229,8 @@ public class TaskController {
             Map<String, String> response = new HashMap<>();
             response.put("message", "Task deleted successfully");
             return ResponseEntity.ok(response);
+        } catch (DatabaseOverloadedException e) {
+            return databaseOverloaded(e);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
@@ -222,5 +258,27 @@ public class TaskController {
     public ResponseEntity<TaskStatsDTO> getTaskStats() {
         return ResponseEntity.ok(taskService.getTaskStats());
     }
-}
 
+    // 400 Bad Request for a fields parameter naming an unknown property
+    private ResponseEntity<Map<String, String>> invalidFields(IllegalArgumentException e) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", e.getMessage());
+        return ResponseEntity.badRequest().body(error);
+    }
+
+    /**
+     * Handles admission-control rejections from endpoints without their own try/catch
+     * (list, filter and stats).
+     *
+     * @param e Rejection from DatabaseAdmissionControl
+     * @return 503 Service Unavailable with Retry-After
+     */
+    @ExceptionHandler(DatabaseOverloadedException.class)
+    public ResponseEntity<Map<String, String>> databaseOverloaded(DatabaseOverloadedException e) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(error);
+    }
+}
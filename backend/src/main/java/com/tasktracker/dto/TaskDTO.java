@@ -1,5 +1,6 @@
 package com.tasktracker.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.tasktracker.model.Task;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -21,4 +22,13 @@ public class TaskDTO implements Serializable {
     private Task.TaskPriority priority;
     private Instant createdAt;
     private Instant completedAt;
+
+    // Sparse fieldset this DTO was loaded with (null = all); serializers skip the other properties
+    @JsonIgnore
+    private TaskFieldSet fields;
+
+    public TaskDTO(Long id, String title, String description, Task.TaskStatus status, Task.TaskPriority priority,
+                   Instant createdAt, Instant completedAt) {
+        this(id, title, description, status, priority, createdAt, completedAt, null);
+    }
 }
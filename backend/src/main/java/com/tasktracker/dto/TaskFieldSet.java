@@ -0,0 +1,114 @@
+package com.tasktracker.dto;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Sparse fieldset requested with ?fields=id,title,status on the task endpoints.
+ *
+ * Immutable. Used to narrow the database projection, to trim serialized
+ * TaskDTOs (TaskJsonModule, protobuf) and as part of cache keys, so each
+ * distinct field set is cached separately. The full set keeps the original
+ * cache keys, so requests without fields= are unaffected.
+ */
+public final class TaskFieldSet implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /** Separates the base cache key from the field set, e.g. "demo|fields=id,title". */
+    public static final String KEY_SEPARATOR = "|fields=";
+
+    public enum Field {
+        ID("id"), TITLE("title"), DESCRIPTION("description"), STATUS("status"),
+        PRIORITY("priority"), CREATED_AT("createdAt"), COMPLETED_AT("completedAt");
+
+        private final String jsonName;
+
+        Field(String jsonName) {
+            this.jsonName = jsonName;
+        }
+
+        public String getJsonName() {
+            return jsonName;
+        }
+    }
+
+    public static final TaskFieldSet ALL = new TaskFieldSet(EnumSet.allOf(Field.class));
+
+    private final Set<Field> fields;
+    private final String key;
+
+    private TaskFieldSet(EnumSet<Field> fields) {
+        this.fields = Collections.unmodifiableSet(fields);
+        // EnumSet iterates in declaration order, so the key is canonical whatever the request order
+        this.key = fields.stream().map(Field::getJsonName).collect(Collectors.joining(","));
+    }
+
+    /**
+     * Parses a comma-separated list of TaskDTO property names.
+     *
+     * @param csv Value of the fields parameter; null or blank means all fields
+     * @return Parsed field set
+     * @throws IllegalArgumentException if a name is not a TaskDTO property
+     */
+    public static TaskFieldSet parse(String csv) {
+        if (csv == null || csv.isBlank()) {
+            return ALL;
+        }
+        EnumSet<Field> fields = EnumSet.noneOf(Field.class);
+        for (String name : csv.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            fields.add(byName(trimmed));
+        }
+        if (fields.isEmpty() || fields.size() == Field.values().length) {
+            return ALL;
+        }
+        return new TaskFieldSet(fields);
+    }
+
+    private static Field byName(String name) {
+        for (Field field : Field.values()) {
+            if (field.jsonName.equalsIgnoreCase(name)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unknown field '" + name + "'; allowed: "
+                + ALL.key.replace(",", ", "));
+    }
+
+    public boolean includes(Field field) {
+        return fields.contains(field);
+    }
+
+    public boolean isAll() {
+        return this == ALL;
+    }
+
+    public Set<Field> fields() {
+        return fields;
+    }
+
+    /**
+     * Cache key for this field set: the base key itself for all fields,
+     * otherwise base + KEY_SEPARATOR + canonical field list.
+     */
+    public Object cacheKey(Object baseKey) {
+        return isAll() ? baseKey : baseKey + KEY_SEPARATOR + key;
+    }
+
+    // Keeps isAll() an identity check for deserialized cache values
+    private Object readResolve() {
+        return fields.size() == Field.values().length ? ALL : this;
+    }
+
+    @Override
+    public String toString() {
+        return key;
+    }
+}
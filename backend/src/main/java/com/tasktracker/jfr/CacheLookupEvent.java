@@ -0,0 +1,25 @@
+package com.tasktracker.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One lookup in a CacheConfig cache; for sync lookups a miss includes the loader.
+ */
+@Name("com.tasktracker.CacheLookup")
+@Label("Cache Lookup")
+@Category({"Task Tracker", "Cache"})
+@Description("Lookup in an application cache, hit or miss")
+@StackTrace(false)
+public class CacheLookupEvent extends Event {
+
+    @Label("Cache")
+    public String cache;
+
+    @Label("Hit")
+    public boolean hit;
+}
@@ -0,0 +1,74 @@
+package com.tasktracker.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Time-boxed JDK Flight Recorder recordings on demand (see AdminController).
+ *
+ * Uses JFR's "default" settings (jfr.recording.settings), the profile meant for
+ * continuous use in production at around 1% overhead; "profile" samples more
+ * and costs more. The application's own events (CacheLookupEvent,
+ * JwtVerificationEvent, TaskQueryEvent, TaskStatsEvent) are enabled in either.
+ * Only one recording runs at a time. The calling request waits for the whole
+ * recording, so its length is capped at jfr.recording.max-seconds and never
+ * more than LIMIT_SECONDS, below the 60 s idle timeout common to proxies and
+ * load balancers; longer profiles are taken as several recordings.
+ */
+@Service
+public class FlightRecordingService {
+
+    static final int LIMIT_SECONDS = 50;
+
+    @Value("${jfr.recording.settings:default}")
+    private String settings;
+
+    @Value("${jfr.recording.max-seconds:30}")
+    private int maxSeconds;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    /**
+     * Records for the given time and returns the .jfr file's contents.
+     *
+     * @param seconds Recording length, 1 to jfr.recording.max-seconds (at most LIMIT_SECONDS)
+     * @return Recording in JFR's binary format (open with JDK Mission Control or "jfr print")
+     * @throws IllegalArgumentException if seconds is out of range
+     * @throws IllegalStateException if another recording is still running
+     */
+    public byte[] record(int seconds) throws IOException, ParseException, InterruptedException {
+        int max = Math.min(maxSeconds, LIMIT_SECONDS);
+        if (seconds < 1 || seconds > max) {
+            throw new IllegalArgumentException("seconds must be between 1 and " + max);
+        }
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A recording is already in progress");
+        }
+        Path file = null;
+        try (Recording recording = new Recording(Configuration.getConfiguration(settings))) {
+            file = Files.createTempFile("task-tracker-", ".jfr");
+            recording.setName("task-tracker-" + seconds + "s");
+            recording.setToDisk(true);
+            recording.setDestination(file);
+            recording.start();
+            Thread.sleep(Duration.ofSeconds(seconds).toMillis());
+            // Writes the recording to its destination
+            recording.stop();
+            return Files.readAllBytes(file);
+        } finally {
+            if (file != null) {
+                Files.deleteIfExists(file);
+            }
+            running.set(false);
+        }
+    }
+}
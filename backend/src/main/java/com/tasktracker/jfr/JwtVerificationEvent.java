@@ -0,0 +1,26 @@
+package com.tasktracker.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One JwtUtil.verify() call: served from the verified-token cache or parsed.
+ */
+@Name("com.tasktracker.JwtVerification")
+@Label("JWT Verification")
+@Category({"Task Tracker", "Security"})
+@Description("Verification of a bearer token")
+@StackTrace(false)
+public class JwtVerificationEvent extends Event {
+
+    @Label("Cached")
+    @Description("Served from the verified-token cache, no signature check")
+    public boolean cached;
+
+    @Label("Valid")
+    public boolean valid;
+}
@@ -0,0 +1,38 @@
+package com.tasktracker.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One task read in TaskService that was not served by the Spring cache.
+ */
+@Name("com.tasktracker.TaskQuery")
+@Label("Task Query")
+@Category({"Task Tracker", "Tasks"})
+@Description("Task read that reached the column index or the database")
+@StackTrace(false)
+public class TaskQueryEvent extends Event {
+
+    @Label("Query Type")
+    @Description("all, status, priority or id")
+    public String queryType;
+
+    @Label("Filter")
+    @Description("Status, priority or task id; empty for all")
+    public String filter;
+
+    @Label("Source")
+    @Description("index (TaskColumnIndex), entity or projection")
+    public String source;
+
+    @Label("Fields")
+    @Description("Requested fields, empty when all")
+    public String fields;
+
+    @Label("Rows")
+    public int rows;
+}
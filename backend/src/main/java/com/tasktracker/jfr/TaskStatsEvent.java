@@ -0,0 +1,23 @@
+package com.tasktracker.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One task statistics computation (taskStats cache miss).
+ */
+@Name("com.tasktracker.TaskStats")
+@Label("Task Stats Computation")
+@Category({"Task Tracker", "Tasks"})
+@StackTrace(false)
+public class TaskStatsEvent extends Event {
+
+    @Label("Source")
+    public String source;
+
+    @Label("Total Tasks")
+    public long totalTasks;
+}
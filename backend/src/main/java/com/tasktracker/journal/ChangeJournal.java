@@ -0,0 +1,484 @@
+package com.tasktracker.journal;
+
+import com.tasktracker.dto.TaskDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Append-only journal of task mutations (journal.enabled), for consumers such
+ * as search indexing, analytics and audit that must not query the database.
+ *
+ * TaskService appends a record after each create, update and delete has
+ * committed. Records (see JournalCodec) go into memory-mapped segment files
+ * of journal.segment-bytes under journal.dir; a full segment is closed and a
+ * new one started. A record's offset is its byte position across all segments,
+ * so offsets only ever grow.
+ *
+ * Durability: a single flusher thread forces written bytes to disk. Appends
+ * that arrive while a force is running are covered by the next one, so
+ * concurrent writers share fsyncs (group commit). With journal.wait-for-fsync
+ * an append returns once its record is on disk (at most journal.fsync-timeout-ms).
+ * Readers only ever see records that are on disk.
+ *
+ * Retention: when a segment is closed, the oldest segments are removed while
+ * more than journal.retention.max-segments exist or they were last written
+ * more than journal.retention.hours ago. Consumers reading a removed offset
+ * get an error telling them where the journal now starts.
+ *
+ * Recovery: on startup existing segments are scanned; a record torn by a crash
+ * (bad length or checksum) ends the journal there.
+ *
+ * Delivery is at most once: a record is appended after its change committed,
+ * so a crash (or a failed append, counted in journal.append.failures) between
+ * the commit and the append loses that record while the change stays in the
+ * database. Consumers that need every change reconcile against the database
+ * after a restart. Records of one task are in commit order when written
+ * through TaskService outside an enclosing transaction (it serializes each
+ * user's writes); each instance writes its own journal, so there is no order
+ * across instances.
+ *
+ * The directory is locked, so only one process writes it at a time.
+ *
+ * Metrics: journal.appends, journal.append.failures, journal.fsync,
+ * journal.segments, journal.bytes.
+ */
+@Component
+public class ChangeJournal {
+    private static final Logger log = LoggerFactory.getLogger(ChangeJournal.class);
+
+    @Value("${journal.enabled:false}")
+    private boolean enabled;
+
+    @Value("${journal.dir:${java.io.tmpdir}/task-tracker-journal}")
+    private String directory;
+
+    @Value("${journal.segment-bytes:16777216}")
+    private int segmentBytes;
+
+    @Value("${journal.wait-for-fsync:true}")
+    private boolean waitForFsync;
+
+    @Value("${journal.fsync-timeout-ms:1000}")
+    private long fsyncTimeoutMs;
+
+    @Value("${journal.retention.max-segments:8}")
+    private int maxSegments;
+
+    // 0 keeps segments regardless of age
+    @Value("${journal.retention.hours:168}")
+    private long retentionHours;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ConcurrentSkipListMap<Long, JournalSegment> segments = new ConcurrentSkipListMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition flushNeeded = lock.newCondition();
+    private final Condition durableAdvanced = lock.newCondition();
+
+    private Path root;
+    private FileChannel lockChannel;
+    private FileLock directoryLock;
+    private Thread flusher;
+
+    // Guarded by lock
+    private JournalSegment active;
+    private boolean closed;
+    // Written under lock, read without: end of appended and of on-disk records
+    private volatile long written;
+    private volatile long durable;
+
+    private Counter appends;
+    private Counter failures;
+    private Timer fsyncs;
+
+    @PostConstruct
+    void init() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        root = Paths.get(directory);
+        Files.createDirectories(root);
+        lockChannel = FileChannel.open(root.resolve("LOCK"), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        directoryLock = lockChannel.tryLock();
+        if (directoryLock == null) {
+            lockChannel.close();
+            throw new IllegalStateException("Change journal directory " + root + " is in use by another process");
+        }
+        recover();
+        flusher = new Thread(this::flushLoop, "journal-flush");
+        flusher.setDaemon(true);
+        flusher.start();
+
+        appends = Counter.builder("journal.appends")
+                .description("Task changes appended to the change journal")
+                .register(meterRegistry);
+        failures = Counter.builder("journal.append.failures")
+                .description("Task changes that could not be journaled")
+                .register(meterRegistry);
+        fsyncs = Timer.builder("journal.fsync")
+                .description("Group-committed forces of the change journal to disk")
+                .register(meterRegistry);
+        Gauge.builder("journal.segments", segments, Map::size)
+                .description("Change journal segment files")
+                .register(meterRegistry);
+        Gauge.builder("journal.bytes", this, journal -> journal.durable - journal.startOffset())
+                .description("Retained change journal bytes")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        log.info("Change journal at {}: offsets {} to {} in {} segment(s)", root, startOffset(), durable,
+                segments.size());
+    }
+
+    private void recover() throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(root)) {
+            files = listing.filter(file -> file.getFileName().toString().endsWith(JournalSegment.SUFFIX))
+                    .sorted((a, b) -> Long.compare(JournalSegment.baseOffsetOf(a), JournalSegment.baseOffsetOf(b)))
+                    .toList();
+        }
+        for (Path file : files) {
+            JournalSegment segment = JournalSegment.recover(file);
+            if (segment.damaged) {
+                log.warn("Change journal segment {} ends in a damaged record; cut off at offset {}",
+                        file.getFileName(), segment.getEndOffset());
+            }
+            segments.put(segment.getBaseOffset(), segment);
+            active = segment;
+        }
+        if (active == null) {
+            active = JournalSegment.create(root, 0, segmentBytes);
+            segments.put(0L, active);
+        }
+        written = active.getEndOffset();
+        durable = written;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Appends a change once the current transaction has committed, or right
+     * away outside a transaction. Failures are logged and counted, not thrown:
+     * the change itself is already committed (at most once, see above).
+     *
+     * @param type What happened to the task
+     * @param userId Owner of the task
+     * @param taskId Task that changed
+     * @param task State after the change; null for DELETED
+     */
+    public void appendAfterCommit(ChangeRecord.Type type, long userId, long taskId, TaskDTO task) {
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    appendQuietly(type, userId, taskId, task);
+                }
+            });
+        } else {
+            appendQuietly(type, userId, taskId, task);
+        }
+    }
+
+    private void appendQuietly(ChangeRecord.Type type, long userId, long taskId, TaskDTO task) {
+        try {
+            append(type, userId, taskId, task);
+        } catch (RuntimeException e) {
+            failures.increment();
+            log.error("Could not journal {} of task {}: {}", type, taskId, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Appends a change record.
+     *
+     * @return offset of the record
+     * @throws IllegalArgumentException if the record is larger than a segment
+     * @throws IllegalStateException if the journal is disabled or closed
+     */
+    public long append(ChangeRecord.Type type, long userId, long taskId, TaskDTO task) {
+        requireEnabled();
+        byte[] payload = JournalCodec.encode(type, Instant.now(), userId, taskId, task);
+        if (JournalSegment.HEADER_BYTES + payload.length > segmentBytes) {
+            throw new IllegalArgumentException("Journal record of " + payload.length
+                    + " bytes does not fit in a segment of " + segmentBytes + " bytes");
+        }
+        long offset;
+        long end;
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Change journal is closed");
+            }
+            if (!active.hasRoom(payload.length)) {
+                roll();
+            }
+            offset = active.getEndOffset();
+            end = active.append(payload);
+            written = end;
+            flushNeeded.signal();
+        } finally {
+            lock.unlock();
+        }
+        appends.increment();
+        if (waitForFsync) {
+            awaitDurable(end);
+        }
+        return offset;
+    }
+
+    // Under lock: closes the active segment (forcing it completely) and starts the next one
+    private void roll() {
+        active.force();
+        durable = Math.max(durable, active.getEndOffset());
+        durableAdvanced.signalAll();
+        active = JournalSegment.create(root, active.getEndOffset(), segmentBytes);
+        segments.put(active.getBaseOffset(), active);
+        applyRetention();
+    }
+
+    private void applyRetention() {
+        long cutoff = System.currentTimeMillis() - TimeUnit.HOURS.toMillis(retentionHours);
+        while (segments.size() > 1) {
+            JournalSegment oldest = segments.firstEntry().getValue();
+            boolean tooMany = segments.size() > maxSegments;
+            if (!tooMany && (retentionHours <= 0 || lastModified(oldest) >= cutoff)) {
+                return;
+            }
+            segments.remove(oldest.getBaseOffset());
+            oldest.retire();
+            try {
+                Files.deleteIfExists(oldest.getFile());
+                log.info("Removed change journal segment {} (retention)", oldest.getFile().getFileName());
+            } catch (IOException e) {
+                log.warn("Could not delete change journal segment {}: {}", oldest.getFile(), e.getMessage());
+            }
+        }
+    }
+
+    private static long lastModified(JournalSegment segment) {
+        try {
+            return Files.getLastModifiedTime(segment.getFile()).toMillis();
+        } catch (IOException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    private void awaitDurable(long end) {
+        long remaining = TimeUnit.MILLISECONDS.toNanos(fsyncTimeoutMs);
+        lock.lock();
+        try {
+            while (durable < end) {
+                if (remaining <= 0) {
+                    log.warn("Change journal fsync did not complete within {} ms", fsyncTimeoutMs);
+                    return;
+                }
+                remaining = durableAdvanced.awaitNanos(remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Forces whatever has been written since the last force; appends during a force wait for the next one
+    private void flushLoop() {
+        while (true) {
+            JournalSegment segment;
+            long target;
+            lock.lock();
+            try {
+                while (!closed && written == durable) {
+                    flushNeeded.await();
+                }
+                if (written == durable) {
+                    return;
+                }
+                segment = active;
+                target = written;
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                lock.unlock();
+            }
+            long start = System.nanoTime();
+            try {
+                segment.force();
+            } catch (UncheckedIOException | IllegalStateException e) {
+                log.error("Change journal fsync failed: {}", e.getMessage());
+                sleepBeforeRetry();
+                continue;
+            }
+            fsyncs.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            lock.lock();
+            try {
+                if (target > durable) {
+                    durable = target;
+                }
+                durableAdvanced.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private static void sleepBeforeRetry() {
+        try {
+            Thread.sleep(100);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return oldest offset still retained
+     */
+    public long startOffset() {
+        return segments.firstKey();
+    }
+
+    /**
+     * @return offset after the last record on disk, where the next record will start
+     */
+    public long endOffset() {
+        return durable;
+    }
+
+    /**
+     * Reads up to maxRecords records starting at offset, without waiting.
+     *
+     * @param offset 0, startOffset(), or a nextOffset returned earlier
+     * @throws IllegalArgumentException if the offset is no longer retained, is
+     *         beyond the end, or is not the start of a record
+     */
+    public JournalBatch read(long offset, int maxRecords) {
+        requireEnabled();
+        long end = durable;
+        long start = startOffset();
+        if (offset < start) {
+            throw new IllegalArgumentException("Offset " + offset
+                    + " is no longer retained; the journal starts at " + start);
+        }
+        if (offset > end) {
+            throw new IllegalArgumentException("Offset " + offset + " is beyond the end of the journal (" + end + ")");
+        }
+        List<ChangeRecord> records = new ArrayList<>();
+        long position = offset;
+        while (records.size() < maxRecords && position < end) {
+            Map.Entry<Long, JournalSegment> entry = segments.floorEntry(position);
+            if (entry == null) {
+                throw new IllegalArgumentException("Offset " + position
+                        + " is no longer retained; the journal starts at " + startOffset());
+            }
+            JournalSegment segment = entry.getValue();
+            if (!segment.acquire()) {
+                // Removed by retention while we were reading
+                throw new IllegalArgumentException("Offset " + position
+                        + " is no longer retained; the journal starts at " + startOffset());
+            }
+            try {
+                int relative = (int) (position - segment.getBaseOffset());
+                if (relative >= segment.getEnd()) {
+                    // Past a segment cut short by recovery: continue with the next one
+                    Long next = segments.higherKey(position);
+                    if (next == null) {
+                        break;
+                    }
+                    position = next;
+                    continue;
+                }
+                while (records.size() < maxRecords && relative < segment.getEnd()
+                        && segment.getBaseOffset() + relative < end) {
+                    ChangeRecord record = segment.read(relative);
+                    records.add(record);
+                    position = record.nextOffset();
+                    relative = (int) (position - segment.getBaseOffset());
+                }
+            } finally {
+                segment.release();
+            }
+        }
+        return new JournalBatch(records, position, start, end);
+    }
+
+    /**
+     * Tailing read: like read(), but waits up to timeoutMs for new records when
+     * the consumer has caught up. Consumers resume by passing each batch's
+     * nextOffset to the next call.
+     */
+    public JournalBatch poll(long offset, int maxRecords, long timeoutMs) throws InterruptedException {
+        requireEnabled();
+        long remaining = TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        if (durable <= offset && remaining > 0) {
+            lock.lock();
+            try {
+                while (durable <= offset && remaining > 0 && !closed) {
+                    remaining = durableAdvanced.awaitNanos(remaining);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return read(offset, maxRecords);
+    }
+
+    private void requireEnabled() {
+        if (!enabled) {
+            throw new IllegalStateException("Change journal is disabled (journal.enabled=false)");
+        }
+    }
+
+    @PreDestroy
+    void close() throws IOException, InterruptedException {
+        if (!enabled) {
+            return;
+        }
+        lock.lock();
+        try {
+            closed = true;
+            flushNeeded.signalAll();
+            durableAdvanced.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        flusher.join(TimeUnit.SECONDS.toMillis(5));
+        active.force();
+        segments.values().forEach(JournalSegment::retire);
+        directoryLock.release();
+        lockChannel.close();
+    }
+}
@@ -0,0 +1,25 @@
+package com.tasktracker.journal;
+
+import com.tasktracker.dto.TaskDTO;
+
+import java.time.Instant;
+
+/**
+ * One task mutation as read back from the ChangeJournal.
+ *
+ * @param offset Position of the record in the journal
+ * @param nextOffset Position of the following record; pass it to resume reading
+ * @param type What happened to the task
+ * @param timestamp When the change was journaled
+ * @param userId Owner of the task
+ * @param taskId Task that changed
+ * @param task Task state after the change; null for DELETED
+ */
+public record ChangeRecord(long offset, long nextOffset, Type type, Instant timestamp, long userId, long taskId,
+                           TaskDTO task) {
+
+    // Stored by ordinal: append new types, never reorder
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+}
@@ -0,0 +1,14 @@
+package com.tasktracker.journal;
+
+import java.util.List;
+
+/**
+ * Records read from the ChangeJournal in one call.
+ *
+ * @param records Records in journal order, possibly empty
+ * @param nextOffset Offset to read from next
+ * @param startOffset Oldest offset still retained
+ * @param endOffset Offset after the last durable record
+ */
+public record JournalBatch(List<ChangeRecord> records, long nextOffset, long startOffset, long endOffset) {
+}
@@ -0,0 +1,123 @@
+package com.tasktracker.journal;
+
+import com.tasktracker.dto.TaskDTO;
+import com.tasktracker.model.Task;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Binary payload of a journal record (big-endian):
+ *
+ * <pre>
+ * byte    format version (1)
+ * byte    type (ChangeRecord.Type ordinal)
+ * long    timestamp, epoch microseconds
+ * long    user id
+ * long    task id
+ * -- CREATED and UPDATED only:
+ * byte    status ordinal, -1 for null
+ * byte    priority ordinal, -1 for null
+ * long    createdAt, epoch microseconds, Long.MIN_VALUE for null
+ * long    completedAt, same encoding
+ * string  title
+ * string  description
+ * </pre>
+ *
+ * Strings are an int byte length (-1 for null) followed by UTF-8. Framing
+ * (length and checksum) is added by ChangeJournal.
+ */
+final class JournalCodec {
+
+    private static final byte VERSION = 1;
+    private static final long NO_TIME = Long.MIN_VALUE;
+
+    private JournalCodec() {
+    }
+
+    static byte[] encode(ChangeRecord.Type type, Instant timestamp, long userId, long taskId, TaskDTO task) {
+        byte[] title = task != null ? utf8(task.getTitle()) : null;
+        byte[] description = task != null ? utf8(task.getDescription()) : null;
+        int size = 2 + 3 * Long.BYTES;
+        if (task != null) {
+            size += 2 + 2 * Long.BYTES + stringSize(title) + stringSize(description);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.put(VERSION);
+        buffer.put((byte) type.ordinal());
+        buffer.putLong(micros(timestamp));
+        buffer.putLong(userId);
+        buffer.putLong(taskId);
+        if (task != null) {
+            buffer.put(task.getStatus() != null ? (byte) task.getStatus().ordinal() : -1);
+            buffer.put(task.getPriority() != null ? (byte) task.getPriority().ordinal() : -1);
+            buffer.putLong(micros(task.getCreatedAt()));
+            buffer.putLong(micros(task.getCompletedAt()));
+            putString(buffer, title);
+            putString(buffer, description);
+        }
+        return buffer.array();
+    }
+
+    static ChangeRecord decode(long offset, long nextOffset, ByteBuffer payload) {
+        byte version = payload.get();
+        if (version != VERSION) {
+            throw new IllegalStateException("Unsupported journal record version " + version + " at offset " + offset);
+        }
+        ChangeRecord.Type type = ChangeRecord.Type.values()[payload.get()];
+        Instant timestamp = instant(payload.getLong());
+        long userId = payload.getLong();
+        long taskId = payload.getLong();
+        TaskDTO task = null;
+        if (type != ChangeRecord.Type.DELETED) {
+            byte status = payload.get();
+            byte priority = payload.get();
+            Instant createdAt = instant(payload.getLong());
+            Instant completedAt = instant(payload.getLong());
+            String title = getString(payload);
+            String description = getString(payload);
+            task = new TaskDTO(taskId, title, description,
+                    status >= 0 ? Task.TaskStatus.values()[status] : null,
+                    priority >= 0 ? Task.TaskPriority.values()[priority] : null,
+                    createdAt, completedAt);
+        }
+        return new ChangeRecord(offset, nextOffset, type, timestamp, userId, taskId, task);
+    }
+
+    private static long micros(Instant instant) {
+        return instant != null ? ChronoUnit.MICROS.between(Instant.EPOCH, instant) : NO_TIME;
+    }
+
+    private static Instant instant(long micros) {
+        return micros != NO_TIME ? Instant.EPOCH.plus(micros, ChronoUnit.MICROS) : null;
+    }
+
+    private static byte[] utf8(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    private static int stringSize(byte[] bytes) {
+        return Integer.BYTES + (bytes != null ? bytes.length : 0);
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] bytes) {
+        if (bytes == null) {
+            buffer.putInt(-1);
+            return;
+        }
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
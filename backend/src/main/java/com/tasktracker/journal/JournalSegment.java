@@ -0,0 +1,265 @@
+package com.tasktracker.journal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32C;
+
+/**
+ * One memory-mapped journal file, named after the offset of its first byte.
+ *
+ * Records are framed as an int payload length, an int CRC32C of the payload,
+ * then the payload (see JournalCodec). The file is mapped at its full size up
+ * front; the unwritten rest reads as zeros, so a zero length marks the end.
+ *
+ * A segment dropped by retention (or at shutdown) is retired: its mapping is
+ * released as soon as no reader is inside it, instead of whenever the garbage
+ * collector gets to the buffer. Readers acquire() the segment around each
+ * access and give up when it has been retired.
+ */
+final class JournalSegment {
+
+    static final int HEADER_BYTES = 2 * Integer.BYTES;
+    static final String SUFFIX = ".journal";
+
+    // Unsafe.invokeCleaner, looked up reflectively (jdk.unsupported); null leaves unmapping to the GC
+    private static final MethodHandle INVOKE_CLEANER = invokeCleaner();
+
+    private final Path file;
+    private final long baseOffset;
+    private final MappedByteBuffer buffer;
+
+    // Bytes written; only the appender changes it (under ChangeJournal's lock)
+    private volatile int end;
+    // Bytes known to be on disk, guarded by this
+    private int forcedEnd;
+    // Set by recover() when a torn record was cut off
+    boolean damaged;
+    // Readers currently using the mapping; -1 once it has been released
+    private final AtomicInteger users = new AtomicInteger();
+    private volatile boolean retired;
+
+    private JournalSegment(Path file, long baseOffset, MappedByteBuffer buffer) {
+        this.file = file;
+        this.baseOffset = baseOffset;
+        this.buffer = buffer;
+    }
+
+    static Path fileName(Path directory, long baseOffset) {
+        return directory.resolve(String.format("%020d%s", baseOffset, SUFFIX));
+    }
+
+    static long baseOffsetOf(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+    }
+
+    /**
+     * Maps a new, empty segment file of the given size.
+     */
+    static JournalSegment create(Path directory, long baseOffset, int capacity) {
+        Path file = fileName(directory, baseOffset);
+        return new JournalSegment(file, baseOffset, map(file, capacity, StandardOpenOption.CREATE_NEW));
+    }
+
+    /**
+     * Maps an existing segment file and finds the end of its valid records.
+     * A torn or corrupt record (crash mid-append) ends the segment there, and
+     * the bytes after it are cleared so later appends start on a clean slate.
+     *
+     * damaged is set when a record was cut off.
+     */
+    static JournalSegment recover(Path file) {
+        int capacity;
+        try {
+            capacity = (int) Files.size(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        JournalSegment segment = new JournalSegment(file, baseOffsetOf(file), map(file, capacity));
+        int position = 0;
+        while (segment.validRecordLength(position) > 0) {
+            position += HEADER_BYTES + segment.validRecordLength(position);
+        }
+        if (position + Integer.BYTES <= capacity && segment.buffer.getInt(position) != 0) {
+            segment.damaged = true;
+            for (int i = position; i < capacity; i++) {
+                segment.buffer.put(i, (byte) 0);
+            }
+        }
+        segment.end = position;
+        segment.forcedEnd = position;
+        return segment;
+    }
+
+    private static MappedByteBuffer map(Path file, int capacity, StandardOpenOption... extraOptions) {
+        StandardOpenOption[] options = new StandardOpenOption[extraOptions.length + 2];
+        options[0] = StandardOpenOption.READ;
+        options[1] = StandardOpenOption.WRITE;
+        System.arraycopy(extraOptions, 0, options, 2, extraOptions.length);
+        // The mapping stays valid after the channel is closed
+        try (FileChannel channel = FileChannel.open(file, options)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot map journal segment " + file, e);
+        }
+    }
+
+    // Payload length of a complete record with a matching checksum at position, else 0
+    private int validRecordLength(int position) {
+        if (position + HEADER_BYTES > buffer.capacity()) {
+            return 0;
+        }
+        int length = buffer.getInt(position);
+        if (length <= 0 || position + HEADER_BYTES + length > buffer.capacity()) {
+            return 0;
+        }
+        return checksum(position + HEADER_BYTES, length) == buffer.getInt(position + Integer.BYTES) ? length : 0;
+    }
+
+    private int checksum(int position, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(position, length));
+        return (int) crc.getValue();
+    }
+
+    static int checksum(byte[] payload) {
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    boolean hasRoom(int payloadLength) {
+        return end + HEADER_BYTES + payloadLength <= buffer.capacity();
+    }
+
+    /**
+     * Writes a record at the end; the caller holds the journal's append lock
+     * and has checked hasRoom().
+     *
+     * @return offset after the record
+     */
+    long append(byte[] payload) {
+        int position = end;
+        buffer.putInt(position, payload.length);
+        buffer.putInt(position + Integer.BYTES, checksum(payload));
+        buffer.put(position + HEADER_BYTES, payload);
+        end = position + HEADER_BYTES + payload.length;
+        return baseOffset + end;
+    }
+
+    /**
+     * Reads the record at a position below end.
+     */
+    ChangeRecord read(int position) {
+        long offset = baseOffset + position;
+        int length = validRecordLength(position);
+        if (length == 0) {
+            throw new IllegalArgumentException("No journal record starts at offset " + offset);
+        }
+        ByteBuffer payload = buffer.slice(position + HEADER_BYTES, length);
+        return JournalCodec.decode(offset, offset + HEADER_BYTES + length, payload);
+    }
+
+    /**
+     * Forces bytes written since the last call to disk; nothing to do once retired.
+     */
+    synchronized void force() {
+        if (!acquire()) {
+            return;
+        }
+        try {
+            int upTo = end;
+            if (upTo > forcedEnd) {
+                buffer.force(forcedEnd, upTo - forcedEnd);
+                forcedEnd = upTo;
+            }
+        } finally {
+            release();
+        }
+    }
+
+    /**
+     * Pins the mapping for a read; pair with release().
+     *
+     * @return false if the segment has been retired
+     */
+    boolean acquire() {
+        while (true) {
+            int current = users.get();
+            if (current < 0) {
+                return false;
+            }
+            if (users.compareAndSet(current, current + 1)) {
+                if (retired) {
+                    release();
+                    return false;
+                }
+                return true;
+            }
+        }
+    }
+
+    void release() {
+        if (users.decrementAndGet() == 0 && retired) {
+            unmapIfUnused();
+        }
+    }
+
+    /**
+     * Releases the mapping now, or when the last reader inside it is done.
+     */
+    void retire() {
+        retired = true;
+        unmapIfUnused();
+    }
+
+    private void unmapIfUnused() {
+        if (users.compareAndSet(0, -1) && INVOKE_CLEANER != null) {
+            try {
+                INVOKE_CLEANER.invokeExact((ByteBuffer) buffer);
+            } catch (Throwable e) {
+                // The mapping goes when the buffer is collected instead
+            }
+        }
+    }
+
+    private static MethodHandle invokeCleaner() {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            return MethodHandles.lookup()
+                    .findVirtual(unsafeClass, "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class))
+                    .bindTo(theUnsafe.get(null));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    long getBaseOffset() {
+        return baseOffset;
+    }
+
+    long getEndOffset() {
+        return baseOffset + end;
+    }
+
+    int getEnd() {
+        return end;
+    }
+
+    Path getFile() {
+        return file;
+    }
+}
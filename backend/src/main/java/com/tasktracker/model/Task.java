@@ -17,7 +17,7 @@ import java.time.LocalDateTime;
  * Database Design:
  * - Primary key: auto-increment ID
  * - Foreign key: user_id references users table
- * - Enums stored as strings for readability
+ * - Enums stored as stable SMALLINT codes (see TaskStatusConverter/TaskPriorityConverter)
  * - Timestamps for creation and completion tracking
  *
  * Relationships:
@@ -51,15 +51,15 @@ public class Task {
     @Column(length = 1000)
     private String description;
     
-    // Task status enum stored as string in database (more readable than ordinal)
+    // Task status stored as its stable SMALLINT code (not the ordinal, not the name)
     // Default value is TODO for new tasks
-    @Enumerated(EnumType.STRING)
+    @Convert(converter = TaskStatusConverter.class)
     @Column(nullable = false)
     private TaskStatus status = TaskStatus.TODO;
     
-    // Task priority enum stored as string
+    // Task priority stored as its stable SMALLINT code
     // Default value is MEDIUM for new tasks
-    @Enumerated(EnumType.STRING)
+    @Convert(converter = TaskPriorityConverter.class)
     @Column(nullable = false)
     private TaskPriority priority = TaskPriority.MEDIUM;
     
@@ -88,9 +88,31 @@ public class Task {
      * - TODO: Not started
      * - IN_PROGRESS: Currently being worked on
      * - DONE: Completed
+     *
+     * Each value has a fixed database code. Codes are never reused or
+     * renumbered; a new status gets the next unused code.
      */
     public enum TaskStatus {
-        TODO, IN_PROGRESS, DONE
+        TODO((short) 1), IN_PROGRESS((short) 2), DONE((short) 3);
+
+        private final short code;
+
+        TaskStatus(short code) {
+            this.code = code;
+        }
+
+        public short getCode() {
+            return code;
+        }
+
+        public static TaskStatus fromCode(short code) {
+            for (TaskStatus status : values()) {
+                if (status.code == code) {
+                    return status;
+                }
+            }
+            throw new IllegalArgumentException("Unknown task status code: " + code);
+        }
     }
     
     /**
@@ -100,9 +122,31 @@ public class Task {
      * - LOW: Can be done later
      * - MEDIUM: Normal priority
      * - HIGH: Urgent, should be done soon
+     *
+     * Codes grow with urgency so ORDER BY priority sorts sensibly; like
+     * TaskStatus codes they are fixed once assigned.
      */
     public enum TaskPriority {
-        LOW, MEDIUM, HIGH
+        LOW((short) 1), MEDIUM((short) 2), HIGH((short) 3);
+
+        private final short code;
+
+        TaskPriority(short code) {
+            this.code = code;
+        }
+
+        public short getCode() {
+            return code;
+        }
+
+        public static TaskPriority fromCode(short code) {
+            for (TaskPriority priority : values()) {
+                if (priority.code == code) {
+                    return priority;
+                }
+            }
+            throw new IllegalArgumentException("Unknown task priority code: " + code);
+        }
     }
 }
 
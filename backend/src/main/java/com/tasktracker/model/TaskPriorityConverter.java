@@ -0,0 +1,24 @@
+package com.tasktracker.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores Task.TaskPriority as its stable SMALLINT code.
+ *
+ * Uses the explicit code rather than the ordinal, so reordering or adding
+ * enum values never changes the meaning of existing rows.
+ */
+@Converter
+public class TaskPriorityConverter implements AttributeConverter<Task.TaskPriority, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(Task.TaskPriority priority) {
+        return priority == null ? null : priority.getCode();
+    }
+
+    @Override
+    public Task.TaskPriority convertToEntityAttribute(Short code) {
+        return code == null ? null : Task.TaskPriority.fromCode(code);
+    }
+}
@@ -0,0 +1,24 @@
+package com.tasktracker.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores Task.TaskStatus as its stable SMALLINT code.
+ *
+ * Uses the explicit code rather than the ordinal, so reordering or adding
+ * enum values never changes the meaning of existing rows.
+ */
+@Converter
+public class TaskStatusConverter implements AttributeConverter<Task.TaskStatus, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(Task.TaskStatus status) {
+        return status == null ? null : status.getCode();
+    }
+
+    @Override
+    public Task.TaskStatus convertToEntityAttribute(Short code) {
+        return code == null ? null : Task.TaskStatus.fromCode(code);
+    }
+}
@@ -1,6 +1,7 @@
 package com.tasktracker.model;
 
 import jakarta.persistence.*;
+import com.tasktracker.security.UserChangeListener;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -26,8 +27,11 @@ import java.time.LocalDateTime;
  *
  * Relationships:
  * - One user has many tasks (defined in Task entity as ManyToOne)
+ *
+ * Changes to a user evict its cached UserDetails (see UserChangeListener).
  */
 @Entity  // JPA entity - maps to database table
+@EntityListeners(UserChangeListener.class)  // Invalidate cached UserDetails on update/delete
 @Table(name = "users")  // Specifies table name
 @Data  // Lombok: generates getters, setters, toString, equals, hashCode
 @NoArgsConstructor  // Lombok: no-args constructor (required by JPA)
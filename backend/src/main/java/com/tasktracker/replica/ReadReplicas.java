@@ -0,0 +1,199 @@
+package com.tasktracker.replica;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Read replicas of the primary database (db.replicas.enabled), each with its
+ * own small Hikari pool, and the state ReplicaRoutingDataSource routes by.
+ *
+ * - health: every db.replicas.health-check-interval-ms each replica is checked
+ *   (Connection.isValid, plus db.replicas.lag-query when set: replication lag
+ *   in milliseconds, too far behind above db.replicas.max-lag-ms). Unhealthy
+ *   replicas get no reads until a later check passes; a failed connection
+ *   attempt takes a replica out immediately (markDown).
+ * - read-your-writes: users who wrote within db.replicas.sticky-window-ms are
+ *   remembered, and their reads stay on the primary meanwhile.
+ *
+ * Reported as the "readReplicas" health component; replica trouble only shows
+ * in its details, the application stays UP on the primary.
+ */
+public class ReadReplicas implements HealthIndicator, AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(ReadReplicas.class);
+
+    private final List<Replica> replicas;
+    private final Cache<String, Boolean> recentWriters;
+    private final String lagQuery;
+    private final long maxLagMs;
+    private final AtomicInteger next = new AtomicInteger();
+    private final ScheduledExecutorService checker;
+
+    public ReadReplicas(List<HikariDataSource> pools, long stickyWindowMs, long healthCheckIntervalMs,
+                        String lagQuery, long maxLagMs) {
+        List<Replica> replicas = new ArrayList<>();
+        for (HikariDataSource pool : pools) {
+            replicas.add(new Replica(pool));
+        }
+        this.replicas = List.copyOf(replicas);
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(stickyWindowMs))
+                .build();
+        this.lagQuery = lagQuery == null || lagQuery.isBlank() ? null : lagQuery;
+        this.maxLagMs = maxLagMs;
+        this.checker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "replica-health");
+            t.setDaemon(true);
+            return t;
+        });
+        if (healthCheckIntervalMs > 0) {
+            checker.scheduleWithFixedDelay(this::check, 0, healthCheckIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * @return next healthy replica (round robin), or null when none is
+     */
+    public Replica choose() {
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    public void wrote(String username) {
+        recentWriters.put(username, Boolean.TRUE);
+    }
+
+    public boolean recentlyWrote(String username) {
+        return recentWriters.getIfPresent(username) != null;
+    }
+
+    /**
+     * Takes a replica out of rotation until its next successful health check.
+     */
+    public void markDown(Replica replica, String reason) {
+        replica.update(false, reason, replica.lagMs);
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    /**
+     * Checks every replica once; runs on the replica-health thread.
+     */
+    public void check() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.pool.getConnection()) {
+                if (!connection.isValid(1)) {
+                    replica.update(false, "connection not valid", -1);
+                    continue;
+                }
+                long lagMs = lagQuery != null ? lagMs(connection) : -1;
+                if (lagMs > maxLagMs) {
+                    replica.update(false, "lagging " + lagMs + " ms behind", lagMs);
+                } else {
+                    replica.update(true, null, lagMs);
+                }
+            } catch (SQLException | RuntimeException e) {
+                replica.update(false, e.getMessage(), -1);
+            }
+        }
+    }
+
+    private long lagMs(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(lagQuery)) {
+            return rs.next() ? Math.round(rs.getDouble(1)) : 0;
+        }
+    }
+
+    @Override
+    public Health health() {
+        Map<String, Object> details = new LinkedHashMap<>();
+        for (Replica replica : replicas) {
+            Map<String, Object> status = new LinkedHashMap<>();
+            status.put("healthy", replica.healthy);
+            if (replica.lagMs >= 0) {
+                status.put("lagMs", replica.lagMs);
+            }
+            if (replica.problem != null) {
+                status.put("problem", replica.problem);
+            }
+            details.put(replica.getName(), status);
+        }
+        return Health.up().withDetails(details).build();
+    }
+
+    @Override
+    public void close() {
+        checker.shutdownNow();
+        replicas.forEach(replica -> replica.pool.close());
+    }
+
+    /**
+     * One replica: its pool and last known health.
+     */
+    public static final class Replica {
+        private final HikariDataSource pool;
+        // Starts out of rotation; the first health check (run at startup) brings it in
+        private volatile boolean healthy;
+        private volatile String problem = "not checked yet";
+        private volatile long lagMs = -1;
+        private boolean checked;
+
+        Replica(HikariDataSource pool) {
+            this.pool = pool;
+        }
+
+        public String getName() {
+            return pool.getPoolName();
+        }
+
+        public HikariDataSource getPool() {
+            return pool;
+        }
+
+        public boolean isHealthy() {
+            return healthy;
+        }
+
+        private synchronized void update(boolean healthy, String problem, long lagMs) {
+            if (healthy != this.healthy || !checked) {
+                if (healthy) {
+                    log.info("Read replica {} is in rotation", getName());
+                } else {
+                    log.warn("Read replica {} taken out of rotation: {}", getName(), problem);
+                }
+            }
+            this.checked = true;
+            this.healthy = healthy;
+            this.problem = problem;
+            this.lagMs = lagMs;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.tasktracker.replica;
+
+import com.tasktracker.config.HikariPools;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Read replicas (db.replicas.enabled): one pool per URL in db.replicas.urls,
+ * configured from spring.datasource.hikari.*, overridable with
+ * db.replicas.hikari.* (see HikariPools). Routing happens in
+ * ReplicaRoutingDataSource, which DataSourceConfig wraps around the primary.
+ */
+@Configuration
+@ConditionalOnProperty(name = "db.replicas.enabled", havingValue = "true")
+public class ReplicaConfig {
+
+    @Bean(destroyMethod = "close")
+    public ReadReplicas readReplicas(Environment env, ObjectProvider<MeterRegistry> meterRegistry) {
+        List<String> urls = Arrays.stream(env.getProperty("db.replicas.urls", "").split(","))
+                .map(String::trim)
+                .filter(url -> !url.isEmpty())
+                .toList();
+        if (urls.isEmpty()) {
+            throw new IllegalStateException("db.replicas.enabled=true needs at least one JDBC URL in db.replicas.urls");
+        }
+        List<HikariDataSource> pools = new ArrayList<>();
+        for (int i = 0; i < urls.size(); i++) {
+            pools.add(HikariPools.create(env, "replica-" + i, urls.get(i), meterRegistry.getIfAvailable(),
+                    "db.replicas.hikari"));
+        }
+        long stickyWindowMs = env.getProperty("db.replicas.sticky-window-ms", Long.class, 5000L);
+        return new ReadReplicas(pools,
+                stickyWindowMs,
+                env.getProperty("db.replicas.health-check-interval-ms", Long.class, 5000L),
+                env.getProperty("db.replicas.lag-query", ""),
+                env.getProperty("db.replicas.max-lag-ms", Long.class, stickyWindowMs));
+    }
+}
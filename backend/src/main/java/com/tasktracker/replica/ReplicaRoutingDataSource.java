@@ -0,0 +1,76 @@
+package com.tasktracker.replica;
+
+import com.tasktracker.security.AuthenticatedUser;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Sends read-only transactions to a read replica, everything else to the
+ * primary (the wrapped DataSource).
+ *
+ * A connection goes to a replica when all of these hold:
+ * - the current transaction is read-only, and its name (the outermost
+ *   @Transactional method) starts with one of db.replicas.transactions
+ * - the authenticated user has not written within the sticky window
+ * - ReadReplicas has a healthy replica
+ * otherwise, and when the replica refuses the connection, it comes from the
+ * primary. Read-write transactions of an authenticated user record them as a
+ * recent writer.
+ *
+ * The routing decision needs the transaction's read-only flag, so it must be
+ * made when the first statement runs rather than when the transaction begins:
+ * DataSourceConfig puts a LazyConnectionDataSourceProxy in front.
+ */
+public class ReplicaRoutingDataSource extends DelegatingDataSource {
+
+    private final ReadReplicas replicas;
+    private final List<String> routedTransactions;
+
+    public ReplicaRoutingDataSource(DataSource primary, ReadReplicas replicas, List<String> routedTransactions) {
+        super(primary);
+        this.replicas = replicas;
+        this.routedTransactions = List.copyOf(routedTransactions);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        String username = AuthenticatedUser.currentUsername();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (username != null && TransactionSynchronizationManager.isActualTransactionActive()) {
+                replicas.wrote(username);
+            }
+            return super.getConnection();
+        }
+        if (!isRouted(TransactionSynchronizationManager.getCurrentTransactionName())
+                || (username != null && replicas.recentlyWrote(username))) {
+            return super.getConnection();
+        }
+        ReadReplicas.Replica replica = replicas.choose();
+        if (replica == null) {
+            return super.getConnection();
+        }
+        try {
+            return replica.getPool().getConnection();
+        } catch (SQLException e) {
+            replicas.markDown(replica, e.getMessage());
+            return super.getConnection();
+        }
+    }
+
+    private boolean isRouted(String transactionName) {
+        if (transactionName == null) {
+            return false;
+        }
+        for (String prefix : routedTransactions) {
+            if (transactionName.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -9,14 +9,15 @@ import org.springframework.stereotype.Repository;
 import java.util.List;
 
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long> {
+public interface TaskRepository extends JpaRepository<Task, Long>, TaskRepositoryCustom {
     List<Task> findByUser(User user);
     List<Task> findByUserAndStatus(User user, Task.TaskStatus status);
     List<Task> findByUserAndPriority(User user, Task.TaskPriority priority);
     long countByUser(User user);
     long countByUserAndStatus(User user, Task.TaskStatus status);
     
-    @Query("SELECT t FROM Task t WHERE t.user = :user AND t.status = 'DONE' AND t.completedAt IS NOT NULL")
-    List<Task> findCompletedTasksByUser(User user);
+    // Status bound as a parameter so it goes through TaskStatusConverter (no string literal)
+    @Query("SELECT t FROM Task t WHERE t.user = :user AND t.status = :status AND t.completedAt IS NOT NULL")
+    List<Task> findCompletedTasksByUser(User user, Task.TaskStatus status);
 }
 
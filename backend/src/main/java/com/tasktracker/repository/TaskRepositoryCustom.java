@@ -0,0 +1,39 @@
+package com.tasktracker.repository;
+
+import com.tasktracker.dto.TaskDTO;
+import com.tasktracker.dto.TaskFieldSet;
+import com.tasktracker.model.Task;
+import com.tasktracker.model.User;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Queries that read only the task columns a sparse fieldset asks for,
+ * implemented in TaskRepositoryCustomImpl. Unselected DTO properties stay null.
+ */
+public interface TaskRepositoryCustom {
+
+    /**
+     * A user's tasks, optionally filtered by status or priority.
+     *
+     * @param user Owner of the tasks
+     * @param status Status filter, or null for any
+     * @param priority Priority filter, or null for any
+     * @param fields Columns to read; the id is always read
+     * @return DTOs carrying the field set
+     */
+    List<TaskDTO> findProjected(User user, Task.TaskStatus status, Task.TaskPriority priority, TaskFieldSet fields);
+
+    /**
+     * A single task together with its owner's id, for the caller's authorization check.
+     *
+     * @param id Task ID
+     * @param fields Columns to read; the id and owner id are always read
+     * @return The task, or empty if there is no task with that id
+     */
+    Optional<ProjectedTask> findProjectedById(Long id, TaskFieldSet fields);
+
+    record ProjectedTask(Long ownerId, TaskDTO task) {
+    }
+}
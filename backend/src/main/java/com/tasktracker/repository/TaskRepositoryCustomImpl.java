@@ -0,0 +1,119 @@
+package com.tasktracker.repository;
+
+import com.tasktracker.dto.TaskDTO;
+import com.tasktracker.dto.TaskFieldSet;
+import com.tasktracker.model.Task;
+import com.tasktracker.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Builds a JPQL select list from the requested TaskFieldSet, so columns the
+ * client did not ask for (typically the description) are never read or
+ * transferred. Results are plain DTOs; no Task entities enter the persistence
+ * context. Picked up by Spring Data through the Impl naming convention.
+ */
+public class TaskRepositoryCustomImpl implements TaskRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<TaskDTO> findProjected(User user, Task.TaskStatus status, Task.TaskPriority priority,
+                                       TaskFieldSet fields) {
+        StringBuilder jpql = selectList(fields).append(" FROM Task t WHERE t.user = :user");
+        if (status != null) {
+            jpql.append(" AND t.status = :status");
+        }
+        if (priority != null) {
+            jpql.append(" AND t.priority = :priority");
+        }
+        TypedQuery<Tuple> query = entityManager.createQuery(jpql.toString(), Tuple.class)
+                .setParameter("user", user);
+        if (status != null) {
+            query.setParameter("status", status);
+        }
+        if (priority != null) {
+            query.setParameter("priority", priority);
+        }
+        return query.getResultList().stream()
+                .map(row -> toDTO(row, fields))
+                .toList();
+    }
+
+    @Override
+    public Optional<ProjectedTask> findProjectedById(Long id, TaskFieldSet fields) {
+        String jpql = selectList(fields).append(", t.user.id AS ownerId FROM Task t WHERE t.id = :id").toString();
+        return entityManager.createQuery(jpql, Tuple.class)
+                .setParameter("id", id)
+                .getResultList()
+                .stream()
+                .findFirst()
+                .map(row -> new ProjectedTask(row.get("ownerId", Long.class), toDTO(row, fields)));
+    }
+
+    private static StringBuilder selectList(TaskFieldSet fields) {
+        StringBuilder jpql = new StringBuilder("SELECT t.id AS id");
+        if (fields.includes(TaskFieldSet.Field.TITLE)) {
+            jpql.append(", t.title AS title");
+        }
+        if (fields.includes(TaskFieldSet.Field.DESCRIPTION)) {
+            jpql.append(", t.description AS description");
+        }
+        if (fields.includes(TaskFieldSet.Field.STATUS)) {
+            jpql.append(", t.status AS status");
+        }
+        if (fields.includes(TaskFieldSet.Field.PRIORITY)) {
+            jpql.append(", t.priority AS priority");
+        }
+        if (fields.includes(TaskFieldSet.Field.CREATED_AT)) {
+            jpql.append(", t.createdAt AS createdAt");
+        }
+        if (fields.includes(TaskFieldSet.Field.COMPLETED_AT)) {
+            jpql.append(", t.completedAt AS completedAt");
+        }
+        return jpql;
+    }
+
+    private static TaskDTO toDTO(Tuple row, TaskFieldSet fields) {
+        TaskDTO dto = new TaskDTO();
+        if (!fields.isAll()) {
+            dto.setFields(fields);
+        }
+        if (fields.includes(TaskFieldSet.Field.ID)) {
+            dto.setId(row.get("id", Long.class));
+        }
+        if (fields.includes(TaskFieldSet.Field.TITLE)) {
+            dto.setTitle(row.get("title", String.class));
+        }
+        if (fields.includes(TaskFieldSet.Field.DESCRIPTION)) {
+            dto.setDescription(row.get("description", String.class));
+        }
+        if (fields.includes(TaskFieldSet.Field.STATUS)) {
+            dto.setStatus(row.get("status", Task.TaskStatus.class));
+        }
+        if (fields.includes(TaskFieldSet.Field.PRIORITY)) {
+            dto.setPriority(row.get("priority", Task.TaskPriority.class));
+        }
+        if (fields.includes(TaskFieldSet.Field.CREATED_AT)) {
+            dto.setCreatedAt(toInstant(row.get("createdAt", LocalDateTime.class)));
+        }
+        if (fields.includes(TaskFieldSet.Field.COMPLETED_AT)) {
+            dto.setCompletedAt(toInstant(row.get("completedAt", LocalDateTime.class)));
+        }
+        return dto;
+    }
+
+    // Same conversion as TaskService.convertToDTO: the entity stores UTC LocalDateTime
+    private static Instant toInstant(LocalDateTime value) {
+        return value == null ? null : value.atZone(ZoneOffset.UTC).toInstant();
+    }
+}
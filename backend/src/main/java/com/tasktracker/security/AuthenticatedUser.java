@@ -0,0 +1,76 @@
+package com.tasktracker.security;
+
+import io.jsonwebtoken.Claims;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collections;
+
+/**
+ * Authenticated principal carrying the database id next to username and role.
+ *
+ * Built either from the users table (CustomUserDetailsService) or, in stateless
+ * mode, purely from verified JWT claims. Having the id on the principal lets
+ * TaskService reference the current user without querying the users table.
+ */
+public class AuthenticatedUser extends User {
+
+    private final Long userId;
+    private final String role;
+
+    public AuthenticatedUser(String username, String password, Long userId, String role) {
+        super(username, password, Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role)));
+        this.userId = userId;
+        this.role = role;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    /**
+     * Copy without the password hash, safe to keep in a shared cache.
+     */
+    public AuthenticatedUser withoutPassword() {
+        return new AuthenticatedUser(getUsername(), "", userId, role);
+    }
+
+    /**
+     * Builds a principal from a verified token's claims.
+     *
+     * @param token Verified JWT
+     * @return principal, or null if the token predates the id/role claims
+     */
+    public static AuthenticatedUser fromToken(VerifiedToken token) {
+        Claims claims = token.getClaims();
+        Object userId = claims.get(JwtUtil.CLAIM_USER_ID);
+        Object role = claims.get(JwtUtil.CLAIM_ROLE);
+        if (!(userId instanceof Number) || !(role instanceof String)) {
+            return null;
+        }
+        // No password - a token-backed principal is never used for password checks
+        return new AuthenticatedUser(token.getUsername(), "", ((Number) userId).longValue(), (String) role);
+    }
+
+    /**
+     * Name of the user the current thread works for, used to route database work
+     * (shards, read replicas) without passing the user around.
+     *
+     * @return authenticated (non-anonymous) user's name, or null
+     */
+    public static String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
@@ -2,31 +2,82 @@ package com.tasktracker.security;
 
 import com.tasktracker.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.userdetails.User;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
-import java.util.Collections;
-
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
-    
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
+
     @Autowired
     private UserRepository userRepository;
-    
+
+    @Autowired
+    private CacheManager cacheManager;
+
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         com.tasktracker.model.User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
-        
-        return new User(
+
+        return new AuthenticatedUser(
                 user.getUsername(),
                 user.getPassword(),
-                Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + user.getRole()))
+                user.getId(),
+                user.getRole()
         );
     }
-}
 
+    /**
+     * Stores a re-encoded password hash after a successful login.
+     *
+     * Called by DaoAuthenticationProvider when the stored hash's BCrypt cost
+     * differs from the configured one.
+     *
+     * @param user Authenticated user details
+     * @param newPassword Newly encoded password hash
+     * @return User details carrying the new hash
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        com.tasktracker.model.User entity = userRepository.findByUsername(user.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + user.getUsername()));
+        entity.setPassword(newPassword);
+        userRepository.save(entity);
+        return new AuthenticatedUser(entity.getUsername(), newPassword, entity.getId(), entity.getRole());
+    }
+
+    /**
+     * Loads user details for request authentication through the "userDetails" cache.
+     *
+     * Cached entries carry no password hash: they are only used to rebuild
+     * authorities for JWT-authenticated requests, never for password checks
+     * (login goes through loadUserByUsername, which is not cached).
+     *
+     * @param username Username from a verified token
+     * @return Cached or freshly loaded user details
+     */
+    public UserDetails loadCachedUser(String username) {
+        Cache cache = cacheManager.getCache("userDetails");
+        if (cache == null) {
+            return loadUserByUsername(username);
+        }
+        return cache.get(username, () -> ((AuthenticatedUser) loadUserByUsername(username)).withoutPassword());
+    }
+
+    /**
+     * Drops a user from the "userDetails" cache so the next request sees current data.
+     *
+     * @param username Username whose cached details are stale
+     */
+    public void evict(String username) {
+        Cache cache = cacheManager.getCache("userDetails");
+        if (cache != null) {
+            cache.evict(username);
+        }
+    }
+}
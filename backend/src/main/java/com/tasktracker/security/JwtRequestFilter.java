@@ -1,10 +1,16 @@
 package com.tasktracker.security;
 
+import com.tasktracker.tracing.Span;
+import com.tasktracker.tracing.Trace;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -13,6 +19,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 /**
  * JWT Request Filter - validates JWT tokens on every request.
@@ -24,6 +31,17 @@ import java.io.IOException;
  *
  * Extends OncePerRequestFilter to ensure this filter is executed only once per request.
  *
+ * Authentication modes (security.auth.mode):
+ * - database: load UserDetails from the users table on every request
+ * - cached (default): load UserDetails through the bounded "userDetails" cache,
+ *   invalidated when a user row changes (picks up revocations)
+ * - stateless (opt-in): build the principal from the verified token's id/role
+ *   claims, no database access at all (tokens without those claims fall back
+ *   to cached). A deleted or demoted user keeps the token's role until it expires.
+ *
+ * Token verification is timed as auth.jwt.verify (outcome: valid|invalid), and
+ * traced as the "jwt" and "auth" (user resolution) spans when tracing is on.
+ *
  * Request Flow:
  * Client → JWT Filter (validate token) → Spring Security → Controller
  */
@@ -37,15 +55,38 @@ public class JwtRequestFilter extends OncePerRequestFilter {
     // Utility class for JWT operations (generate, validate, extract)
     @Autowired
     private JwtUtil jwtUtil;
+
+    // How the principal is resolved once the token is verified: database, cached or stateless
+    @Value("${security.auth.mode:cached}")
+    private String authMode;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Timer verifyValid;
+    private Timer verifyInvalid;
+
+    @PostConstruct
+    void initMetrics() {
+        verifyValid = verifyTimer("valid");
+        verifyInvalid = verifyTimer("invalid");
+    }
+
+    private Timer verifyTimer(String outcome) {
+        return Timer.builder("auth.jwt.verify")
+                .description("JWT signature and expiration check, including verified-token cache hits")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
     
     /**
      * Filters each incoming request to validate JWT token.
      *
      * Process:
      * 1. Extract JWT from "Authorization: Bearer <token>" header
-     * 2. Extract username from token
-     * 3. Load user details from database
-     * 4. Validate token (signature, expiration, username match)
+     * 2. Verify token once (signature + expiration) and read username from it
+     * 3. Resolve user details according to security.auth.mode
+     * 4. Check username match against the already verified token
      * 5. Set authentication in SecurityContext for downstream filters/controllers
      *
      * If token is invalid or missing, request continues but authentication remains null
@@ -66,16 +107,22 @@ public class JwtRequestFilter extends OncePerRequestFilter {
         final String authorizationHeader = request.getHeader("Authorization");
         
         String username = null;
-        String jwt = null;
+        VerifiedToken token = null;
         
         // Check if Authorization header exists and starts with "Bearer "
         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
             // Extract token by removing "Bearer " prefix (7 characters)
-            jwt = authorizationHeader.substring(7);
+            String jwt = authorizationHeader.substring(7);
+            long start = System.nanoTime();
             try {
-                // Extract username from JWT token (stored in subject claim)
-                username = jwtUtil.extractUsername(jwt);
+                // Single signature verification per request (or a cache hit for a known token)
+                try (Span span = Trace.span("jwt", "verify")) {
+                    token = jwtUtil.verify(jwt);
+                }
+                username = token.getUsername();
+                verifyValid.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
             } catch (Exception e) {
+                verifyInvalid.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
                 // Log error but don't stop request - let it fail authentication naturally
                 logger.error("JWT Token extraction failed", e);
             }
@@ -83,11 +130,14 @@ public class JwtRequestFilter extends OncePerRequestFilter {
         
         // If username was extracted and no authentication exists in context yet
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            // Load full user details from database using username from token
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+            // Resolve user details from token claims, cache or database
+            UserDetails userDetails;
+            try (Span span = Trace.span("auth", "resolve user (" + authMode + ")")) {
+                userDetails = resolveUserDetails(token);
+            }
             
-            // Validate token: check signature, expiration, and username match
-            if (jwtUtil.validateToken(jwt, userDetails)) {
+            // Signature was checked by verify(); only username match and expiration remain
+            if (jwtUtil.validateToken(token, userDetails)) {
                 // Create authentication token with user details and authorities
                 // No credentials needed (token is proof of authentication)
                 UsernamePasswordAuthenticationToken authenticationToken =
@@ -105,5 +155,27 @@ public class JwtRequestFilter extends OncePerRequestFilter {
         // Continue filter chain - pass request to next filter or controller
         chain.doFilter(request, response);
     }
+
+    /**
+     * Resolves the principal for a verified token according to the configured mode.
+     *
+     * @param token Verified JWT
+     * @return UserDetails with authorities for the token's subject
+     */
+    private UserDetails resolveUserDetails(VerifiedToken token) {
+        switch (authMode) {
+            case "stateless":
+                AuthenticatedUser fromClaims = AuthenticatedUser.fromToken(token);
+                if (fromClaims != null) {
+                    return fromClaims;
+                }
+                // Token issued before id/role claims existed - use the cache instead
+                return userDetailsService.loadCachedUser(token.getUsername());
+            case "cached":
+                return userDetailsService.loadCachedUser(token.getUsername());
+            default:
+                return userDetailsService.loadUserByUsername(token.getUsername());
+        }
+    }
 }
 
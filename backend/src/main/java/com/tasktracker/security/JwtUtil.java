@@ -1,17 +1,27 @@
 package com.tasktracker.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.tasktracker.jfr.JwtVerificationEvent;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 /**
@@ -31,9 +41,18 @@ import java.util.function.Function;
  * - Header: algorithm and token type
  * - Payload: claims (username, issued at, expiration)
  * - Signature: HMAC-SHA256(header + payload, secret)
+ *
+ * Performance:
+ * - Signing key and parser are built once at startup (both are thread-safe)
+ * - Verified tokens are cached by SHA-256 digest until their "exp" claim,
+ *   so repeat requests with the same token skip HMAC and JSON parsing
  */
 @Component  // Spring-managed component available for dependency injection
 public class JwtUtil {
+
+    // Custom claims used by stateless authentication (see JwtRequestFilter)
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
     
     // JWT secret key from application.properties - used for signing tokens
     @Value("${jwt.secret}")
@@ -42,17 +61,123 @@ public class JwtUtil {
     // Token expiration time in milliseconds (default: 24 hours = 86400000ms)
     @Value("${jwt.expiration}")
     private Long expiration;
-    
+
+    // Upper bound on cached verified tokens (0 disables the cache)
+    @Value("${jwt.verified-cache.max-size:1000}")
+    private long verifiedCacheMaxSize;
+
+    // Built once in init() - rebuilding per call costs a key derivation and parser setup
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    // Token digest -> verified claims, each entry expires at the token's own "exp"
+    private Cache<String, VerifiedToken> verifiedTokens;
+
     /**
-     * Creates signing key from secret string.
+     * Creates signing key, parser and verified-token cache once.
      *
-     * Converts secret string to SecretKey for HMAC-SHA256 algorithm.
      * Key must be at least 256 bits (32 bytes) for HS256.
+     */
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parser()
+                .verifyWith(signingKey)  // Verify signature with secret key
+                .build();
+        if (verifiedCacheMaxSize > 0) {
+            verifiedTokens = Caffeine.newBuilder()
+                    .maximumSize(verifiedCacheMaxSize)
+                    .expireAfter(new Expiry<String, VerifiedToken>() {
+                        @Override
+                        public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+                            long remainingMillis = value.getExpiresAtMillis() - System.currentTimeMillis();
+                            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+                        }
+
+                        @Override
+                        public long expireAfterUpdate(String key, VerifiedToken value, long currentTime,
+                                                      long currentDuration) {
+                            return currentDuration;
+                        }
+
+                        @Override
+                        public long expireAfterRead(String key, VerifiedToken value, long currentTime,
+                                                    long currentDuration) {
+                            return currentDuration;
+                        }
+                    })
+                    .build();
+        }
+    }
+
+    /**
+     * Returns the signing key built at startup.
      *
      * @return SecretKey for signing/verifying JWT tokens
      */
     private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        return signingKey;
+    }
+
+    /**
+     * Verifies a token exactly once and returns its claims.
+     *
+     * Serves from the verified-token cache when the same token was seen before
+     * and has not expired; otherwise checks signature and expiration and caches
+     * the result until the token's "exp". Each call emits a JwtVerificationEvent
+     * (JFR) when a recording is running.
+     *
+     * @param token JWT token string
+     * @return VerifiedToken with subject, expiration and claims
+     * @throws io.jsonwebtoken.JwtException if signature is invalid or token expired
+     */
+    public VerifiedToken verify(String token) {
+        JwtVerificationEvent event = new JwtVerificationEvent();
+        event.begin();
+        try {
+            VerifiedToken verified = verifyOnce(token, event);
+            event.valid = true;
+            return verified;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.commit();
+            }
+        }
+    }
+
+    private VerifiedToken verifyOnce(String token, JwtVerificationEvent event) {
+        if (verifiedTokens == null) {
+            return parse(token);
+        }
+        String key = digest(token);
+        VerifiedToken cached = verifiedTokens.getIfPresent(key);
+        if (cached != null && !cached.isExpired(System.currentTimeMillis())) {
+            event.cached = true;
+            return cached;
+        }
+        VerifiedToken verified = parse(token);
+        verifiedTokens.put(key, verified);
+        return verified;
+    }
+
+    private VerifiedToken parse(String token) {
+        Claims claims = extractAllClaims(token);
+        Date exp = claims.getExpiration();
+        return new VerifiedToken(claims.getSubject(), exp != null ? exp.getTime() : Long.MAX_VALUE, claims);
+    }
+
+    /**
+     * SHA-256 of the token - keeps raw bearer tokens out of the cache keys.
+     */
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 is mandatory on every JVM
+            throw new IllegalStateException(e);
+        }
     }
     
     /**
@@ -65,7 +190,7 @@ public class JwtUtil {
      * @return Username from token's subject claim
      */
     public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return verify(token).getUsername();
     }
     
     /**
@@ -75,7 +200,7 @@ public class JwtUtil {
      * @return Expiration date from token claims
      */
     public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+        return new Date(verify(token).getExpiresAtMillis());
     }
     
     /**
@@ -89,7 +214,7 @@ public class JwtUtil {
      * @return Extracted claim value
      */
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
+        final Claims claims = verify(token).getClaims();
         return claimsResolver.apply(claims);
     }
     
@@ -103,25 +228,11 @@ public class JwtUtil {
      * @return Claims object containing all token claims
      */
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())  // Verify signature with secret key
-                .build()
+        return parser
                 .parseSignedClaims(token)  // Parse and validate token
                 .getPayload();  // Extract claims from payload
     }
     
-    /**
-     * Checks if JWT token has expired.
-     *
-     * Compares token's expiration date with current date.
-     *
-     * @param token JWT token string
-     * @return true if token is expired, false otherwise
-     */
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-    
     /**
      * Generates JWT token for a username.
      *
@@ -138,6 +249,24 @@ public class JwtUtil {
         Map<String, Object> claims = new HashMap<>();
         return createToken(claims, username);
     }
+
+    /**
+     * Generates JWT token carrying user id and role claims.
+     *
+     * These claims let JwtRequestFilter build the Authentication in stateless
+     * mode without loading the user from the database.
+     *
+     * @param username Username to include in token
+     * @param userId Database id of the user
+     * @param role User role (without "ROLE_" prefix)
+     * @return Generated JWT token string
+     */
+    public String generateToken(String username, Long userId, String role) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(CLAIM_USER_ID, userId);
+        claims.put(CLAIM_ROLE, role);
+        return createToken(claims, username);
+    }
     
     /**
      * Creates JWT token with custom claims and subject.
@@ -170,16 +299,27 @@ public class JwtUtil {
      * 1. Username in token matches UserDetails username
      * 2. Token has not expired
      *
-     * Note: Signature validation happens in extractUsername/extractAllClaims.
-     * If signature is invalid, those methods throw exception.
+     * Note: Signature validation happens in verify().
+     * If signature is invalid, it throws exception.
      *
      * @param token JWT token string
      * @param userDetails User details from database
      * @return true if token is valid for this user, false otherwise
      */
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        return validateToken(verify(token), userDetails);
+    }
+
+    /**
+     * Validates an already verified token against user details without re-parsing it.
+     *
+     * @param token Token returned by verify()
+     * @param userDetails User details from database
+     * @return true if token is valid for this user, false otherwise
+     */
+    public boolean validateToken(VerifiedToken token, UserDetails userDetails) {
+        return token.getUsername().equals(userDetails.getUsername())
+                && !token.isExpired(System.currentTimeMillis());
     }
 }
 
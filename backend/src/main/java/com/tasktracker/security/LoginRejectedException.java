@@ -0,0 +1,25 @@
+package com.tasktracker.security;
+
+/**
+ * Thrown when a login cannot be processed because the password verification
+ * pool is saturated. Carries the HTTP status and Retry-After hint for the client.
+ */
+public class LoginRejectedException extends RuntimeException {
+
+    private final int status;
+    private final long retryAfterSeconds;
+
+    public LoginRejectedException(int status, String message, long retryAfterSeconds) {
+        super(message);
+        this.status = status;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,61 @@
+package com.tasktracker.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt password encoder that records hash time and flags hashes for rehash
+ * whenever their cost differs from the configured one.
+ *
+ * BCryptPasswordEncoder only upgrades weaker hashes; here any cost change
+ * (up or down) triggers a rehash on the next successful login, so the cost
+ * can be tuned against the CPU budget in both directions.
+ */
+public class MeteredBCryptPasswordEncoder implements PasswordEncoder {
+
+    // $2a$10$... - version, cost, salt+hash
+    private static final Pattern BCRYPT_COST = Pattern.compile("\\A\\$2[aby]?\\$(\\d\\d)\\$");
+
+    private final BCryptPasswordEncoder delegate;
+    private final int strength;
+    private final Timer matchTimer;
+    private final Timer encodeTimer;
+
+    public MeteredBCryptPasswordEncoder(int strength, MeterRegistry meterRegistry) {
+        this.delegate = new BCryptPasswordEncoder(strength);
+        this.strength = strength;
+        this.matchTimer = Timer.builder("auth.bcrypt.hash")
+                .description("Time spent in BCrypt")
+                .tag("operation", "matches")
+                .register(meterRegistry);
+        this.encodeTimer = Timer.builder("auth.bcrypt.hash")
+                .description("Time spent in BCrypt")
+                .tag("operation", "encode")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return encodeTimer.record(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        Boolean matched = matchTimer.record(() -> delegate.matches(rawPassword, encodedPassword));
+        return Boolean.TRUE.equals(matched);
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) != strength;
+    }
+}
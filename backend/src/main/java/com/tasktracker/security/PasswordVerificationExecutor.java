@@ -0,0 +1,107 @@
+package com.tasktracker.security;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Dedicated, bounded worker pool for password verification.
+ *
+ * BCrypt is deliberately slow, so running it on Tomcat request threads lets a
+ * burst of logins (or a credential-stuffing attempt) starve the task API.
+ * Login work runs here instead:
+ * - fixed number of worker threads (auth.bcrypt.threads)
+ * - bounded wait queue (auth.bcrypt.queue-capacity); when full, the login is
+ *   rejected immediately with LoginRejectedException (HTTP 429)
+ * - bounded wait (auth.bcrypt.timeout-ms); when exceeded, HTTP 503
+ *
+ * Exposes auth.bcrypt.queue.depth and auth.bcrypt.active gauges.
+ */
+@Component
+public class PasswordVerificationExecutor {
+
+    @Value("${auth.bcrypt.threads:2}")
+    private int threads;
+
+    @Value("${auth.bcrypt.queue-capacity:16}")
+    private int queueCapacity;
+
+    @Value("${auth.bcrypt.timeout-ms:5000}")
+    private long timeoutMs;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger counter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "bcrypt-" + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());  // Fail fast instead of blocking the caller
+
+        Gauge.builder("auth.bcrypt.queue.depth", executor, e -> e.getQueue().size())
+                .description("Logins waiting for a password verification worker")
+                .register(meterRegistry);
+        Gauge.builder("auth.bcrypt.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Password verifications currently running")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs the given login work on the password pool and waits for the result.
+     *
+     * @param work Authentication work (user lookup + password check)
+     * @return Result of the work
+     * @throws LoginRejectedException if the pool is saturated or the wait times out
+     */
+    public <T> T execute(Callable<T> work) {
+        Future<T> future;
+        try {
+            future = executor.submit(work);
+        } catch (RejectedExecutionException e) {
+            throw new LoginRejectedException(429, "Too many login attempts in progress, please retry shortly", 1);
+        }
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new LoginRejectedException(503, "Login service is busy, please retry shortly",
+                    Math.max(1, timeoutMs / 1000));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LoginRejectedException(503, "Login interrupted", 1);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,159 @@
+package com.tasktracker.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-user rate limiting filter - runs right after JwtRequestFilter.
+ *
+ * Each caller gets one token bucket per budget:
+ * - read: GET/HEAD requests under /api
+ * - write: POST/PUT/PATCH/DELETE requests under /api
+ * - login: POST /api/auth/login (keyed by client IP, since there is no user yet)
+ *
+ * Authenticated requests are keyed by username, anonymous ones by client IP.
+ * Behind a reverse proxy the client IP must come from X-Forwarded-For
+ * (server.forward-headers-strategy, set in the prod profile); otherwise every
+ * client shares the proxy's address and with it one login budget.
+ * Buckets live in a bounded Caffeine map that drops idle callers, so memory
+ * stays flat no matter how many distinct clients show up.
+ *
+ * Throttled requests get 429 with a Retry-After header and are counted in the
+ * ratelimit.throttled counter (tagged by budget).
+ */
+@Component  // Marks this as a Spring-managed component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String LOGIN_PATH = "/api/auth/login";
+
+    @Value("${ratelimit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${ratelimit.read.capacity:60}")
+    private long readCapacity;
+
+    @Value("${ratelimit.read.refill-per-second:20}")
+    private double readRefillPerSecond;
+
+    @Value("${ratelimit.write.capacity:20}")
+    private long writeCapacity;
+
+    @Value("${ratelimit.write.refill-per-second:5}")
+    private double writeRefillPerSecond;
+
+    @Value("${ratelimit.login.capacity:5}")
+    private long loginCapacity;
+
+    @Value("${ratelimit.login.refill-per-second:0.2}")
+    private double loginRefillPerSecond;
+
+    // Bounds on the bucket map: callers idle longer than this are forgotten
+    @Value("${ratelimit.max-tracked-keys:10000}")
+    private long maxTrackedKeys;
+
+    @Value("${ratelimit.idle-expiry-seconds:300}")
+    private long idleExpirySeconds;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // "<budget>:<caller>" -> bucket
+    private Cache<String, TokenBucket> buckets;
+
+    private Counter readThrottled;
+    private Counter writeThrottled;
+    private Counter loginThrottled;
+
+    @PostConstruct
+    void init() {
+        buckets = Caffeine.newBuilder()
+                .maximumSize(maxTrackedKeys)
+                .expireAfterAccess(idleExpirySeconds, TimeUnit.SECONDS)
+                .build();
+        readThrottled = throttledCounter("read");
+        writeThrottled = throttledCounter("write");
+        loginThrottled = throttledCounter("login");
+    }
+
+    private Counter throttledCounter(String budget) {
+        return Counter.builder("ratelimit.throttled")
+                .description("Requests rejected with 429 by the per-user rate limiter")
+                .tag("budget", budget)
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // Only the API is limited; CORS preflights are never counted
+        return !enabled
+                || !request.getRequestURI().startsWith("/api/")
+                || "OPTIONS".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String method = request.getMethod();
+        String caller;
+        String budget;
+        long capacity;
+        double refillPerSecond;
+        Counter throttled;
+
+        if (LOGIN_PATH.equals(request.getRequestURI())) {
+            budget = "login";
+            caller = request.getRemoteAddr();
+            capacity = loginCapacity;
+            refillPerSecond = loginRefillPerSecond;
+            throttled = loginThrottled;
+        } else {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            caller = authentication != null ? "user:" + authentication.getName() : "ip:" + request.getRemoteAddr();
+            if ("GET".equals(method) || "HEAD".equals(method)) {
+                budget = "read";
+                capacity = readCapacity;
+                refillPerSecond = readRefillPerSecond;
+                throttled = readThrottled;
+            } else {
+                budget = "write";
+                capacity = writeCapacity;
+                refillPerSecond = writeRefillPerSecond;
+                throttled = writeThrottled;
+            }
+        }
+
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.get(budget + ":" + caller, k -> new TokenBucket(capacity, refillPerSecond, now));
+        long waitNanos = bucket.tryAcquire(now);
+        if (waitNanos > 0) {
+            throttled.increment();
+            long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"error\":\"Too many requests, please retry later\"}");
+            return;
+        }
+
+        chain.doFilter(request, response);
+    }
+}
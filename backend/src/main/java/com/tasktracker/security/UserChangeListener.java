@@ -0,0 +1,29 @@
+package com.tasktracker.security;
+
+import com.tasktracker.model.User;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA entity listener that invalidates cached UserDetails when a user row changes.
+ *
+ * Registered on the User entity; Hibernate obtains it from the Spring context.
+ * The service is injected lazily because it depends on the repositories, which
+ * are only available after the EntityManagerFactory (and its listeners) exists.
+ */
+@Component
+public class UserChangeListener {
+
+    @Lazy
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @PostUpdate
+    @PostRemove
+    public void onUserChanged(User user) {
+        userDetailsService.evict(user.getUsername());
+    }
+}
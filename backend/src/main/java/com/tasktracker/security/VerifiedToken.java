@@ -0,0 +1,39 @@
+package com.tasktracker.security;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * Result of a successful JWT signature verification.
+ *
+ * Holds the claims the request filter needs so a token is parsed and
+ * verified once per request (and not at all when served from JwtUtil's
+ * verified-token cache).
+ */
+public final class VerifiedToken {
+
+    private final String username;
+    private final long expiresAtMillis;
+    private final Claims claims;
+
+    public VerifiedToken(String username, long expiresAtMillis, Claims claims) {
+        this.username = username;
+        this.expiresAtMillis = expiresAtMillis;
+        this.claims = claims;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public long getExpiresAtMillis() {
+        return expiresAtMillis;
+    }
+
+    public Claims getClaims() {
+        return claims;
+    }
+
+    public boolean isExpired(long nowMillis) {
+        return expiresAtMillis <= nowMillis;
+    }
+}
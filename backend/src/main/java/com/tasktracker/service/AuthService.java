@@ -5,6 +5,13 @@ import com.tasktracker.dto.LoginResponse;
 import com.tasktracker.model.User;
 import com.tasktracker.repository.UserRepository;
 import com.tasktracker.security.JwtUtil;
+import com.tasktracker.security.LoginRejectedException;
+import com.tasktracker.security.PasswordVerificationExecutor;
+import com.tasktracker.tracing.Span;
+import com.tasktracker.tracing.Trace;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -27,8 +34,13 @@ import org.springframework.stereotype.Service;
  *
  * Security Notes:
  * - Passwords are never returned or logged
- * - BCrypt password verification handled by AuthenticationManager
+ * - BCrypt password verification handled by AuthenticationManager, on the
+ *   dedicated PasswordVerificationExecutor pool (not on Tomcat request threads)
  * - JWT tokens expire after configured time (default 24 hours)
+ *
+ * Metrics: auth.login times the whole login (pool wait, user lookup, BCrypt,
+ * token) by outcome: success, invalid_credentials or rejected (pool saturated).
+ * The BCrypt check alone is auth.bcrypt.hash (MeteredBCryptPasswordEncoder).
  */
 @Service  // Marks this as a Spring service component
 public class AuthService {
@@ -48,6 +60,31 @@ public class AuthService {
     // Spring Security's authentication manager - validates credentials
     @Autowired
     private AuthenticationManager authenticationManager;
+
+    // Bounded pool that runs BCrypt checks off the request threads
+    @Autowired
+    private PasswordVerificationExecutor passwordVerificationExecutor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Timer loginSucceeded;
+    private Timer loginInvalid;
+    private Timer loginRejected;
+
+    @PostConstruct
+    void initMetrics() {
+        loginSucceeded = loginTimer("success");
+        loginInvalid = loginTimer("invalid_credentials");
+        loginRejected = loginTimer("rejected");
+    }
+
+    private Timer loginTimer(String outcome) {
+        return Timer.builder("auth.login")
+                .description("Login requests, including the wait for a password verification worker")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
     
     /**
      * Authenticates user and generates JWT token.
@@ -67,27 +104,40 @@ public class AuthService {
      * @param request LoginRequest containing username and password
      * @return LoginResponse with JWT token and user details
      * @throws RuntimeException if authentication fails
+     * @throws com.tasktracker.security.LoginRejectedException if the password pool is saturated
      */
     public LoginResponse login(LoginRequest request) {
+        Timer.Sample sample = Timer.start(meterRegistry);
         try {
-            // Authenticate user credentials
+            // Authenticate user credentials on the password verification pool
             // This triggers UserDetailsService.loadUserByUsername() and password verification
-            Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(request.getUsername(), request.getPassword())
-            );
+            // Traced as one "auth" span: the work runs on the pool, outside the request's trace
+            Authentication authentication;
+            try (Span span = Trace.span("auth", "password check")) {
+                authentication = passwordVerificationExecutor.execute(() ->
+                    authenticationManager.authenticate(
+                        new UsernamePasswordAuthenticationToken(request.getUsername(), request.getPassword())
+                    )
+                );
+            }
             
             // Load full user entity from database (authentication only validates, doesn't return entity)
             User user = userRepository.findByUsername(request.getUsername())
                     .orElseThrow(() -> new RuntimeException("User not found"));
             
-            // Generate JWT token with username as subject
-            String token = jwtUtil.generateToken(user.getUsername());
+            // Generate JWT token with username as subject, plus id/role for stateless auth
+            String token = jwtUtil.generateToken(user.getUsername(), user.getId(), user.getRole());
             
+            sample.stop(loginSucceeded);
             // Return token and user details (no password included)
             return new LoginResponse(token, user.getUsername(), user.getEmail(), "Login successful");
         } catch (AuthenticationException e) {
+            sample.stop(loginInvalid);
             // AuthenticationException thrown if username not found or password incorrect
             throw new RuntimeException("Invalid username or password");
+        } catch (LoginRejectedException e) {
+            sample.stop(loginRejected);
+            throw e;
         }
     }
     
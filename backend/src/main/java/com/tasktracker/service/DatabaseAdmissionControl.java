@@ -0,0 +1,218 @@
+package com.tasktracker.service;
+
+import com.tasktracker.config.RequestDeadlineFilter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Admission control (bulkhead) in front of TaskService's repository calls.
+ *
+ * At most db.admission.max-concurrent units of database work run at once -
+ * matching the Hikari pool, so admitted work never waits inside Hikari.
+ * Everything else waits in a bounded queue:
+ * - writes are admitted before any waiting read
+ * - a waiter gives up when its request deadline (RequestDeadlineFilter) passes
+ * - when db.admission.max-queue callers are already waiting, new work is
+ *   rejected immediately
+ * Both rejections surface as DatabaseOverloadedException (HTTP 503 + Retry-After),
+ * so a slow database sheds load in milliseconds instead of holding request
+ * threads for the 30s connection-timeout.
+ *
+ * Metrics: db.admission.queue.depth{kind}, db.admission.in.flight and
+ * db.admission.wait{kind,outcome}.
+ */
+@Component
+public class DatabaseAdmissionControl {
+
+    @Value("${db.admission.enabled:true}")
+    private boolean enabled;
+
+    @Value("${db.admission.max-concurrent:2}")
+    private int maxConcurrent;
+
+    @Value("${db.admission.max-queue:20}")
+    private int maxQueue;
+
+    // Used for work outside an HTTP request (no deadline attribute)
+    @Value("${db.admission.default-deadline-ms:3000}")
+    private long defaultDeadlineMs;
+
+    @Value("${db.admission.retry-after-seconds:1}")
+    private long retryAfterSeconds;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition writeTurn = lock.newCondition();
+    private final Condition readTurn = lock.newCondition();
+
+    // Guarded by lock
+    private int running;
+    private int waitingWrites;
+    private int waitingReads;
+
+    private Timer readAdmitted;
+    private Timer readRejected;
+    private Timer writeAdmitted;
+    private Timer writeRejected;
+
+    @PostConstruct
+    void init() {
+        Gauge.builder("db.admission.queue.depth", this, c -> c.waitingReads)
+                .tag("kind", "read")
+                .description("Database reads waiting for admission")
+                .register(meterRegistry);
+        Gauge.builder("db.admission.queue.depth", this, c -> c.waitingWrites)
+                .tag("kind", "write")
+                .description("Database writes waiting for admission")
+                .register(meterRegistry);
+        Gauge.builder("db.admission.in.flight", this, c -> c.running)
+                .description("Admitted database work currently running")
+                .register(meterRegistry);
+        readAdmitted = waitTimer("read", "admitted");
+        readRejected = waitTimer("read", "rejected");
+        writeAdmitted = waitTimer("write", "admitted");
+        writeRejected = waitTimer("write", "rejected");
+    }
+
+    private Timer waitTimer(String kind, String outcome) {
+        return Timer.builder("db.admission.wait")
+                .description("Time spent waiting for database admission")
+                .tag("kind", kind)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs read-only database work once admitted (lower priority than writes).
+     */
+    public <T> T read(Supplier<T> work) {
+        return run(false, work);
+    }
+
+    /**
+     * Runs database work that modifies data once admitted (served before reads).
+     */
+    public <T> T write(Supplier<T> work) {
+        return run(true, work);
+    }
+
+    public void write(Runnable work) {
+        run(true, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    private <T> T run(boolean write, Supplier<T> work) {
+        if (!enabled) {
+            return work.get();
+        }
+        long start = System.nanoTime();
+        try {
+            acquire(write, currentDeadline(start));
+        } catch (DatabaseOverloadedException e) {
+            (write ? writeRejected : readRejected).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+        (write ? writeAdmitted : readAdmitted).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        try {
+            return work.get();
+        } finally {
+            release();
+        }
+    }
+
+    private long currentDeadline(long now) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            Object deadline = attributes.getAttribute(RequestDeadlineFilter.DEADLINE_ATTRIBUTE,
+                    RequestAttributes.SCOPE_REQUEST);
+            if (deadline instanceof Long nanos) {
+                return nanos;
+            }
+        }
+        return now + TimeUnit.MILLISECONDS.toNanos(defaultDeadlineMs);
+    }
+
+    private boolean canRun(boolean write) {
+        // Reads also yield to any waiting write
+        return running < maxConcurrent && (write || waitingWrites == 0);
+    }
+
+    private void acquire(boolean write, long deadlineNanos) {
+        lock.lock();
+        try {
+            if (canRun(write)) {
+                running++;
+                return;
+            }
+            if (waitingWrites + waitingReads >= maxQueue) {
+                throw new DatabaseOverloadedException("Database is busy, please retry shortly", retryAfterSeconds);
+            }
+            if (write) {
+                waitingWrites++;
+            } else {
+                waitingReads++;
+            }
+            try {
+                while (!canRun(write)) {
+                    long remaining = deadlineNanos - System.nanoTime();
+                    if (remaining <= 0) {
+                        throw new DatabaseOverloadedException("Database is busy, request deadline exceeded",
+                                retryAfterSeconds);
+                    }
+                    (write ? writeTurn : readTurn).awaitNanos(remaining);
+                }
+                running++;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new DatabaseOverloadedException("Interrupted while waiting for the database", retryAfterSeconds);
+            } finally {
+                if (write) {
+                    waitingWrites--;
+                } else {
+                    waitingReads--;
+                }
+                // A leaving waiter (admitted or not) may unblock the next one
+                signalNext();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release() {
+        lock.lock();
+        try {
+            running--;
+            signalNext();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void signalNext() {
+        if (running >= maxConcurrent) {
+            return;
+        }
+        if (waitingWrites > 0) {
+            writeTurn.signal();
+        } else if (waitingReads > 0) {
+            readTurn.signal();
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.tasktracker.service;
+
+/**
+ * Thrown when database work is not admitted: the wait queue is full or the
+ * request's deadline passed while waiting. Mapped to HTTP 503 with Retry-After.
+ */
+public class DatabaseOverloadedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public DatabaseOverloadedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
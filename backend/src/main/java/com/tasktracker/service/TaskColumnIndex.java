@@ -0,0 +1,307 @@
+package com.tasktracker.service;
+
+import com.tasktracker.dto.TaskDTO;
+import com.tasktracker.dto.TaskFieldSet;
+import com.tasktracker.dto.TaskStatsDTO;
+import com.tasktracker.model.Task;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * In-heap columnar index of recently active users' tasks.
+ *
+ * A user's tasks are loaded once (through the loader TaskService passes in,
+ * i.e. one admitted repository read) into UserTaskColumns; after that list,
+ * filter and stats requests are answered from primitive arrays without going
+ * through JPA. TaskService writes every create/update/delete through, so
+ * this instance's own writes never need a reload.
+ *
+ * Memory: whole users are evicted least-recently-used first once the
+ * estimated footprint exceeds taskindex.max-bytes. A user whose tasks alone
+ * exceed the budget is served but not kept.
+ *
+ * Consistency: a load that overlaps with a write to the same user (or an
+ * invalidateAll) is used for that request but not installed, so a stale
+ * snapshot can never replace write-through data. Write versions are kept per
+ * user stripe (userId modulo 1024), so other users' writes don't hold back a
+ * load; only a user sharing the stripe can cause a spurious reload.
+ * The index is per instance, like the Caffeine caches in front of it, so it
+ * does not see writes made through other instances or straight to the
+ * database: a segment is reloaded once it is taskindex.ttl-seconds old
+ * (expire-after-write, counted from the load), which bounds that staleness,
+ * and code writing around TaskService (bulk loads, shard moves) calls
+ * invalidate or invalidateAll.
+ *
+ * Metrics: taskindex.users, taskindex.bytes, taskindex.requests{result},
+ * taskindex.evictions, taskindex.expirations.
+ */
+@Component
+public class TaskColumnIndex {
+
+    @Value("${taskindex.enabled:true}")
+    private boolean enabled;
+
+    @Value("${taskindex.max-bytes:16777216}")
+    private long maxBytes;
+
+    @Value("${taskindex.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Access-ordered: iteration starts at the least recently used user. Guarded by itself.
+    private final LinkedHashMap<Long, UserTaskColumns> segments = new LinkedHashMap<>(64, 0.75f, true);
+    private final Map<Long, Long> segmentBytes = new HashMap<>();
+    private final Map<Long, Long> segmentLoadedAt = new HashMap<>();  // System.nanoTime() of the load
+    private long totalBytes;
+
+    // Write versions by user stripe; a load only installs if its user's stripe saw no write while it ran
+    private static final int VERSION_STRIPES = 1024;
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+    // Bumped by invalidateAll, which every load in progress has to respect
+    private final AtomicLong generation = new AtomicLong();
+
+    private Counter hits;
+    private Counter misses;
+    private Counter evictions;
+    private Counter expirations;
+
+    @PostConstruct
+    void init() {
+        Gauge.builder("taskindex.users", this, index -> index.userCount())
+                .description("Users held in the columnar task index")
+                .register(meterRegistry);
+        Gauge.builder("taskindex.bytes", this, index -> index.totalBytes())
+                .description("Estimated heap used by the columnar task index")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        hits = Counter.builder("taskindex.requests").tag("result", "hit").register(meterRegistry);
+        misses = Counter.builder("taskindex.requests").tag("result", "miss").register(meterRegistry);
+        evictions = Counter.builder("taskindex.evictions")
+                .description("Users evicted to stay within taskindex.max-bytes")
+                .register(meterRegistry);
+        expirations = Counter.builder("taskindex.expirations")
+                .description("Users reloaded because their segment was older than taskindex.ttl-seconds")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Lists a user's tasks, optionally filtered by status and/or priority, in id order.
+     *
+     * @param userId Owner of the tasks
+     * @param status Status filter, or null for any
+     * @param priority Priority filter, or null for any
+     * @param fields Fields to set on the returned DTOs
+     * @param loader Loads all of the user's tasks when they are not indexed yet
+     * @return Matching tasks as DTOs
+     */
+    public List<TaskDTO> list(long userId, Task.TaskStatus status, Task.TaskPriority priority, TaskFieldSet fields,
+                              Supplier<List<Task>> loader) {
+        return columns(userId, loader).select(UserTaskColumns.code(status), UserTaskColumns.code(priority), fields);
+    }
+
+    /**
+     * Computes a user's task statistics from the index.
+     *
+     * @param userId Owner of the tasks
+     * @param loader Loads all of the user's tasks when they are not indexed yet
+     * @return Task statistics
+     */
+    public TaskStatsDTO stats(long userId, Supplier<List<Task>> loader) {
+        return columns(userId, loader).stats();
+    }
+
+    /**
+     * Applies a saved task to the owner's segment, if that user is indexed.
+     *
+     * @param userId Owner of the task
+     * @param task Task as persisted (id assigned)
+     */
+    public void upsert(long userId, Task task) {
+        if (!enabled) {
+            return;
+        }
+        written(userId);
+        UserTaskColumns columns = peek(userId);
+        if (columns != null) {
+            columns.upsert(task);
+            resize(userId, columns);
+        }
+    }
+
+    /**
+     * Removes a deleted task from the owner's segment, if that user is indexed.
+     *
+     * @param userId Owner of the task
+     * @param taskId Id of the deleted task
+     */
+    public void remove(long userId, long taskId) {
+        if (!enabled) {
+            return;
+        }
+        written(userId);
+        UserTaskColumns columns = peek(userId);
+        if (columns != null) {
+            columns.remove(taskId);
+            resize(userId, columns);
+        }
+    }
+
+    /**
+     * Drops a user's segment, so the next request reloads it. For code that
+     * changes the user's tasks without going through TaskService.
+     *
+     * @param userId Owner of the tasks
+     */
+    public void invalidate(long userId) {
+        if (!enabled) {
+            return;
+        }
+        written(userId);
+        synchronized (segments) {
+            drop(userId);
+        }
+    }
+
+    /**
+     * Drops all segments, e.g. after rows were inserted in bulk.
+     */
+    public void invalidateAll() {
+        if (!enabled) {
+            return;
+        }
+        generation.incrementAndGet();
+        synchronized (segments) {
+            segments.clear();
+            segmentBytes.clear();
+            segmentLoadedAt.clear();
+            totalBytes = 0;
+        }
+    }
+
+    private UserTaskColumns columns(long userId, Supplier<List<Task>> loader) {
+        UserTaskColumns columns;
+        synchronized (segments) {
+            columns = segments.get(userId);  // get() also marks the user most recently used
+            if (columns != null && isExpired(userId)) {
+                drop(userId);
+                expirations.increment();
+                columns = null;
+            }
+        }
+        if (columns != null) {
+            hits.increment();
+            return columns;
+        }
+        misses.increment();
+        long versionBefore = versions.get(stripe(userId));
+        long generationBefore = generation.get();
+        UserTaskColumns loaded = UserTaskColumns.of(loader.get());
+        long bytes = loaded.estimatedBytes();
+        synchronized (segments) {
+            UserTaskColumns existing = segments.get(userId);
+            if (existing != null) {
+                return existing;
+            }
+            if (versions.get(stripe(userId)) != versionBefore || generation.get() != generationBefore
+                    || bytes > maxBytes) {
+                return loaded;
+            }
+            segments.put(userId, loaded);
+            segmentBytes.put(userId, bytes);
+            segmentLoadedAt.put(userId, System.nanoTime());
+            totalBytes += bytes;
+            evictOverBudget(userId);
+        }
+        return loaded;
+    }
+
+    private void written(long userId) {
+        versions.incrementAndGet(stripe(userId));
+    }
+
+    private static int stripe(long userId) {
+        return (int) Math.floorMod(userId, (long) VERSION_STRIPES);
+    }
+
+    // Caller holds the segments lock
+    private boolean isExpired(long userId) {
+        Long loadedAt = segmentLoadedAt.get(userId);
+        return ttlSeconds > 0 && loadedAt != null
+                && System.nanoTime() - loadedAt > TimeUnit.SECONDS.toNanos(ttlSeconds);
+    }
+
+    // Caller holds the segments lock
+    private void drop(long userId) {
+        if (segments.remove(userId) != null) {
+            totalBytes -= segmentBytes.remove(userId);
+            segmentLoadedAt.remove(userId);
+        }
+    }
+
+    private UserTaskColumns peek(long userId) {
+        synchronized (segments) {
+            return segments.get(userId);
+        }
+    }
+
+    private void resize(long userId, UserTaskColumns columns) {
+        long bytes = columns.estimatedBytes();
+        synchronized (segments) {
+            Long previous = segmentBytes.get(userId);
+            if (previous == null || segments.get(userId) != columns) {
+                return;
+            }
+            segmentBytes.put(userId, bytes);
+            totalBytes += bytes - previous;
+            evictOverBudget(userId);
+        }
+    }
+
+    // Caller holds the segments lock
+    private void evictOverBudget(long keep) {
+        Iterator<Map.Entry<Long, UserTaskColumns>> eldest = segments.entrySet().iterator();
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            Long userId = eldest.next().getKey();
+            if (userId == keep) {
+                continue;  // never evict the user being served
+            }
+            eldest.remove();
+            totalBytes -= segmentBytes.remove(userId);
+            segmentLoadedAt.remove(userId);
+            evictions.increment();
+        }
+    }
+
+    private int userCount() {
+        synchronized (segments) {
+            return segments.size();
+        }
+    }
+
+    private long totalBytes() {
+        synchronized (segments) {
+            return totalBytes;
+        }
+    }
+}
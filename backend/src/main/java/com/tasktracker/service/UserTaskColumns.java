@@ -0,0 +1,262 @@
+package com.tasktracker.service;
+
+import com.tasktracker.dto.TaskDTO;
+import com.tasktracker.dto.TaskFieldSet;
+import com.tasktracker.dto.TaskStatsDTO;
+import com.tasktracker.model.Task;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * One user's tasks in columnar form, rows kept in ascending id order.
+ *
+ * Status and priority are byte codes, timestamps are epoch microseconds
+ * (NULL_TIME when absent), so filters, counts and completion-time averages
+ * scan primitive arrays without touching per-row objects. Title and
+ * description are only read when a row is turned into a TaskDTO.
+ *
+ * Guarded by a read/write lock: scans run concurrently, write-through
+ * updates from TaskService are exclusive.
+ */
+final class UserTaskColumns {
+
+    static final long NULL_TIME = Long.MIN_VALUE;
+    static final byte ANY = -1;
+
+    private static final Task.TaskStatus[] STATUSES = Task.TaskStatus.values();
+    private static final Task.TaskPriority[] PRIORITIES = Task.TaskPriority.values();
+    private static final byte DONE = (byte) Task.TaskStatus.DONE.ordinal();
+
+    // Fixed per-row cost: id + 2 timestamps + 2 codes + 2 references
+    private static final long ROW_BYTES = 8 + 8 + 8 + 1 + 1 + 8 + 8;
+    private static final long STRING_OVERHEAD = 40;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private int size;
+    private long[] ids;
+    private byte[] status;
+    private byte[] priority;
+    private long[] createdAt;
+    private long[] completedAt;
+    private String[] titles;
+    private String[] descriptions;
+    private long stringBytes;
+
+    private UserTaskColumns(int capacity) {
+        capacity = Math.max(capacity, 8);
+        ids = new long[capacity];
+        status = new byte[capacity];
+        priority = new byte[capacity];
+        createdAt = new long[capacity];
+        completedAt = new long[capacity];
+        titles = new String[capacity];
+        descriptions = new String[capacity];
+    }
+
+    static UserTaskColumns of(List<Task> tasks) {
+        List<Task> sorted = new ArrayList<>(tasks);
+        sorted.sort((a, b) -> Long.compare(a.getId(), b.getId()));
+        UserTaskColumns columns = new UserTaskColumns(sorted.size());
+        for (Task task : sorted) {
+            columns.set(columns.size++, task);
+        }
+        return columns;
+    }
+
+    static byte code(Task.TaskStatus value) {
+        return value == null ? ANY : (byte) value.ordinal();
+    }
+
+    static byte code(Task.TaskPriority value) {
+        return value == null ? ANY : (byte) value.ordinal();
+    }
+
+    /** Approximate heap footprint, used against TaskColumnIndex's memory budget. */
+    long estimatedBytes() {
+        lock.readLock().lock();
+        try {
+            return ids.length * ROW_BYTES + stringBytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rows matching both filters (ANY matches everything), in id order,
+     * with only the requested fields set.
+     */
+    List<TaskDTO> select(byte statusCode, byte priorityCode, TaskFieldSet fields) {
+        lock.readLock().lock();
+        try {
+            int[] matches = new int[size];
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                if ((statusCode == ANY || status[i] == statusCode)
+                        && (priorityCode == ANY || priority[i] == priorityCode)) {
+                    matches[count++] = i;
+                }
+            }
+            List<TaskDTO> result = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                result.add(toDTO(matches[i], fields));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Same figures as TaskService's repository-based stats, in one pass.
+     */
+    TaskStatsDTO stats() {
+        lock.readLock().lock();
+        try {
+            long[] byStatus = new long[STATUSES.length];
+            long completedWithTimes = 0;
+            long totalMicros = 0;
+            for (int i = 0; i < size; i++) {
+                byStatus[status[i]]++;
+                if (status[i] == DONE && completedAt[i] != NULL_TIME && createdAt[i] != NULL_TIME) {
+                    totalMicros += completedAt[i] - createdAt[i];
+                    completedWithTimes++;
+                }
+            }
+            long completed = byStatus[DONE];
+            double averageHours = completedWithTimes == 0
+                    ? 0.0
+                    : (double) totalMicros / completedWithTimes / (1000.0 * 1000.0 * 60.0 * 60.0);
+            return new TaskStatsDTO(size, completed, size - completed, averageHours,
+                    byStatus[Task.TaskStatus.TODO.ordinal()], byStatus[Task.TaskStatus.IN_PROGRESS.ordinal()]);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Inserts or replaces the row for task.getId(). */
+    void upsert(Task task) {
+        lock.writeLock().lock();
+        try {
+            int pos = Arrays.binarySearch(ids, 0, size, task.getId());
+            if (pos >= 0) {
+                stringBytes -= stringBytes(titles[pos]) + stringBytes(descriptions[pos]);
+                set(pos, task);
+                return;
+            }
+            int insertAt = -pos - 1;
+            if (size == ids.length) {
+                grow();
+            }
+            shift(insertAt, insertAt + 1, size - insertAt);
+            size++;
+            set(insertAt, task);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(long taskId) {
+        lock.writeLock().lock();
+        try {
+            int pos = Arrays.binarySearch(ids, 0, size, taskId);
+            if (pos < 0) {
+                return;
+            }
+            stringBytes -= stringBytes(titles[pos]) + stringBytes(descriptions[pos]);
+            shift(pos + 1, pos, size - pos - 1);
+            size--;
+            titles[size] = null;
+            descriptions[size] = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void set(int i, Task task) {
+        ids[i] = task.getId();
+        status[i] = code(task.getStatus());
+        priority[i] = code(task.getPriority());
+        createdAt[i] = toMicros(task.getCreatedAt());
+        completedAt[i] = toMicros(task.getCompletedAt());
+        titles[i] = task.getTitle();
+        descriptions[i] = task.getDescription();
+        stringBytes += stringBytes(titles[i]) + stringBytes(descriptions[i]);
+    }
+
+    // Unselected properties stay null, as in TaskRepository.findProjected
+    private TaskDTO toDTO(int i, TaskFieldSet fields) {
+        if (fields.isAll()) {
+            return new TaskDTO(ids[i], titles[i], descriptions[i], STATUSES[status[i]], PRIORITIES[priority[i]],
+                    toInstant(createdAt[i]), toInstant(completedAt[i]));
+        }
+        TaskDTO dto = new TaskDTO();
+        dto.setFields(fields);
+        if (fields.includes(TaskFieldSet.Field.ID)) {
+            dto.setId(ids[i]);
+        }
+        if (fields.includes(TaskFieldSet.Field.TITLE)) {
+            dto.setTitle(titles[i]);
+        }
+        if (fields.includes(TaskFieldSet.Field.DESCRIPTION)) {
+            dto.setDescription(descriptions[i]);
+        }
+        if (fields.includes(TaskFieldSet.Field.STATUS)) {
+            dto.setStatus(STATUSES[status[i]]);
+        }
+        if (fields.includes(TaskFieldSet.Field.PRIORITY)) {
+            dto.setPriority(PRIORITIES[priority[i]]);
+        }
+        if (fields.includes(TaskFieldSet.Field.CREATED_AT)) {
+            dto.setCreatedAt(toInstant(createdAt[i]));
+        }
+        if (fields.includes(TaskFieldSet.Field.COMPLETED_AT)) {
+            dto.setCompletedAt(toInstant(completedAt[i]));
+        }
+        return dto;
+    }
+
+    private void shift(int from, int to, int length) {
+        System.arraycopy(ids, from, ids, to, length);
+        System.arraycopy(status, from, status, to, length);
+        System.arraycopy(priority, from, priority, to, length);
+        System.arraycopy(createdAt, from, createdAt, to, length);
+        System.arraycopy(completedAt, from, completedAt, to, length);
+        System.arraycopy(titles, from, titles, to, length);
+        System.arraycopy(descriptions, from, descriptions, to, length);
+    }
+
+    private void grow() {
+        int capacity = ids.length + (ids.length >> 1) + 1;
+        ids = Arrays.copyOf(ids, capacity);
+        status = Arrays.copyOf(status, capacity);
+        priority = Arrays.copyOf(priority, capacity);
+        createdAt = Arrays.copyOf(createdAt, capacity);
+        completedAt = Arrays.copyOf(completedAt, capacity);
+        titles = Arrays.copyOf(titles, capacity);
+        descriptions = Arrays.copyOf(descriptions, capacity);
+    }
+
+    private static long stringBytes(String s) {
+        return s == null ? 0 : STRING_OVERHEAD + s.length();
+    }
+
+    // Microseconds rather than millis so API timestamps match the repository path exactly
+    private static long toMicros(LocalDateTime time) {
+        if (time == null) {
+            return NULL_TIME;
+        }
+        return ChronoUnit.MICROS.between(Instant.EPOCH, time.toInstant(ZoneOffset.UTC));
+    }
+
+    private static Instant toInstant(long micros) {
+        return micros == NULL_TIME ? null : Instant.EPOCH.plus(micros, ChronoUnit.MICROS);
+    }
+}
@@ -0,0 +1,52 @@
+package com.tasktracker.sharding;
+
+/**
+ * Explicit shard selection for the current thread.
+ *
+ * Work that is not tied to the authenticated user (data generators, the
+ * rebalancer, lookups by username during login) pins a shard for a block:
+ *
+ * <pre>
+ * try (ShardContext.Scope scope = ShardContext.use(2)) {
+ *     ... repository or JdbcTemplate calls go to shard 2 ...
+ * }
+ * </pre>
+ *
+ * Scopes nest; closing one restores the shard that was selected before.
+ * Without sharding (db.sharding.enabled=false) a scope has no effect.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    /**
+     * @return shard selected on this thread, or null when none is
+     */
+    public static Integer current() {
+        return CURRENT.get();
+    }
+
+    public static Scope use(int shard) {
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        return () -> {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        };
+    }
+
+    /**
+     * Restores the previous selection on close.
+     */
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,48 @@
+package com.tasktracker.sharding;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Shard-aware id generation: the identity columns of users and tasks are
+ * interleaved across shards, so ids stay unique over all shards (JWTs carry
+ * the user id, and taskById is cached by task id alone).
+ *
+ * With N shards, shard i issues ids with id % N == i, starting above the
+ * largest id on any shard. Run at every startup after migrations, so it also
+ * holds after the shard count changes and for rows ShardRebalancer has moved
+ * (they keep their ids, from another shard's residue class).
+ */
+final class ShardIdentities {
+
+    static final List<String> TABLES = List.of("users", "tasks");
+
+    private ShardIdentities() {
+    }
+
+    static void interleave(List<DataSource> shards) {
+        int count = shards.size();
+        for (String table : TABLES) {
+            long max = 0;
+            for (DataSource shard : shards) {
+                Long shardMax = new JdbcTemplate(shard).queryForObject(
+                        "SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+                max = Math.max(max, shardMax != null ? shardMax : 0);
+            }
+            for (int i = 0; i < count; i++) {
+                JdbcTemplate jdbc = new JdbcTemplate(shards.get(i));
+                // Same syntax for H2 and PostgreSQL identity columns
+                jdbc.execute("ALTER TABLE " + table + " ALTER COLUMN id SET INCREMENT BY " + count);
+                jdbc.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + firstId(max, i, count));
+            }
+        }
+    }
+
+    // Smallest id above max with id % count == shard
+    static long firstId(long max, int shard, int count) {
+        long next = max + 1;
+        return next + Math.floorMod(shard - next, count);
+    }
+}
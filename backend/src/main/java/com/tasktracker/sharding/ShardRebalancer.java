@@ -0,0 +1,193 @@
+package com.tasktracker.sharding;
+
+import com.tasktracker.service.TaskColumnIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Moves a user, with all of their tasks, from one shard to another.
+ *
+ * Steps:
+ * 1. Mark the user as moving (ShardRouter.beginMove): their requests get 503
+ *    with Retry-After until the move ends, and calls already running finish first
+ * 2. Copy the user row and task rows, ids unchanged, into the target shard in
+ *    one transaction, replacing any stale copy a failed earlier move left there
+ * 3. Point the shard directory at the target shard
+ * 4. Delete the rows from the source shard
+ * 5. Drop the user from this instance's TaskColumnIndex
+ *
+ * A failure before step 3 leaves the user where they were. A failure in step 4
+ * only leaves an unreachable copy on the source shard, which a later move back
+ * replaces. Cached task lists and stats stay valid, since the data and ids do
+ * not change; the user's column index segment is dropped anyway (step 5), as
+ * the copy is read straight from the source shard.
+ *
+ * Single instance only: the moving flag of step 1 holds back this instance's
+ * calls, and another instance would keep writing to the old shard until it
+ * re-read the directory, losing those writes. A move is therefore refused
+ * (IllegalStateException, 409) while any other instance has a heartbeat in
+ * shard_router_instances (ShardRouter.otherLiveInstances); scale down to one
+ * instance, rebalance, then scale back up.
+ */
+@Service
+@ConditionalOnProperty(name = "db.sharding.enabled", havingValue = "true")
+public class ShardRebalancer {
+    private static final Logger log = LoggerFactory.getLogger(ShardRebalancer.class);
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private TaskColumnIndex taskIndex;
+
+    @Value("${db.sharding.move-batch-size:1000}")
+    private int batchSize;
+
+    /**
+     * Outcome of a move; tasks is the number of task rows copied.
+     */
+    public record MoveResult(String username, int fromShard, int toShard, long tasks, long durationMs) {
+    }
+
+    /**
+     * Users and tasks stored on one shard; placedUsers counts directory entries pointing at it.
+     */
+    public record ShardUsage(int shard, long users, long tasks, long placedUsers) {
+    }
+
+    /**
+     * @throws IllegalArgumentException if the target shard does not exist
+     * @throws NoSuchElementException if the user does not exist
+     * @throws IllegalStateException if the user is already being moved, or other instances are running
+     */
+    public MoveResult move(String username, int targetShard) {
+        if (targetShard < 0 || targetShard >= shardRouter.getShardCount()) {
+            throw new IllegalArgumentException("shard must be between 0 and " + (shardRouter.getShardCount() - 1));
+        }
+        long others = shardRouter.otherLiveInstances();
+        if (others > 0) {
+            throw new IllegalStateException(others + " other application instance(s) are running; users can only "
+                    + "be moved while a single instance serves requests");
+        }
+        if (!shardRouter.beginMove(username)) {
+            throw new IllegalStateException("User " + username + " is already being moved");
+        }
+        long started = System.nanoTime();
+        try {
+            int sourceShard = shardRouter.shardFor(username);
+            JdbcTemplate source = new JdbcTemplate(shardRouter.getShard(sourceShard));
+            List<Long> ids = source.queryForList("SELECT id FROM users WHERE username = ?", Long.class, username);
+            if (ids.isEmpty()) {
+                throw new NoSuchElementException("User not found: " + username);
+            }
+            long userId = ids.get(0);
+            if (sourceShard == targetShard) {
+                return new MoveResult(username, sourceShard, targetShard, 0, 0);
+            }
+
+            long tasks = copy(source, userId, targetShard);
+            shardRouter.place(username, targetShard);
+            try {
+                new TransactionTemplate(new DataSourceTransactionManager(shardRouter.getShard(sourceShard)))
+                        .executeWithoutResult(status -> deleteUser(source, userId));
+            } catch (RuntimeException e) {
+                log.error("User {} moved to shard {}, but deleting the old rows on shard {} failed: {}",
+                        username, targetShard, sourceShard, e.getMessage());
+            }
+            taskIndex.invalidate(userId);
+            long durationMs = (System.nanoTime() - started) / 1_000_000;
+            log.info("Moved user {} ({} tasks) from shard {} to shard {} in {} ms",
+                    username, tasks, sourceShard, targetShard, durationMs);
+            return new MoveResult(username, sourceShard, targetShard, tasks, durationMs);
+        } finally {
+            shardRouter.endMove(username);
+        }
+    }
+
+    /**
+     * @return row counts per shard
+     */
+    public List<ShardUsage> usage() {
+        List<ShardUsage> usage = new ArrayList<>();
+        for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+            JdbcTemplate jdbc = new JdbcTemplate(shardRouter.getShard(shard));
+            int current = shard;
+            long placed = shardRouter.getDirectory().values().stream().filter(s -> s == current).count();
+            usage.add(new ShardUsage(shard,
+                    jdbc.queryForObject("SELECT COUNT(*) FROM users", Long.class),
+                    jdbc.queryForObject("SELECT COUNT(*) FROM tasks", Long.class),
+                    placed));
+        }
+        return usage;
+    }
+
+    // Copies the user row, then streams task rows over in batches, all in one target transaction
+    private long copy(JdbcTemplate source, long userId, int targetShard) {
+        JdbcTemplate target = new JdbcTemplate(shardRouter.getShard(targetShard));
+        TransactionTemplate tx = new TransactionTemplate(
+                new DataSourceTransactionManager(shardRouter.getShard(targetShard)));
+        return tx.execute(status -> {
+            deleteUser(target, userId);
+            source.query("SELECT * FROM users WHERE id = ?", rs -> {
+                target.update(insertSql("users", rs.getMetaData()), row(rs));
+            }, userId);
+            long[] copied = new long[1];
+            List<Object[]> batch = new ArrayList<>(batchSize);
+            String[] insert = new String[1];
+            source.query("SELECT * FROM tasks WHERE user_id = ?", rs -> {
+                if (insert[0] == null) {
+                    insert[0] = insertSql("tasks", rs.getMetaData());
+                }
+                batch.add(row(rs));
+                if (batch.size() >= batchSize) {
+                    target.batchUpdate(insert[0], batch);
+                    copied[0] += batch.size();
+                    batch.clear();
+                }
+            }, userId);
+            if (!batch.isEmpty()) {
+                target.batchUpdate(insert[0], batch);
+                copied[0] += batch.size();
+            }
+            return copied[0];
+        });
+    }
+
+    private static void deleteUser(JdbcTemplate jdbc, long userId) {
+        jdbc.update("DELETE FROM tasks WHERE user_id = ?", userId);
+        jdbc.update("DELETE FROM users WHERE id = ?", userId);
+    }
+
+    // All columns, so the copy keeps working as migrations add columns
+    private static String insertSql(String table, ResultSetMetaData metaData) throws SQLException {
+        List<String> columns = new ArrayList<>();
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            columns.add(metaData.getColumnName(i));
+        }
+        return "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES ("
+                + String.join(", ", Collections.nCopies(columns.size(), "?")) + ")";
+    }
+
+    private static Object[] row(ResultSet rs) throws SQLException {
+        Object[] values = new Object[rs.getMetaData().getColumnCount()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = rs.getObject(i + 1);
+        }
+        return values;
+    }
+}
@@ -0,0 +1,299 @@
+package com.tasktracker.sharding;
+
+import com.tasktracker.security.AuthenticatedUser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Decides which shard holds a user's data (db.sharding.enabled).
+ *
+ * A user's row and all of their tasks live on one shard, chosen by username:
+ * - placed users: the user_shards directory on shard 0, written by
+ *   ShardRebalancer when a user is moved off their hash shard
+ * - everyone else: jump consistent hash of the username over the shard count,
+ *   so adding a shard moves only about 1/N of the users
+ *
+ * The username is known on every path that touches the database: it is the
+ * authentication name of a request, and the argument of the lookups that run
+ * before authentication (login, JWT filter in database mode). The directory is
+ * cached in memory and re-read every db.sharding.directory-refresh-seconds, so
+ * other application instances see a move within that interval.
+ *
+ * The "moving" state of a user (beginMove/endMove) lives in this instance's
+ * memory only: it holds back this instance's calls, not another instance's.
+ * Each router therefore records a heartbeat in shard_router_instances on
+ * shard 0 every HEARTBEAT_SECONDS, and ShardRebalancer refuses to move while
+ * otherLiveInstances() reports any other instance, so rebalancing always runs
+ * with a single instance serving.
+ */
+public class ShardRouter implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(ShardRouter.class);
+
+    // Shard holding the user_shards directory
+    public static final int DIRECTORY_SHARD = 0;
+
+    // An instance whose heartbeat is older than LIVENESS_SECONDS counts as stopped
+    public static final int HEARTBEAT_SECONDS = 10;
+    public static final int LIVENESS_SECONDS = 3 * HEARTBEAT_SECONDS;
+
+    private final List<DataSource> shards;
+    private final JdbcTemplate directoryJdbc;
+    private final TransactionTemplate directoryTx;
+    private final ScheduledExecutorService refresher;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final long directoryRefreshSeconds;
+    private final Set<String> moving = ConcurrentHashMap.newKeySet();
+    // Repository calls hold a read lock of their user's stripe, so a move can wait for calls already running
+    private final ReentrantReadWriteLock[] callLocks = new ReentrantReadWriteLock[64];
+
+    // Replaced as a whole on reload, read without locking
+    private volatile Map<String, Integer> directory = Map.of();
+
+    public ShardRouter(List<DataSource> shards, long directoryRefreshSeconds) {
+        this.shards = List.copyOf(shards);
+        this.directoryJdbc = new JdbcTemplate(shards.get(DIRECTORY_SHARD));
+        this.directoryTx = new TransactionTemplate(new DataSourceTransactionManager(shards.get(DIRECTORY_SHARD)));
+        for (int i = 0; i < callLocks.length; i++) {
+            callLocks[i] = new ReentrantReadWriteLock();
+        }
+        this.directoryRefreshSeconds = directoryRefreshSeconds;
+        this.refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "shard-directory");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Reads the directory and starts the directory refresh and the heartbeat.
+     * Called once the shards are migrated.
+     */
+    public void start() {
+        loadDirectory();
+        heartbeat();
+        if (directoryRefreshSeconds > 0) {
+            refresher.scheduleWithFixedDelay(this::refreshDirectory, directoryRefreshSeconds,
+                    directoryRefreshSeconds, TimeUnit.SECONDS);
+        }
+        refresher.scheduleWithFixedDelay(this::refreshHeartbeat, HEARTBEAT_SECONDS, HEARTBEAT_SECONDS,
+                TimeUnit.SECONDS);
+    }
+
+    public int getShardCount() {
+        return shards.size();
+    }
+
+    /**
+     * @return the shard's own connection pool, bypassing routing
+     */
+    public DataSource getShard(int shard) {
+        return shards.get(shard);
+    }
+
+    public List<DataSource> getShards() {
+        return shards;
+    }
+
+    /**
+     * @return shard holding the user's data: directory placement, else hash shard
+     */
+    public int shardFor(String username) {
+        Integer placed = directory.get(username);
+        return placed != null && placed < shards.size() ? placed : hashShard(username);
+    }
+
+    /**
+     * @return shard the user lands on without a directory entry
+     */
+    public int hashShard(String username) {
+        return jumpHash(fnv1a64(username), shards.size());
+    }
+
+    /**
+     * Shard for the current thread: explicit ShardContext, else the
+     * authenticated user's shard.
+     *
+     * @return shard index, or null when neither is known (unscoped work runs on shard 0)
+     */
+    public Integer currentShard() {
+        Integer explicit = ShardContext.current();
+        if (explicit != null) {
+            return explicit;
+        }
+        String username = AuthenticatedUser.currentUsername();
+        return username != null ? shardFor(username) : null;
+    }
+
+    /**
+     * Lock held (shared) by each repository call for the user, see ShardRoutingInterceptor.
+     */
+    Lock callLock(String username) {
+        return callLocks[(int) (fnv1a64(username) & (callLocks.length - 1))].readLock();
+    }
+
+    /**
+     * Marks a user as being moved: their new repository calls fail fast until
+     * endMove(), and calls already running are waited for before this returns.
+     *
+     * @return false if the user is already being moved
+     */
+    public boolean beginMove(String username) {
+        if (!moving.add(username)) {
+            return false;
+        }
+        // Callers check the flag while holding the read lock, so once the write lock
+        // has been acquired every later call sees the flag
+        Lock drain = callLocks[(int) (fnv1a64(username) & (callLocks.length - 1))].writeLock();
+        drain.lock();
+        drain.unlock();
+        return true;
+    }
+
+    public void endMove(String username) {
+        moving.remove(username);
+    }
+
+    public boolean isMoving(String username) {
+        return moving.contains(username);
+    }
+
+    /**
+     * Records the user's shard in the directory; an entry equal to the hash
+     * shard is removed instead, keeping the directory to moved users only.
+     */
+    public void place(String username, int shard) {
+        boolean onHashShard = shard == hashShard(username);
+        directoryTx.executeWithoutResult(status -> {
+            directoryJdbc.update("DELETE FROM user_shards WHERE username = ?", username);
+            if (!onHashShard) {
+                directoryJdbc.update("INSERT INTO user_shards (username, shard) VALUES (?, ?)", username, shard);
+            }
+        });
+        Map<String, Integer> updated = new HashMap<>(directory);
+        if (onHashShard) {
+            updated.remove(username);
+        } else {
+            updated.put(username, shard);
+        }
+        directory = Map.copyOf(updated);
+    }
+
+    public Map<String, Integer> getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Reads the whole directory from shard 0.
+     */
+    public void loadDirectory() {
+        Map<String, Integer> loaded = new HashMap<>();
+        directoryJdbc.query("SELECT username, shard FROM user_shards",
+                rs -> { loaded.put(rs.getString(1), rs.getInt(2)); });
+        loaded.forEach((username, shard) -> {
+            if (shard >= shards.size()) {
+                log.warn("User {} is placed on shard {}, but only {} shards are configured; using hash shard {}",
+                        username, shard, shards.size(), hashShard(username));
+            }
+        });
+        directory = Map.copyOf(loaded);
+    }
+
+    /**
+     * Records that this instance is live (database clock, so instances need not agree on time).
+     */
+    public void heartbeat() {
+        directoryTx.executeWithoutResult(status -> {
+            if (directoryJdbc.update("UPDATE shard_router_instances SET last_seen = LOCALTIMESTAMP "
+                    + "WHERE instance_id = ?", instanceId) == 0) {
+                directoryJdbc.update("INSERT INTO shard_router_instances (instance_id, last_seen) "
+                        + "VALUES (?, LOCALTIMESTAMP)", instanceId);
+            }
+        });
+    }
+
+    /**
+     * @return number of other instances with a heartbeat in the last LIVENESS_SECONDS
+     */
+    public long otherLiveInstances() {
+        Long live = directoryJdbc.queryForObject("SELECT COUNT(*) FROM shard_router_instances "
+                        + "WHERE instance_id <> ? AND last_seen > LOCALTIMESTAMP - INTERVAL '" + LIVENESS_SECONDS
+                        + "' SECOND", Long.class, instanceId);
+        return live == null ? 0 : live;
+    }
+
+    private void refreshHeartbeat() {
+        try {
+            heartbeat();
+        } catch (Exception e) {
+            log.warn("Shard router heartbeat failed: {}", e.getMessage());
+        }
+    }
+
+    private void refreshDirectory() {
+        try {
+            loadDirectory();
+        } catch (Exception e) {
+            // Keep serving the last directory read
+            log.warn("Shard directory refresh failed: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        refresher.shutdownNow();
+        try {
+            directoryJdbc.update("DELETE FROM shard_router_instances WHERE instance_id = ?", instanceId);
+        } catch (Exception e) {
+            // Ages out after LIVENESS_SECONDS instead
+            log.warn("Removing shard router heartbeat failed: {}", e.getMessage());
+        }
+        for (DataSource shard : shards) {
+            if (shard instanceof AutoCloseable pool) {
+                try {
+                    pool.close();
+                } catch (Exception e) {
+                    log.warn("Closing shard pool failed: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    // 64-bit FNV-1a: stable across JVMs and releases, unlike a seeded or identity hash
+    static long fnv1a64(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    // Jump consistent hash (Lamping & Veach): growing from n to n+1 buckets moves 1/(n+1) of the keys
+    static int jumpHash(long key, int buckets) {
+        long b = -1;
+        long j = 0;
+        while (j < buckets) {
+            b = j;
+            key = key * 2862933555777941757L + 1;
+            j = (long) ((b + 1) * ((double) (1L << 31) / (double) ((key >>> 33) + 1)));
+        }
+        return (int) b;
+    }
+}
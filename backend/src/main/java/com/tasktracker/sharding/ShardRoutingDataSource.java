@@ -0,0 +1,40 @@
+package com.tasktracker.sharding;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The application's DataSource in sharding mode: each connection comes from
+ * the pool of the shard ShardRouter picks for the current thread. Work with
+ * no shard (schema validation at startup, health checks) goes to shard 0.
+ *
+ * Routing happens per connection, which matches how the application uses
+ * them: a transaction spans at most one user's repository calls
+ * (spring.jpa.open-in-view=false; TaskService's read-only transactions), and
+ * DataSourceConfig's LazyConnectionDataSourceProxy defers taking the
+ * connection to the first statement, inside the call that pinned the shard.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final ShardRouter router;
+
+    public ShardRoutingDataSource(ShardRouter router) {
+        this.router = router;
+        Map<Object, Object> targets = new HashMap<>();
+        for (int i = 0; i < router.getShardCount(); i++) {
+            targets.put(i, router.getShard(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(router.getShard(ShardRouter.DIRECTORY_SHARD));
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return router.currentShard();
+    }
+}
@@ -0,0 +1,97 @@
+package com.tasktracker.sharding;
+
+import com.tasktracker.model.Task;
+import com.tasktracker.model.User;
+import com.tasktracker.security.AuthenticatedUser;
+import com.tasktracker.service.DatabaseOverloadedException;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Outermost advice on every Spring Data repository in sharding mode, so the
+ * shard is fixed before the repository opens its transaction.
+ *
+ * The user a call belongs to is taken from, in order:
+ * - the username argument of *ByUsername lookups (login, JWT filter)
+ * - a loaded User or Task argument (saves outside a request, e.g. DataInitializer)
+ * - the authenticated user
+ * and the call is pinned to that user's shard. Calls for a user that
+ * ShardRebalancer is moving fail with DatabaseOverloadedException (503, retry).
+ * Calls with an explicit ShardContext are passed through unchanged.
+ */
+class ShardRoutingInterceptor implements MethodInterceptor {
+
+    private static final int NO_USERNAME_PARAMETER = -1;
+
+    private final ObjectProvider<ShardRouter> routerProvider;
+    private final Map<Method, Integer> usernameParameters = new ConcurrentHashMap<>();
+    private volatile ShardRouter router;
+
+    ShardRoutingInterceptor(ObjectProvider<ShardRouter> routerProvider) {
+        this.routerProvider = routerProvider;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (ShardContext.current() != null) {
+            return invocation.proceed();
+        }
+        String username = usernameHint(invocation);
+        if (username == null) {
+            username = AuthenticatedUser.currentUsername();
+        }
+        if (username == null) {
+            return invocation.proceed();
+        }
+        ShardRouter router = router();
+        Lock lock = router.callLock(username);
+        lock.lock();
+        try {
+            if (router.isMoving(username)) {
+                throw new DatabaseOverloadedException("User data is being moved to another shard", 1);
+            }
+            try (ShardContext.Scope scope = ShardContext.use(router.shardFor(username))) {
+                return invocation.proceed();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private String usernameHint(MethodInvocation invocation) {
+        Object[] args = invocation.getArguments();
+        int parameter = usernameParameters.computeIfAbsent(invocation.getMethod(), method ->
+                method.getName().endsWith("ByUsername") && method.getParameterCount() > 0
+                        && method.getParameterTypes()[0] == String.class ? 0 : NO_USERNAME_PARAMETER);
+        if (parameter != NO_USERNAME_PARAMETER) {
+            return (String) args[parameter];
+        }
+        for (Object arg : args) {
+            // Uninitialized proxies (getReferenceById) are skipped: reading them would query the database
+            if (arg instanceof User user && Hibernate.isInitialized(user)) {
+                return user.getUsername();
+            }
+            if (arg instanceof Task task && Hibernate.isInitialized(task) && task.getUser() != null
+                    && Hibernate.isInitialized(task.getUser())) {
+                return task.getUser().getUsername();
+            }
+        }
+        return null;
+    }
+
+    private ShardRouter router() {
+        ShardRouter current = router;
+        if (current == null) {
+            current = routerProvider.getObject();
+            router = current;
+        }
+        return current;
+    }
+}
@@ -0,0 +1,87 @@
+package com.tasktracker.sharding;
+
+import com.tasktracker.config.HikariPools;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Horizontal sharding of users (db.sharding.enabled): each user's row and
+ * tasks live in one of the databases listed in db.sharding.urls, chosen by
+ * ShardRouter. TaskService and the repositories are unaware of it:
+ * - the "dataSource" bean is a ShardRoutingDataSource over one Hikari pool per
+ *   shard (hikaricp.* metrics tagged pool=shard-N); DataSourceConfig's wrappers
+ *   apply on top of it as before
+ * - ShardRoutingInterceptor pins every repository call to its user's shard
+ * - Flyway migrates every shard, then ShardIdentities interleaves their ids
+ *
+ * Each pool is configured from spring.datasource.hikari.*, overridable with
+ * db.sharding.hikari.* (see HikariPools).
+ * Users are moved between shards with ShardRebalancer (/api/admin/shards).
+ */
+@Configuration
+@ConditionalOnProperty(name = "db.sharding.enabled", havingValue = "true")
+public class ShardingConfig {
+
+    @Bean(destroyMethod = "close")
+    public ShardRouter shardRouter(Environment env, ObjectProvider<MeterRegistry> meterRegistry) {
+        List<String> urls = Arrays.stream(env.getProperty("db.sharding.urls", "").split(","))
+                .map(String::trim)
+                .filter(url -> !url.isEmpty())
+                .toList();
+        if (urls.isEmpty()) {
+            throw new IllegalStateException("db.sharding.enabled=true needs at least one JDBC URL in db.sharding.urls");
+        }
+        List<DataSource> pools = new ArrayList<>();
+        for (int i = 0; i < urls.size(); i++) {
+            pools.add(HikariPools.create(env, "shard-" + i, urls.get(i), meterRegistry.getIfAvailable(), "db.sharding.hikari"));
+        }
+        return new ShardRouter(pools, env.getProperty("db.sharding.directory-refresh-seconds", Long.class, 30L));
+    }
+
+    @Bean
+    public DataSource dataSource(ShardRouter shardRouter) {
+        return new ShardRoutingDataSource(shardRouter);
+    }
+
+    // Spring Boot migrates the routing DataSource, i.e. shard 0; the other shards get the same migrations
+    @Bean
+    public FlywayMigrationStrategy shardedFlywayMigration(ShardRouter shardRouter) {
+        return flyway -> {
+            for (DataSource shard : shardRouter.getShards()) {
+                Flyway.configure().configuration(flyway.getConfiguration()).dataSource(shard).load().migrate();
+            }
+            ShardIdentities.interleave(shardRouter.getShards());
+            shardRouter.start();
+        };
+    }
+
+    // Static, like TracingConfig's: registered before the repository factory beans are created
+    @Bean
+    public static BeanPostProcessor shardRoutingRepositoryPostProcessor(ObjectProvider<ShardRouter> shardRouter) {
+        ShardRoutingInterceptor interceptor = new ShardRoutingInterceptor(shardRouter);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    // Position 0: outside the repository's transaction interceptor
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, repositoryInformation) -> proxyFactory.addAdvice(0, interceptor)));
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,238 @@
+package com.tasktracker.store;
+
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.repository.query.FluentQuery;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * The generic JpaRepository methods for EmbeddedStore-backed repositories,
+ * written against a few per-entity hooks.
+ *
+ * Entities returned are detached copies: changing one has no effect until it
+ * is passed to save(). Like persist, save() sets the generated id (and
+ * createdAt) on the entity passed in. flush() has nothing to do, as every
+ * save is durable when it returns. Sorted, paged and example queries load
+ * every entity and sort, slice or match them in memory (InMemoryQueries),
+ * which is fine for ad-hoc use but not for request paths.
+ */
+abstract class EmbeddedRepositorySupport<T> implements JpaRepository<T, Long> {
+
+    protected abstract Long idOf(T entity);
+
+    protected abstract Optional<T> find(long id);
+
+    /** The entity with the given id, or a placeholder carrying only the id. */
+    protected abstract T reference(long id);
+
+    /** All entities in id order. */
+    protected abstract List<T> findAllEntities();
+
+    protected abstract long countEntities();
+
+    /**
+     * All entities in id order with their associations loaded, for matching
+     * examples on associated properties as a JPA join would.
+     */
+    protected List<T> findAllForExamples() {
+        return findAllEntities();
+    }
+
+    /** Stores the entities in one write, setting their generated fields. */
+    protected abstract void store(List<? extends T> entities);
+
+    protected abstract void deleteIds(Collection<Long> ids);
+
+    @Override
+    public <S extends T> S save(S entity) {
+        store(List.of(entity));
+        return entity;
+    }
+
+    @Override
+    public <S extends T> List<S> saveAll(Iterable<S> entities) {
+        List<S> list = new ArrayList<>();
+        entities.forEach(list::add);
+        if (!list.isEmpty()) {
+            store(list);
+        }
+        return list;
+    }
+
+    @Override
+    public Optional<T> findById(Long id) {
+        return id == null ? Optional.empty() : find(id);
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return findById(id).isPresent();
+    }
+
+    @Override
+    public List<T> findAll() {
+        return findAllEntities();
+    }
+
+    @Override
+    public List<T> findAllById(Iterable<Long> ids) {
+        List<T> found = new ArrayList<>();
+        for (Long id : ids) {
+            findById(id).ifPresent(found::add);
+        }
+        return found;
+    }
+
+    @Override
+    public long count() {
+        return countEntities();
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        deleteIds(List.of(id));
+    }
+
+    @Override
+    public void delete(T entity) {
+        Long id = idOf(entity);
+        if (id != null) {
+            deleteIds(List.of(id));
+        }
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends Long> ids) {
+        List<Long> list = new ArrayList<>();
+        ids.forEach(list::add);
+        deleteIds(list);
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends T> entities) {
+        List<Long> ids = new ArrayList<>();
+        for (T entity : entities) {
+            Long id = idOf(entity);
+            if (id != null) {
+                ids.add(id);
+            }
+        }
+        deleteIds(ids);
+    }
+
+    @Override
+    public void deleteAll() {
+        deleteAll(findAllEntities());
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public <S extends T> S saveAndFlush(S entity) {
+        return save(entity);
+    }
+
+    @Override
+    public <S extends T> List<S> saveAllAndFlush(Iterable<S> entities) {
+        return saveAll(entities);
+    }
+
+    @Override
+    public void deleteAllInBatch(Iterable<T> entities) {
+        deleteAll(entities);
+    }
+
+    @Override
+    public void deleteAllByIdInBatch(Iterable<Long> ids) {
+        deleteAllById(ids);
+    }
+
+    @Override
+    public void deleteAllInBatch() {
+        deleteAll();
+    }
+
+    @Override
+    @Deprecated
+    public T getOne(Long id) {
+        return getReferenceById(id);
+    }
+
+    @Override
+    @Deprecated
+    public T getById(Long id) {
+        return getReferenceById(id);
+    }
+
+    @Override
+    public T getReferenceById(Long id) {
+        return reference(id);
+    }
+
+    @Override
+    public List<T> findAll(Sort sort) {
+        return InMemoryQueries.sorted(findAllEntities(), sort);
+    }
+
+    @Override
+    public Page<T> findAll(Pageable pageable) {
+        return InMemoryQueries.page(findAllEntities(), pageable);
+    }
+
+    @Override
+    public <S extends T> Optional<S> findOne(Example<S> example) {
+        List<S> found = findAll(example);
+        if (found.size() > 1) {
+            throw new IncorrectResultSizeDataAccessException(1, found.size());
+        }
+        return found.stream().findFirst();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <S extends T> List<S> findAll(Example<S> example) {
+        List<S> found = new ArrayList<>();
+        for (T entity : findAllForExamples()) {
+            if (InMemoryQueries.matches(example, entity)) {
+                found.add((S) entity);
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public <S extends T> List<S> findAll(Example<S> example, Sort sort) {
+        return InMemoryQueries.sorted(findAll(example), sort);
+    }
+
+    @Override
+    public <S extends T> Page<S> findAll(Example<S> example, Pageable pageable) {
+        return InMemoryQueries.page(findAll(example), pageable);
+    }
+
+    @Override
+    public <S extends T> long count(Example<S> example) {
+        return findAll(example).size();
+    }
+
+    @Override
+    public <S extends T> boolean exists(Example<S> example) {
+        return !findAll(example).isEmpty();
+    }
+
+    @Override
+    public <S extends T, R> R findBy(Example<S> example, Function<FluentQuery.FetchableFluentQuery<S>, R> queryFunction) {
+        return queryFunction.apply(InMemoryFluentQuery.of(findAll(example)));
+    }
+}
@@ -0,0 +1,585 @@
+package com.tasktracker.store;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Embedded, file-backed storage for users and tasks (store.type=embedded),
+ * used through EmbeddedUserRepository and EmbeddedTaskRepository instead of
+ * JPA and a database server.
+ *
+ * All rows live on the heap: users by id and username, tasks by id, and per
+ * user a UserTasks index with the user's tasks in id order plus secondary
+ * indexes by status and by priority. Reads take a shared lock and copy out
+ * the matching rows, so they complete in microseconds.
+ *
+ * Durability: every change is written to the write-ahead log (WriteAheadLog)
+ * before it is applied in memory, and forced to disk before the call returns
+ * (store.wal.fsync; concurrent writers share fsyncs). Once the current log
+ * generation exceeds store.checkpoint-wal-bytes, a background checkpoint
+ * writes a full snapshot (snapshot.dat, replaced atomically) and deletes the
+ * log generations it covers.
+ *
+ * Recovery: the snapshot is loaded, then the log generations written after it
+ * are replayed in order; a torn entry at the end of a generation (crash while
+ * appending) is dropped. Constraints match the database schema: unique
+ * usernames, tasks need an existing user, users with tasks cannot be deleted
+ * (DataIntegrityViolationException).
+ *
+ * The directory is locked, so only one process opens a store at a time.
+ * Reported as the "embeddedStore" health component; metrics: store.users,
+ * store.tasks, store.wal.bytes, store.wal.fsync, store.checkpoint.
+ */
+public class EmbeddedStore implements HealthIndicator, AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(EmbeddedStore.class);
+
+    private static final int SNAPSHOT_MAGIC = 0x54545331; // "TTS1"
+    private static final String SNAPSHOT = "snapshot.dat";
+
+    private final Path directory;
+    private final boolean fsync;
+    private final long checkpointWalBytes;
+    private final FileChannel lockChannel;
+    private final FileLock directoryLock;
+    private final ExecutorService checkpointer;
+    private final AtomicBoolean checkpointPending = new AtomicBoolean();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Guarded by lock
+    private final Map<Long, UserRow> users = new HashMap<>();
+    private final Map<String, Long> userIds = new HashMap<>();
+    private final Map<Long, TaskRow> tasks = new HashMap<>();
+    private final Map<Long, UserTasks> tasksByUser = new HashMap<>();
+    private long nextUserId = 1;
+    private long nextTaskId = 1;
+    private WriteAheadLog wal;
+    private boolean closed;
+
+    private Timer fsyncs;
+    private Timer checkpoints;
+
+    public EmbeddedStore(Path directory, boolean fsync, long checkpointWalBytes, MeterRegistry meterRegistry)
+            throws IOException {
+        this.directory = directory;
+        this.fsync = fsync;
+        this.checkpointWalBytes = checkpointWalBytes;
+        Files.createDirectories(directory);
+        lockChannel = FileChannel.open(directory.resolve("LOCK"), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        directoryLock = lockChannel.tryLock();
+        if (directoryLock == null) {
+            lockChannel.close();
+            throw new IllegalStateException("Store directory " + directory + " is in use by another process");
+        }
+        long started = System.nanoTime();
+        long generation = recover();
+        wal = new WriteAheadLog(directory, generation);
+        log.info("Embedded store at {}: {} users, {} tasks recovered in {} ms", directory, users.size(),
+                tasks.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+
+        checkpointer = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "store-checkpoint");
+            t.setDaemon(true);
+            return t;
+        });
+        if (meterRegistry != null) {
+            Gauge.builder("store.users", this, store -> store.read(store.users::size))
+                    .description("Users in the embedded store")
+                    .register(meterRegistry);
+            Gauge.builder("store.tasks", this, store -> store.read(store.tasks::size))
+                    .description("Tasks in the embedded store")
+                    .register(meterRegistry);
+            Gauge.builder("store.wal.bytes", this, store -> store.read(store.wal::getGenerationBytes))
+                    .description("Write-ahead log bytes since the last checkpoint")
+                    .baseUnit("bytes")
+                    .register(meterRegistry);
+            fsyncs = Timer.builder("store.wal.fsync")
+                    .description("Write-ahead log forces to disk")
+                    .register(meterRegistry);
+            checkpoints = Timer.builder("store.checkpoint")
+                    .description("Snapshots written by checkpoints")
+                    .register(meterRegistry);
+        }
+    }
+
+    // ---- recovery and checkpoints
+
+    /**
+     * Loads the snapshot and replays newer log generations.
+     *
+     * @return the generation to append to next
+     */
+    private long recover() throws IOException {
+        long generation = 0;
+        Path snapshot = directory.resolve(SNAPSHOT);
+        if (Files.exists(snapshot)) {
+            generation = loadSnapshot(snapshot);
+        }
+        long replayed = 0;
+        for (long existing : WriteAheadLog.generations(directory)) {
+            if (existing < generation) {
+                // Covered by the snapshot; left behind by a crash before deletion
+                Files.deleteIfExists(WriteAheadLog.file(directory, existing));
+                continue;
+            }
+            Path file = WriteAheadLog.file(directory, existing);
+            long entries = WriteAheadLog.replay(file, this::apply);
+            if (entries < 0) {
+                entries = -entries - 1;
+                log.warn("Write-ahead log {} ends in a damaged entry; recovered the {} entries before it",
+                        file.getFileName(), entries);
+            }
+            replayed += entries;
+            generation = existing + 1;
+        }
+        if (replayed > 0) {
+            log.info("Replayed {} write-ahead log entries", replayed);
+        }
+        return generation;
+    }
+
+    private void apply(DataInputStream entry) throws IOException {
+        byte operation = entry.readByte();
+        switch (operation) {
+            case StoreCodec.PUT_USER -> applyUser(StoreCodec.readUser(entry));
+            case StoreCodec.DELETE_USER -> removeUser(entry.readLong());
+            case StoreCodec.PUT_TASK -> applyTask(StoreCodec.readTask(entry));
+            case StoreCodec.DELETE_TASK -> removeTask(entry.readLong());
+            default -> throw new IOException("Unknown write-ahead log operation " + operation);
+        }
+    }
+
+    private long loadSnapshot(Path snapshot) throws IOException {
+        byte[] bytes = Files.readAllBytes(snapshot);
+        if (bytes.length < Long.BYTES) {
+            throw new IllegalStateException("Store snapshot " + snapshot + " is truncated");
+        }
+        int contentLength = bytes.length - Long.BYTES;
+        CRC32C crc = new CRC32C();
+        crc.update(bytes, 0, contentLength);
+        if (crc.getValue() != ByteBuffer.wrap(bytes, contentLength, Long.BYTES).getLong()) {
+            throw new IllegalStateException("Store snapshot " + snapshot + " is corrupt (checksum mismatch)");
+        }
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, 0, contentLength));
+        if (in.readInt() != SNAPSHOT_MAGIC) {
+            throw new IllegalStateException(snapshot + " is not a store snapshot");
+        }
+        long generation = in.readLong();
+        nextUserId = in.readLong();
+        nextTaskId = in.readLong();
+        int userCount = in.readInt();
+        for (int i = 0; i < userCount; i++) {
+            applyUser(StoreCodec.readUser(in));
+        }
+        int taskCount = in.readInt();
+        for (int i = 0; i < taskCount; i++) {
+            applyTask(StoreCodec.readTask(in));
+        }
+        return generation;
+    }
+
+    /**
+     * Writes a snapshot of the current state and drops the log it replaces.
+     * Writers are blocked only while the rows are copied and the log rotated.
+     */
+    public void checkpoint() throws IOException {
+        long started = System.nanoTime();
+        List<UserRow> userRows;
+        List<TaskRow> taskRows;
+        long userIdSeq;
+        long taskIdSeq;
+        long generation;
+        lock.writeLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            userRows = new ArrayList<>(users.values());
+            taskRows = new ArrayList<>(tasks.values());
+            userIdSeq = nextUserId;
+            taskIdSeq = nextTaskId;
+            generation = wal.rotate();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Path temp = directory.resolve(SNAPSHOT + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            OutputStream raw = Channels.newOutputStream(channel);
+            CheckedOutputStream checked = new CheckedOutputStream(raw, new CRC32C());
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(checked, 64 * 1024));
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeLong(generation);
+            out.writeLong(userIdSeq);
+            out.writeLong(taskIdSeq);
+            out.writeInt(userRows.size());
+            for (UserRow row : userRows) {
+                StoreCodec.writeUser(out, row);
+            }
+            out.writeInt(taskRows.size());
+            for (TaskRow row : taskRows) {
+                StoreCodec.writeTask(out, row);
+            }
+            out.flush();
+            new DataOutputStream(raw).writeLong(checked.getChecksum().getValue());
+            channel.force(true);
+        }
+        Files.move(temp, directory.resolve(SNAPSHOT), StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING);
+        wal.deleteBefore(generation);
+        if (checkpoints != null) {
+            checkpoints.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+        log.info("Store checkpoint: {} users, {} tasks in {} ms", userRows.size(), taskRows.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    // ---- in-memory tables (callers hold the write lock, or are recovering)
+
+    private void applyUser(UserRow row) {
+        UserRow previous = users.put(row.id(), row);
+        if (previous != null) {
+            userIds.remove(previous.username());
+        }
+        userIds.put(row.username(), row.id());
+        nextUserId = Math.max(nextUserId, row.id() + 1);
+    }
+
+    private void removeUser(long id) {
+        UserRow previous = users.remove(id);
+        if (previous != null) {
+            userIds.remove(previous.username());
+        }
+    }
+
+    private void applyTask(TaskRow row) {
+        TaskRow previous = tasks.put(row.id(), row);
+        if (previous != null && previous.userId() != row.userId()) {
+            unindex(previous);
+        }
+        tasksByUser.computeIfAbsent(row.userId(), id -> new UserTasks()).put(row);
+        nextTaskId = Math.max(nextTaskId, row.id() + 1);
+    }
+
+    private void removeTask(long id) {
+        TaskRow previous = tasks.remove(id);
+        if (previous != null) {
+            unindex(previous);
+        }
+    }
+
+    private void unindex(TaskRow row) {
+        UserTasks owner = tasksByUser.get(row.userId());
+        if (owner != null) {
+            owner.remove(row);
+            if (owner.isEmpty()) {
+                tasksByUser.remove(row.userId());
+            }
+        }
+    }
+
+    // ---- writes
+
+    /**
+     * Inserts (id null) or replaces a user. createdAt is set on insert and kept on update.
+     *
+     * @return the stored row
+     */
+    UserRow saveUser(Long id, String username, String password, String email, String role,
+                     LocalDateTime createdAt) {
+        UserRow saved;
+        long position;
+        lock.writeLock().lock();
+        try {
+            requireOpen();
+            UserRow existing = id != null ? users.get(id) : null;
+            if (username == null || password == null || email == null || role == null) {
+                throw new DataIntegrityViolationException("User username, password, email and role are required");
+            }
+            Long owner = userIds.get(username);
+            if (owner != null && (existing == null || owner != existing.id())) {
+                throw new DataIntegrityViolationException("Username already exists: " + username);
+            }
+            saved = new UserRow(existing != null ? existing.id() : nextUserId, username, password, email, role,
+                    existing != null ? existing.createdAt() : createdAt != null ? createdAt : now());
+            position = log(List.of(StoreCodec.putUser(saved)));
+            applyUser(saved);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        afterWrite(position);
+        return saved;
+    }
+
+    void deleteUser(long id) {
+        long position;
+        lock.writeLock().lock();
+        try {
+            requireOpen();
+            if (!users.containsKey(id)) {
+                return;
+            }
+            if (tasksByUser.containsKey(id)) {
+                throw new DataIntegrityViolationException("User " + id + " still has tasks");
+            }
+            position = log(List.of(StoreCodec.delete(StoreCodec.DELETE_USER, id)));
+            removeUser(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        afterWrite(position);
+    }
+
+    /**
+     * Inserts or replaces tasks as one log write (one fsync). Rows with id 0 are
+     * inserted under a new id, like rows whose id does not exist (as a JPA merge
+     * would); createdAt is set on insert when missing and kept on update.
+     *
+     * @return the stored rows, in the order given
+     */
+    List<TaskRow> saveTasks(List<TaskRow> rows) {
+        List<TaskRow> saved = new ArrayList<>(rows.size());
+        long position;
+        lock.writeLock().lock();
+        try {
+            requireOpen();
+            List<byte[]> entries = new ArrayList<>(rows.size());
+            long taskId = nextTaskId;
+            for (TaskRow row : rows) {
+                if (row.title() == null || row.status() == null || row.priority() == null) {
+                    throw new DataIntegrityViolationException("Task title, status and priority are required");
+                }
+                if (!users.containsKey(row.userId())) {
+                    throw new DataIntegrityViolationException("Task owner " + row.userId() + " does not exist");
+                }
+                TaskRow existing = tasks.get(row.id());
+                TaskRow stored = new TaskRow(existing != null ? existing.id() : taskId++, row.userId(),
+                        row.title(), row.description(), row.status(), row.priority(),
+                        existing != null ? existing.createdAt() : row.createdAt() != null ? row.createdAt() : now(),
+                        row.completedAt());
+                entries.add(StoreCodec.putTask(stored));
+                saved.add(stored);
+            }
+            position = log(entries);
+            saved.forEach(this::applyTask);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        afterWrite(position);
+        return saved;
+    }
+
+    void deleteTasks(Collection<Long> ids) {
+        long position;
+        lock.writeLock().lock();
+        try {
+            requireOpen();
+            List<Long> present = ids.stream().filter(tasks::containsKey).distinct().toList();
+            if (present.isEmpty()) {
+                return;
+            }
+            List<byte[]> entries = new ArrayList<>(present.size());
+            for (long id : present) {
+                entries.add(StoreCodec.delete(StoreCodec.DELETE_TASK, id));
+            }
+            position = log(entries);
+            present.forEach(this::removeTask);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        afterWrite(position);
+    }
+
+    private long log(List<byte[]> entries) {
+        try {
+            return wal.append(entries);
+        } catch (IOException e) {
+            throw new DataAccessResourceFailureException("Write-ahead log append failed: " + e.getMessage(), e);
+        }
+    }
+
+    // Outside the lock: wait for the fsync covering this write, then checkpoint if the log has grown
+    private void afterWrite(long position) {
+        if (fsync) {
+            long started = System.nanoTime();
+            try {
+                wal.sync(position);
+            } catch (IOException e) {
+                throw new DataAccessResourceFailureException("Write-ahead log fsync failed: " + e.getMessage(), e);
+            }
+            if (fsyncs != null) {
+                fsyncs.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            }
+        }
+        if (read(wal::getGenerationBytes) >= checkpointWalBytes && checkpointPending.compareAndSet(false, true)) {
+            checkpointer.execute(() -> {
+                try {
+                    checkpoint();
+                } catch (IOException | RuntimeException e) {
+                    log.error("Store checkpoint failed: {}", e.getMessage(), e);
+                } finally {
+                    checkpointPending.set(false);
+                }
+            });
+        }
+    }
+
+    private void requireOpen() {
+        if (closed) {
+            throw new DataAccessResourceFailureException("Embedded store is closed");
+        }
+    }
+
+    private static LocalDateTime now() {
+        return LocalDateTime.now(ZoneOffset.UTC);
+    }
+
+    // ---- reads
+
+    private <T> T read(java.util.function.Supplier<T> reader) {
+        lock.readLock().lock();
+        try {
+            return reader.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    UserRow findUser(long id) {
+        return read(() -> users.get(id));
+    }
+
+    UserRow findUserByUsername(String username) {
+        return read(() -> {
+            Long id = userIds.get(username);
+            return id != null ? users.get(id) : null;
+        });
+    }
+
+    List<UserRow> allUsers() {
+        return read(() -> {
+            List<UserRow> rows = new ArrayList<>(users.values());
+            rows.sort((a, b) -> Long.compare(a.id(), b.id()));
+            return rows;
+        });
+    }
+
+    long userCount() {
+        return read(users::size);
+    }
+
+    TaskRow findTask(long id) {
+        return read(() -> tasks.get(id));
+    }
+
+    List<TaskRow> allTasks() {
+        return read(() -> {
+            TaskRow[] rows = tasks.values().toArray(new TaskRow[0]);
+            Arrays.sort(rows, (a, b) -> Long.compare(a.id(), b.id()));
+            return Arrays.asList(rows);
+        });
+    }
+
+    long taskCount() {
+        return read(tasks::size);
+    }
+
+    /**
+     * A user's tasks in id order, through the status or priority index when a filter is given.
+     */
+    List<TaskRow> tasksOf(long userId, com.tasktracker.model.Task.TaskStatus status,
+                          com.tasktracker.model.Task.TaskPriority priority) {
+        return read(() -> {
+            UserTasks owned = tasksByUser.get(userId);
+            if (owned == null) {
+                return List.of();
+            }
+            if (status != null && priority != null) {
+                return owned.withStatus(status).stream().filter(row -> row.priority() == priority).toList();
+            }
+            return status != null ? owned.withStatus(status)
+                    : priority != null ? owned.withPriority(priority) : owned.all();
+        });
+    }
+
+    long countTasksOf(long userId, com.tasktracker.model.Task.TaskStatus status) {
+        return read(() -> {
+            UserTasks owned = tasksByUser.get(userId);
+            return owned == null ? 0L : status == null ? owned.count() : owned.countWithStatus(status);
+        });
+    }
+
+    @Override
+    public Health health() {
+        return read(() -> Health.up()
+                .withDetail("directory", directory.toString())
+                .withDetail("users", users.size())
+                .withDetail("tasks", tasks.size())
+                .withDetail("walBytes", wal.getGenerationBytes())
+                .build());
+    }
+
+    /**
+     * Writes a final checkpoint, so the next start loads a snapshot instead of
+     * replaying the log, and releases the directory.
+     */
+    @Override
+    public void close() throws IOException {
+        checkpointer.shutdown();
+        try {
+            checkpointer.awaitTermination(30, TimeUnit.SECONDS);
+            checkpoint();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("Final store checkpoint failed, the log will be replayed on start: {}", e.getMessage());
+        }
+        lock.writeLock().lock();
+        try {
+            closed = true;
+            wal.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        directoryLock.release();
+        lockChannel.close();
+    }
+}
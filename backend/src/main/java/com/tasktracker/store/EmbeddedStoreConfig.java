@@ -0,0 +1,45 @@
+package com.tasktracker.store;
+
+import com.tasktracker.repository.TaskRepository;
+import com.tasktracker.repository.UserRepository;
+import com.tasktracker.security.UserChangeListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * Embedded storage backend (store.type=embedded): TaskRepository and
+ * UserRepository on an EmbeddedStore in store.dir instead of JPA. Selected
+ * with the "embedded" profile, which also switches off the DataSource, JPA and
+ * Flyway auto-configuration, so no JPA repositories are created alongside.
+ */
+@Configuration
+@ConditionalOnProperty(name = "store.type", havingValue = "embedded")
+public class EmbeddedStoreConfig {
+
+    @Bean(destroyMethod = "close")
+    public EmbeddedStore embeddedStore(Environment env, ObjectProvider<MeterRegistry> meterRegistry)
+            throws IOException {
+        return new EmbeddedStore(Paths.get(env.getProperty("store.dir", "data/store")),
+                env.getProperty("store.wal.fsync", Boolean.class, true),
+                env.getProperty("store.checkpoint-wal-bytes", Long.class, 8L * 1024 * 1024),
+                meterRegistry.getIfAvailable());
+    }
+
+    @Bean
+    public UserRepository userRepository(EmbeddedStore embeddedStore,
+                                         ObjectProvider<UserChangeListener> userChangeListener) {
+        return new EmbeddedUserRepository(embeddedStore, userChangeListener);
+    }
+
+    @Bean
+    public TaskRepository taskRepository(EmbeddedStore embeddedStore) {
+        return new EmbeddedTaskRepository(embeddedStore);
+    }
+}
@@ -0,0 +1,207 @@
+package com.tasktracker.store;
+
+import com.tasktracker.dto.TaskDTO;
+import com.tasktracker.dto.TaskFieldSet;
+import com.tasktracker.model.Task;
+import com.tasktracker.model.User;
+import com.tasktracker.repository.TaskRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * TaskRepository on EmbeddedStore (store.type=embedded).
+ *
+ * The derived queries read the owner's UserTasks indexes instead of scanning:
+ * findByUserAndStatus and countByUserAndStatus the status index,
+ * findByUserAndPriority the priority index, findCompletedTasksByUser the DONE
+ * entries of the status index. Results are in id order, like the database's
+ * primary key order. Tasks carry an id-only User, as the lazy association
+ * does under JPA; only its id is read. Example queries load the whole owner,
+ * so probes can match on its properties.
+ */
+public class EmbeddedTaskRepository extends EmbeddedRepositorySupport<Task> implements TaskRepository {
+
+    private final EmbeddedStore store;
+
+    public EmbeddedTaskRepository(EmbeddedStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public List<Task> findByUser(User user) {
+        return toTasks(store.tasksOf(ownerId(user), null, null));
+    }
+
+    @Override
+    public List<Task> findByUserAndStatus(User user, Task.TaskStatus status) {
+        return status == null ? List.of() : toTasks(store.tasksOf(ownerId(user), status, null));
+    }
+
+    @Override
+    public List<Task> findByUserAndPriority(User user, Task.TaskPriority priority) {
+        return priority == null ? List.of() : toTasks(store.tasksOf(ownerId(user), null, priority));
+    }
+
+    @Override
+    public long countByUser(User user) {
+        return store.countTasksOf(ownerId(user), null);
+    }
+
+    @Override
+    public long countByUserAndStatus(User user, Task.TaskStatus status) {
+        return status == null ? 0 : store.countTasksOf(ownerId(user), status);
+    }
+
+    @Override
+    public List<Task> findCompletedTasksByUser(User user, Task.TaskStatus status) {
+        if (status == null) {
+            return List.of();
+        }
+        return toTasks(store.tasksOf(ownerId(user), status, null).stream()
+                .filter(row -> row.completedAt() != null)
+                .toList());
+    }
+
+    @Override
+    public List<TaskDTO> findProjected(User user, Task.TaskStatus status, Task.TaskPriority priority,
+                                       TaskFieldSet fields) {
+        return store.tasksOf(ownerId(user), status, priority).stream()
+                .map(row -> toDTO(row, fields))
+                .toList();
+    }
+
+    @Override
+    public Optional<ProjectedTask> findProjectedById(Long id, TaskFieldSet fields) {
+        TaskRow row = id == null ? null : store.findTask(id);
+        return row == null ? Optional.empty() : Optional.of(new ProjectedTask(row.userId(), toDTO(row, fields)));
+    }
+
+    @Override
+    protected Long idOf(Task entity) {
+        return entity.getId();
+    }
+
+    @Override
+    protected Optional<Task> find(long id) {
+        return Optional.ofNullable(store.findTask(id)).map(EmbeddedTaskRepository::toTask);
+    }
+
+    @Override
+    protected Task reference(long id) {
+        return find(id).orElseGet(() -> {
+            Task task = new Task();
+            task.setId(id);
+            return task;
+        });
+    }
+
+    @Override
+    protected List<Task> findAllEntities() {
+        return toTasks(store.allTasks());
+    }
+
+    // Whole owners instead of id-only ones, so examples can match on user properties
+    @Override
+    protected List<Task> findAllForExamples() {
+        Map<Long, User> owners = new HashMap<>();
+        List<Task> tasks = findAllEntities();
+        for (Task task : tasks) {
+            task.setUser(owners.computeIfAbsent(task.getUser().getId(), id -> {
+                UserRow row = store.findUser(id);
+                return row != null ? EmbeddedUserRepository.toUser(row) : task.getUser();
+            }));
+        }
+        return tasks;
+    }
+
+    @Override
+    protected long countEntities() {
+        return store.taskCount();
+    }
+
+    @Override
+    protected void store(List<? extends Task> entities) {
+        List<TaskRow> rows = new ArrayList<>(entities.size());
+        for (Task task : entities) {
+            if (task.getUser() == null || task.getUser().getId() == null) {
+                throw new DataIntegrityViolationException("Task has no owner");
+            }
+            rows.add(new TaskRow(task.getId() != null ? task.getId() : 0, task.getUser().getId(), task.getTitle(),
+                    task.getDescription(), task.getStatus(), task.getPriority(), task.getCreatedAt(),
+                    task.getCompletedAt()));
+        }
+        List<TaskRow> saved = store.saveTasks(rows);
+        for (int i = 0; i < saved.size(); i++) {
+            Task task = entities.get(i);
+            task.setId(saved.get(i).id());
+            task.setCreatedAt(saved.get(i).createdAt());
+        }
+    }
+
+    @Override
+    protected void deleteIds(Collection<Long> ids) {
+        store.deleteTasks(ids);
+    }
+
+    private static long ownerId(User user) {
+        return user != null && user.getId() != null ? user.getId() : -1;
+    }
+
+    private static List<Task> toTasks(List<TaskRow> rows) {
+        List<Task> tasks = new ArrayList<>(rows.size());
+        for (TaskRow row : rows) {
+            tasks.add(toTask(row));
+        }
+        return tasks;
+    }
+
+    private static Task toTask(TaskRow row) {
+        User owner = new User();
+        owner.setId(row.userId());
+        return new Task(row.id(), row.title(), row.description(), row.status(), row.priority(), row.createdAt(),
+                row.completedAt(), owner);
+    }
+
+    // Same shape as TaskRepositoryCustomImpl: only the selected fields are set
+    private static TaskDTO toDTO(TaskRow row, TaskFieldSet fields) {
+        TaskDTO dto = new TaskDTO();
+        if (!fields.isAll()) {
+            dto.setFields(fields);
+        }
+        if (fields.includes(TaskFieldSet.Field.ID)) {
+            dto.setId(row.id());
+        }
+        if (fields.includes(TaskFieldSet.Field.TITLE)) {
+            dto.setTitle(row.title());
+        }
+        if (fields.includes(TaskFieldSet.Field.DESCRIPTION)) {
+            dto.setDescription(row.description());
+        }
+        if (fields.includes(TaskFieldSet.Field.STATUS)) {
+            dto.setStatus(row.status());
+        }
+        if (fields.includes(TaskFieldSet.Field.PRIORITY)) {
+            dto.setPriority(row.priority());
+        }
+        if (fields.includes(TaskFieldSet.Field.CREATED_AT)) {
+            dto.setCreatedAt(toInstant(row.createdAt()));
+        }
+        if (fields.includes(TaskFieldSet.Field.COMPLETED_AT)) {
+            dto.setCompletedAt(toInstant(row.completedAt()));
+        }
+        return dto;
+    }
+
+    private static Instant toInstant(LocalDateTime value) {
+        return value == null ? null : value.atZone(ZoneOffset.UTC).toInstant();
+    }
+}
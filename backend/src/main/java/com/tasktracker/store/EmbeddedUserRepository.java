@@ -0,0 +1,108 @@
+package com.tasktracker.store;
+
+import com.tasktracker.model.User;
+import com.tasktracker.repository.UserRepository;
+import com.tasktracker.security.UserChangeListener;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * UserRepository on EmbeddedStore (store.type=embedded).
+ *
+ * Usernames are looked up through the store's username index. As there is no
+ * JPA lifecycle, UserChangeListener is called here when an existing user is
+ * updated or deleted, so cached UserDetails are still evicted.
+ */
+public class EmbeddedUserRepository extends EmbeddedRepositorySupport<User> implements UserRepository {
+
+    private final EmbeddedStore store;
+    private final ObjectProvider<UserChangeListener> changeListener;
+
+    public EmbeddedUserRepository(EmbeddedStore store, ObjectProvider<UserChangeListener> changeListener) {
+        this.store = store;
+        this.changeListener = changeListener;
+    }
+
+    @Override
+    public Optional<User> findByUsername(String username) {
+        return Optional.ofNullable(store.findUserByUsername(username)).map(EmbeddedUserRepository::toUser);
+    }
+
+    @Override
+    public boolean existsByUsername(String username) {
+        return store.findUserByUsername(username) != null;
+    }
+
+    @Override
+    protected Long idOf(User entity) {
+        return entity.getId();
+    }
+
+    @Override
+    protected Optional<User> find(long id) {
+        return Optional.ofNullable(store.findUser(id)).map(EmbeddedUserRepository::toUser);
+    }
+
+    @Override
+    protected User reference(long id) {
+        return find(id).orElseGet(() -> {
+            User user = new User();
+            user.setId(id);
+            return user;
+        });
+    }
+
+    @Override
+    protected List<User> findAllEntities() {
+        List<User> users = new ArrayList<>();
+        for (UserRow row : store.allUsers()) {
+            users.add(toUser(row));
+        }
+        return users;
+    }
+
+    @Override
+    protected long countEntities() {
+        return store.userCount();
+    }
+
+    @Override
+    protected void store(List<? extends User> entities) {
+        for (User user : entities) {
+            UserRow previous = user.getId() != null ? store.findUser(user.getId()) : null;
+            UserRow saved = store.saveUser(user.getId(), user.getUsername(), user.getPassword(), user.getEmail(),
+                    user.getRole(), user.getCreatedAt());
+            user.setId(saved.id());
+            user.setCreatedAt(saved.createdAt());
+            if (previous != null && !previous.equals(saved)) {
+                changed(toUser(previous));
+            }
+        }
+    }
+
+    @Override
+    protected void deleteIds(Collection<Long> ids) {
+        for (Long id : ids) {
+            UserRow previous = id != null ? store.findUser(id) : null;
+            if (previous != null) {
+                store.deleteUser(id);
+                changed(toUser(previous));
+            }
+        }
+    }
+
+    private void changed(User user) {
+        UserChangeListener listener = changeListener.getIfAvailable();
+        if (listener != null) {
+            listener.onUserChanged(user);
+        }
+    }
+
+    static User toUser(UserRow row) {
+        return new User(row.id(), row.username(), row.password(), row.email(), row.role(), row.createdAt());
+    }
+}
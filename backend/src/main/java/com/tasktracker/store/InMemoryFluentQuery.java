@@ -0,0 +1,195 @@
+package com.tasktracker.store;
+
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.OffsetScrollPosition;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.data.repository.query.FluentQuery;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * findBy(Example, ...) for the embedded repositories: the fluent query over
+ * the entities that matched the example, in id order.
+ *
+ * Projections work as in Spring Data JPA: interfaces are proxied over the
+ * entity, other types converted. project() has nothing to leave out, since
+ * entities are always read whole. Keyset scrolling sorts by the requested
+ * orders followed by the id, so every position is unique.
+ */
+final class InMemoryFluentQuery<S, R> implements FluentQuery.FetchableFluentQuery<R> {
+
+    private static final ProjectionFactory PROJECTIONS = new SpelAwareProxyProjectionFactory();
+
+    private final List<S> matches;
+    private final Sort sort;
+    private final int limit;
+    private final Function<Object, R> conversion;
+
+    private InMemoryFluentQuery(List<S> matches, Sort sort, int limit, Function<Object, R> conversion) {
+        this.matches = matches;
+        this.sort = sort;
+        this.limit = limit;
+        this.conversion = conversion;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <S> InMemoryFluentQuery<S, S> of(List<S> matches) {
+        return new InMemoryFluentQuery<>(matches, Sort.unsorted(), 0, entity -> (S) entity);
+    }
+
+    @Override
+    public FetchableFluentQuery<R> sortBy(Sort sort) {
+        return new InMemoryFluentQuery<>(matches, this.sort.and(sort), limit, conversion);
+    }
+
+    @Override
+    public FetchableFluentQuery<R> limit(int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit must not be negative");
+        }
+        return new InMemoryFluentQuery<>(matches, sort, limit, conversion);
+    }
+
+    @Override
+    public <P> FetchableFluentQuery<P> as(Class<P> resultType) {
+        Function<Object, P> converter = resultType.isInterface()
+                ? entity -> resultType.isInstance(entity) ? resultType.cast(entity)
+                        : PROJECTIONS.createProjection(resultType, entity)
+                : entity -> resultType.isInstance(entity) ? resultType.cast(entity)
+                        : DefaultConversionService.getSharedInstance().convert(entity, resultType);
+        return new InMemoryFluentQuery<>(matches, sort, limit, converter);
+    }
+
+    @Override
+    public FetchableFluentQuery<R> project(Collection<String> properties) {
+        return this;
+    }
+
+    @Override
+    public R oneValue() {
+        List<R> results = results(2);
+        if (results.size() > 1) {
+            throw new IncorrectResultSizeDataAccessException(1, results.size());
+        }
+        return results.isEmpty() ? null : results.get(0);
+    }
+
+    @Override
+    public R firstValue() {
+        List<R> results = results(1);
+        return results.isEmpty() ? null : results.get(0);
+    }
+
+    @Override
+    public List<R> all() {
+        return results(limit);
+    }
+
+    @Override
+    public Page<R> page(Pageable pageable) {
+        return InMemoryQueries.page(InMemoryQueries.sorted(matches, sort), pageable).map(conversion);
+    }
+
+    @Override
+    public Stream<R> stream() {
+        return all().stream();
+    }
+
+    @Override
+    public long count() {
+        return matches.size();
+    }
+
+    @Override
+    public boolean exists() {
+        return !matches.isEmpty();
+    }
+
+    @Override
+    public Window<R> scroll(ScrollPosition position) {
+        if (position instanceof OffsetScrollPosition offset) {
+            List<S> rest = InMemoryQueries.sorted(matches, sort);
+            rest = rest.subList((int) Math.min(offset.getOffset(), rest.size()), rest.size());
+            return Window.from(convert(head(rest)), OffsetScrollPosition.positionFunction(offset.getOffset()),
+                    hasMore(rest));
+        }
+        if (position instanceof KeysetScrollPosition keyset) {
+            return scroll(keyset);
+        }
+        throw new InvalidDataAccessApiUsageException("Unsupported scroll position " + position);
+    }
+
+    private Window<R> scroll(KeysetScrollPosition position) {
+        Sort keysetSort = sort.getOrderFor("id") != null ? sort : sort.and(Sort.by("id"));
+        List<S> ordered = InMemoryQueries.sorted(matches, keysetSort);
+        List<S> window = ordered;
+        if (!position.isInitial()) {
+            List<Object> start = new ArrayList<>();
+            for (Sort.Order order : keysetSort) {
+                if (!position.getKeys().containsKey(order.getProperty())) {
+                    throw new InvalidDataAccessApiUsageException("Keyset position has no value for "
+                            + order.getProperty());
+                }
+                start.add(position.getKeys().get(order.getProperty()));
+            }
+            Comparator<List<Object>> keys = InMemoryQueries.keyComparator(keysetSort);
+            int direction = position.scrollsForward() ? 1 : -1;
+            window = ordered.stream()
+                    .filter(entity -> Integer.signum(keys.compare(InMemoryQueries.keys(entity, keysetSort), start))
+                            == direction)
+                    .toList();
+        }
+        List<S> content = position.scrollsForward() || limit == 0 || window.size() <= limit
+                ? head(window) : window.subList(window.size() - limit, window.size());
+        return Window.from(convert(content),
+                index -> ScrollPosition.of(keysOf(content.get(index), keysetSort), position.getDirection()),
+                hasMore(window));
+    }
+
+    private static Map<String, Object> keysOf(Object entity, Sort sort) {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        List<Object> values = InMemoryQueries.keys(entity, sort);
+        int i = 0;
+        for (Sort.Order order : sort) {
+            keys.put(order.getProperty(), values.get(i++));
+        }
+        return keys;
+    }
+
+    private List<R> results(int max) {
+        List<S> sorted = InMemoryQueries.sorted(matches, sort);
+        return convert(max > 0 && sorted.size() > max ? sorted.subList(0, max) : sorted);
+    }
+
+    private List<S> head(List<S> entities) {
+        return limit > 0 && entities.size() > limit ? entities.subList(0, limit) : entities;
+    }
+
+    private boolean hasMore(List<S> entities) {
+        return limit > 0 && entities.size() > limit;
+    }
+
+    private List<R> convert(List<S> entities) {
+        List<R> converted = new ArrayList<>(entities.size());
+        for (S entity : entities) {
+            converted.add(conversion.apply(entity));
+        }
+        return converted;
+    }
+}
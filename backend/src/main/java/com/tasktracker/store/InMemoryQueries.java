@@ -0,0 +1,199 @@
+package com.tasktracker.store;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.ExampleMatcherAccessor;
+
+import java.beans.PropertyDescriptor;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Sorting, paging and query by example over entities already in memory, with
+ * the semantics of the JPA repositories on PostgreSQL.
+ *
+ * Sort orders compare property values (nested paths such as user.id allowed);
+ * NATIVE null handling puts nulls last ascending and first descending, as
+ * PostgreSQL does. Examples are matched like QueryByExamplePredicateBuilder:
+ * every non-null probe property (or every property, with NullHandler.INCLUDE)
+ * is one condition, nested entities are matched property by property, and
+ * collections are skipped. REGEX string matching is rejected, as under JPA.
+ */
+final class InMemoryQueries {
+
+    private InMemoryQueries() {
+    }
+
+    /**
+     * @return a sorted copy; the input order is kept for equal keys and when unsorted
+     */
+    static <T> List<T> sorted(List<T> entities, Sort sort) {
+        List<T> sorted = new ArrayList<>(entities);
+        if (sort.isSorted()) {
+            sorted.sort(comparator(sort));
+        }
+        return sorted;
+    }
+
+    static <T> Page<T> page(List<T> entities, Pageable pageable) {
+        List<T> sorted = sorted(entities, pageable.getSort());
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(sorted);
+        }
+        int from = (int) Math.min(pageable.getOffset(), sorted.size());
+        int to = Math.min(from + pageable.getPageSize(), sorted.size());
+        return new PageImpl<>(new ArrayList<>(sorted.subList(from, to)), pageable, sorted.size());
+    }
+
+    static <T> Comparator<T> comparator(Sort sort) {
+        Comparator<List<Object>> keys = keyComparator(sort);
+        return (a, b) -> keys.compare(keys(a, sort), keys(b, sort));
+    }
+
+    /** The sort properties' values of an entity, in sort order. */
+    static List<Object> keys(Object entity, Sort sort) {
+        List<Object> keys = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            keys.add(propertyValue(entity, order.getProperty()));
+        }
+        return keys;
+    }
+
+    /** Compares key lists as produced by keys(entity, sort). */
+    static Comparator<List<Object>> keyComparator(Sort sort) {
+        List<Comparator<Object>> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            orders.add(valueComparator(order));
+        }
+        return (a, b) -> {
+            for (int i = 0; i < orders.size(); i++) {
+                int result = orders.get(i).compare(a.get(i), b.get(i));
+                if (result != 0) {
+                    return result;
+                }
+            }
+            return 0;
+        };
+    }
+
+    private static Comparator<Object> valueComparator(Sort.Order order) {
+        Comparator<Object> values = (a, b) -> compareValues(order.getProperty(), a, b, order.isIgnoreCase());
+        if (order.isDescending()) {
+            values = values.reversed();
+        }
+        return switch (order.getNullHandling()) {
+            case NULLS_FIRST -> Comparator.nullsFirst(values);
+            case NULLS_LAST -> Comparator.nullsLast(values);
+            case NATIVE -> order.isAscending() ? Comparator.nullsLast(values) : Comparator.nullsFirst(values);
+        };
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compareValues(String property, Object a, Object b, boolean ignoreCase) {
+        if (ignoreCase && a instanceof String left && b instanceof String right) {
+            return left.toLowerCase(Locale.ROOT).compareTo(right.toLowerCase(Locale.ROOT));
+        }
+        if (!(a instanceof Comparable comparable)) {
+            throw new InvalidDataAccessApiUsageException("Cannot sort by " + property + ": "
+                    + a.getClass().getSimpleName() + " is not comparable");
+        }
+        return comparable.compareTo(b);
+    }
+
+    /**
+     * Reads a property path such as "user.id".
+     *
+     * @return the value, or null if the path runs through a null
+     * @throws InvalidDataAccessApiUsageException if there is no such property
+     */
+    static Object propertyValue(Object entity, String path) {
+        Object value = entity;
+        for (String property : path.split("\\.")) {
+            if (value == null) {
+                return null;
+            }
+            try {
+                value = PropertyAccessorFactory.forBeanPropertyAccess(value).getPropertyValue(property);
+            } catch (BeansException e) {
+                throw new InvalidDataAccessApiUsageException("No property " + path + " on "
+                        + entity.getClass().getSimpleName(), e);
+            }
+        }
+        return value;
+    }
+
+    static boolean matches(Example<?> example, Object entity) {
+        ExampleMatcherAccessor accessor = new ExampleMatcherAccessor(example.getMatcher());
+        List<Boolean> conditions = new ArrayList<>();
+        collect(example.getProbe(), entity, "", accessor, conditions);
+        if (example.getMatcher().isAllMatching()) {
+            return !conditions.contains(false);
+        }
+        return conditions.isEmpty() || conditions.contains(true);
+    }
+
+    // Adds one result per probe property that constrains the match, descending into nested entities
+    private static void collect(Object probe, Object entity, String prefix, ExampleMatcherAccessor accessor,
+                                List<Boolean> conditions) {
+        BeanWrapper probeProperties = PropertyAccessorFactory.forBeanPropertyAccess(probe);
+        BeanWrapper entityProperties = entity == null ? null : PropertyAccessorFactory.forBeanPropertyAccess(entity);
+        for (PropertyDescriptor property : probeProperties.getPropertyDescriptors()) {
+            String name = property.getName();
+            String path = prefix + name;
+            if (property.getReadMethod() == null || "class".equals(name) || accessor.isIgnoredPath(path)
+                    || Collection.class.isAssignableFrom(property.getPropertyType())
+                    || Map.class.isAssignableFrom(property.getPropertyType())) {
+                continue;
+            }
+            Object expected = accessor.getValueTransformerForPath(path)
+                    .apply(Optional.ofNullable(probeProperties.getPropertyValue(name)))
+                    .orElse(null);
+            Object actual = entityProperties == null ? null : entityProperties.getPropertyValue(name);
+            if (expected == null) {
+                if (accessor.getNullHandler() == ExampleMatcher.NullHandler.INCLUDE) {
+                    conditions.add(actual == null);
+                }
+            } else if (!BeanUtils.isSimpleValueType(expected.getClass())) {
+                // An association: a row without one is not joined, so cannot match
+                if (actual == null) {
+                    conditions.add(false);
+                } else {
+                    collect(expected, actual, path + ".", accessor, conditions);
+                }
+            } else if (expected instanceof String text) {
+                conditions.add(actual instanceof String value && matches(text, value, path, accessor));
+            } else {
+                conditions.add(expected.equals(actual));
+            }
+        }
+    }
+
+    private static boolean matches(String expected, String actual, String path, ExampleMatcherAccessor accessor) {
+        if (accessor.isIgnoreCaseForPath(path)) {
+            expected = expected.toLowerCase(Locale.ROOT);
+            actual = actual.toLowerCase(Locale.ROOT);
+        }
+        ExampleMatcher.StringMatcher matcher = accessor.getStringMatcherForPath(path);
+        return switch (matcher) {
+            case DEFAULT, EXACT -> actual.equals(expected);
+            case STARTING -> actual.startsWith(expected);
+            case ENDING -> actual.endsWith(expected);
+            case CONTAINING -> actual.contains(expected);
+            case REGEX -> throw new IllegalArgumentException("Unsupported StringMatcher " + matcher);
+        };
+    }
+}
@@ -0,0 +1,134 @@
+package com.tasktracker.store;
+
+import com.tasktracker.model.Task;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Binary encoding of rows, shared by the write-ahead log and snapshots.
+ *
+ * Log entries are an operation byte followed by a row (PUT_*) or an id
+ * (DELETE_*). Enums are stored by their fixed database codes, timestamps as
+ * UTC epoch seconds plus nanoseconds, strings as an int byte length (-1 for
+ * null) and UTF-8.
+ */
+final class StoreCodec {
+
+    static final byte PUT_USER = 1;
+    static final byte DELETE_USER = 2;
+    static final byte PUT_TASK = 3;
+    static final byte DELETE_TASK = 4;
+
+    private static final long NO_TIME = Long.MIN_VALUE;
+
+    private StoreCodec() {
+    }
+
+    static byte[] putUser(UserRow row) {
+        return entry(out -> {
+            out.writeByte(PUT_USER);
+            writeUser(out, row);
+        });
+    }
+
+    static byte[] putTask(TaskRow row) {
+        return entry(out -> {
+            out.writeByte(PUT_TASK);
+            writeTask(out, row);
+        });
+    }
+
+    static byte[] delete(byte operation, long id) {
+        return entry(out -> {
+            out.writeByte(operation);
+            out.writeLong(id);
+        });
+    }
+
+    private interface Writer {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private static byte[] entry(Writer writer) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            writer.write(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static void writeUser(DataOutput out, UserRow row) throws IOException {
+        out.writeLong(row.id());
+        writeString(out, row.username());
+        writeString(out, row.password());
+        writeString(out, row.email());
+        writeString(out, row.role());
+        writeTime(out, row.createdAt());
+    }
+
+    static UserRow readUser(DataInput in) throws IOException {
+        return new UserRow(in.readLong(), readString(in), readString(in), readString(in), readString(in),
+                readTime(in));
+    }
+
+    static void writeTask(DataOutput out, TaskRow row) throws IOException {
+        out.writeLong(row.id());
+        out.writeLong(row.userId());
+        writeString(out, row.title());
+        writeString(out, row.description());
+        out.writeShort(row.status().getCode());
+        out.writeShort(row.priority().getCode());
+        writeTime(out, row.createdAt());
+        writeTime(out, row.completedAt());
+    }
+
+    static TaskRow readTask(DataInput in) throws IOException {
+        return new TaskRow(in.readLong(), in.readLong(), readString(in), readString(in),
+                Task.TaskStatus.fromCode(in.readShort()), Task.TaskPriority.fromCode(in.readShort()),
+                readTime(in), readTime(in));
+    }
+
+    private static void writeString(DataOutput out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeTime(DataOutput out, LocalDateTime value) throws IOException {
+        if (value == null) {
+            out.writeLong(NO_TIME);
+            return;
+        }
+        out.writeLong(value.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(value.getNano());
+    }
+
+    private static LocalDateTime readTime(DataInput in) throws IOException {
+        long seconds = in.readLong();
+        return seconds == NO_TIME ? null : LocalDateTime.ofEpochSecond(seconds, in.readInt(), ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,12 @@
+package com.tasktracker.store;
+
+import com.tasktracker.model.Task;
+
+import java.time.LocalDateTime;
+
+/**
+ * Stored state of a task; replaced as a whole on update.
+ */
+record TaskRow(long id, long userId, String title, String description, Task.TaskStatus status,
+               Task.TaskPriority priority, LocalDateTime createdAt, LocalDateTime completedAt) {
+}
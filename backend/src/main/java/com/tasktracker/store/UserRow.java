@@ -0,0 +1,9 @@
+package com.tasktracker.store;
+
+import java.time.LocalDateTime;
+
+/**
+ * Stored state of a user; replaced as a whole on update.
+ */
+record UserRow(long id, String username, String password, String email, String role, LocalDateTime createdAt) {
+}
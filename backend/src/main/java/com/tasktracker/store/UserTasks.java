@@ -0,0 +1,70 @@
+package com.tasktracker.store;
+
+import com.tasktracker.model.Task;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * One user's tasks in id order, with secondary indexes by status and by
+ * priority, so filters and counts never look at the user's other tasks.
+ * Guarded by EmbeddedStore's lock.
+ */
+final class UserTasks {
+
+    private final TreeMap<Long, TaskRow> all = new TreeMap<>();
+    private final Map<Task.TaskStatus, TreeMap<Long, TaskRow>> byStatus = new EnumMap<>(Task.TaskStatus.class);
+    private final Map<Task.TaskPriority, TreeMap<Long, TaskRow>> byPriority = new EnumMap<>(Task.TaskPriority.class);
+
+    UserTasks() {
+        for (Task.TaskStatus status : Task.TaskStatus.values()) {
+            byStatus.put(status, new TreeMap<>());
+        }
+        for (Task.TaskPriority priority : Task.TaskPriority.values()) {
+            byPriority.put(priority, new TreeMap<>());
+        }
+    }
+
+    void put(TaskRow row) {
+        TaskRow previous = all.put(row.id(), row);
+        if (previous != null) {
+            byStatus.get(previous.status()).remove(previous.id());
+            byPriority.get(previous.priority()).remove(previous.id());
+        }
+        byStatus.get(row.status()).put(row.id(), row);
+        byPriority.get(row.priority()).put(row.id(), row);
+    }
+
+    void remove(TaskRow row) {
+        all.remove(row.id());
+        byStatus.get(row.status()).remove(row.id());
+        byPriority.get(row.priority()).remove(row.id());
+    }
+
+    boolean isEmpty() {
+        return all.isEmpty();
+    }
+
+    List<TaskRow> all() {
+        return new ArrayList<>(all.values());
+    }
+
+    List<TaskRow> withStatus(Task.TaskStatus status) {
+        return new ArrayList<>(byStatus.get(status).values());
+    }
+
+    List<TaskRow> withPriority(Task.TaskPriority priority) {
+        return new ArrayList<>(byPriority.get(priority).values());
+    }
+
+    int count() {
+        return all.size();
+    }
+
+    int countWithStatus(Task.TaskStatus status) {
+        return byStatus.get(status).size();
+    }
+}
@@ -0,0 +1,196 @@
+package com.tasktracker.store;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * EmbeddedStore's write-ahead log: numbered generation files (wal-N.log) of
+ * framed entries, each an int length, an int CRC32C and the entry bytes
+ * (see StoreCodec).
+ *
+ * A checkpoint rotates to a new generation; the snapshot written afterwards
+ * covers every older generation, which is then deleted. Appends happen under
+ * the store's write lock; sync() is called after it is released, and callers
+ * that arrive while a force is running share the next one (group commit).
+ */
+final class WriteAheadLog implements AutoCloseable {
+
+    private static final int HEADER_BYTES = 2 * Integer.BYTES;
+    private static final String PREFIX = "wal-";
+    private static final String SUFFIX = ".log";
+
+    interface EntryHandler {
+        void apply(DataInputStream entry) throws IOException;
+    }
+
+    private final Path directory;
+    private final Object syncLock = new Object();
+
+    // Guarded by the store's write lock (appends, rotation) and syncLock (channel use in sync)
+    private FileChannel channel;
+    private long generation;
+    private long generationBytes;
+
+    // Bytes appended / forced since open; appended only grows under the store's write lock
+    private volatile long appended;
+    private long synced;
+
+    WriteAheadLog(Path directory, long generation) throws IOException {
+        this.directory = directory;
+        open(generation);
+    }
+
+    private void open(long generation) throws IOException {
+        this.channel = FileChannel.open(file(directory, generation),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        this.generation = generation;
+        this.generationBytes = 0;
+    }
+
+    static Path file(Path directory, long generation) {
+        return directory.resolve(String.format("%s%016d%s", PREFIX, generation, SUFFIX));
+    }
+
+    /**
+     * @return log generations present in the directory, oldest first
+     */
+    static List<Long> generations(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.startsWith(PREFIX) && name.endsWith(SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length())))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    /**
+     * Applies every intact entry of a generation file in order. Reading stops
+     * at the first torn or corrupt frame (a crash while appending).
+     *
+     * @return number of entries applied, negated if the file ended in a damaged frame
+     */
+    static long replay(Path file, EntryHandler handler) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        long entries = 0;
+        while (buffer.remaining() >= HEADER_BYTES) {
+            int length = buffer.getInt();
+            int checksum = buffer.getInt();
+            if (length <= 0 || length > buffer.remaining()) {
+                return -entries - 1;
+            }
+            byte[] entry = new byte[length];
+            buffer.get(entry);
+            if (checksum(entry) != checksum) {
+                return -entries - 1;
+            }
+            handler.apply(new DataInputStream(new ByteArrayInputStream(entry)));
+            entries++;
+        }
+        return buffer.hasRemaining() ? -entries - 1 : entries;
+    }
+
+    private static int checksum(byte[] entry) {
+        CRC32C crc = new CRC32C();
+        crc.update(entry);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Writes entries as one contiguous block; called under the store's write
+     * lock. On failure the partial block is cut off again, so the log never
+     * continues after a torn frame.
+     *
+     * @return log position after the block, for sync()
+     */
+    long append(List<byte[]> entries) throws IOException {
+        int size = 0;
+        for (byte[] entry : entries) {
+            size += HEADER_BYTES + entry.length;
+        }
+        ByteBuffer block = ByteBuffer.allocate(size);
+        for (byte[] entry : entries) {
+            block.putInt(entry.length);
+            block.putInt(checksum(entry));
+            block.put(entry);
+        }
+        block.flip();
+        long start = channel.position();
+        try {
+            while (block.hasRemaining()) {
+                channel.write(block);
+            }
+        } catch (IOException e) {
+            channel.truncate(start);
+            channel.position(start);
+            throw e;
+        }
+        generationBytes += size;
+        appended += size;
+        return appended;
+    }
+
+    /**
+     * Forces the log to disk up to at least the given position.
+     */
+    void sync(long position) throws IOException {
+        synchronized (syncLock) {
+            if (synced >= position) {
+                return;
+            }
+            long upTo = appended;
+            channel.force(false);
+            synced = upTo;
+        }
+    }
+
+    /**
+     * Starts the next generation; called under the store's write lock.
+     *
+     * @return the new generation; everything older is ready for a snapshot
+     */
+    long rotate() throws IOException {
+        synchronized (syncLock) {
+            channel.force(false);
+            synced = appended;
+            channel.close();
+            open(generation + 1);
+        }
+        return generation;
+    }
+
+    /**
+     * Deletes generations older than the given one (covered by a snapshot).
+     */
+    void deleteBefore(long generation) throws IOException {
+        for (long old : generations(directory)) {
+            if (old < generation) {
+                Files.deleteIfExists(file(directory, old));
+            }
+        }
+    }
+
+    /**
+     * @return bytes in the current generation, i.e. since the last checkpoint
+     */
+    long getGenerationBytes() {
+        return generationBytes;
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (syncLock) {
+            channel.force(false);
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.tasktracker.tracing;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * "response" span covering serialization and writing of a response body.
+ *
+ * Opened just before the message converter runs (ResponseBodyAdvice, after the
+ * controller has returned) and closed when the handler completes
+ * (HandlerInterceptor, registered by TracingConfig), which for @ResponseBody
+ * handlers is after the body has been written.
+ */
+@ControllerAdvice
+@ConditionalOnProperty(name = "tracing.enabled", havingValue = "true")
+public class ResponseWriteTracing implements ResponseBodyAdvice<Object>, HandlerInterceptor {
+
+    private static final String SPAN_ATTRIBUTE = ResponseWriteTracing.class.getName() + ".span";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (Trace.current() != null && request instanceof ServletServerHttpRequest servletRequest) {
+            servletRequest.getServletRequest().setAttribute(SPAN_ATTRIBUTE,
+                    Trace.span("response", "write " + selectedContentType));
+        }
+        return body;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (request.getAttribute(SPAN_ATTRIBUTE) instanceof Span span) {
+            span.close();
+        }
+    }
+}
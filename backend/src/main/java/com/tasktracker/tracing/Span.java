@@ -0,0 +1,72 @@
+package com.tasktracker.tracing;
+
+/**
+ * One timed piece of work within a Trace; close it on the thread that opened it.
+ */
+public final class Span implements AutoCloseable {
+
+    // Returned when there is no trace to record into; closing it does nothing
+    static final Span NOOP = new Span(null, null, "", "", 0);
+
+    private final Trace trace;
+    final Span parent;
+    final String phase;
+    String name;
+    final long startNanos;
+    final int depth;
+    long durationNanos = -1;
+    long childNanos;
+
+    Span(Trace trace, Span parent, String phase, String name, long startNanos) {
+        this.trace = trace;
+        this.parent = parent;
+        this.phase = phase;
+        this.name = name;
+        this.startNanos = startNanos;
+        this.depth = parent == null ? 0 : parent.depth + 1;
+    }
+
+    @Override
+    public void close() {
+        end(System.nanoTime());
+    }
+
+    void end(long nowNanos) {
+        // A published trace is read concurrently and must not change any more
+        if (trace == null || durationNanos >= 0 || trace.getDurationNanos() >= 0) {
+            return;
+        }
+        durationNanos = nowNanos - startNanos;
+        trace.ended(this);
+    }
+
+    // For spans whose outcome (e.g. cache hit or miss) is only known at the end
+    void rename(String name) {
+        if (trace != null) {
+            this.name = name;
+        }
+    }
+
+    public String getPhase() {
+        return phase;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    /**
+     * @return start relative to the start of the request, in nanoseconds
+     */
+    public long getOffsetNanos() {
+        return trace.offsetNanos(this);
+    }
+}
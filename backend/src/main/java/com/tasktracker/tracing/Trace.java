@@ -0,0 +1,189 @@
+package com.tasktracker.tracing;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Spans of one HTTP request, recorded on the request thread.
+ *
+ * TracingFilter begins a trace per request and hands it to TraceBuffer when the
+ * request ends. Instrumented code opens spans through the static methods, which
+ * do nothing when the current thread has no trace (background refreshes, the
+ * BCrypt pool, tracing disabled):
+ * <pre>
+ * try (Span span = Trace.span("jwt", "verify")) {
+ *     ...
+ * }
+ * </pre>
+ *
+ * Spans nest: a span opened while another is open becomes its child. Each span's
+ * self time (its duration minus its children's) is added to its phase, so the
+ * per-phase breakdown adds up to the request's duration; time outside any span
+ * is reported as "other". At most MAX_SPANS spans are kept per trace (an N+1
+ * would otherwise grow it without bound); later ones still count in the breakdown.
+ */
+public final class Trace {
+
+    static final int MAX_SPANS = 200;
+    static final String OTHER_PHASE = "other";
+
+    private static final ThreadLocal<Trace> CURRENT = new ThreadLocal<>();
+
+    private final String method;
+    private final String uri;
+    private final long startEpochMillis;
+    private final long startNanos;
+    private final List<Span> spans = new ArrayList<>();
+    // Self time per phase, in nanoseconds, in order of first appearance
+    private final Map<String, long[]> phaseNanos = new LinkedHashMap<>();
+    private Span open;
+    private long topLevelNanos;
+    private int droppedSpans;
+    private String route;
+    private int status;
+    private long durationNanos = -1;
+
+    private Trace(String method, String uri) {
+        this.method = method;
+        this.uri = uri;
+        this.startEpochMillis = System.currentTimeMillis();
+        this.startNanos = System.nanoTime();
+    }
+
+    /**
+     * Starts a trace on the current thread, replacing any previous one.
+     */
+    static Trace begin(String method, String uri) {
+        Trace trace = new Trace(method, uri);
+        CURRENT.set(trace);
+        return trace;
+    }
+
+    /**
+     * @return the current thread's trace, or null
+     */
+    public static Trace current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Opens a span under the innermost open span of the current trace.
+     *
+     * @param phase breakdown category (jwt, auth, service, cache, repository, response)
+     * @param name what ran, e.g. "TaskService.getAllTasks"
+     * @return span to close when the work ends; a no-op span without a current trace
+     */
+    public static Span span(String phase, String name) {
+        Trace trace = CURRENT.get();
+        if (trace == null || trace.durationNanos >= 0) {
+            return Span.NOOP;
+        }
+        Span span = new Span(trace, trace.open, phase, name, System.nanoTime());
+        trace.open = span;
+        return span;
+    }
+
+    /**
+     * Records a span that has already ended (for callbacks that report a duration afterwards).
+     */
+    public static void completed(String phase, String name, long durationNanos) {
+        Trace trace = CURRENT.get();
+        if (trace == null || trace.durationNanos >= 0) {
+            return;
+        }
+        Span span = new Span(trace, trace.open, phase, name, System.nanoTime() - durationNanos);
+        span.end(span.startNanos + durationNanos);
+    }
+
+    /**
+     * Closes still-open spans, fixes the duration and detaches the trace from the thread.
+     */
+    void end(int status, String route) {
+        long now = System.nanoTime();
+        while (open != null) {
+            open.end(now);
+        }
+        this.status = status;
+        this.route = route;
+        this.durationNanos = now - startNanos;
+        long other = durationNanos - topLevelNanos;
+        phaseNanos.computeIfAbsent(OTHER_PHASE, phase -> new long[1])[0] += Math.max(0, other);
+        CURRENT.remove();
+    }
+
+    // Called by Span.end on the request thread
+    void ended(Span span) {
+        // Normally span.parent; skips parents already ended if spans were closed out of order
+        Span parent = span.parent;
+        while (parent != null && parent.durationNanos >= 0) {
+            parent = parent.parent;
+        }
+        open = parent;
+        if (span.parent == null) {
+            topLevelNanos += span.durationNanos;
+        } else {
+            span.parent.childNanos += span.durationNanos;
+        }
+        phaseNanos.computeIfAbsent(span.phase, phase -> new long[1])[0]
+                += Math.max(0, span.durationNanos - span.childNanos);
+        if (spans.size() < MAX_SPANS) {
+            spans.add(span);
+        } else {
+            droppedSpans++;
+        }
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getUri() {
+        return uri;
+    }
+
+    /**
+     * @return the matched handler pattern (e.g. /api/tasks/{id}), or null if none matched
+     */
+    public String getRoute() {
+        return route;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public long getStartEpochMillis() {
+        return startEpochMillis;
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    /**
+     * @return ended spans in order of completion (children before their parent)
+     */
+    public List<Span> getSpans() {
+        return Collections.unmodifiableList(spans);
+    }
+
+    public int getDroppedSpans() {
+        return droppedSpans;
+    }
+
+    /**
+     * @return self time per phase in nanoseconds, including "other"
+     */
+    public Map<String, Long> getPhaseNanos() {
+        Map<String, Long> breakdown = new LinkedHashMap<>();
+        phaseNanos.forEach((phase, nanos) -> breakdown.put(phase, nanos[0]));
+        return breakdown;
+    }
+
+    long offsetNanos(Span span) {
+        return span.startNanos - startNanos;
+    }
+}
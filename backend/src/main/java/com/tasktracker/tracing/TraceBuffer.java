@@ -0,0 +1,66 @@
+package com.tasktracker.tracing;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded, lock-free ring buffer of the most recent completed traces.
+ *
+ * Writers claim a slot with one getAndIncrement and overwrite whatever trace
+ * was there (no locks, no waiting, constant memory); readers copy the slots
+ * without blocking writers. A trace is only published once it has ended, and
+ * the volatile slot write makes its contents visible to readers.
+ * Capacity is tracing.buffer-size rounded up to a power of two.
+ */
+@Component
+public class TraceBuffer {
+
+    @Value("${tracing.buffer-size:256}")
+    private int bufferSize;
+
+    private AtomicReferenceArray<Trace> slots;
+    private int mask;
+    private final AtomicLong written = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        int capacity = Integer.highestOneBit(Math.max(2, bufferSize) - 1) << 1;
+        slots = new AtomicReferenceArray<>(capacity);
+        mask = capacity - 1;
+    }
+
+    public void add(Trace trace) {
+        slots.set((int) (written.getAndIncrement() & mask), trace);
+    }
+
+    /**
+     * @return the buffered traces, in no particular order
+     */
+    public List<Trace> snapshot() {
+        List<Trace> traces = new ArrayList<>(slots.length());
+        for (int i = 0; i < slots.length(); i++) {
+            Trace trace = slots.get(i);
+            if (trace != null) {
+                traces.add(trace);
+            }
+        }
+        return traces;
+    }
+
+    public int capacity() {
+        return slots.length();
+    }
+
+    /**
+     * @return traces recorded since startup, including those already overwritten
+     */
+    public long written() {
+        return written.get();
+    }
+}
@@ -0,0 +1,74 @@
+package com.tasktracker.tracing;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Actuator endpoint listing the slowest recent traces: GET /actuator/traces?limit=20.
+ *
+ * For each trace: request, matched route, status, duration, the per-phase
+ * breakdown of self time (jwt, auth, service, cache, repository, response,
+ * other) and the individual spans with their offset from the start of the
+ * request and nesting depth. Durations are in milliseconds. Only present with
+ * tracing.enabled; like the other actuator endpoints but health, it needs an
+ * authenticated caller (SecurityConfig).
+ */
+@Component
+@ConditionalOnProperty(name = "tracing.enabled", havingValue = "true")
+@Endpoint(id = "traces")
+public class TracesEndpoint {
+
+    private static final int DEFAULT_LIMIT = 20;
+
+    @Autowired
+    private TraceBuffer traceBuffer;
+
+    @ReadOperation
+    public TracesReport traces(@Nullable Integer limit) {
+        List<TraceView> slowest = traceBuffer.snapshot().stream()
+                .sorted(Comparator.comparingLong(Trace::getDurationNanos).reversed())
+                .limit(limit != null && limit > 0 ? limit : DEFAULT_LIMIT)
+                .map(TracesEndpoint::view)
+                .toList();
+        return new TracesReport(traceBuffer.capacity(), traceBuffer.written(), slowest);
+    }
+
+    private static TraceView view(Trace trace) {
+        Map<String, Double> breakdown = new LinkedHashMap<>();
+        trace.getPhaseNanos().entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .forEach(phase -> breakdown.put(phase.getKey(), millis(phase.getValue())));
+        List<SpanView> spans = trace.getSpans().stream()
+                .sorted(Comparator.comparingLong(Span::getOffsetNanos))
+                .map(span -> new SpanView(span.getPhase(), span.getName(), span.getDepth(),
+                        millis(span.getOffsetNanos()), millis(span.getDurationNanos())))
+                .toList();
+        return new TraceView(trace.getMethod(), trace.getUri(), trace.getRoute(), trace.getStatus(),
+                Instant.ofEpochMilli(trace.getStartEpochMillis()), millis(trace.getDurationNanos()),
+                breakdown, spans, trace.getDroppedSpans());
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 1_000.0) / 1_000.0;
+    }
+
+    public record TracesReport(int capacity, long recorded, List<TraceView> traces) {
+    }
+
+    public record TraceView(String method, String uri, String route, int status, Instant start, double durationMs,
+                            Map<String, Double> breakdownMs, List<SpanView> spans, int droppedSpans) {
+    }
+
+    public record SpanView(String phase, String name, int depth, double offsetMs, double durationMs) {
+    }
+}
@@ -0,0 +1,130 @@
+package com.tasktracker.tracing;
+
+import com.tasktracker.jfr.CacheLookupEvent;
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Cache decorator that records a "cache" span per lookup, named after the cache
+ * and whether it hit: "tasksByUser hit", "taskById miss". For sync lookups
+ * (get with a value loader) a miss span contains the loader's own spans.
+ * Each lookup is also emitted as a CacheLookupEvent (JFR), with or without a
+ * trace; both cost next to nothing while no trace or recording is active.
+ * Writes and evictions are not traced. Everything else is delegated, including
+ * getNativeCache(), so callers that inspect the Caffeine store keep working.
+ */
+public class TracingCache implements Cache {
+
+    private final Cache delegate;
+    private final String hitName;
+    private final String missName;
+
+    public TracingCache(Cache delegate) {
+        this.delegate = delegate;
+        this.hitName = delegate.getName() + " hit";
+        this.missName = delegate.getName() + " miss";
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        CacheLookupEvent event = new CacheLookupEvent();
+        event.begin();
+        long start = System.nanoTime();
+        ValueWrapper value = delegate.get(key);
+        Trace.completed("cache", value != null ? hitName : missName, System.nanoTime() - start);
+        commit(event, value != null);
+        return value;
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        CacheLookupEvent event = new CacheLookupEvent();
+        event.begin();
+        long start = System.nanoTime();
+        T value = delegate.get(key, type);
+        Trace.completed("cache", value != null ? hitName : missName, System.nanoTime() - start);
+        commit(event, value != null);
+        return value;
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        // Hit or miss is only known once it is clear whether the loader ran
+        boolean[] loaded = new boolean[1];
+        CacheLookupEvent event = new CacheLookupEvent();
+        event.begin();
+        Span span = Trace.span("cache", delegate.getName());
+        try {
+            return delegate.get(key, () -> {
+                loaded[0] = true;
+                return valueLoader.call();
+            });
+        } finally {
+            span.rename(loaded[0] ? missName : hitName);
+            span.close();
+            commit(event, !loaded[0]);
+        }
+    }
+
+    private void commit(CacheLookupEvent event, boolean hit) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.cache = delegate.getName();
+            event.hit = hit;
+            event.commit();
+        }
+    }
+
+    @Override
+    public CompletableFuture<?> retrieve(Object key) {
+        return delegate.retrieve(key);
+    }
+
+    @Override
+    public <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+        return delegate.retrieve(key, valueLoader);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        return delegate.putIfAbsent(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        return delegate.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        return delegate.invalidate();
+    }
+}
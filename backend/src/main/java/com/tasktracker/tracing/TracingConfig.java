@@ -0,0 +1,89 @@
+package com.tasktracker.tracing;
+
+import com.tasktracker.config.MetricsConfig;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request tracing (tracing.enabled): spans recorded into TraceBuffer, read
+ * through the "traces" actuator endpoint. No external collector is involved.
+ *
+ * Span sources:
+ * - TracingFilter: one trace per request
+ * - JwtRequestFilter: "jwt" (token verification) and "auth" (user lookup)
+ * - "service": public methods of @Timed beans (TaskService), advisor below
+ * - "cache": lookups in CacheConfig's caches (TracingCache)
+ * - "repository": every Spring Data repository call (invocation listener below)
+ * - "response": body serialization and writing (ResponseWriteTracing)
+ */
+@Configuration
+@ConditionalOnProperty(name = "tracing.enabled", havingValue = "true")
+public class TracingConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private ResponseWriteTracing responseWriteTracing;
+
+    // Inside the task.service timer, outside the cache advisor, so cache spans nest under the service span
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor tracingMethodAdvisor() {
+        Map<Method, String> spanNames = new ConcurrentHashMap<>();
+        MethodInterceptor interceptor = invocation -> {
+            if (Trace.current() == null) {
+                return invocation.proceed();
+            }
+            String name = spanNames.computeIfAbsent(invocation.getMethod(), method ->
+                    ClassUtils.getUserClass(invocation.getThis()).getSimpleName() + "." + method.getName());
+            try (Span span = Trace.span("service", name)) {
+                return invocation.proceed();
+            }
+        };
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(MetricsConfig.timedMethods(), interceptor);
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return advisor;
+    }
+
+    // Spring Data reports each repository call with its duration once it returns
+    @Bean
+    public static BeanPostProcessor repositoryTracingPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    Map<Method, String> spanNames = new ConcurrentHashMap<>();
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addInvocationListener(invocation -> {
+                        if (Trace.current() != null) {
+                            String name = spanNames.computeIfAbsent(invocation.getMethod(), method ->
+                                    invocation.getRepositoryInterface().getSimpleName() + "." + method.getName());
+                            Trace.completed("repository", name, invocation.getDuration(TimeUnit.NANOSECONDS));
+                        }
+                    }));
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(responseWriteTracing);
+    }
+}
@@ -0,0 +1,57 @@
+package com.tasktracker.tracing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Begins a Trace for every request and hands it to TraceBuffer when the request ends.
+ *
+ * Runs before the security filters, so JWT verification and user lookups are
+ * inside the trace. Only requests taking at least tracing.min-duration-ms are
+ * buffered, so on a busy instance the ring keeps the slow ones rather than the
+ * most recent fast ones. Actuator requests are not traced.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+@ConditionalOnProperty(name = "tracing.enabled", havingValue = "true")
+public class TracingFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private TraceBuffer traceBuffer;
+
+    @Value("${tracing.min-duration-ms:0}")
+    private long minDurationMs;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Trace trace = Trace.begin(request.getMethod(), request.getRequestURI());
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            trace.end(response.getStatus(), route != null ? route.toString() : null);
+            if (trace.getDurationNanos() >= TimeUnit.MILLISECONDS.toNanos(minDurationMs)) {
+                traceBuffer.add(trace);
+            }
+        }
+    }
+}
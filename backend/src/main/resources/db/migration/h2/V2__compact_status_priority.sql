@@ -0,0 +1,3 @@
+-- PostgreSQL only: converts VARCHAR status/priority columns of pre-migration databases to
+-- SMALLINT codes. H2 databases are always created by V1 with SMALLINT columns already.
+SELECT 1;
@@ -0,0 +1,6 @@
+-- Shard directory for db.sharding.enabled=true: users that ShardRebalancer moved off the
+-- shard their username hashes to. Read from shard 0 only; empty without sharding.
+CREATE TABLE user_shards (
+    username VARCHAR(255) NOT NULL PRIMARY KEY,
+    shard    INT          NOT NULL
+);
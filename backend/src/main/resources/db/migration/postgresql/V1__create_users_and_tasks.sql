@@ -0,0 +1,23 @@
+-- Initial schema, matching the User and Task entities (Hibernate validates it at startup).
+-- Databases created by earlier versions (ddl-auto=update) are baselined at version 1,
+-- so this script only runs on an empty database.
+CREATE TABLE users (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username   VARCHAR(255) NOT NULL UNIQUE,
+    password   VARCHAR(255) NOT NULL,
+    email      VARCHAR(255) NOT NULL,
+    role       VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL
+);
+
+-- status / priority hold Task.TaskStatus / Task.TaskPriority codes (see V2)
+CREATE TABLE tasks (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    title        VARCHAR(255)  NOT NULL,
+    description  VARCHAR(1000),
+    status       SMALLINT      NOT NULL,
+    priority     SMALLINT      NOT NULL,
+    created_at   TIMESTAMP(6)  NOT NULL,
+    completed_at TIMESTAMP(6),
+    user_id      BIGINT        NOT NULL REFERENCES users (id)
+);
@@ -0,0 +1,33 @@
+-- Compact task status/priority storage (Task.TaskStatus / Task.TaskPriority codes).
+-- Converts the VARCHAR enum-name columns of databases created by ddl-auto=update (baselined
+-- at version 1) to SMALLINT codes. Does nothing on databases created by V1.
+-- ALTER COLUMN ... TYPE rewrites the table and rebuilds every index on it;
+-- ANALYZE refreshes planner statistics for the new types.
+-- Codes must match the enums: status TODO=1, IN_PROGRESS=2, DONE=3; priority LOW=1, MEDIUM=2, HIGH=3.
+DO $$
+DECLARE
+    check_name text;
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_schema = current_schema() AND table_name = 'tasks'
+                 AND column_name IN ('status', 'priority') AND data_type = 'character varying') THEN
+
+        -- Hibernate's enum CHECK constraints compare with the old names; drop them first
+        FOR check_name IN
+            SELECT conname FROM pg_constraint
+            WHERE conrelid = 'tasks'::regclass AND contype = 'c'
+              AND (pg_get_constraintdef(oid) LIKE '%status%' OR pg_get_constraintdef(oid) LIKE '%priority%')
+        LOOP
+            EXECUTE format('ALTER TABLE tasks DROP CONSTRAINT %I', check_name);
+        END LOOP;
+
+        ALTER TABLE tasks
+            ALTER COLUMN status TYPE smallint USING CASE status
+                WHEN 'TODO' THEN 1 WHEN 'IN_PROGRESS' THEN 2 WHEN 'DONE' THEN 3 END,
+            ALTER COLUMN priority TYPE smallint USING CASE priority
+                WHEN 'LOW' THEN 1 WHEN 'MEDIUM' THEN 2 WHEN 'HIGH' THEN 3 END;
+
+        ANALYZE tasks;
+        RAISE NOTICE 'Converted tasks.status and tasks.priority to SMALLINT codes';
+    END IF;
+END $$;
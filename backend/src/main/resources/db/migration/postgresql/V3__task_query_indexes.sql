@@ -0,0 +1,8 @@
+-- Composite indexes for TaskRepository's per-user queries:
+--   findByUserAndStatus, countByUserAndStatus      -> (user_id, status)
+--   findByUserAndPriority                         -> (user_id, priority)
+--   findCompletedTasksByUser (completed_at IS NOT NULL) -> (user_id, completed_at)
+-- findByUser / countByUser use the user_id prefix of any of them.
+CREATE INDEX IF NOT EXISTS idx_tasks_user_status ON tasks (user_id, status);
+CREATE INDEX IF NOT EXISTS idx_tasks_user_priority ON tasks (user_id, priority);
+CREATE INDEX IF NOT EXISTS idx_tasks_user_completed_at ON tasks (user_id, completed_at);
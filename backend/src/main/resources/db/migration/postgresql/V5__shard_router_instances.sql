@@ -0,0 +1,7 @@
+-- Application instances routing shards (db.sharding.enabled=true): each ShardRouter refreshes its
+-- row every few seconds. ShardRebalancer only moves users while no other instance is live, as the
+-- "moving" state that holds a user's requests back is per instance. Read from shard 0 only.
+CREATE TABLE shard_router_instances (
+    instance_id VARCHAR(64) NOT NULL PRIMARY KEY,
+    last_seen   TIMESTAMP   NOT NULL
+);
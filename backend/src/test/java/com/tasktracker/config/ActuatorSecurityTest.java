@@ -0,0 +1,43 @@
+package com.tasktracker.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Only the health check is public; metrics, prometheus and traces need an authenticated caller.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability  // tests switch the Prometheus registry off otherwise
+class ActuatorSecurityTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void healthIsPublic() throws Exception {
+        mockMvc.perform(get("/actuator/health")).andExpect(status().isOk());
+    }
+
+    @Test
+    void otherEndpointsNeedAuthentication() throws Exception {
+        for (String path : new String[]{"/actuator/metrics", "/actuator/prometheus", "/actuator/traces"}) {
+            mockMvc.perform(get(path)).andExpect(status().isForbidden());
+        }
+    }
+
+    @Test
+    @WithMockUser
+    void authenticatedCallerReadsMetrics() throws Exception {
+        mockMvc.perform(get("/actuator/metrics")).andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isOk());
+    }
+}
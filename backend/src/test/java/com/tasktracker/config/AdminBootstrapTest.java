@@ -0,0 +1,66 @@
+package com.tasktracker.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tasktracker.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The bootstrap administrator can log in and reach /api/admin; JFR recordings stay short.
+ */
+@SpringBootTest(properties = {
+        "admin.bootstrap.username=ops",
+        "admin.bootstrap.password=ops-secret",
+        "jfr.recording.max-seconds=120"
+})
+@AutoConfigureMockMvc
+class AdminBootstrapTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void bootstrapAdminHasRoleAdmin() {
+        assertEquals("ADMIN", userRepository.findByUsername("ops").orElseThrow().getRole());
+        assertEquals("USER", userRepository.findByUsername("demo").orElseThrow().getRole());
+    }
+
+    @Test
+    void recordingLengthIsCappedBelowConfiguredMaximum() throws Exception {
+        String token = login("ops", "ops-secret");
+        mockMvc.perform(post("/api/admin/jfr").param("seconds", "120").header("Authorization", "Bearer " + token))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/admin/jfr").param("seconds", "1").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void regularUserIsForbidden() throws Exception {
+        String token = login("demo", "demo123");
+        mockMvc.perform(post("/api/admin/jfr").param("seconds", "1").header("Authorization", "Bearer " + token))
+                .andExpect(status().isForbidden());
+    }
+
+    private String login(String username, String password) throws Exception {
+        String body = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"" + username + "\",\"password\":\"" + password + "\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("token").asText();
+    }
+}
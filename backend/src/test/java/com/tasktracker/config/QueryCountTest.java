@@ -0,0 +1,228 @@
+package com.tasktracker.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+/**
+ * Exact number of SQL statements each TaskController endpoint runs (X-Query-Count
+ * from QueryCountFilter), per storage and auth configuration.
+ *
+ * Every configuration calls the endpoints as the demo user in the same order:
+ * cold and cached list, sparse fields, both filters, get, stats, then create,
+ * update and delete of a new task. A change that adds a statement, or removes
+ * one, fails here until the expected counts are updated.
+ */
+class QueryCountTest {
+
+    private static final String TASK_JSON =
+            "{\"title\":\"Query count check\",\"description\":\"created by QueryCountTest\","
+                    + "\"status\":\"TODO\",\"priority\":\"HIGH\"}";
+
+    // Database-backed principal and no column index: where per-request lookups and N+1s show up
+    private static final String DATABASE_PATH = "security.auth.mode=database";
+    private static final String NO_INDEX = "taskindex.enabled=false";
+
+    abstract static class Endpoints {
+
+        @Autowired
+        private MockMvc mockMvc;
+
+        @Autowired
+        private ObjectMapper objectMapper;
+
+        private String token;
+
+        /** Expected statements per step, in call order. */
+        abstract Map<String, Integer> expected();
+
+        @Test
+        void statementCountsPerEndpoint() throws Exception {
+            token = objectMapper.readTree(mockMvc.perform(post("/api/auth/login")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"username\":\"demo\",\"password\":\"demo123\"}"))
+                    .andReturn().getResponse().getContentAsString()).path("token").asText();
+
+            Map<String, Integer> actual = new LinkedHashMap<>();
+            count(actual, "list", get("/api/tasks"));
+            count(actual, "list-cached", get("/api/tasks"));
+            count(actual, "list-fields", get("/api/tasks").param("fields", "id,title"));
+            count(actual, "filter-status", get("/api/tasks").param("status", "TODO"));
+            count(actual, "filter-priority", get("/api/tasks").param("priority", "HIGH"));
+            long existingId = json(perform(get("/api/tasks").param("fields", "id"))).path(0).path("id").asLong();
+            count(actual, "get", get("/api/tasks/" + existingId));
+            count(actual, "stats", get("/api/tasks/stats"));
+            MvcResult created = count(actual, "create", post("/api/tasks")
+                    .contentType(MediaType.APPLICATION_JSON).content(TASK_JSON));
+            long id = json(created).path("id").asLong();
+            count(actual, "update", put("/api/tasks/" + id)
+                    .contentType(MediaType.APPLICATION_JSON).content(TASK_JSON.replace("\"TODO\"", "\"DONE\"")));
+            count(actual, "delete", delete("/api/tasks/" + id));
+
+            assertThat(actual).containsExactlyEntriesOf(expected());
+        }
+
+        private MvcResult count(Map<String, Integer> counts, String step, MockHttpServletRequestBuilder request)
+                throws Exception {
+            MvcResult result = perform(request);
+            assertThat(result.getResponse().getStatus()).as(step).isLessThan(300);
+            String header = result.getResponse().getHeader(QueryCountFilter.COUNT_HEADER);
+            assertThat(header).as(step + " " + QueryCountFilter.COUNT_HEADER).isNotNull();
+            counts.put(step, Integer.parseInt(header));
+            return result;
+        }
+
+        private MvcResult perform(MockHttpServletRequestBuilder request) throws Exception {
+            return mockMvc.perform(request.header("Authorization", "Bearer " + token)).andReturn();
+        }
+
+        private JsonNode json(MvcResult result) throws Exception {
+            return objectMapper.readTree(result.getResponse().getContentAsString());
+        }
+
+        static Map<String, Integer> steps(int list, int listCached, int listFields, int filterStatus,
+                                          int filterPriority, int get, int stats, int create, int update,
+                                          int delete) {
+            Map<String, Integer> steps = new LinkedHashMap<>();
+            steps.put("list", list);
+            steps.put("list-cached", listCached);
+            steps.put("list-fields", listFields);
+            steps.put("filter-status", filterStatus);
+            steps.put("filter-priority", filterPriority);
+            steps.put("get", get);
+            steps.put("stats", stats);
+            steps.put("create", create);
+            steps.put("update", update);
+            steps.put("delete", delete);
+            return steps;
+        }
+    }
+
+    /**
+     * Defaults: cached auth and the column index. The first list also loads the
+     * user into the userDetails cache; later reads are served by the caches and
+     * the index; writes load the task, then update or delete it.
+     */
+    @Nested
+    @SpringBootTest(properties = {"db.query-stats.enabled=true", "db.query-stats.response-headers=true",
+            "ratelimit.enabled=false"})
+    @AutoConfigureMockMvc
+    class Defaults extends Endpoints {
+
+        @Override
+        Map<String, Integer> expected() {
+            return steps(2, 0, 0, 0, 0, 1, 0, 1, 3, 3);
+        }
+    }
+
+    /**
+     * Stateless auth (opt-in) takes the principal from the token: no user lookup at all.
+     */
+    @Nested
+    @SpringBootTest(properties = {"db.query-stats.enabled=true", "db.query-stats.response-headers=true",
+            "ratelimit.enabled=false", "security.auth.mode=stateless"})
+    @AutoConfigureMockMvc
+    class Stateless extends Endpoints {
+
+        @Override
+        Map<String, Integer> expected() {
+            return steps(1, 0, 0, 0, 0, 1, 0, 1, 3, 3);
+        }
+    }
+
+    /**
+     * One extra statement per request for the user lookup in JwtRequestFilter;
+     * stats runs count, three per-status counts and the completed tasks.
+     */
+    @Nested
+    @SpringBootTest(properties = {"db.query-stats.enabled=true", "db.query-stats.response-headers=true",
+            "ratelimit.enabled=false", DATABASE_PATH, NO_INDEX})
+    @AutoConfigureMockMvc
+    class DatabaseBacked extends Endpoints {
+
+        @Override
+        Map<String, Integer> expected() {
+            return steps(2, 1, 2, 2, 2, 2, 6, 2, 4, 4);
+        }
+    }
+
+    /**
+     * Routing adds no statements, and lookups by username find the user's shard.
+     */
+    @Nested
+    @SpringBootTest(properties = {"db.query-stats.enabled=true", "db.query-stats.response-headers=true",
+            "ratelimit.enabled=false", DATABASE_PATH, NO_INDEX})
+    @ActiveProfiles("sharded")
+    @AutoConfigureMockMvc
+    class Sharded extends Endpoints {
+
+        @Override
+        Map<String, Integer> expected() {
+            return steps(2, 1, 2, 2, 2, 2, 6, 2, 4, 4);
+        }
+    }
+
+    /**
+     * Statements on replica connections are counted too.
+     */
+    @Nested
+    @SpringBootTest(properties = {"db.query-stats.enabled=true", "db.query-stats.response-headers=true",
+            "ratelimit.enabled=false", DATABASE_PATH, NO_INDEX})
+    @ActiveProfiles("replicas")
+    @AutoConfigureMockMvc
+    class Replicas extends Endpoints {
+
+        @Override
+        Map<String, Integer> expected() {
+            return steps(2, 1, 2, 2, 2, 2, 6, 2, 4, 4);
+        }
+    }
+
+    /**
+     * The embedded store answers every endpoint without a single statement.
+     */
+    @Nested
+    @SpringBootTest(properties = {"db.query-stats.enabled=true", "db.query-stats.response-headers=true",
+            "ratelimit.enabled=false", DATABASE_PATH, NO_INDEX})
+    @ActiveProfiles("embedded")
+    @AutoConfigureMockMvc
+    class Embedded extends Endpoints {
+
+        @DynamicPropertySource
+        static void storeDirectory(DynamicPropertyRegistry registry) {
+            registry.add("store.dir", () -> {
+                try {
+                    return Files.createTempDirectory("query-count-store").toString();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+        }
+
+        @Override
+        Map<String, Integer> expected() {
+            return steps(0, 0, 0, 0, 0, 0, 0, 0, 0, 0);
+        }
+    }
+}
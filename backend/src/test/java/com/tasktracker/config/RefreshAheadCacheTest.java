@@ -0,0 +1,161 @@
+package com.tasktracker.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RefreshAheadCacheTest {
+
+    private final ExecutorService refresher = Executors.newSingleThreadExecutor();
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @AfterEach
+    void shutdown() {
+        refresher.shutdownNow();
+        callers.shutdownNow();
+    }
+
+    private RefreshAheadCache cache(long softTtl, long hardTtl, long grace) {
+        return new RefreshAheadCache("test", 16, 100, softTtl, hardTtl, grace, refresher);
+    }
+
+    // Counts its calls and returns "<value>-<call number>"
+    private Callable<String> loader(String value) {
+        return () -> value + "-" + loads.incrementAndGet();
+    }
+
+    // Blocks until released, after signalling that it started
+    private Callable<String> blockingLoader(String value, CountDownLatch started, CountDownLatch release) {
+        return () -> {
+            started.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return value;
+        };
+    }
+
+    private static Callable<String> failing() {
+        return () -> {
+            throw new IllegalStateException("database down");
+        };
+    }
+
+    @Test
+    void servesStaleAfterSoftTtlWhileRefreshingInBackground() throws Exception {
+        RefreshAheadCache cache = cache(1, 60, 0);
+        assertThat(cache.get("k", loader("v"))).isEqualTo("v-1");
+        assertThat(cache.get("k", loader("v"))).isEqualTo("v-1");
+        Thread.sleep(1100);
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        assertThat(cache.get("k", blockingLoader("refreshed", started, release))).isEqualTo("v-1");
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        // One refresh per key: the second stale hit doesn't start another
+        assertThat(cache.get("k", loader("v"))).isEqualTo("v-1");
+        release.countDown();
+        refresher.submit(() -> null).get();
+
+        assertThat(cache.get("k", loader("v"))).isEqualTo("refreshed");
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void loadsSynchronouslyAfterHardTtlAndServesStaleWithinGrace() throws Exception {
+        RefreshAheadCache cache = cache(1, 1, 1);
+        assertThat(cache.get("k", loader("v"))).isEqualTo("v-1");
+        Thread.sleep(1100);
+        assertThat(cache.get("k", loader("v"))).isEqualTo("v-2");
+
+        Thread.sleep(1100);
+        assertThat(cache.get("k", failing())).isEqualTo("v-2");
+        Thread.sleep(1000);
+        assertThatThrownBy(() -> cache.get("k", failing()))
+                .isInstanceOf(Cache.ValueRetrievalException.class)
+                .hasRootCauseMessage("database down");
+    }
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        RefreshAheadCache cache = cache(60, 60, 0);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Callable<String> slow = () -> {
+            loads.incrementAndGet();
+            return blockingLoader("v", started, release).call();
+        };
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(callers.submit(() -> cache.get("k", slow)));
+        }
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        Thread.sleep(100);
+        release.countDown();
+        for (Future<String> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("v");
+        }
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void evictDetachesLoadInProgress() throws Exception {
+        RefreshAheadCache cache = cache(60, 60, 0);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> beforeWrite = callers.submit(
+                () -> cache.get("k", blockingLoader("before write", started, release)));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        cache.evict("k");
+        // A read after the write loads again instead of joining the older load
+        assertThat(cache.get("k", loader("after write"))).isEqualTo("after write-1");
+
+        release.countDown();
+        assertThat(beforeWrite.get(5, TimeUnit.SECONDS)).isEqualTo("before write");
+        assertThat(cache.get("k", loader("v"))).isEqualTo("after write-1");
+    }
+
+    @Test
+    void evictionOfOtherKeysKeepsLoadResult() throws Exception {
+        RefreshAheadCache cache = cache(60, 60, 0);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> load = callers.submit(() -> cache.get("k", blockingLoader("v", started, release)));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        cache.evict("other");
+        release.countDown();
+        assertThat(load.get(5, TimeUnit.SECONDS)).isEqualTo("v");
+        assertThat(cache.get("k", loader("reloaded"))).isEqualTo("v");
+        assertThat(loads).hasValue(0);
+    }
+
+    @Test
+    void clearDetachesEveryLoad() throws Exception {
+        RefreshAheadCache cache = cache(60, 60, 0);
+        cache.get("cached", loader("v"));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> load = callers.submit(() -> cache.get("k", blockingLoader("stale", started, release)));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        cache.clear();
+        release.countDown();
+        assertThat(load.get(5, TimeUnit.SECONDS)).isEqualTo("stale");
+        assertThat(cache.get("k", loader("fresh"))).isEqualTo("fresh-2");
+        assertThat(cache.get("cached", loader("fresh"))).isEqualTo("fresh-3");
+    }
+}
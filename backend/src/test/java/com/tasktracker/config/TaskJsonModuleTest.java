@@ -0,0 +1,108 @@
+package com.tasktracker.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.tasktracker.dto.TaskDTO;
+import com.tasktracker.dto.TaskFieldSet;
+import com.tasktracker.dto.TaskStatsDTO;
+import com.tasktracker.model.Task;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * TaskJsonModule writes the same bytes as Jackson's default bean serializer,
+ * both configured like the application (JavaTimeModule, dates as ISO strings).
+ */
+class TaskJsonModuleTest {
+
+    private final ObjectMapper defaultMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final ObjectMapper moduleMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .registerModule(new TaskJsonModule());
+
+    private static TaskDTO task(Instant createdAt, Instant completedAt) {
+        return new TaskDTO(42L, "Write \"docs\" ✓", "line\nbreak", Task.TaskStatus.DONE,
+                Task.TaskPriority.HIGH, createdAt, completedAt);
+    }
+
+    private void assertSameBytes(Object value) throws Exception {
+        byte[] expected = defaultMapper.writeValueAsBytes(value);
+        byte[] actual = moduleMapper.writeValueAsBytes(value);
+        assertThat(actual).as("expected %s but was %s", new String(expected, StandardCharsets.UTF_8),
+                new String(actual, StandardCharsets.UTF_8)).isEqualTo(expected);
+    }
+
+    @Test
+    void instantsMatchIsoInstant() throws Exception {
+        List<Instant> instants = List.of(
+                Instant.EPOCH,
+                Instant.ofEpochSecond(-1),
+                Instant.parse("1969-12-31T23:59:59.999Z"),
+                Instant.parse("1900-01-01T00:00:00Z"),
+                Instant.parse("0000-01-01T00:00:00Z"),
+                Instant.parse("2024-02-29T12:00:00Z"),
+                Instant.parse("2000-02-29T23:59:59Z"),
+                Instant.parse("2023-03-01T00:00:00Z"),
+                Instant.parse("2024-12-31T23:59:59Z"),
+                Instant.parse("2024-06-15T08:30:00.100Z"),
+                Instant.parse("2024-06-15T08:30:00.123456Z"),
+                Instant.parse("2024-06-15T08:30:00.000001Z"),
+                Instant.parse("2024-06-15T08:30:00.123456789Z"),
+                Instant.parse("2024-06-15T08:30:00.000000001Z"),
+                Instant.parse("9999-12-31T23:59:59.999999999Z"),
+                // Past the fast path: Instant.toString()
+                Instant.parse("+10000-01-01T00:00:00Z"),
+                Instant.parse("-0001-12-31T23:59:59Z"),
+                Instant.MAX,
+                Instant.MIN);
+        for (Instant instant : instants) {
+            assertSameBytes(task(instant, instant));
+        }
+    }
+
+    @Test
+    void nullFieldsAreWritten() throws Exception {
+        assertSameBytes(new TaskDTO());
+        assertSameBytes(new TaskDTO(null, "untitled", null, Task.TaskStatus.TODO, null, Instant.EPOCH, null));
+    }
+
+    @Test
+    void listsAndStatsMatch() throws Exception {
+        List<TaskDTO> list = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Instant created = Instant.parse("2024-01-01T00:00:00Z").plusMillis(i * 86_400_123L + i);
+            list.add(new TaskDTO((long) i, "Task " + i, i % 3 == 0 ? null : "Description " + i,
+                    Task.TaskStatus.values()[i % 3], Task.TaskPriority.values()[i % 3], created,
+                    i % 2 == 0 ? null : created.plusSeconds(3_600)));
+        }
+        assertSameBytes(list);
+        assertSameBytes(new TaskStatsDTO(20, 10, 10, 51.372519, 5, 5));
+        assertSameBytes(new TaskStatsDTO(0, 0, 0, 0.0, 0, 0));
+    }
+
+    @Test
+    void sparseFieldSetWritesOnlyThoseProperties() throws Exception {
+        Instant created = Instant.parse("2024-02-29T10:15:30.120Z");
+        for (String csv : List.of("id", "title,status", "completedAt,id", "description,priority,createdAt")) {
+            TaskFieldSet fields = TaskFieldSet.parse(csv);
+            TaskDTO task = task(created, null);
+            task.setFields(fields);
+
+            // The default serializer writes every property; keep the requested ones, in order
+            ObjectNode full = defaultMapper.valueToTree(task);
+            full.retain(fields.fields().stream().map(TaskFieldSet.Field::getJsonName).toList());
+            assertThat(moduleMapper.writeValueAsString(task)).isEqualTo(defaultMapper.writeValueAsString(full));
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.tasktracker.config;
+
+import com.google.protobuf.Timestamp;
+import com.tasktracker.dto.LoginRequest;
+import com.tasktracker.dto.LoginResponse;
+import com.tasktracker.dto.TaskDTO;
+import com.tasktracker.dto.TaskRequest;
+import com.tasktracker.dto.TaskStatsDTO;
+import com.tasktracker.journal.JournalBatch;
+import com.tasktracker.model.Task;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.tasktracker.config.TaskProtobufHttpMessageConverter.PROTOBUF;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The converter's output decodes with the classes protoc generates from
+ * src/main/proto/tasktracker.proto (com.tasktracker.proto, test sources only)
+ * and matches their encoding byte for byte; their encoding reads back as the DTOs.
+ */
+class TaskProtobufHttpMessageConverterTest {
+
+    private static final Instant CREATED = Instant.parse("2024-03-01T10:15:30.123456789Z");
+    private static final Instant COMPLETED = Instant.parse("2024-03-02T08:00:00Z");
+
+    private final TaskProtobufHttpMessageConverter converter = new TaskProtobufHttpMessageConverter();
+
+    @Test
+    void taskMatchesGeneratedEncoding() throws IOException {
+        TaskDTO task = new TaskDTO(42L, "Write tests", "", Task.TaskStatus.DONE, Task.TaskPriority.HIGH,
+                CREATED, COMPLETED);
+
+        byte[] written = write(task, TaskDTO.class);
+
+        com.tasktracker.proto.Task expected = com.tasktracker.proto.Task.newBuilder()
+                .setId(42)
+                .setTitle("Write tests")
+                .setDescription("")
+                .setStatus(com.tasktracker.proto.TaskStatus.TASK_STATUS_DONE)
+                .setPriority(com.tasktracker.proto.TaskPriority.TASK_PRIORITY_HIGH)
+                .setCreatedAt(timestamp(CREATED))
+                .setCompletedAt(timestamp(COMPLETED))
+                .build();
+        assertArrayEquals(expected.toByteArray(), written);
+        com.tasktracker.proto.Task decoded = com.tasktracker.proto.Task.parseFrom(written);
+        assertTrue(decoded.hasDescription(), "empty description stays present");
+        assertEquals(CREATED.getNano(), decoded.getCreatedAt().getNanos());
+    }
+
+    @Test
+    void taskListMatchesGeneratedEncoding() throws IOException {
+        List<TaskDTO> tasks = List.of(
+                new TaskDTO(1L, "First", null, Task.TaskStatus.TODO, Task.TaskPriority.LOW, CREATED, null),
+                new TaskDTO(2L, "Second", "Details", Task.TaskStatus.IN_PROGRESS, Task.TaskPriority.MEDIUM,
+                        CREATED, null));
+
+        byte[] written = write(tasks, new ParameterizedTypeReference<List<TaskDTO>>() { }.getType());
+
+        com.tasktracker.proto.TaskList decoded = com.tasktracker.proto.TaskList.parseFrom(written);
+        assertEquals(2, decoded.getTasksCount());
+        assertFalse(decoded.getTasks(0).hasDescription());
+        assertFalse(decoded.getTasks(0).hasCompletedAt());
+        assertEquals("Details", decoded.getTasks(1).getDescription());
+        assertEquals(com.tasktracker.proto.TaskStatus.TASK_STATUS_IN_PROGRESS, decoded.getTasks(1).getStatus());
+        assertArrayEquals(decoded.toByteArray(), written);
+    }
+
+    @Test
+    void statsLoginAndMessageMatchGeneratedEncoding() throws IOException {
+        TaskStatsDTO stats = new TaskStatsDTO(10, 4, 6, 12.5, 3, 3);
+        assertArrayEquals(com.tasktracker.proto.TaskStats.newBuilder()
+                .setTotalTasks(10).setCompletedTasks(4).setPendingTasks(6)
+                .setAverageCompletionTimeHours(12.5).setTodoTasks(3).setInProgressTasks(3)
+                .build().toByteArray(), write(stats, TaskStatsDTO.class));
+
+        LoginResponse login = new LoginResponse("jwt", "demo", "demo@tasktracker.com", "Login successful");
+        assertArrayEquals(com.tasktracker.proto.LoginResponse.newBuilder()
+                .setToken("jwt").setUsername("demo").setEmail("demo@tasktracker.com").setMessage("Login successful")
+                .build().toByteArray(), write(login, LoginResponse.class));
+
+        Map<String, String> error = new HashMap<>();
+        error.put("error", "Task not found");
+        assertEquals(error, com.tasktracker.proto.MessageResponse.parseFrom(write(error, HashMap.class))
+                .getEntriesMap());
+    }
+
+    @Test
+    void readsGeneratedRequests() throws IOException {
+        byte[] taskRequest = com.tasktracker.proto.TaskRequest.newBuilder()
+                .setTitle("New task")
+                .setDescription("Body")
+                .setStatus(com.tasktracker.proto.TaskStatus.TASK_STATUS_IN_PROGRESS)
+                .setPriority(com.tasktracker.proto.TaskPriority.TASK_PRIORITY_LOW)
+                .build().toByteArray();
+        assertEquals(new TaskRequest("New task", "Body", Task.TaskStatus.IN_PROGRESS, Task.TaskPriority.LOW),
+                converter.read(TaskRequest.class, null, new MockHttpInputMessage(taskRequest)));
+
+        byte[] loginRequest = com.tasktracker.proto.LoginRequest.newBuilder()
+                .setUsername("demo").setPassword("demo123").build().toByteArray();
+        assertEquals(new LoginRequest("demo", "demo123"),
+                converter.read(LoginRequest.class, null, new MockHttpInputMessage(loginRequest)));
+    }
+
+    @Test
+    void writesOnlyTheApiResponseTypes() {
+        assertTrue(converter.canWrite(new ParameterizedTypeReference<List<TaskDTO>>() { }.getType(), List.class, PROTOBUF));
+        assertTrue(converter.canWrite(new ParameterizedTypeReference<Map<String, String>>() { }.getType(), Map.class, PROTOBUF));
+
+        assertFalse(converter.canWrite(new ParameterizedTypeReference<List<String>>() { }.getType(), List.class, PROTOBUF));
+        assertFalse(converter.canWrite(new ParameterizedTypeReference<Map<String, Object>>() { }.getType(), Map.class, PROTOBUF));
+        assertFalse(converter.canWrite(Set.class, Set.class, PROTOBUF));
+        assertFalse(converter.canWrite(JournalBatch.class, JournalBatch.class, PROTOBUF));
+        assertFalse(converter.canRead(TaskDTO.class, null, PROTOBUF));
+    }
+
+    @Test
+    void rejectsUntypedBodiesWithOtherContents() {
+        List<Object> mixed = new ArrayList<>(List.of("not a task"));
+        assertThrows(HttpMessageNotWritableException.class, () -> write(mixed, ArrayList.class));
+
+        Map<String, Object> counts = new HashMap<>(Map.of("users", 3));
+        assertThrows(HttpMessageNotWritableException.class, () -> write(counts, HashMap.class));
+    }
+
+    private byte[] write(Object body, Type type) throws IOException {
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        converter.write(body, type, PROTOBUF, output);
+        return output.getBodyAsBytes();
+    }
+
+    private static Timestamp timestamp(Instant instant) {
+        return Timestamp.newBuilder().setSeconds(instant.getEpochSecond()).setNanos(instant.getNano()).build();
+    }
+}
@@ -0,0 +1,80 @@
+package com.tasktracker.journal;
+
+import com.tasktracker.dto.TaskDTO;
+import com.tasktracker.model.Task;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ChangeJournalTest {
+
+    @TempDir
+    Path directory;
+
+    private ChangeJournal journal;
+
+    private ChangeJournal open(int segmentBytes, int maxSegments) throws Exception {
+        ChangeJournal opened = new ChangeJournal();
+        ReflectionTestUtils.setField(opened, "enabled", true);
+        ReflectionTestUtils.setField(opened, "directory", directory.toString());
+        ReflectionTestUtils.setField(opened, "segmentBytes", segmentBytes);
+        ReflectionTestUtils.setField(opened, "waitForFsync", true);
+        ReflectionTestUtils.setField(opened, "fsyncTimeoutMs", 1000L);
+        ReflectionTestUtils.setField(opened, "maxSegments", maxSegments);
+        ReflectionTestUtils.setField(opened, "retentionHours", 0L);
+        ReflectionTestUtils.setField(opened, "meterRegistry", new SimpleMeterRegistry());
+        opened.init();
+        return opened;
+    }
+
+    @AfterEach
+    void close() throws Exception {
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    private static TaskDTO task(long id, String title) {
+        return new TaskDTO(id, title, null, Task.TaskStatus.TODO, Task.TaskPriority.MEDIUM, Instant.EPOCH, null);
+    }
+
+    @Test
+    void recordsSurviveRestart() throws Exception {
+        journal = open(4096, 8);
+        journal.append(ChangeRecord.Type.CREATED, 1, 10, task(10, "first"));
+        journal.append(ChangeRecord.Type.DELETED, 1, 10, null);
+        journal.close();
+
+        journal = open(4096, 8);
+        JournalBatch batch = journal.read(0, 10);
+        assertThat(batch.records()).extracting(ChangeRecord::type)
+                .containsExactly(ChangeRecord.Type.CREATED, ChangeRecord.Type.DELETED);
+        assertThat(batch.nextOffset()).isEqualTo(journal.endOffset());
+    }
+
+    @Test
+    void retentionRetiresOldSegments() throws Exception {
+        journal = open(256, 2);
+        for (int i = 0; i < 40; i++) {
+            journal.append(ChangeRecord.Type.UPDATED, 1, i, task(i, "task " + i));
+        }
+        long start = journal.startOffset();
+        assertThat(start).isPositive();
+        assertThatThrownBy(() -> journal.read(0, 10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("no longer retained");
+
+        JournalBatch batch = journal.read(start, 1000);
+        assertThat(batch.records()).isNotEmpty();
+        assertThat(batch.records().get(batch.records().size() - 1).taskId()).isEqualTo(39);
+        assertThat(batch.nextOffset()).isEqualTo(journal.endOffset());
+    }
+}
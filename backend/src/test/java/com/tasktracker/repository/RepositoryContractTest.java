@@ -0,0 +1,270 @@
+package com.tasktracker.repository;
+
+import com.tasktracker.dto.TaskDTO;
+import com.tasktracker.dto.TaskFieldSet;
+import com.tasktracker.model.Task;
+import com.tasktracker.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * The same repository cases against JPA (H2) and the embedded store, so the
+ * embedded repositories keep the database's constraints and query results.
+ *
+ * Every test works on a fresh user of its own; the demo data is left alone.
+ */
+class RepositoryContractTest {
+
+    abstract static class Contract {
+
+        @Autowired
+        private UserRepository userRepository;
+
+        @Autowired
+        private TaskRepository taskRepository;
+
+        private User owner;
+
+        @BeforeEach
+        void createOwner() {
+            owner = userRepository.save(user("contract-" + UUID.randomUUID()));
+        }
+
+        private static User user(String username) {
+            User user = new User();
+            user.setUsername(username);
+            user.setPassword("x");
+            user.setEmail(username + "@tasktracker.com");
+            return user;
+        }
+
+        private Task task(String title, Task.TaskStatus status, Task.TaskPriority priority) {
+            Task task = new Task();
+            task.setTitle(title);
+            task.setStatus(status);
+            task.setPriority(priority);
+            task.setCompletedAt(status == Task.TaskStatus.DONE ? LocalDateTime.now() : null);
+            task.setUser(owner);
+            return taskRepository.save(task);
+        }
+
+        // Five tasks: two TODO (one HIGH), one IN_PROGRESS, two DONE of which one has no completedAt
+        private void sampleTasks() {
+            task("a", Task.TaskStatus.TODO, Task.TaskPriority.HIGH);
+            task("b", Task.TaskStatus.TODO, Task.TaskPriority.LOW);
+            task("c", Task.TaskStatus.IN_PROGRESS, Task.TaskPriority.MEDIUM);
+            task("d", Task.TaskStatus.DONE, Task.TaskPriority.HIGH);
+            Task reopened = task("e", Task.TaskStatus.DONE, Task.TaskPriority.LOW);
+            reopened.setCompletedAt(null);
+            taskRepository.save(reopened);
+        }
+
+        private static List<String> titles(List<Task> tasks) {
+            return tasks.stream().map(Task::getTitle).toList();
+        }
+
+        // Probe matching the owner's tasks by user id only
+        private Example<Task> ownersTasks() {
+            User probeUser = new User();
+            probeUser.setId(owner.getId());
+            Task probe = new Task();
+            probe.setStatus(null);
+            probe.setPriority(null);
+            probe.setUser(probeUser);
+            return Example.of(probe);
+        }
+
+        @Test
+        void usernamesAreUnique() {
+            assertThatThrownBy(() -> userRepository.save(user(owner.getUsername())))
+                    .isInstanceOf(DataIntegrityViolationException.class);
+            assertThat(userRepository.findByUsername(owner.getUsername()).orElseThrow().getId())
+                    .isEqualTo(owner.getId());
+        }
+
+        @Test
+        void tasksNeedAnExistingOwner() {
+            Task orphan = new Task();
+            orphan.setTitle("orphan");
+            assertThatThrownBy(() -> taskRepository.save(orphan))
+                    .isInstanceOf(DataIntegrityViolationException.class);
+
+            User missing = new User();
+            missing.setId(Long.MAX_VALUE);
+            Task dangling = new Task();
+            dangling.setTitle("dangling");
+            dangling.setUser(missing);
+            assertThatThrownBy(() -> taskRepository.save(dangling))
+                    .isInstanceOf(DataIntegrityViolationException.class);
+        }
+
+        @Test
+        void usersWithTasksCannotBeDeleted() {
+            Task task = task("kept", Task.TaskStatus.TODO, Task.TaskPriority.LOW);
+            assertThatThrownBy(() -> userRepository.deleteById(owner.getId()))
+                    .isInstanceOf(DataIntegrityViolationException.class);
+            assertThat(userRepository.existsById(owner.getId())).isTrue();
+
+            taskRepository.delete(task);
+            userRepository.deleteById(owner.getId());
+            assertThat(userRepository.existsById(owner.getId())).isFalse();
+        }
+
+        @Test
+        void createdAtIsKeptOnUpdate() {
+            LocalDateTime userCreated = userRepository.findById(owner.getId()).orElseThrow().getCreatedAt();
+            Task task = task("first", Task.TaskStatus.TODO, Task.TaskPriority.LOW);
+            LocalDateTime taskCreated = taskRepository.findById(task.getId()).orElseThrow().getCreatedAt();
+            assertThat(userCreated).isNotNull();
+            assertThat(taskCreated).isNotNull();
+
+            owner.setEmail("changed@tasktracker.com");
+            owner.setCreatedAt(userCreated.minusDays(1));
+            userRepository.save(owner);
+            task.setTitle("second");
+            task.setCreatedAt(null);
+            taskRepository.save(task);
+
+            User user = userRepository.findById(owner.getId()).orElseThrow();
+            assertThat(user.getEmail()).isEqualTo("changed@tasktracker.com");
+            assertThat(user.getCreatedAt()).isEqualTo(userCreated);
+            Task updated = taskRepository.findById(task.getId()).orElseThrow();
+            assertThat(updated.getTitle()).isEqualTo("second");
+            assertThat(updated.getCreatedAt()).isEqualTo(taskCreated);
+        }
+
+        @Test
+        void filtersAndCounts() {
+            sampleTasks();
+
+            assertThat(titles(taskRepository.findByUser(owner))).containsExactly("a", "b", "c", "d", "e");
+            assertThat(titles(taskRepository.findByUserAndStatus(owner, Task.TaskStatus.TODO)))
+                    .containsExactly("a", "b");
+            assertThat(titles(taskRepository.findByUserAndPriority(owner, Task.TaskPriority.HIGH)))
+                    .containsExactly("a", "d");
+            assertThat(titles(taskRepository.findCompletedTasksByUser(owner, Task.TaskStatus.DONE)))
+                    .containsExactly("d");
+            assertThat(taskRepository.countByUser(owner)).isEqualTo(5);
+            assertThat(taskRepository.countByUserAndStatus(owner, Task.TaskStatus.DONE)).isEqualTo(2);
+            assertThat(taskRepository.countByUserAndStatus(owner, Task.TaskStatus.IN_PROGRESS)).isEqualTo(1);
+
+            TaskFieldSet fields = TaskFieldSet.parse("id,title");
+            List<TaskDTO> projected = taskRepository.findProjected(owner, Task.TaskStatus.TODO,
+                    Task.TaskPriority.LOW, fields);
+            assertThat(projected).extracting(TaskDTO::getTitle).containsExactly("b");
+            assertThat(projected).extracting(TaskDTO::getDescription).containsOnlyNulls();
+            TaskRepositoryCustom.ProjectedTask byId = taskRepository
+                    .findProjectedById(projected.get(0).getId(), fields).orElseThrow();
+            assertThat(byId.ownerId()).isEqualTo(owner.getId());
+            assertThat(byId.task().getTitle()).isEqualTo("b");
+            assertThat(taskRepository.findProjectedById(Long.MAX_VALUE, fields)).isEmpty();
+        }
+
+        @Test
+        void sortedPagedAndExampleQueries() {
+            sampleTasks();
+            Sort byPriority = Sort.by(Sort.Order.desc("priority"), Sort.Order.asc("title"));
+
+            assertThat(titles(taskRepository.findAll(ownersTasks(), byPriority)))
+                    .containsExactly("a", "d", "c", "b", "e");
+            Page<Task> page = taskRepository.findAll(ownersTasks(), PageRequest.of(1, 2, byPriority));
+            assertThat(titles(page.getContent())).containsExactly("c", "b");
+            assertThat(page.getTotalElements()).isEqualTo(5);
+            assertThat(taskRepository.count(ownersTasks())).isEqualTo(5);
+
+            Task done = ownersTasks().getProbe();
+            done.setStatus(Task.TaskStatus.DONE);
+            assertThat(titles(taskRepository.findAll(Example.of(done)))).containsExactly("d", "e");
+            done.setTitle("d");
+            assertThat(taskRepository.findOne(Example.of(done)).orElseThrow().getTitle()).isEqualTo("d");
+            done.setTitle("z");
+            assertThat(taskRepository.exists(Example.of(done))).isFalse();
+
+            // Matching on the owner's properties rather than its id
+            User byName = new User();
+            byName.setUsername(owner.getUsername().toUpperCase());
+            Task probe = new Task();
+            probe.setStatus(null);
+            probe.setPriority(Task.TaskPriority.LOW);
+            probe.setUser(byName);
+            assertThat(titles(taskRepository.findAll(Example.of(probe, ExampleMatcher.matching().withIgnoreCase()))))
+                    .containsExactly("b", "e");
+
+            assertThat(userRepository.findAll(Sort.by("username"))).extracting(User::getUsername)
+                    .isSorted()
+                    .contains(owner.getUsername());
+            assertThat(userRepository.findAll(PageRequest.of(0, 1)).getTotalElements())
+                    .isEqualTo(userRepository.count());
+        }
+
+        @Test
+        void fluentExampleQueries() {
+            sampleTasks();
+
+            List<Task> lastTwo = taskRepository.findBy(ownersTasks(),
+                    query -> query.sortBy(Sort.by("title").descending()).limit(2).all());
+            assertThat(titles(lastTwo)).containsExactly("e", "d");
+            assertThat(taskRepository.findBy(ownersTasks(), query -> query.sortBy(Sort.by("title")).firstValue())
+                    .getTitle()).isEqualTo("a");
+            long count = taskRepository.findBy(ownersTasks(), query -> query.count());
+            assertThat(count).isEqualTo(5);
+
+            Window<Task> first = taskRepository.findBy(ownersTasks(),
+                    query -> query.sortBy(Sort.by("title")).limit(2).scroll(ScrollPosition.keyset()));
+            assertThat(titles(first.getContent())).containsExactly("a", "b");
+            assertThat(first.hasNext()).isTrue();
+            Window<Task> second = taskRepository.findBy(ownersTasks(),
+                    query -> query.sortBy(Sort.by("title")).limit(2).scroll(first.positionAt(1)));
+            assertThat(titles(second.getContent())).containsExactly("c", "d");
+
+            Window<Task> offset = taskRepository.findBy(ownersTasks(),
+                    query -> query.sortBy(Sort.by("title")).limit(2).scroll(ScrollPosition.offset(3)));
+            assertThat(titles(offset.getContent())).containsExactly("d", "e");
+            assertThat(offset.hasNext()).isFalse();
+        }
+    }
+
+    @Nested
+    @SpringBootTest
+    class Jpa extends Contract {
+    }
+
+    @Nested
+    @SpringBootTest
+    @ActiveProfiles("embedded")
+    class Embedded extends Contract {
+
+        @DynamicPropertySource
+        static void storeDirectory(DynamicPropertyRegistry registry) {
+            registry.add("store.dir", () -> {
+                try {
+                    return Files.createTempDirectory("repository-contract-store").toString();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.tasktracker.repository;
+
+import com.tasktracker.config.QueryStats;
+import com.tasktracker.dto.TaskFieldSet;
+import com.tasktracker.model.Task;
+import com.tasktracker.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Every TaskRepository query is served by an index.
+ *
+ * Runs each repository method with QueryCountingDataSource recording, so the
+ * statements checked are the ones Hibernate actually issues, then EXPLAINs
+ * each of them on the test database (H2, with the same V3 indexes as
+ * PostgreSQL) with the method's arguments bound in place of the parameters.
+ * Data is large enough that a scan of the tasks table would be the planner's
+ * honest choice if no index matched.
+ */
+@SpringBootTest(properties = "db.query-stats.enabled=true")
+class TaskRepositoryQueryPlanTest {
+
+    private static final String OWNER = "plan-owner";
+    private static final int OTHER_USERS = 50;
+    private static final int TASKS_PER_USER = 100;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User owner;
+
+    @BeforeEach
+    void generate() {
+        if (!userRepository.existsByUsername(OWNER)) {
+            List<Object[]> users = new ArrayList<>();
+            for (int u = 0; u <= OTHER_USERS; u++) {
+                String username = u == 0 ? OWNER : "plan-user-" + u;
+                users.add(new Object[]{username, "x", username + "@tasktracker.com", "USER",
+                        Timestamp.valueOf(LocalDateTime.now())});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO users (username, password, email, role, created_at) "
+                    + "VALUES (?, ?, ?, ?, ?)", users);
+            List<Object[]> tasks = new ArrayList<>();
+            for (Long userId : jdbcTemplate.queryForList(
+                    "SELECT id FROM users WHERE username LIKE 'plan-%'", Long.class)) {
+                for (int t = 0; t < TASKS_PER_USER; t++) {
+                    Task.TaskStatus status = Task.TaskStatus.values()[t % 3];
+                    tasks.add(new Object[]{"Task " + t, status.getCode(), Task.TaskPriority.values()[t / 3 % 3].getCode(),
+                            Timestamp.valueOf(LocalDateTime.now().minusDays(t)),
+                            status == Task.TaskStatus.DONE ? Timestamp.valueOf(LocalDateTime.now()) : null, userId});
+                }
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO tasks (title, status, priority, created_at, completed_at, user_id) "
+                    + "VALUES (?, ?, ?, ?, ?, ?)", tasks);
+            jdbcTemplate.execute("ANALYZE");
+        }
+        owner = userRepository.findByUsername(OWNER).orElseThrow();
+    }
+
+    @Test
+    void derivedQueriesUseTheirIndexes() {
+        short done = Task.TaskStatus.DONE.getCode();
+        short high = Task.TaskPriority.HIGH.getCode();
+
+        assertUsesIndex(issued(() -> taskRepository.findByUser(owner)), Set.of(), owner.getId());
+        assertUsesIndex(issued(() -> taskRepository.countByUser(owner)), Set.of(), owner.getId());
+        assertUsesIndex(issued(() -> taskRepository.findByUserAndStatus(owner, Task.TaskStatus.DONE)),
+                Set.of("IDX_TASKS_USER_STATUS"), owner.getId(), done);
+        assertUsesIndex(issued(() -> taskRepository.countByUserAndStatus(owner, Task.TaskStatus.DONE)),
+                Set.of("IDX_TASKS_USER_STATUS"), owner.getId(), done);
+        assertUsesIndex(issued(() -> taskRepository.findByUserAndPriority(owner, Task.TaskPriority.HIGH)),
+                Set.of("IDX_TASKS_USER_PRIORITY"), owner.getId(), high);
+        assertUsesIndex(issued(() -> taskRepository.findCompletedTasksByUser(owner, Task.TaskStatus.DONE)),
+                Set.of("IDX_TASKS_USER_STATUS", "IDX_TASKS_USER_COMPLETED_AT"), owner.getId(), done);
+    }
+
+    @Test
+    void projectedQueriesUseTheirIndexes() {
+        TaskFieldSet fields = TaskFieldSet.parse("id,title");
+        assertUsesIndex(issued(() -> taskRepository.findProjected(owner, Task.TaskStatus.TODO, null, fields)),
+                Set.of("IDX_TASKS_USER_STATUS"), owner.getId(), Task.TaskStatus.TODO.getCode());
+        assertUsesIndex(issued(() -> taskRepository.findProjected(owner, null, Task.TaskPriority.LOW, fields)),
+                Set.of("IDX_TASKS_USER_PRIORITY"), owner.getId(), Task.TaskPriority.LOW.getCode());
+    }
+
+    // The single statement the call executed
+    private static String issued(Runnable call) {
+        try (QueryStats stats = QueryStats.open()) {
+            call.run();
+            Set<String> statements = stats.repeated(1).keySet();
+            assertThat(statements).hasSize(1);
+            return statements.iterator().next();
+        }
+    }
+
+    /**
+     * EXPLAINs the statement with the arguments in place of its parameters.
+     *
+     * @param indexes Acceptable indexes; empty accepts any index on tasks
+     */
+    private void assertUsesIndex(String sql, Set<String> indexes, Object... arguments) {
+        String bound = sql;
+        for (Object argument : arguments) {
+            assertThat(bound).as(sql).contains("?");
+            bound = bound.replaceFirst("\\?", String.valueOf(argument));
+        }
+        assertThat(bound).as(sql).doesNotContain("?");
+        String plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + bound, String.class))
+                .toUpperCase(Locale.ROOT);
+        assertThat(plan).as(sql).doesNotContain("TABLESCAN");
+        if (!indexes.isEmpty()) {
+            assertThat(indexes).as(plan).anyMatch(plan::contains);
+        }
+    }
+}
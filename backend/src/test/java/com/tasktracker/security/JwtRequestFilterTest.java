@@ -0,0 +1,125 @@
+package com.tasktracker.security;
+
+import com.tasktracker.model.User;
+import com.tasktracker.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Principal resolution per security.auth.mode. The user "alice" was demoted
+ * to USER after her token was issued with the ADMIN role claim.
+ */
+class JwtRequestFilterTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final JwtUtil jwtUtil = new JwtUtil();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(jwtUtil, "secret", "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970");
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 3_600_000L);
+        ReflectionTestUtils.setField(jwtUtil, "verifiedCacheMaxSize", 0L);
+        jwtUtil.init();
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(
+                new User(7L, "alice", "hash", "alice@tasktracker.com", "USER", LocalDateTime.now())));
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private JwtRequestFilter filter(String mode) {
+        CustomUserDetailsService userDetailsService = new CustomUserDetailsService();
+        ReflectionTestUtils.setField(userDetailsService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(userDetailsService, "cacheManager", new ConcurrentMapCacheManager("userDetails"));
+        JwtRequestFilter filter = new JwtRequestFilter();
+        ReflectionTestUtils.setField(filter, "userDetailsService", userDetailsService);
+        ReflectionTestUtils.setField(filter, "jwtUtil", jwtUtil);
+        ReflectionTestUtils.setField(filter, "authMode", mode);
+        ReflectionTestUtils.setField(filter, "meterRegistry", new SimpleMeterRegistry());
+        filter.initMetrics();
+        return filter;
+    }
+
+    // Runs one request with the token and returns the authentication it established
+    private static Authentication authenticate(JwtRequestFilter filter, String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    private static String role(Authentication authentication) {
+        return authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).findFirst().orElse(null);
+    }
+
+    private String adminClaimToken() {
+        return jwtUtil.generateToken("alice", 7L, "ADMIN");
+    }
+
+    @Test
+    void databaseModeLoadsUserOnEveryRequest() throws Exception {
+        JwtRequestFilter filter = filter("database");
+        assertThat(role(authenticate(filter, adminClaimToken()))).isEqualTo("ROLE_USER");
+        authenticate(filter, adminClaimToken());
+        verify(userRepository, times(2)).findByUsername("alice");
+    }
+
+    @Test
+    void cachedModeLoadsUserOnce() throws Exception {
+        JwtRequestFilter filter = filter("cached");
+        Authentication authentication = authenticate(filter, adminClaimToken());
+        assertThat(role(authentication)).isEqualTo("ROLE_USER");
+        assertThat(((AuthenticatedUser) authentication.getPrincipal()).getUserId()).isEqualTo(7L);
+        authenticate(filter, adminClaimToken());
+        verify(userRepository, times(1)).findByUsername("alice");
+    }
+
+    @Test
+    void statelessModeTrustsClaims() throws Exception {
+        Authentication authentication = authenticate(filter("stateless"), adminClaimToken());
+        assertThat(role(authentication)).isEqualTo("ROLE_ADMIN");
+        assertThat(((AuthenticatedUser) authentication.getPrincipal()).getUserId()).isEqualTo(7L);
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void statelessModeFallsBackToCacheForTokensWithoutClaims() throws Exception {
+        JwtRequestFilter filter = filter("stateless");
+        String legacy = jwtUtil.generateToken("alice");
+        assertThat(role(authenticate(filter, legacy))).isEqualTo("ROLE_USER");
+        authenticate(filter, legacy);
+        verify(userRepository, times(1)).findByUsername("alice");
+    }
+
+    @Test
+    void invalidTokenLeavesRequestUnauthenticated() throws Exception {
+        String tampered = adminClaimToken();
+        tampered = tampered.substring(0, tampered.length() - 2) + (tampered.endsWith("AA") ? "BB" : "AA");
+        assertThat(authenticate(filter("database"), tampered)).isNull();
+        verify(userRepository, never()).findByUsername("alice");
+    }
+}
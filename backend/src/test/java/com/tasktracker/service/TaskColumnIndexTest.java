@@ -0,0 +1,117 @@
+package com.tasktracker.service;
+
+import com.tasktracker.dto.TaskDTO;
+import com.tasktracker.dto.TaskFieldSet;
+import com.tasktracker.model.Task;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TaskColumnIndexTest {
+
+    private final List<Task> stored = new ArrayList<>();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final Supplier<List<Task>> loader = () -> {
+        loads.incrementAndGet();
+        return new ArrayList<>(stored);
+    };
+
+    private static TaskColumnIndex index(long ttlSeconds) {
+        TaskColumnIndex index = new TaskColumnIndex();
+        ReflectionTestUtils.setField(index, "enabled", true);
+        ReflectionTestUtils.setField(index, "maxBytes", 1L << 20);
+        ReflectionTestUtils.setField(index, "ttlSeconds", ttlSeconds);
+        ReflectionTestUtils.setField(index, "meterRegistry", new SimpleMeterRegistry());
+        index.init();
+        return index;
+    }
+
+    private static Task task(long id, String title) {
+        return new Task(id, title, null, Task.TaskStatus.TODO, Task.TaskPriority.MEDIUM, LocalDateTime.now(), null,
+                null);
+    }
+
+    private List<String> titles(TaskColumnIndex index) {
+        return index.list(1, null, null, TaskFieldSet.ALL, loader).stream().map(TaskDTO::getTitle).toList();
+    }
+
+    @Test
+    void servesLoadedSegmentUntilItExpires() throws Exception {
+        TaskColumnIndex index = index(1);
+        stored.add(task(1, "first"));
+        assertThat(titles(index)).containsExactly("first");
+
+        stored.add(task(2, "written elsewhere"));  // not through upsert
+        assertThat(titles(index)).containsExactly("first");
+        assertThat(loads).hasValue(1);
+
+        Thread.sleep(1100);
+        assertThat(titles(index)).containsExactly("first", "written elsewhere");
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void invalidateDropsSegments() {
+        TaskColumnIndex index = index(0);
+        stored.add(task(1, "first"));
+        assertThat(titles(index)).containsExactly("first");
+
+        stored.add(task(2, "bulk"));
+        index.invalidate(1);
+        assertThat(titles(index)).containsExactly("first", "bulk");
+
+        stored.add(task(3, "moved"));
+        index.invalidateAll();
+        assertThat(titles(index)).containsExactly("first", "bulk", "moved");
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    void writesThroughWithoutReload() {
+        TaskColumnIndex index = index(0);
+        stored.add(task(1, "first"));
+        assertThat(titles(index)).containsExactly("first");
+
+        index.upsert(1, task(2, "second"));
+        index.remove(1, 1);
+        assertThat(titles(index)).containsExactly("second");
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void otherUsersWritesDoNotBlockInstall() {
+        TaskColumnIndex index = index(0);
+        stored.add(task(1, "first"));
+        Supplier<List<Task>> writtenByOthers = () -> {
+            index.upsert(2, task(9, "someone else's"));
+            index.invalidate(3);
+            return loader.get();
+        };
+        index.list(1, null, null, TaskFieldSet.ALL, writtenByOthers);
+        assertThat(titles(index)).containsExactly("first");
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void ownWriteDuringLoadSkipsInstall() {
+        TaskColumnIndex index = index(0);
+        stored.add(task(1, "first"));
+        Supplier<List<Task>> racingWrite = () -> {
+            List<Task> snapshot = loader.get();
+            stored.add(task(2, "written meanwhile"));
+            index.upsert(1, task(2, "written meanwhile"));
+            return snapshot;
+        };
+        index.list(1, null, null, TaskFieldSet.ALL, racingWrite);
+        assertThat(titles(index)).containsExactly("first", "written meanwhile");
+        assertThat(loads).hasValue(2);
+    }
+}
@@ -0,0 +1,129 @@
+package com.tasktracker.service;
+
+import com.tasktracker.dto.TaskDTO;
+import com.tasktracker.dto.TaskRequest;
+import com.tasktracker.journal.ChangeJournal;
+import com.tasktracker.journal.ChangeRecord;
+import com.tasktracker.journal.JournalBatch;
+import com.tasktracker.model.Task;
+import com.tasktracker.repository.TaskRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Concurrent updates of one task are journaled in the order they committed,
+ * so the last record a consumer reads is the state in the database.
+ */
+@SpringBootTest(properties = {"journal.enabled=true", "journal.wait-for-fsync=false"})
+class TaskServiceJournalTest {
+
+    @DynamicPropertySource
+    static void journalDirectory(DynamicPropertyRegistry registry) {
+        registry.add("journal.dir", () -> {
+            try {
+                return Files.createTempDirectory("task-journal-test").toString();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ChangeJournal changeJournal;
+
+    // Runs between a write's commit and its journal append
+    @SpyBean
+    private TaskColumnIndex taskIndex;
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private static void authenticate() {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("demo", null, List.of()));
+    }
+
+    @Test
+    void updatesOfOneTaskAreJournaledInCommitOrder() throws Exception {
+        authenticate();
+        TaskDTO created = taskService.createTask(
+                new TaskRequest("contended", null, Task.TaskStatus.TODO, Task.TaskPriority.LOW));
+        long start = changeJournal.endOffset();
+
+        // The first update has committed but is slow to reach the journal when the second one starts
+        CountDownLatch firstCommitted = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            Task task = invocation.getArgument(1);
+            if ("first".equals(task.getTitle())) {
+                firstCommitted.countDown();
+                Thread.sleep(500);
+            }
+            return invocation.callRealMethod();
+        }).when(taskIndex).upsert(anyLong(), any());
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> first = pool.submit(() -> update(created.getId(), "first"));
+            firstCommitted.await(10, TimeUnit.SECONDS);
+            Future<?> second = pool.submit(() -> update(created.getId(), "second"));
+            first.get();
+            second.get();
+        } finally {
+            pool.shutdownNow();
+        }
+
+        // Appends don't wait for fsync here: tail until both updates are on disk
+        List<String> journaled = new ArrayList<>();
+        long offset = start;
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (journaled.size() < 2 && System.currentTimeMillis() < deadline) {
+            JournalBatch batch = changeJournal.poll(offset, 1000, 1000);
+            batch.records().stream()
+                    .filter(record -> record.taskId() == created.getId() && record.type() == ChangeRecord.Type.UPDATED)
+                    .forEach(record -> journaled.add(record.task().getTitle()));
+            offset = batch.nextOffset();
+        }
+        assertThat(taskRepository.findById(created.getId()).orElseThrow().getTitle()).isEqualTo("second");
+        assertThat(journaled).containsExactly("first", "second");
+    }
+
+    private Void update(long taskId, String title) {
+        authenticate();
+        try {
+            taskService.updateTask(taskId, new TaskRequest(title, null, Task.TaskStatus.IN_PROGRESS,
+                    Task.TaskPriority.HIGH));
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        return null;
+    }
+}
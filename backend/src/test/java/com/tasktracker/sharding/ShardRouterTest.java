@@ -0,0 +1,72 @@
+package com.tasktracker.sharding;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ShardRouterTest {
+
+    private List<DataSource> shards;
+    private final List<ShardRouter> routers = new ArrayList<>();
+
+    @BeforeEach
+    void migrate() {
+        String name = UUID.randomUUID().toString();
+        shards = List.of(
+                new DriverManagerDataSource("jdbc:h2:mem:" + name + "-0;DB_CLOSE_DELAY=-1", "sa", ""),
+                new DriverManagerDataSource("jdbc:h2:mem:" + name + "-1;DB_CLOSE_DELAY=-1", "sa", ""));
+        for (DataSource shard : shards) {
+            Flyway.configure().dataSource(shard).locations("classpath:db/migration/h2").load().migrate();
+        }
+    }
+
+    @AfterEach
+    void close() {
+        routers.forEach(ShardRouter::close);
+    }
+
+    private ShardRouter startRouter() {
+        ShardRouter router = new ShardRouter(shards, 0);
+        router.start();
+        routers.add(router);
+        return router;
+    }
+
+    @Test
+    void seesOtherInstancesUntilTheyStop() {
+        ShardRouter first = startRouter();
+        assertThat(first.otherLiveInstances()).isZero();
+
+        ShardRouter second = startRouter();
+        assertThat(first.otherLiveInstances()).isEqualTo(1);
+        assertThat(second.otherLiveInstances()).isEqualTo(1);
+
+        second.close();
+        routers.remove(second);
+        assertThat(first.otherLiveInstances()).isZero();
+    }
+
+    @Test
+    void rebalancerRefusesMovesWithOtherInstancesLive() {
+        ShardRouter first = startRouter();
+        startRouter();
+        ShardRebalancer rebalancer = new ShardRebalancer();
+        ReflectionTestUtils.setField(rebalancer, "shardRouter", first);
+
+        assertThatThrownBy(() -> rebalancer.move("alice", 1))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("single instance");
+        assertThat(first.isMoving("alice")).isFalse();
+    }
+}
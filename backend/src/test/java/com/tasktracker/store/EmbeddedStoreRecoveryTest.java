@@ -0,0 +1,122 @@
+package com.tasktracker.store;
+
+import com.tasktracker.model.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Recovery of an EmbeddedStore that was not closed. A crash is simulated by
+ * copying the store directory while the store is still open, so the copy has
+ * no final checkpoint: only what was fsynced before the copy.
+ */
+class EmbeddedStoreRecoveryTest {
+
+    @TempDir
+    Path temp;
+
+    private final List<EmbeddedStore> stores = new ArrayList<>();
+
+    @AfterEach
+    void close() throws IOException {
+        for (EmbeddedStore store : stores) {
+            store.close();
+        }
+    }
+
+    private EmbeddedStore open(Path directory) throws IOException {
+        EmbeddedStore store = new EmbeddedStore(directory, true, Long.MAX_VALUE, null);
+        stores.add(store);
+        return store;
+    }
+
+    // The directory as a crash would leave it
+    private Path crashCopy(Path directory, String name) throws IOException {
+        Path copy = temp.resolve(name);
+        Files.createDirectories(copy);
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                if (!file.getFileName().toString().equals("LOCK")) {
+                    Files.copy(file, copy.resolve(file.getFileName()));
+                }
+            }
+        }
+        return copy;
+    }
+
+    private static long saveTask(EmbeddedStore store, long userId, String title) {
+        return store.saveTasks(List.of(new TaskRow(0, userId, title, null, Task.TaskStatus.TODO,
+                Task.TaskPriority.MEDIUM, null, null))).get(0).id();
+    }
+
+    private static List<String> titles(EmbeddedStore store) {
+        return store.allTasks().stream().map(TaskRow::title).toList();
+    }
+
+    @Test
+    void dropsTornFinalEntry() throws IOException {
+        EmbeddedStore store = open(temp.resolve("store"));
+        long userId = store.saveUser(null, "alice", "x", "alice@tasktracker.com", "USER", null).id();
+        saveTask(store, userId, "first");
+        saveTask(store, userId, "second");
+        saveTask(store, userId, "torn");
+
+        Path crashed = crashCopy(temp.resolve("store"), "crashed");
+        Path wal = WriteAheadLog.file(crashed, WriteAheadLog.generations(crashed).get(0));
+        try (FileChannel channel = FileChannel.open(wal, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);  // crash in the middle of the last append
+        }
+
+        EmbeddedStore recovered = open(crashed);
+        assertThat(recovered.findUserByUsername("alice")).isNotNull();
+        assertThat(titles(recovered)).containsExactly("first", "second");
+
+        // The next write reuses the lost id and survives another crash
+        long id = saveTask(recovered, userId, "after");
+        assertThat(id).isEqualTo(3);
+        assertThat(titles(open(crashCopy(crashed, "crashed-again")))).containsExactly("first", "second", "after");
+    }
+
+    @Test
+    void replaysLogOverSnapshot() throws IOException {
+        Path directory = temp.resolve("store");
+        EmbeddedStore store = open(directory);
+        long userId = store.saveUser(null, "alice", "x", "alice@tasktracker.com", "USER", null).id();
+        long kept = saveTask(store, userId, "kept");
+        long deleted = saveTask(store, userId, "deleted");
+        long renamed = saveTask(store, userId, "before rename");
+        store.checkpoint();
+
+        TaskRow row = store.findTask(renamed);
+        store.saveTasks(List.of(new TaskRow(renamed, userId, "renamed", null, Task.TaskStatus.DONE,
+                row.priority(), null, null)));
+        store.deleteTasks(List.of(deleted));
+        saveTask(store, userId, "after checkpoint");
+        store.saveUser(null, "bob", "x", "bob@tasktracker.com", "USER", null);
+
+        Path crashed = crashCopy(directory, "crashed");
+        assertThat(crashed.resolve("snapshot.dat")).exists();
+        assertThat(WriteAheadLog.generations(crashed)).hasSize(1);
+
+        EmbeddedStore recovered = open(crashed);
+        assertThat(titles(recovered)).containsExactly("kept", "renamed", "after checkpoint");
+        assertThat(recovered.findTask(renamed).status()).isEqualTo(Task.TaskStatus.DONE);
+        assertThat(recovered.findTask(renamed).createdAt()).isEqualTo(row.createdAt());
+        assertThat(recovered.findTask(deleted)).isNull();
+        assertThat(recovered.findTask(kept)).isEqualTo(store.findTask(kept));
+        assertThat(recovered.findUserByUsername("bob")).isNotNull();
+        assertThat(recovered.countTasksOf(userId, Task.TaskStatus.DONE)).isEqualTo(1);
+        assertThat(saveTask(recovered, userId, "next")).isEqualTo(5);
+    }
+}
@@ -0,0 +1,51 @@
+package com.tasktracker.tracing;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class TracesEndpointTest {
+
+    @Nested
+    @SpringBootTest
+    @AutoConfigureMockMvc
+    @WithMockUser
+    class Enabled {
+
+        @Autowired
+        private MockMvc mockMvc;
+
+        @Test
+        void limitIsOptional() throws Exception {
+            mockMvc.perform(get("/actuator/traces"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.capacity").isNumber());
+            mockMvc.perform(get("/actuator/traces").param("limit", "1"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.traces.length()").value(org.hamcrest.Matchers.lessThanOrEqualTo(1)));
+        }
+    }
+
+    @Nested
+    @SpringBootTest(properties = "tracing.enabled=false")
+    @AutoConfigureMockMvc
+    @WithMockUser
+    class Disabled {
+
+        @Autowired
+        private MockMvc mockMvc;
+
+        @Test
+        void endpointIsAbsent() throws Exception {
+            mockMvc.perform(get("/actuator/traces")).andExpect(status().isNotFound());
+        }
+    }
+}